@@ -64,7 +64,7 @@ public class BuildCity extends AbstractTurnAction
         // player should have a ship or road at some neighbour
         GamePlayer player = game.getPlayerByID(sender);
 
-        if (!(player.getBuildPieces().ofType(Town.TOWN).contains(pointLocation)))
+        if (!(player.getBuildPieces().get(pointLocation) instanceof Town))
         {
             invalidMessage = "No town found to replace with a city";
             return false;
@@ -97,25 +97,24 @@ public class BuildCity extends AbstractTurnAction
         GamePlayer player = game.getPlayerByID(sender);
 
         // Get first city from stock
-        City city = (City) player.getStock().ofType(City.CITY).get(0);
+        City city = player.getStock().first(City.CITY);
         city.setPoint(pointLocation);
 
         if (game.getCurrentPhase() instanceof PlayTurnsGamePhase)
         {
-            // Get first town from stock
-            AbstractPlayerPiece town = player.getBuildPieces()
-                    .ofType(Town.TOWN).get(0);
-
             // Pay for the city
             player.getResources().moveTo(city.getCost(), game.getBank());
 
-            // Move town to stock
-            PlayerPieceList.move(town, player.getBuildPieces(), player
-                    .getStock());
+            // Move the town the city replaces to stock
+            AbstractPlayerPiece town = player.getBuildPieces().remove(
+                    pointLocation);
+            player.getStock().add(town);
+            player.getVictoryPoints().remove((Town) town);
 
             // Put City on board
             PlayerPieceList.move(city, player.getStock(), player
                     .getBuildPieces());
+            game.getBoard().getGraph().addCity(city);
         }
         if (game.getCurrentPhase() instanceof InitialPlacementGamePhase)
         {
@@ -135,6 +134,7 @@ public class BuildCity extends AbstractTurnAction
             }
             player.getResources().add(resourcesFromCity);
         }
+        player.getVictoryPoints().add(city);
 
         // TODO: fix message
         // message = String.Format("{0} build a city at {1}",
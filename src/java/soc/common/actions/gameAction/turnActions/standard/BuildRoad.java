@@ -57,7 +57,7 @@ public class BuildRoad extends AbstractTurnAction
         }
 
         // the spot must be free still
-        if (game.getAllSidePieces().contains(sideLocation))
+        if (game.getPiece(sideLocation) != null)
         {
             invalidMessage = "Already built on the given location";
             return false;
@@ -94,7 +94,7 @@ public class BuildRoad extends AbstractTurnAction
     {
         boolean usedRoadbuildingToken = false;
 
-        Road road = (Road) player.getStock().ofType(Road.ROAD).get(0);
+        Road road = player.getStock().first(Road.ROAD);
         player.getStock().remove(road);
         road.setSide(sideLocation);
 
@@ -123,8 +123,7 @@ public class BuildRoad extends AbstractTurnAction
         if (game.getCurrentPhase() instanceof PlayTurnsGamePhase)
         {
             // Check if the LR should be updated
-            // TODO: do LR check
-            // game.CalculateLongestRoad(pplayer);
+            game.updateLongestRoute();
         }
 
         // TODO: fix message
@@ -10,8 +10,11 @@ import soc.common.board.HexSide;
 import soc.common.board.hexes.Hex;
 import soc.common.board.hexes.ResourceHex;
 import soc.common.board.hexes.SeaHex;
+import soc.common.board.pieces.IslandBonus;
+import soc.common.board.pieces.Piece;
 import soc.common.board.pieces.Town;
 import soc.common.board.ports.Port;
+import soc.common.board.territories.Territory;
 import soc.common.game.Game;
 import soc.common.game.gamePhase.GamePhase;
 import soc.common.game.gamePhase.InitialPlacementGamePhase;
@@ -64,7 +67,7 @@ public class BuildTown extends AbstractTurnAction
         }
 
         // TODO: add neighbors check
-        if (game.getAllPointPieces().contains(pointLocation))
+        if (game.getPiece(pointLocation) != null)
         {
             invalidMessage = "The spot and its neighbours is already used by anyone";
             return false;
@@ -73,20 +76,25 @@ public class BuildTown extends AbstractTurnAction
         // player should have a ship or road at some neighbour
         if (!(game.getCurrentPhase() instanceof InitialPlacementGamePhase))
         {
-            boolean contains = true;
+            boolean connected = false;
             for (HexSide neighbour : pointLocation.getNeighbourSides())
             {
-                if (player.getBuildPieces().getSidePieces().contains(neighbour))
+                if (player.getBuildPieces().contains(neighbour))
                 {
-                    contains = false;
+                    connected = true;
                     break;
                 }
             }
-            if (!contains)
+            if (!connected)
             {
                 invalidMessage = "No neighbouring ship or road found";
                 return false;
             }
+            if (!Town.TOWN.canPay(player))
+            {
+                invalidMessage = "Player cannot pay for the town";
+                return false;
+            }
         }
 
         // check if location is suitable (hexpoint neighbours can't be
@@ -109,26 +117,40 @@ public class BuildTown extends AbstractTurnAction
     public void perform(Game game)
     {
         // update town management
-        Town town = (Town) player.getStock().ofType(Town.TOWN).get(0);
+        Town town = player.getStock().first(Town.TOWN);
         player.getStock().remove(town);
         town.setPoint(pointLocation);
         player.getBuildPieces().add(town);
+        player.getVictoryPoints().add(town);
         game.getBoard().getGraph().addTown(town);
 
+        List<Territory> settled = game.getBoard().getTerritoryIndex().settle(
+                player, pointLocation);
+
         if (game.getCurrentPhase() instanceof PlayTurnsGamePhase)
         {
+            // Building on a bonus territory for the first time earns a
+            // victory point
+            for (Territory territory : settled)
+            {
+                if (territory.isBonus() && playsIslandBonus(game))
+                    player.getVictoryPoints().add(
+                            (IslandBonus) new IslandBonus().setTerritory(
+                                    territory).setPlayer(player));
+            }
+
             // remove players' resources
             player.getResources().subtractResources(town.getCost());
 
             // put resources back to bank
             game.getBank().add(town.getCost());
 
-            // Check if the LR should be updated
-            // TODO: implement LR
-            // xmlGame.CalculateLongestRoad(gamePlayer);
+            // Check if the LR should be updated, the town may have split
+            // the route of an opponent
+            game.updateLongestRoute();
         }
         if (game.getCurrentPhase() instanceof InitialPlacementGamePhase
-                && player.getBuildPieces().getPointPieces().size() == 2)
+                && player.getBuildPieces().getPointPieceCount() == 2)
         {
             // player gets resources in neighbouring hexes
             for (HexLocation loc : pointLocation.getHexLocations())
@@ -192,4 +214,18 @@ public class BuildTown extends AbstractTurnAction
         return I18n.get().actions().builtTownToDo(player.getUser().getName());
     }
 
+    /*
+     * Returns true when the rules of given game include the new territory
+     * bonus
+     */
+    private static boolean playsIslandBonus(Game game)
+    {
+        for (Piece piece : game.getGameRules().getPlayablePieces())
+        {
+            if (piece instanceof IslandBonus)
+                return true;
+        }
+
+        return false;
+    }
 }
@@ -4,6 +4,9 @@ import java.util.List;
 
 import soc.common.actions.gameAction.turnActions.AbstractTurnAction;
 import soc.common.board.HexPoint;
+import soc.common.board.pieces.City;
+import soc.common.board.pieces.PlayerPiece;
+import soc.common.board.pieces.Town;
 import soc.common.board.resources.Resource;
 import soc.common.game.Game;
 import soc.common.game.GamePlayer;
@@ -112,7 +115,8 @@ public class RobPlayer extends AbstractTurnAction
             boolean containsTownOrCity = false;
             for (HexPoint point : possiblePoints)
             {
-                if (robbedPlayer.getTownsCities().contains(point))
+                PlayerPiece piece = robbedPlayer.getBuildPieces().get(point);
+                if (piece instanceof Town || piece instanceof City)
                 {
                     containsTownOrCity = true;
                     break;
@@ -6,6 +6,7 @@ import java.util.List;
 
 import soc.common.actions.gameAction.turnActions.AbstractTurnAction;
 import soc.common.board.HexLocation;
+import soc.common.board.HexPoint;
 import soc.common.board.hexes.Hex;
 import soc.common.board.hexes.ResourceHex;
 import soc.common.board.pieces.City;
@@ -161,39 +162,34 @@ public class RollDice extends AbstractTurnAction
                 // For normal resources, the location of the robber is omitted.
                 if (!hex.getLocation().equals(robber))
                 {
-                    for (GamePlayer player1 : game.getPlayers())
+                    // Only towns and cities on the points of the hex produce
+                    for (HexPoint point : hex.getLocation()
+                            .getNeighbourHexPoints())
                     {
-                        List<City> cities = new ArrayList<City>();
-                        for (PlayerPiece piece : player1.getBuildPieces()
-                                .ofType(City.CITY))
+                        for (GamePlayer player1 : game.getPlayers())
                         {
-                            cities.add((City) piece);
-                        }
-
-                        List<Town> towns = new ArrayList<Town>();
-                        for (PlayerPiece piece1 : player1.getBuildPieces()
-                                .ofType(Town.TOWN))
-                        {
-                            towns.add((Town) piece1);
-                        }
-
-                        ResourceList gainedResources = new ResourceList();
-                        for (Town town : towns)
-                        {
-                            gainedResources.add(hex.getResource().copy());
-                        }
-                        for (City zity : cities)
-                        {
-                            gainedResources.add(hex.getResource().copy());
-                            gainedResources.add(hex.getResource().copy());
-                        }
-
-                        if (gainedResources.size() > 0)
-                        {
-                            hexIsAffected = true;
-                        }
-                        playersResources.get(player1).add(gainedResources);
-                    } // For players
+                            PlayerPiece piece = player1.getBuildPieces().get(
+                                    point);
+
+                            int amount = 0;
+                            if (piece instanceof Town)
+                                amount = 1;
+                            if (piece instanceof City)
+                                amount = 2;
+
+                            ResourceList gainedResources = new ResourceList();
+                            for (int i = 0; i < amount; i++)
+                            {
+                                gainedResources.add(hex.getResource().copy());
+                            }
+
+                            if (gainedResources.size() > 0)
+                            {
+                                hexIsAffected = true;
+                            }
+                            playersResources.get(player1).add(gainedResources);
+                        } // For players
+                    } // For points
                 } // If robber
 
                 hexesAffected.add(hex.getLocation());
@@ -142,11 +142,8 @@ public class TradeBank extends AbstractTurnAction
     {
         player = game.getPlayerByID(sender);
 
-        player.getResources().subtractResources(offeredResources);
-        player.getResources().add(wantedResources);
-
-        game.getBank().add(offeredResources);
-        game.getBank().subtractResources(wantedResources);
+        player.getResources().exchange(offeredResources, wantedResources);
+        game.getBank().exchange(wantedResources, offeredResources);
 
         message = player.getUser().getName() + " exchanges "
                 + offeredResources.toString() + " for "
@@ -1,25 +1,78 @@
 package soc.common.actions.lobby;
 
+import soc.common.server.GameSummary;
 import soc.common.server.Lobby;
 
 /*
- * Represents a status change in a game
+ * Represents a status change in a game. The lobby sends these instead of the
+ * whole list of games, so clients keep a listing up to date by applying each
+ * change with a higher revision than their last page.
  */
 public class GameStatusChanged extends AbstractLobbyAction
 {
+    private static final long serialVersionUID = 5237866451283930641L;
+
+    public enum Change
+    {
+        ADDED, UPDATED, REMOVED
+    }
+
+    private Change change;
+    private GameSummary game;
+    private long revision;
+
+    public Change getChange()
+    {
+        return change;
+    }
+
+    public GameStatusChanged setChange(Change change)
+    {
+        this.change = change;
+
+        return this;
+    }
+
+    /*
+     * Returns the game as it is after the change
+     */
+    public GameSummary getGame()
+    {
+        return game;
+    }
+
+    public GameStatusChanged setGame(GameSummary game)
+    {
+        this.game = game;
+
+        return this;
+    }
+
+    /*
+     * Returns the revision of the lobby after the change
+     */
+    public long getRevision()
+    {
+        return revision;
+    }
+
+    public GameStatusChanged setRevision(long revision)
+    {
+        this.revision = revision;
+
+        return this;
+    }
 
     @Override
     public String getMessage()
     {
-        // TODO Auto-generated method stub
         return null;
     }
 
     @Override
     public void perform(Lobby lobby)
     {
-        // TODO Auto-generated method stub
-
+        // The lobby sends this change after performing it, listings apply it
     }
 
 }
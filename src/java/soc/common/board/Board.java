@@ -2,6 +2,7 @@ package soc.common.board;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 
 import soc.common.board.hexes.AbstractHex;
 import soc.common.board.hexes.DesertHex;
@@ -23,6 +24,7 @@ import soc.common.board.routing.GraphPoint;
 import soc.common.board.routing.GraphSide;
 import soc.common.board.territories.Territory;
 import soc.common.board.territories.TerritoryImpl;
+import soc.common.board.territories.TerritoryIndex;
 import soc.common.board.territories.TerritoryList;
 import soc.common.game.GameSettings;
 import soc.common.server.random.ClientRandom;
@@ -64,8 +66,13 @@ public class Board
     // list of hexes this board is made of
     private HexGrid hexes;
 
-    // graph containing all the GraphPoints and GraphSides
-    private BoardGraph graph;
+    // graph containing all the GraphPoints and GraphSides. Not stored with
+    // the design of a board, but built again when first asked for.
+    private transient BoardGraph graph;
+
+    // Territories by location and settled territories per player. Built when
+    // the board is prepared for play.
+    private transient TerritoryIndex territoryIndex;
 
     // Specific settings for this board
     private BoardSettings boardSettings;
@@ -195,11 +202,46 @@ public class Board
         initialize();
     }
 
+    /*
+     * Copy constructor for a board in play. Hexes, territories and settings
+     * do not change once the game is played, and are shared with the
+     * original. The graph holding the pieces is copied.
+     */
+    private Board(Board original, Map<Object, Object> copies)
+    {
+        hexes = original.hexes;
+        boardSettings = original.boardSettings;
+        random = original.random;
+        territories = original.territories;
+        graph = original.getGraph().copy(this, copies);
+        if (original.territoryIndex != null)
+            territoryIndex = original.territoryIndex.copy(copies);
+    }
+
+    /*
+     * Board of given hexes and territories, read from a stored design. The
+     * graph is built when first asked for.
+     */
+    Board(HexGrid hexes, TerritoryList territories)
+    {
+        this.hexes = hexes;
+        this.territories = territories;
+    }
+
     private void initialize()
     {
         graph = new BoardGraph(this);
     }
 
+    /*
+     * Returns a copy of this board for a copy of a game. Pieces on the board
+     * are replaced by their copy in given map of copies.
+     */
+    public Board copy(Map<Object, Object> copies)
+    {
+        return new Board(this, copies);
+    }
+
     // / <summary>
     // / Resizes the board to a new size.
     // / </summary>
@@ -353,7 +395,8 @@ public class Board
                 // Replace randomhex by a hex grabbed from territories' list of
                 // hexes
                 Hex newHex = territory.getHexes().grabRandom(random)
-                        .setLocation(hex.getLocation());
+                        .setLocation(hex.getLocation()).setTerritory(
+                                hex.getTerritory());
                 hexes.set(hex.getLocation(), newHex);
                 if (newHex instanceof ResourceHex)
                     hexesToPutChitOn.add(newHex);
@@ -367,6 +410,31 @@ public class Board
             resourceHex.setChit(chit);
             hexesToPutChitOn.remove(0);
         }
+
+        territoryIndex = new TerritoryIndex(this);
+    }
+
+    /*
+     * Returns the territories by location and the territories settled by each
+     * player, built when first asked for on a board not prepared for play
+     */
+    public TerritoryIndex getTerritoryIndex()
+    {
+        if (territoryIndex == null)
+            territoryIndex = new TerritoryIndex(this);
+
+        return territoryIndex;
+    }
+
+    /*
+     * Sets the random used to place random hexes and chits when the board is
+     * prepared for play
+     */
+    public Board setRandom(Random random)
+    {
+        this.random = random;
+
+        return this;
     }
 
     /**
@@ -377,6 +445,17 @@ public class Board
         return boardSettings;
     }
 
+    /**
+     * @param boardSettings
+     *            the boardSettings to set
+     */
+    public Board setBoardSettings(BoardSettings boardSettings)
+    {
+        this.boardSettings = boardSettings;
+
+        return this;
+    }
+
     /**
      * @return the hexes
      */
@@ -414,6 +493,9 @@ public class Board
      */
     public BoardGraph getGraph()
     {
+        if (graph == null)
+            initialize();
+
         return graph;
     }
 
@@ -453,16 +535,12 @@ public class Board
 
     public boolean isTownBuildable(GraphPoint possibleCandidate)
     {
-        for (HexLocation location : possibleCandidate.getPoint()
-                .getHexLocations())
-        {
-            Hex hex = hexes.get(location);
-            if (!hex.isPartOfGame())
-                return false;
-        }
         Hex hex1 = hexes.get(possibleCandidate.getPoint().getHex1());
         Hex hex2 = hexes.get(possibleCandidate.getPoint().getHex2());
         Hex hex3 = hexes.get(possibleCandidate.getPoint().getHex3());
+        if (!hex1.isPartOfGame() || !hex2.isPartOfGame()
+                || !hex3.isPartOfGame())
+            return false;
         if (!hex1.isBuildableLand() && !hex2.isBuildableLand()
                 && !hex3.isBuildableLand())
             return false;
@@ -481,4 +559,15 @@ public class Board
         return hex1.isBuildableLand() || hex2.isBuildableLand();
     }
 
+    /*
+     * Returns true when either one of the hexes of the given side is able to
+     * build for sea side pieces (ship)
+     */
+    public boolean isShipBuildable(GraphSide side)
+    {
+        Hex hex1 = hexes.get(side.getSide().getHex1());
+        Hex hex2 = hexes.get(side.getSide().getHex2());
+        return hex1.isBuildableSea() || hex2.isBuildableSea();
+    }
+
 }
@@ -0,0 +1,800 @@
+package soc.common.board;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+
+import soc.common.board.hexes.DesertHex;
+import soc.common.board.hexes.DiscoveryHex;
+import soc.common.board.hexes.Hex;
+import soc.common.board.hexes.NoneHex;
+import soc.common.board.hexes.RandomHex;
+import soc.common.board.hexes.ResourceHex;
+import soc.common.board.hexes.SeaHex;
+import soc.common.board.hexes.VolcanoHex;
+import soc.common.board.ports.AbstractPort;
+import soc.common.board.ports.FivetoTwoJunglePort;
+import soc.common.board.ports.FourToOnePort;
+import soc.common.board.ports.Port;
+import soc.common.board.ports.PortList;
+import soc.common.board.ports.RandomPort;
+import soc.common.board.ports.ThreeToOnePort;
+import soc.common.board.ports.TwoToOneResourcePort;
+import soc.common.board.resources.AbstractResource;
+import soc.common.board.resources.Clay;
+import soc.common.board.resources.Diamond;
+import soc.common.board.resources.Gold;
+import soc.common.board.resources.Ore;
+import soc.common.board.resources.Resource;
+import soc.common.board.resources.Sheep;
+import soc.common.board.resources.Timber;
+import soc.common.board.resources.Wheat;
+import soc.common.board.territories.Territory;
+import soc.common.board.territories.TerritoryImpl;
+import soc.common.board.territories.TerritoryList;
+
+/*
+ * Compact encoding of a board design: its settings, territories and hexes.
+ *
+ * A board is written as a stream of numbers and strings, either binary or as
+ * text. Binary numbers are zigzag varints, so most take one byte, and strings
+ * are their length followed by their characters. Text has the same stream as
+ * whitespace separated tokens.
+ *
+ * The stream starts with the magic "OSB", the version and the settings, so
+ * listing boards can stop reading after the settings. Then follow the
+ * territories, and the hexes row by row. A board is read without firing
+ * events, and its graph is built when first asked for. Read boards are
+ * designs: prepare them for play before starting a game on them.
+ *
+ * Placeholder ports of the editor are not part of a design, and can't be
+ * written.
+ */
+public class BoardFormat
+{
+    public static final int VERSION = 1;
+
+    private static final String MAGIC = "OSB";
+
+    // Codes of the types of hexes
+    private static final int NONE = 0;
+    private static final int SEA = 1;
+    private static final int DESERT = 2;
+    private static final int RANDOM = 3;
+    private static final int DISCOVERY = 4;
+    private static final int RESOURCE = 5;
+    private static final int VOLCANO = 6;
+
+    // Codes of the types of ports. A sea hex without port has NO_PORT.
+    private static final int NO_PORT = 0;
+    private static final int THREE_TO_ONE = 1;
+    private static final int FOUR_TO_ONE = 2;
+    private static final int TWO_TO_ONE = 3;
+    private static final int RANDOM_PORT = 4;
+    private static final int FIVE_TO_TWO_JUNGLE = 5;
+
+    // Resource types, coded by their index
+    private static final Resource[] RESOURCES = { new Timber(), new Wheat(),
+            new Ore(), new Clay(), new Sheep(), new Diamond(), new Gold() };
+
+    // Territory flags
+    private static final int MAINLAND = 1;
+    private static final int ISLAND = 2;
+    private static final int BONUS = 4;
+
+    /*
+     * Returns the binary encoding of given board
+     */
+    public static byte[] toBytes(Board board)
+    {
+        BinaryOutput out = new BinaryOutput();
+        write(board, out);
+        return out.toBytes();
+    }
+
+    /*
+     * Returns the board encoded in given bytes
+     */
+    public static Board fromBytes(byte[] data)
+    {
+        return read(new BinaryInput(data));
+    }
+
+    /*
+     * Returns the settings of the board encoded in given bytes, without
+     * reading the rest of the board
+     */
+    public static BoardSettings readSettings(byte[] data)
+    {
+        return readHeader(new BinaryInput(data));
+    }
+
+    /*
+     * Returns the text encoding of given board
+     */
+    public static String toText(Board board)
+    {
+        TextOutput out = new TextOutput();
+        write(board, out);
+        return out.toString();
+    }
+
+    /*
+     * Returns the board encoded in given text
+     */
+    public static Board fromText(String text)
+    {
+        return read(new TextInput(text));
+    }
+
+    private static void write(Board board, Output out)
+    {
+        out.writeString(MAGIC);
+        out.writeInt(VERSION);
+        out.endLine();
+
+        BoardSettings settings = board.getBoardSettings();
+        if (settings == null)
+            settings = new BoardSettings();
+        out.writeString(settings.getId());
+        out.writeString(settings.getName());
+        out.writeString(settings.getDesigner());
+        out.writeInt(settings.getMinPlayers());
+        out.writeInt(settings.getMaxPlayers());
+        out.writeInt(settings.getMaximumCardsInHandWhenSeven());
+        out.writeInt(settings.getVpToWin());
+        out.endLine();
+
+        TerritoryList territories = board.getTerritories();
+        out.writeInt(territories.size());
+        out.endLine();
+        for (Territory territory : territories)
+            writeTerritory(territory, out);
+
+        HexGrid hexes = board.getHexes();
+        out.writeInt(hexes.getWidth());
+        out.writeInt(hexes.getHeight());
+        out.endLine();
+        for (int h = 0; h < hexes.getHeight(); h++)
+        {
+            for (int w = 0; w < hexes.getWidth(); w++)
+                writeHex(hexes.get(w, h), out);
+            out.endLine();
+        }
+    }
+
+    private static Board read(Input in)
+    {
+        BoardSettings settings = readHeader(in);
+
+        int territoryCount = in.readInt();
+        TerritoryList territories = new TerritoryList();
+        Map<Integer, Territory> territoriesById = new HashMap<Integer, Territory>();
+        for (int i = 0; i < territoryCount; i++)
+        {
+            TerritoryImpl territory = readTerritory(in, territoriesById);
+            territories.add(territory);
+            territoriesById.put(territory.getID(), territory);
+        }
+
+        int width = in.readInt();
+        int height = in.readInt();
+        HexGrid hexes = new HexGrid(width, height);
+        for (int h = 0; h < height; h++)
+        {
+            for (int w = 0; w < width; w++)
+            {
+                HexLocation location = new HexLocation(w, h);
+                hexes.add(readHex(in, location, territoriesById).setLocation(
+                        location));
+            }
+        }
+
+        return new Board(hexes, territories).setBoardSettings(settings);
+    }
+
+    private static BoardSettings readHeader(Input in)
+    {
+        String magic = in.readString();
+        if (!MAGIC.equals(magic))
+            throw new IllegalArgumentException("Not a stored board");
+
+        int version = in.readInt();
+        if (version > VERSION)
+            throw new IllegalArgumentException("Unsupported board version "
+                    + version);
+
+        return new BoardSettings().setId(in.readString()).setName(
+                in.readString()).setDesigner(in.readString()).setMinPlayers(
+                in.readInt()).setMaxPlayers(in.readInt())
+                .setMaximumCardsInHandWhenSeven(in.readInt()).setVpToWin(
+                        in.readInt());
+    }
+
+    private static void writeTerritory(Territory territory, Output out)
+    {
+        out.writeInt(territory.getID());
+        out.writeString(territory.getName());
+        out.writeInt((territory.isMainland() ? MAINLAND : 0)
+                | (territory.isIsland() ? ISLAND : 0)
+                | (territory.isBonus() ? BONUS : 0));
+        out.endLine();
+
+        // Hexes to replace the random hexes with
+        out.writeInt(territory.getHexes().size());
+        for (Hex hex : territory.getHexes())
+            writeHex(hex, out);
+        out.endLine();
+
+        out.writeInt(territory.getChits().size());
+        for (Chit chit : territory.getChits())
+            out.writeInt(chit.getNumber());
+        out.endLine();
+
+        // The 4:1 port a port list starts with is not written. Territories
+        // without ports write -1.
+        PortList ports = territory.getPorts();
+        if (ports == null)
+        {
+            out.writeInt(-1);
+        }
+        else
+        {
+            out.writeInt(ports.size() - 1);
+
+            Iterator<Port> i = ports.iterator();
+            i.next();
+            while (i.hasNext())
+                writePort(i.next(), out);
+        }
+        out.endLine();
+    }
+
+    private static TerritoryImpl readTerritory(Input in,
+            Map<Integer, Territory> territoriesById)
+    {
+        TerritoryImpl territory = new TerritoryImpl();
+        territory.setID(in.readInt());
+        territory.setName(in.readString());
+        int flags = in.readInt();
+        territory.setMainland((flags & MAINLAND) != 0);
+        territory.setIsland((flags & ISLAND) != 0);
+        territory.setBonus((flags & BONUS) != 0);
+
+        int hexCount = in.readInt();
+        for (int i = 0; i < hexCount; i++)
+            territory.getHexes().add(readHex(in, null, territoriesById));
+
+        int chitCount = in.readInt();
+        for (int i = 0; i < chitCount; i++)
+            territory.getChits().add(new Chit(in.readInt()));
+
+        int portCount = in.readInt();
+        if (portCount >= 0)
+        {
+            PortList ports = new PortList();
+            for (int i = 0; i < portCount; i++)
+                ports.add(readPort(in));
+            territory.setPorts(ports);
+        }
+
+        return territory;
+    }
+
+    private static void writeHex(Hex hex, Output out)
+    {
+        if (hex instanceof VolcanoHex)
+        {
+            out.writeInt(VOLCANO);
+            writeChit(((VolcanoHex) hex).getChit(), out);
+        }
+        else if (hex instanceof ResourceHex)
+        {
+            out.writeInt(RESOURCE);
+            out.writeInt(resourceCode(((ResourceHex) hex).getResource()));
+            writeChit(((ResourceHex) hex).getChit(), out);
+        }
+        else if (hex instanceof SeaHex)
+        {
+            out.writeInt(SEA);
+            writePort(((SeaHex) hex).getPort(), out);
+        }
+        else if (hex instanceof NoneHex)
+        {
+            out.writeInt(NONE);
+        }
+        else if (hex instanceof DesertHex)
+        {
+            out.writeInt(DESERT);
+        }
+        else if (hex instanceof RandomHex)
+        {
+            out.writeInt(RANDOM);
+        }
+        else if (hex instanceof DiscoveryHex)
+        {
+            out.writeInt(DISCOVERY);
+        }
+        else
+        {
+            throw new IllegalArgumentException("Can't write hex "
+                    + hex.getName());
+        }
+
+        // Territories are numbered from 1, 0 meaning none
+        Territory territory = hex.getTerritory();
+        out.writeInt(territory == null ? 0 : territory.getID() + 1);
+    }
+
+    /*
+     * Reads a hex. Its port, if any, is placed at given location.
+     */
+    private static Hex readHex(Input in, HexLocation location,
+            Map<Integer, Territory> territoriesById)
+    {
+        Hex result;
+        int code = in.readInt();
+        switch (code)
+        {
+        case NONE:
+            result = new NoneHex();
+            break;
+        case SEA:
+            SeaHex sea = new SeaHex();
+            Port port = readPort(in);
+            if (port != null && location != null
+                    && port.getRotationPosition() != null)
+                ((AbstractPort) port).setLocation(location, port
+                        .getRotationPosition());
+            result = sea.setPort(port);
+            break;
+        case DESERT:
+            result = new DesertHex();
+            break;
+        case RANDOM:
+            result = new RandomHex();
+            break;
+        case DISCOVERY:
+            result = new DiscoveryHex();
+            break;
+        case RESOURCE:
+            Resource resource = resource(in.readInt());
+            result = new ResourceHex(resource).setChit(readChit(in));
+            break;
+        case VOLCANO:
+            result = new VolcanoHex().setChit(readChit(in));
+            break;
+        default:
+            throw new IllegalArgumentException("Unknown hex type " + code);
+        }
+
+        int territory = in.readInt();
+        if (territory > 0)
+            result.setTerritory(territoriesById.get(territory - 1));
+
+        return result;
+    }
+
+    private static void writeChit(Chit chit, Output out)
+    {
+        out.writeInt(chit == null ? 0 : chit.getNumber());
+    }
+
+    private static Chit readChit(Input in)
+    {
+        int number = in.readInt();
+        return number == 0 ? null : new Chit(number);
+    }
+
+    /*
+     * Writes the type of given port, and the rotation it faces land at
+     */
+    private static void writePort(Port port, Output out)
+    {
+        if (port == null)
+        {
+            out.writeInt(NO_PORT);
+            return;
+        }
+
+        if (port instanceof ThreeToOnePort)
+        {
+            out.writeInt(THREE_TO_ONE);
+        }
+        else if (port instanceof FourToOnePort)
+        {
+            out.writeInt(FOUR_TO_ONE);
+        }
+        else if (port instanceof TwoToOneResourcePort)
+        {
+            out.writeInt(TWO_TO_ONE);
+            out.writeInt(resourceCode(port.getResource()));
+        }
+        else if (port instanceof RandomPort)
+        {
+            out.writeInt(RANDOM_PORT);
+        }
+        else if (port instanceof FivetoTwoJunglePort)
+        {
+            out.writeInt(FIVE_TO_TWO_JUNGLE);
+        }
+        else
+        {
+            throw new IllegalArgumentException("Can't write port "
+                    + port.getClass().getName());
+        }
+
+        // Rotations are numbered from 1, 0 meaning the port is not placed
+        RotationPosition rotation = port.getRotationPosition();
+        out.writeInt(rotation == null ? 0 : rotation.index() / 60 + 1);
+    }
+
+    /*
+     * Reads a port. A placed port only has its rotation set, its location is
+     * set by its sea hex.
+     */
+    private static Port readPort(Input in)
+    {
+        AbstractPort result;
+        int code = in.readInt();
+        switch (code)
+        {
+        case NO_PORT:
+            return null;
+        case THREE_TO_ONE:
+            result = new ThreeToOnePort();
+            break;
+        case FOUR_TO_ONE:
+            result = new FourToOnePort();
+            break;
+        case TWO_TO_ONE:
+            result = new TwoToOneResourcePort((AbstractResource) resource(in
+                    .readInt()));
+            break;
+        case RANDOM_PORT:
+            result = new RandomPort();
+            break;
+        case FIVE_TO_TWO_JUNGLE:
+            result = new FivetoTwoJunglePort();
+            break;
+        default:
+            throw new IllegalArgumentException("Unknown port type " + code);
+        }
+
+        int rotation = in.readInt();
+        if (rotation > 0)
+            result.setRotationPosition(rotation(rotation - 1));
+
+        return result;
+    }
+
+    private static RotationPosition rotation(int index)
+    {
+        for (RotationPosition rotation : RotationPosition.values())
+        {
+            if (rotation.index() == index * 60)
+                return rotation;
+        }
+
+        throw new IllegalArgumentException("Unknown rotation " + index);
+    }
+
+    private static int resourceCode(Resource resource)
+    {
+        for (int i = 0; i < RESOURCES.length; i++)
+        {
+            if (RESOURCES[i].getClass() == resource.getClass())
+                return i;
+        }
+
+        throw new IllegalArgumentException("Can't write resource "
+                + resource.getName());
+    }
+
+    private static Resource resource(int code)
+    {
+        if (code < 0 || code >= RESOURCES.length)
+            throw new IllegalArgumentException("Unknown resource " + code);
+
+        return RESOURCES[code].copy();
+    }
+
+    /*
+     * Stream of numbers and strings a board is written to
+     */
+    private interface Output
+    {
+        public void writeInt(int value);
+
+        // Writes given string, which may be null
+        public void writeString(String value);
+
+        // Marks the end of a group of values, for readability of text
+        public void endLine();
+    }
+
+    private interface Input
+    {
+        public int readInt();
+
+        public String readString();
+    }
+
+    private static class BinaryOutput implements Output
+    {
+        private byte[] bytes = new byte[256];
+        private int size;
+
+        private void writeByte(int value)
+        {
+            if (size == bytes.length)
+            {
+                byte[] grown = new byte[bytes.length * 2];
+                System.arraycopy(bytes, 0, grown, 0, size);
+                bytes = grown;
+            }
+            bytes[size++] = (byte) value;
+        }
+
+        private void writeVarint(int value)
+        {
+            while ((value & ~0x7F) != 0)
+            {
+                writeByte((value & 0x7F) | 0x80);
+                value >>>= 7;
+            }
+            writeByte(value);
+        }
+
+        @Override
+        public void writeInt(int value)
+        {
+            // Zigzag, so small negative values take one byte too
+            writeVarint((value << 1) ^ (value >> 31));
+        }
+
+        /*
+         * Writes the length plus one, 0 meaning null, and the characters
+         */
+        @Override
+        public void writeString(String value)
+        {
+            if (value == null)
+            {
+                writeVarint(0);
+                return;
+            }
+
+            writeVarint(value.length() + 1);
+            for (int i = 0; i < value.length(); i++)
+                writeVarint(value.charAt(i));
+        }
+
+        @Override
+        public void endLine()
+        {
+        }
+
+        public byte[] toBytes()
+        {
+            byte[] result = new byte[size];
+            System.arraycopy(bytes, 0, result, 0, size);
+            return result;
+        }
+    }
+
+    private static class BinaryInput implements Input
+    {
+        private final byte[] bytes;
+        private int position;
+
+        public BinaryInput(byte[] bytes)
+        {
+            this.bytes = bytes;
+        }
+
+        private int readVarint()
+        {
+            int result = 0;
+            for (int shift = 0; shift < 32; shift += 7)
+            {
+                if (position == bytes.length)
+                    throw new IllegalArgumentException("Stored board is cut off");
+
+                int b = bytes[position++];
+                result |= (b & 0x7F) << shift;
+                if ((b & 0x80) == 0)
+                    return result;
+            }
+
+            throw new IllegalArgumentException("Malformed stored board");
+        }
+
+        @Override
+        public int readInt()
+        {
+            int value = readVarint();
+            return (value >>> 1) ^ -(value & 1);
+        }
+
+        @Override
+        public String readString()
+        {
+            int length = readVarint() - 1;
+            if (length < 0)
+                return null;
+
+            char[] chars = new char[length];
+            for (int i = 0; i < length; i++)
+                chars[i] = (char) readVarint();
+            return new String(chars);
+        }
+    }
+
+    /*
+     * Writes values as tokens separated by spaces. Strings escape backslashes
+     * and whitespace, an empty string is "\e" and null is "~".
+     */
+    private static class TextOutput implements Output
+    {
+        private final StringBuilder text = new StringBuilder();
+        private boolean lineStart = true;
+
+        private void separate()
+        {
+            if (!lineStart)
+                text.append(' ');
+            lineStart = false;
+        }
+
+        @Override
+        public void writeInt(int value)
+        {
+            separate();
+            text.append(value);
+        }
+
+        @Override
+        public void writeString(String value)
+        {
+            separate();
+            if (value == null)
+            {
+                text.append('~');
+                return;
+            }
+            if (value.length() == 0)
+            {
+                text.append("\\e");
+                return;
+            }
+
+            for (int i = 0; i < value.length(); i++)
+            {
+                char c = value.charAt(i);
+                switch (c)
+                {
+                case '\\':
+                    text.append("\\\\");
+                    break;
+                case ' ':
+                    text.append("\\_");
+                    break;
+                case '\n':
+                    text.append("\\n");
+                    break;
+                case '\r':
+                    text.append("\\r");
+                    break;
+                case '\t':
+                    text.append("\\t");
+                    break;
+                case '~':
+                    text.append(i == 0 ? "\\~" : "~");
+                    break;
+                default:
+                    text.append(c);
+                }
+            }
+        }
+
+        @Override
+        public void endLine()
+        {
+            text.append('\n');
+            lineStart = true;
+        }
+
+        @Override
+        public String toString()
+        {
+            return text.toString();
+        }
+    }
+
+    private static class TextInput implements Input
+    {
+        private final String text;
+        private int position;
+
+        public TextInput(String text)
+        {
+            this.text = text;
+        }
+
+        private boolean atSpace()
+        {
+            char c = text.charAt(position);
+            return c == ' ' || c == '\n' || c == '\r' || c == '\t';
+        }
+
+        private String readToken()
+        {
+            while (position < text.length() && atSpace())
+                position++;
+            if (position == text.length())
+                throw new IllegalArgumentException("Stored board is cut off");
+
+            int start = position;
+            while (position < text.length() && !atSpace())
+                position++;
+            return text.substring(start, position);
+        }
+
+        @Override
+        public int readInt()
+        {
+            String token = readToken();
+            try
+            {
+                return Integer.parseInt(token);
+            }
+            catch (NumberFormatException e)
+            {
+                throw new IllegalArgumentException("Expected a number at "
+                        + token);
+            }
+        }
+
+        @Override
+        public String readString()
+        {
+            String token = readToken();
+            if (token.equals("~"))
+                return null;
+            if (token.equals("\\e"))
+                return "";
+
+            StringBuilder result = new StringBuilder(token.length());
+            for (int i = 0; i < token.length(); i++)
+            {
+                char c = token.charAt(i);
+                if (c != '\\' || i == token.length() - 1)
+                {
+                    result.append(c);
+                    continue;
+                }
+
+                c = token.charAt(++i);
+                switch (c)
+                {
+                case '_':
+                    result.append(' ');
+                    break;
+                case 'n':
+                    result.append('\n');
+                    break;
+                case 'r':
+                    result.append('\r');
+                    break;
+                case 't':
+                    result.append('\t');
+                    break;
+                default:
+                    result.append(c);
+                }
+            }
+            return result.toString();
+        }
+    }
+}
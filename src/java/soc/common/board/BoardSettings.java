@@ -52,6 +52,34 @@ public class BoardSettings
         return id;
     }
 
+    /**
+     * @param id the id to set
+     */
+    public BoardSettings setId(String id)
+    {
+        this.id = id;
+
+        return this;
+    }
+
+    /**
+     * @return the designer
+     */
+    public String getDesigner()
+    {
+        return designer;
+    }
+
+    /**
+     * @param designer the designer to set
+     */
+    public BoardSettings setDesigner(String designer)
+    {
+        this.designer = designer;
+
+        return this;
+    }
+
     /**
      * @return the minPlayers
      */
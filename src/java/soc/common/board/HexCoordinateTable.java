@@ -0,0 +1,274 @@
+package soc.common.board;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/*
+ * Canonical HexLocations, HexPoints and HexSides for a board size.
+ *
+ * Every location on the board (plus a border of one location around it),
+ * every point touching a hex on the board and every side of those points is
+ * created once, given an integer id and its neighbour lists precomputed from
+ * the other canonical objects. Code holding canonical objects can compare
+ * them by identity or id, index arrays by id, and walk neighbours without
+ * allocating.
+ *
+ * Tables are immutable once built, and shared between all boards of the
+ * same size: use get(width, height).
+ */
+public class HexCoordinateTable
+{
+    // Tables by size, key is (width << 16) | height
+    private static final Map<Integer, HexCoordinateTable> tables = new HashMap<Integer, HexCoordinateTable>();
+
+    private final int width;
+    private final int height;
+
+    // Locations from (-1, -1) to (width, height) inclusive, by id
+    private final HexLocation[] locations;
+
+    private final List<HexPoint> points = new ArrayList<HexPoint>();
+    private final List<HexSide> sides = new ArrayList<HexSide>();
+    private final Map<HexPoint, HexPoint> pointIndex = new HashMap<HexPoint, HexPoint>();
+    private final Map<HexSide, HexSide> sideIndex = new HashMap<HexSide, HexSide>();
+
+    /*
+     * Returns the table for a board of given size, building it on first use
+     */
+    public static synchronized HexCoordinateTable get(int width, int height)
+    {
+        Integer key = Integer.valueOf((width << 16) | height);
+        HexCoordinateTable table = tables.get(key);
+        if (table == null)
+        {
+            table = new HexCoordinateTable(width, height);
+            tables.put(key, table);
+        }
+
+        return table;
+    }
+
+    private HexCoordinateTable(int width, int height)
+    {
+        this.width = width;
+        this.height = height;
+
+        // Create the locations, including the border
+        locations = new HexLocation[(width + 2) * (height + 2)];
+        for (int h = -1; h <= height; h++)
+            for (int w = -1; w <= width; w++)
+                locations[locationId(w, h)] = new HexLocation(w, h);
+
+        // Create the points around each location on the board. Points
+        // between border locations only are not needed.
+        for (int h = 0; h < height; h++)
+            for (int w = 0; w < width; w++)
+                for (HexPoint point : locations[locationId(w, h)]
+                        .calculateNeighbourHexPoints())
+                    internNew(point);
+
+        // Create the sides of each point, where both their hexes are in
+        // the table
+        for (HexPoint point : points)
+            for (HexSide side : point.calculateNeighbourSides())
+                if (!sideIndex.containsKey(side)
+                        && getLocation(side.getHex1()) != null
+                        && getLocation(side.getHex2()) != null)
+                {
+                    HexSide canonical = new HexSide(getLocation(side
+                            .getHex1()), getLocation(side.getHex2()));
+                    sides.add(canonical);
+                    sideIndex.put(canonical, canonical);
+                }
+
+        // Now all objects exist, link up the neighbours
+        for (HexLocation location : locations)
+        {
+            List<HexLocation> neighbours = new ArrayList<HexLocation>(6);
+            for (HexLocation neighbour : location.calculateNeighbours())
+                neighbours.add(canonicalOrSelf(neighbour));
+
+            List<HexPoint> neighbourPoints = new ArrayList<HexPoint>(6);
+            for (HexPoint neighbour : location.calculateNeighbourHexPoints())
+                neighbourPoints.add(canonicalOrSelf(neighbour));
+
+            location.setCanonical(locationId(location.getW(), location
+                    .getH()), neighbours, neighbourPoints);
+        }
+
+        for (int id = 0; id < points.size(); id++)
+        {
+            HexPoint point = points.get(id);
+
+            List<HexSide> neighbourSides = new ArrayList<HexSide>(3);
+            for (HexSide side : point.calculateNeighbourSides())
+                neighbourSides.add(canonicalOrSelf(side));
+
+            List<HexPoint> neighbours = new ArrayList<HexPoint>(3);
+            for (HexPoint neighbour : point.calculateNeighbours())
+                neighbours.add(canonicalOrSelf(neighbour));
+
+            point.setCanonical(id, neighbourSides, neighbours);
+        }
+
+        for (int id = 0; id < sides.size(); id++)
+        {
+            HexSide side = sides.get(id);
+
+            List<HexPoint> neighbourPoints = new ArrayList<HexPoint>(2);
+            for (HexPoint neighbour : side.calculateNeighbourPoints())
+                neighbourPoints.add(canonicalOrSelf(neighbour));
+
+            side.setCanonical(id, canonicalOrSelf(side.getHexPoint1()),
+                    canonicalOrSelf(side.getHexPoint2()), neighbourPoints);
+        }
+    }
+
+    /*
+     * Adds a canonical copy of given point when it is not present yet
+     */
+    private void internNew(HexPoint point)
+    {
+        if (pointIndex.containsKey(point))
+            return;
+
+        HexLocation hex1 = getLocation(point.getHex1());
+        HexLocation hex2 = getLocation(point.getHex2());
+        HexLocation hex3 = getLocation(point.getHex3());
+        if (hex1 == null || hex2 == null || hex3 == null)
+            return;
+
+        HexPoint canonical = new HexPoint(hex1, hex2, hex3);
+        points.add(canonical);
+        pointIndex.put(canonical, canonical);
+    }
+
+    private int locationId(int w, int h)
+    {
+        return (h + 1) * (width + 2) + (w + 1);
+    }
+
+    private HexLocation canonicalOrSelf(HexLocation location)
+    {
+        HexLocation canonical = getLocation(location);
+        return canonical == null ? location : canonical;
+    }
+
+    private HexPoint canonicalOrSelf(HexPoint point)
+    {
+        HexPoint canonical = pointIndex.get(point);
+        return canonical == null ? point : canonical;
+    }
+
+    private HexSide canonicalOrSelf(HexSide side)
+    {
+        HexSide canonical = sideIndex.get(side);
+        return canonical == null ? side : canonical;
+    }
+
+    public int getWidth()
+    {
+        return width;
+    }
+
+    public int getHeight()
+    {
+        return height;
+    }
+
+    /*
+     * Returns the canonical location at given coordinate, or null when it is
+     * not in the table
+     */
+    public HexLocation getLocation(int w, int h)
+    {
+        if (w < -1 || h < -1 || w > width || h > height)
+            return null;
+
+        return locations[locationId(w, h)];
+    }
+
+    /*
+     * Returns the canonical location equal to given location, or null when it
+     * is not in the table
+     */
+    public HexLocation getLocation(HexLocation location)
+    {
+        if (location == null)
+            return null;
+
+        return getLocation(location.getW(), location.getH());
+    }
+
+    /*
+     * Returns the canonical point equal to given point, or null when it is
+     * not in the table. Returns the point itself when it is already canonical
+     * in this table.
+     */
+    public HexPoint getPoint(HexPoint point)
+    {
+        int id = point.getId();
+        if (id >= 0 && id < points.size() && points.get(id) == point)
+            return point;
+
+        return pointIndex.get(point);
+    }
+
+    /*
+     * Returns the canonical side equal to given side, or null when it is not
+     * in the table. Returns the side itself when it is already canonical in
+     * this table.
+     */
+    public HexSide getSide(HexSide side)
+    {
+        int id = side.getId();
+        if (id >= 0 && id < sides.size() && sides.get(id) == side)
+            return side;
+
+        return sideIndex.get(side);
+    }
+
+    public HexPoint getPoint(int id)
+    {
+        return points.get(id);
+    }
+
+    public HexSide getSide(int id)
+    {
+        return sides.get(id);
+    }
+
+    public int getLocationCount()
+    {
+        return locations.length;
+    }
+
+    public int getPointCount()
+    {
+        return points.size();
+    }
+
+    public int getSideCount()
+    {
+        return sides.size();
+    }
+
+    /*
+     * Returns all canonical points, in id order
+     */
+    public List<HexPoint> getPoints()
+    {
+        return Collections.unmodifiableList(points);
+    }
+
+    /*
+     * Returns all canonical sides, in id order
+     */
+    public List<HexSide> getSides()
+    {
+        return Collections.unmodifiableList(sides);
+    }
+}
@@ -16,12 +16,12 @@ public class HexGrid extends ArrayList<Hex>
 
     public int getHeight()
     {
-        return width;
+        return height;
     }
 
     public int getWidth()
     {
-        return height;
+        return width;
     }
 
     HexGrid(int w, int h)
@@ -1,17 +1,29 @@
 package soc.common.board;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 
 /*
  * Represents a location of an Hex. This location is represented by
  * an w + h coordinate (width, height).
+ * 
+ * Neighbour lists are computed once and cached; they are unmodifiable. 
+ * Canonical locations from a HexCoordinateTable have an id and their 
+ * neighbour lists hold canonical objects.
  */
 public class HexLocation
 {
     private int w;
     private int h;
 
+    // Index in the HexCoordinateTable this location was interned in, or -1
+    private transient int id = -1;
+
+    // Cached results of getNeighbours() and getNeighbourHexPoints()
+    private transient List<HexLocation> neighbours;
+    private transient List<HexPoint> neighbourHexPoints;
+
     public int getW()
     {
         return w;
@@ -28,6 +40,27 @@ public class HexLocation
         this.h = h;
     }
 
+    /*
+     * Returns the id of this location in its HexCoordinateTable, or -1 when
+     * this location is not canonical
+     */
+    public int getId()
+    {
+        return id;
+    }
+
+    /*
+     * Makes this the canonical location with given id and neighbours
+     */
+    void setCanonical(int id, List<HexLocation> neighbours,
+            List<HexPoint> neighbourHexPoints)
+    {
+        this.id = id;
+        this.neighbours = Collections.unmodifiableList(neighbours);
+        this.neighbourHexPoints = Collections
+                .unmodifiableList(neighbourHexPoints);
+    }
+
     @Override
     public boolean equals(Object obj)
     {
@@ -61,6 +94,14 @@ public class HexLocation
     }
 
     public List<HexLocation> getNeighbours()
+    {
+        if (neighbours == null)
+            neighbours = Collections.unmodifiableList(calculateNeighbours());
+
+        return neighbours;
+    }
+
+    List<HexLocation> calculateNeighbours()
     {
         List<HexLocation> result = new ArrayList<HexLocation>();
 
@@ -83,6 +124,15 @@ public class HexLocation
     }
 
     public List<HexPoint> getNeighbourHexPoints()
+    {
+        if (neighbourHexPoints == null)
+            neighbourHexPoints = Collections
+                    .unmodifiableList(calculateNeighbourHexPoints());
+
+        return neighbourHexPoints;
+    }
+
+    List<HexPoint> calculateNeighbourHexPoints()
     {
         List<HexPoint> result = new ArrayList<HexPoint>();
 
@@ -1,14 +1,33 @@
 package soc.common.board;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 
+/*
+ * Represents a point, determined by the three HexLocations around it.
+ * 
+ * Derived values (point type, topmost hex, neighbour lists) are computed 
+ * once and cached; returned lists are unmodifiable. Canonical points from
+ * a HexCoordinateTable have an id and their neighbour lists hold canonical
+ * objects.
+ */
 public class HexPoint
 {
     private HexLocation hex1;
     private HexLocation hex2;
     private HexLocation hex3;
 
+    // Index in the HexCoordinateTable this point was interned in, or -1
+    private transient int id = -1;
+
+    // Cached derived values
+    private transient HexPointType pointType;
+    private transient HexLocation topMost;
+    private transient List<HexLocation> hexLocations;
+    private transient List<HexSide> neighbourSides;
+    private transient List<HexPoint> neighbours;
+
     public HexLocation getHex1()
     {
         return hex1;
@@ -24,30 +43,45 @@ public class HexPoint
         return hex3;
     }
 
+    /*
+     * Returns the id of this point in its HexCoordinateTable, or -1 when
+     * this point is not canonical
+     */
+    public int getId()
+    {
+        return id;
+    }
+
+    /*
+     * Makes this the canonical point with given id and neighbours
+     */
+    void setCanonical(int id, List<HexSide> neighbourSides,
+            List<HexPoint> neighbours)
+    {
+        this.id = id;
+        this.neighbourSides = Collections.unmodifiableList(neighbourSides);
+        this.neighbours = Collections.unmodifiableList(neighbours);
+    }
+
     public HexPointType getPointType()
     {
-        List<HexLocation> points = new ArrayList<HexLocation>();
-        points.add(hex3);
-        points.add(hex2);
-        points.add(hex1);
+        if (pointType == null)
+            pointType = calculatePointType();
 
-        int h = 220;
+        return pointType;
+    }
 
-        for (HexLocation point : points)
-        {
-            if (point.getH() < h)
-                h = point.getH();
-        }
+    private HexPointType calculatePointType()
+    {
+        int h = Math.min(hex1.getH(), Math.min(hex2.getH(), hex3.getH()));
 
         int count = 0;
-
-        for (HexLocation p : points)
-        {
-            if (p.getH() == h)
-            {
-                count++;
-            }
-        }
+        if (hex1.getH() == h)
+            count++;
+        if (hex2.getH() == h)
+            count++;
+        if (hex3.getH() == h)
+            count++;
 
         if (count == 1)
         {
@@ -69,7 +103,7 @@ public class HexPoint
 
     public List<HexSide> getOtherSides(HexSide side)
     {
-        List<HexSide> result = new ArrayList<HexSide>();
+        List<HexSide> result = new ArrayList<HexSide>(2);
 
         for (HexSide s : getNeighbourSides())
             if (!side.equals(s))
@@ -83,7 +117,16 @@ public class HexPoint
      */
     public List<HexSide> getNeighbourSides()
     {
-        List<HexSide> result = new ArrayList<HexSide>();
+        if (neighbourSides == null)
+            neighbourSides = Collections
+                    .unmodifiableList(calculateNeighbourSides());
+
+        return neighbourSides;
+    }
+
+    List<HexSide> calculateNeighbourSides()
+    {
+        List<HexSide> result = new ArrayList<HexSide>(3);
 
         // add all three hex sides around point
         result.add(new HexSide(hex1, hex2));
@@ -94,54 +137,46 @@ public class HexPoint
     }
 
     /*
-     * Returns the topmost hex of the three hexes
+     * Returns the topmost hex of the three hexes; the leftmost of the two
+     * when two hexes are on the topmost row
      */
     public HexLocation getTopMost()
     {
-        List<HexLocation> points = new ArrayList<HexLocation>();
-        points.add(hex3);
-        points.add(hex2);
-        points.add(hex1);
-        int w = 220;
-        int h = 220;
-        for (HexLocation point : points)
-        {
-            if (point.getW() < w)
-                w = point.getW();
-            if (point.getH() < h)
-                h = point.getH();
-        }
-        List<HexLocation> res = new ArrayList<HexLocation>();
+        if (topMost == null)
+            topMost = calculateTopMost();
+
+        return topMost;
+    }
+
+    private HexLocation calculateTopMost()
+    {
+        int h = Math.min(hex1.getH(), Math.min(hex2.getH(), hex3.getH()));
+
+        HexLocation result = null;
         if (hex1.getH() == h)
-            res.add(hex1);
-        if (hex2.getH() == h)
-            res.add(hex2);
-        if (hex3.getH() == h)
-            res.add(hex3);
-        if (res.size() == 1)
-        {
-            return res.get(0);
-        }
-        else
-        {
-            if (res.size() == 2)
-            {
-                HexLocation l = res.get(0);
-                if (l.getW() < res.get(1).getW())
-                    return l;
-                else
-                    return res.get(1);
-            }
-        }
-        return null;
+            result = hex1;
+        if (hex2.getH() == h && (result == null || hex2.getW() < result.getW()))
+            result = hex2;
+        if (hex3.getH() == h && (result == null || hex3.getW() < result.getW()))
+            result = hex3;
+
+        return result;
     }
 
     /*
-     * TODO: cache value
+     * Returns the three points one side away from this point
      */
     public List<HexPoint> getNeighbours()
     {
-        List<HexPoint> result = new ArrayList<HexPoint>();
+        if (neighbours == null)
+            neighbours = Collections.unmodifiableList(calculateNeighbours());
+
+        return neighbours;
+    }
+
+    List<HexPoint> calculateNeighbours()
+    {
+        List<HexPoint> result = new ArrayList<HexPoint>(3);
         HexLocation topmost = getTopMost();
 
         if (topmost.getH() % 2 == 0)
@@ -230,7 +265,7 @@ public class HexPoint
 
     public List<HexPoint> getOtherNeighbours(HexPoint ignore)
     {
-        List<HexPoint> result = getNeighbours();
+        List<HexPoint> result = new ArrayList<HexPoint>(getNeighbours());
 
         result.remove(ignore);
 
@@ -325,13 +360,18 @@ public class HexPoint
 
     public List<HexLocation> getHexLocations()
     {
-        List<HexLocation> result = new ArrayList<HexLocation>();
+        if (hexLocations == null)
+        {
+            List<HexLocation> result = new ArrayList<HexLocation>(3);
 
-        result.add(hex1);
-        result.add(hex2);
-        result.add(hex3);
+            result.add(hex1);
+            result.add(hex2);
+            result.add(hex3);
 
-        return result;
+            hexLocations = Collections.unmodifiableList(result);
+        }
+
+        return hexLocations;
     }
 
     /*
@@ -360,10 +400,8 @@ public class HexPoint
         if (getClass() != obj.getClass())
             return false;
         HexPoint other = (HexPoint) obj;
-        List<HexLocation> hexLocations = getHexLocations();
-        return hexLocations.contains(other.getHex1())
-                && hexLocations.contains(other.getHex2())
-                && hexLocations.contains(other.getHex3());
+        return hasLocation(other.getHex1()) && hasLocation(other.getHex2())
+                && hasLocation(other.getHex3());
     }
 
     public boolean fallsWithinBoardBounds(int width, int height)
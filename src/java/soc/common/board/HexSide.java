@@ -1,10 +1,15 @@
 package soc.common.board;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 
 /*
  * Represents a side, determined by two HexLocations. 
+ * 
+ * getNeighbourPoints() is computed once and cached as an unmodifiable list.
+ * Canonical sides from a HexCoordinateTable have an id, and their points
+ * and neighbour points are canonical objects.
  */
 public class HexSide
 {
@@ -22,6 +27,12 @@ public class HexSide
     // Direction the side points to
     private SideDirection sideDirection;
 
+    // Index in the HexCoordinateTable this side was interned in, or -1
+    private transient int id = -1;
+
+    // Cached result of getNeighbourPoints()
+    private transient List<HexPoint> neighbourPoints;
+
     public HexLocation getHex1()
     {
         return hex1;
@@ -56,6 +67,27 @@ public class HexSide
         calculateHexes();
     }
 
+    /*
+     * Returns the id of this side in its HexCoordinateTable, or -1 when this
+     * side is not canonical
+     */
+    public int getId()
+    {
+        return id;
+    }
+
+    /*
+     * Makes this the canonical side with given id, points and neighbours
+     */
+    void setCanonical(int id, HexPoint point1, HexPoint point2,
+            List<HexPoint> neighbourPoints)
+    {
+        this.id = id;
+        this.hexPoint1 = point1;
+        this.hexPoint2 = point2;
+        this.neighbourPoints = Collections.unmodifiableList(neighbourPoints);
+    }
+
     public HexLocation getHighestOrLeftestHex()
     {
         if (hex1.getH() == hex2.getH())
@@ -71,7 +103,16 @@ public class HexSide
      */
     public List<HexPoint> getNeighbourPoints()
     {
-        List<HexPoint> result = new ArrayList<HexPoint>();
+        if (neighbourPoints == null)
+            neighbourPoints = Collections
+                    .unmodifiableList(calculateNeighbourPoints());
+
+        return neighbourPoints;
+    }
+
+    List<HexPoint> calculateNeighbourPoints()
+    {
+        List<HexPoint> result = new ArrayList<HexPoint>(2);
 
         HexLocation top = getHighestOrLeftestHex();
 
@@ -106,32 +147,21 @@ public class HexSide
     }
 
     /*
-     * Creates the two HexLocations this HexSide is primarily represented by
+     * Creates the two HexLocations this HexSide is primarily represented by:
+     * the two locations both points have in common
      */
     private void calculateHexes()
     {
-        List<HexLocation> locations = new ArrayList<HexLocation>();
-
-        locations.add(hexPoint1.getHex1());
-        locations.add(hexPoint1.getHex2());
-        locations.add(hexPoint1.getHex3());
-        locations.add(hexPoint2.getHex1());
-        locations.add(hexPoint2.getHex2());
-        locations.add(hexPoint2.getHex3());
-
-        /*
-         * TODO: port to java
-         * 
-         * 
-         * var x = from l in locations group l by l into lunique where
-         * lunique.Count() == 2 select lunique.Key;
-         */
-
-        // first of resultset
-        hex1 = locations.get(0);
-
-        // last of resultset
-        hex2 = locations.get(5);
+        for (HexLocation location : hexPoint1.getHexLocations())
+        {
+            if (hexPoint2.hasLocation(location))
+            {
+                if (hex1 == null)
+                    hex1 = location;
+                else
+                    hex2 = location;
+            }
+        }
     }
 
     /*
@@ -247,17 +277,14 @@ public class HexSide
     }
 
     /*
-     * (non-Javadoc)
+     * Independent of the order of the two hexes, like equals()
      * 
      * @see java.lang.Object#hashCode()
      */
     @Override
     public int hashCode()
     {
-        final int prime = 31;
-        int result = 1;
-        result = prime * result + ((hex1 == null) ? 0 : hex1.hashCode());
-        result = prime * result + ((hex2 == null) ? 0 : hex2.hashCode());
-        return result;
+        return ((hex1 == null) ? 0 : hex1.hashCode())
+                + ((hex2 == null) ? 0 : hex2.hashCode());
     }
 }
@@ -4,6 +4,7 @@ import soc.common.board.HexLocation;
 import soc.common.board.territories.Territory;
 import soc.common.utils.ClassUtils;
 
+import com.google.gwt.event.shared.GwtEvent;
 import com.google.gwt.event.shared.HandlerRegistration;
 import com.google.gwt.event.shared.SimpleEventBus;
 
@@ -15,9 +16,30 @@ public abstract class AbstractHex implements Hex
 {
     protected HexLocation hexLocation;
     protected Territory territory;
-    protected SimpleEventBus eventBus = new SimpleEventBus();
     protected String name;
 
+    // Created when the first handler is added, so hexes of stored boards and
+    // boards in play do not carry one each
+    private SimpleEventBus eventBus;
+
+    protected SimpleEventBus getEventBus()
+    {
+        if (eventBus == null)
+        {
+            eventBus = new SimpleEventBus();
+        }
+
+        return eventBus;
+    }
+
+    protected void safelyFireEvent(GwtEvent<?> event)
+    {
+        if (eventBus != null)
+        {
+            eventBus.fireEvent(event);
+        }
+    }
+
     @Override
     public Territory getTerritory()
     {
@@ -30,7 +52,7 @@ public abstract class AbstractHex implements Hex
         if (t != territory)
         {
             this.territory = t;
-            eventBus.fireEvent(new TerritoryChangedEvent(t));
+            safelyFireEvent(new TerritoryChangedEvent(t));
         }
 
         return this;
@@ -78,6 +100,6 @@ public abstract class AbstractHex implements Hex
     public HandlerRegistration addTerritoryChangedEventHandler(
             TerritoryChangedEventHandler handler)
     {
-        return eventBus.addHandler(TerritoryChangedEvent.TYPE, handler);
+        return getEventBus().addHandler(TerritoryChangedEvent.TYPE, handler);
     }
 }
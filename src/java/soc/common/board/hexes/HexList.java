@@ -17,12 +17,17 @@ public class HexList implements Iterable<Hex>
 
     public Hex grabRandom(Random random)
     {
-        int index = random.nextInt(hexes.size() - 1);
+        int index = random.nextInt(hexes.size());
         Hex result = hexes.get(index);
         hexes.remove(result);
         return result;
     }
 
+    public int size()
+    {
+        return hexes.size();
+    }
+
     @Override
     public Iterator<Hex> iterator()
     {
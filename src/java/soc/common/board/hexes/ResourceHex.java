@@ -26,7 +26,7 @@ public class ResourceHex extends AbstractHex
     {
         this.chit = c;
 
-        eventBus.fireEvent(new ChitChangedEvent(c));
+        safelyFireEvent(new ChitChangedEvent(c));
 
         return this;
     }
@@ -81,7 +81,7 @@ public class ResourceHex extends AbstractHex
     public HandlerRegistration addChitChangedEventHandler(
             ChitChangedEventHandler handler)
     {
-        return eventBus.addHandler(ChitChangedEvent.TYPE, handler);
+        return getEventBus().addHandler(ChitChangedEvent.TYPE, handler);
     }
 
     /*
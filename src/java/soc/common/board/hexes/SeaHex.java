@@ -6,16 +6,12 @@ import soc.common.board.ports.PortChangedEventHandler;
 import soc.common.board.territories.Territory;
 
 import com.google.gwt.event.shared.HandlerRegistration;
-import com.google.gwt.event.shared.SimpleEventBus;
 
 public class SeaHex extends AbstractHex
 {
     // A SeaHex may have a port associated with it
     private Port port;
 
-    // Event notification instance
-    private SimpleEventBus eventBus = new SimpleEventBus();
-
     /*
      * Has no effect on a SeaHex
      * 
@@ -45,7 +41,7 @@ public class SeaHex extends AbstractHex
     {
         this.port = p;
 
-        eventBus.fireEvent(new PortChangedEvent(port));
+        safelyFireEvent(new PortChangedEvent(port));
 
         return this;
     }
@@ -75,7 +71,7 @@ public class SeaHex extends AbstractHex
     public HandlerRegistration addPortChangedEventHandler(
             PortChangedEventHandler handler)
     {
-        return eventBus.addHandler(PortChangedEvent.TYPE, handler);
+        return getEventBus().addHandler(PortChangedEvent.TYPE, handler);
     }
 
     /*
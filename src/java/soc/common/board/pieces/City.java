@@ -45,11 +45,11 @@ public class City extends AbstractPlayerPiece implements VictoryPointItem,
     public boolean canBuild(Board board, GamePlayer player)
     {
         // We need a city in stock...
-        if (player.getStock().ofType(City.CITY).size() == 0)
+        if (player.getStock().count(City.CITY) == 0)
             return false;
 
         // And we need a town to replace.
-        if (player.getBuildPieces().ofType(Town.TOWN).size() == 0)
+        if (player.getBuildPieces().count(Town.TOWN) == 0)
             return false;
 
         return true;
@@ -85,4 +85,14 @@ public class City extends AbstractPlayerPiece implements VictoryPointItem,
         return true;
     }
 
+    @Override
+    public City copy()
+    {
+        City result = new City();
+
+        result.player = player;
+        result.pointLocation = pointLocation;
+
+        return result;
+    }
 }
@@ -52,4 +52,15 @@ public class IslandBonus extends AbstractPlayerPiece implements
         return false;
     }
 
+    @Override
+    public IslandBonus copy()
+    {
+        IslandBonus result = new IslandBonus();
+
+        result.player = player;
+        result.territory = territory;
+        result.location = location;
+
+        return result;
+    }
 }
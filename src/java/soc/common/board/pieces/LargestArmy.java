@@ -33,4 +33,14 @@ public class LargestArmy extends AbstractPlayerPiece implements
         return false;
     }
 
+    @Override
+    public LargestArmy copy()
+    {
+        LargestArmy result = new LargestArmy();
+
+        result.player = player;
+        result.amountSoldiers = amountSoldiers;
+
+        return result;
+    }
 }
@@ -17,6 +17,17 @@ public class LongestRoad extends AbstractPlayerPiece implements
         return route;
     }
 
+    /**
+     * @param route
+     *            the route to set
+     */
+    public LongestRoad setRoute(Route route)
+    {
+        this.route = route;
+
+        return this;
+    }
+
     @Override
     public int getVictoryPoints()
     {
@@ -29,4 +40,17 @@ public class LongestRoad extends AbstractPlayerPiece implements
         return false;
     }
 
+    /*
+     * The copy refers to the same route, until the longest road is updated
+     */
+    @Override
+    public LongestRoad copy()
+    {
+        LongestRoad result = new LongestRoad();
+
+        result.player = player;
+        result.route = route;
+
+        return result;
+    }
 }
@@ -24,4 +24,10 @@ public interface PlayerPiece
     public abstract String getName();
 
     public boolean isStockPiece();
+
+    /*
+     * Returns a new piece of the same type at the same location, belonging to
+     * the same player
+     */
+    public PlayerPiece copy();
 }
\ No newline at end of file
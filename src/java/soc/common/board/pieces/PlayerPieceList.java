@@ -1,19 +1,49 @@
 package soc.common.board.pieces;
 
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 
 import soc.common.board.HexPoint;
 import soc.common.board.HexSide;
+import soc.common.game.GamePlayer;
 
 import com.google.gwt.event.shared.SimpleEventBus;
 
+/*
+ * List of pieces of a player, such as its stock or the pieces it has built.
+ * 
+ * Pieces are kept per type, per kind of location, and pieces on the board by
+ * their location, so counting the pieces of a type and looking up the piece at
+ * a HexPoint or HexSide don't scan the list. Pieces of a type, point pieces
+ * and side pieces are returned as read-only views following the list. A piece
+ * is indexed by the location it has when added: set the location of a piece
+ * before adding it.
+ */
 public class PlayerPieceList implements Iterable<AbstractPlayerPiece>
 {
     List<AbstractPlayerPiece> playerPieces = new ArrayList<AbstractPlayerPiece>();
     SimpleEventBus eventBus;
 
+    // Pieces per class, in the order they were added, and views on them
+    private Map<Object, List<AbstractPlayerPiece>> byType = new HashMap<Object, List<AbstractPlayerPiece>>();
+    private Map<Object, List<AbstractPlayerPiece>> typeViews = new HashMap<Object, List<AbstractPlayerPiece>>();
+
+    // PointPieces and SidePieces, in the order they were added
+    private List<AbstractPlayerPiece> pointPieces = new ArrayList<AbstractPlayerPiece>();
+    private List<AbstractPlayerPiece> sidePieces = new ArrayList<AbstractPlayerPiece>();
+    private List<AbstractPlayerPiece> pointPiecesView = Collections
+            .unmodifiableList(pointPieces);
+    private List<AbstractPlayerPiece> sidePiecesView = Collections
+            .unmodifiableList(sidePieces);
+
+    // Pieces on the board by their location
+    private Map<HexPoint, AbstractPlayerPiece> byPoint = new HashMap<HexPoint, AbstractPlayerPiece>();
+    private Map<HexSide, AbstractPlayerPiece> bySide = new HashMap<HexSide, AbstractPlayerPiece>();
+
     private void safelyFireEvent(PiecesChangedEvent event)
     {
         if (eventBus != null)
@@ -34,50 +64,94 @@ public class PlayerPieceList implements Iterable<AbstractPlayerPiece>
     }
 
     /*
-     * Returns a list of pieces of given type based on class equality
+     * Returns a read-only view of the pieces of given type based on class
+     * equality
      */
-    public PlayerPieceList ofType(PlayerPiece type)
+    public List<AbstractPlayerPiece> ofType(PlayerPiece type)
     {
-        PlayerPieceList result = new PlayerPieceList();
-
-        for (AbstractPlayerPiece piece : playerPieces)
+        List<AbstractPlayerPiece> result = typeViews.get(type.getClass());
+        if (result == null)
         {
-            if (piece.getClass() == type.getClass())
-                result.add(piece);
+            result = Collections.unmodifiableList(bucket(type.getClass()));
+            typeViews.put(type.getClass(), result);
         }
 
         return result;
     }
 
-    public PlayerPieceList getSidePieces()
+    /*
+     * Returns the pieces of given class, adding an empty list for the class
+     * when there are none yet
+     */
+    private List<AbstractPlayerPiece> bucket(Class<?> type)
     {
-        PlayerPieceList result = new PlayerPieceList();
-
-        for (AbstractPlayerPiece piece : playerPieces)
+        List<AbstractPlayerPiece> result = byType.get(type);
+        if (result == null)
         {
-            if (piece instanceof SidePiece)
-                result.add(piece);
+            result = new ArrayList<AbstractPlayerPiece>();
+            byType.put(type, result);
         }
 
         return result;
     }
 
-    public PlayerPieceList getPointPieces()
+    /*
+     * Returns the amount of pieces of given type based on class equality
+     */
+    public int count(PlayerPiece type)
     {
-        PlayerPieceList result = new PlayerPieceList();
+        List<AbstractPlayerPiece> pieces = byType.get(type.getClass());
 
-        for (AbstractPlayerPiece piece : playerPieces)
-        {
-            if (piece instanceof PointPiece)
-                result.add(piece);
-        }
+        return pieces == null ? 0 : pieces.size();
+    }
 
-        return result;
+    /*
+     * Returns the first added piece of given type based on class equality, or
+     * null when this list has none
+     */
+    @SuppressWarnings("unchecked")
+    public <T extends PlayerPiece> T first(T type)
+    {
+        List<AbstractPlayerPiece> pieces = byType.get(type.getClass());
+
+        return pieces == null || pieces.isEmpty() ? null : (T) pieces.get(0);
+    }
+
+    /*
+     * Returns a read-only view of the pieces residing on a HexSide
+     */
+    public List<AbstractPlayerPiece> getSidePieces()
+    {
+        return sidePiecesView;
+    }
+
+    /*
+     * Returns a read-only view of the pieces residing on a HexPoint
+     */
+    public List<AbstractPlayerPiece> getPointPieces()
+    {
+        return pointPiecesView;
+    }
+
+    /*
+     * Returns the amount of pieces residing on a HexSide
+     */
+    public int getSidePieceCount()
+    {
+        return sidePieces.size();
+    }
+
+    /*
+     * Returns the amount of pieces residing on a HexPoint
+     */
+    public int getPointPieceCount()
+    {
+        return pointPieces.size();
     }
 
     public void add(AbstractPlayerPiece piece)
     {
-        playerPieces.add(piece);
+        index(piece);
         safelyFireEvent(new PiecesChangedEvent(piece, null));
     }
 
@@ -85,14 +159,66 @@ public class PlayerPieceList implements Iterable<AbstractPlayerPiece>
     {
         for (AbstractPlayerPiece playerPiece : pieces)
         {
-            playerPieces.add(playerPiece);
+            index(playerPiece);
         }
     }
 
     public void remove(PlayerPiece piece)
     {
-        playerPieces.remove(piece);
-        safelyFireEvent(new PiecesChangedEvent(null, piece));
+        if (unindex(piece))
+            safelyFireEvent(new PiecesChangedEvent(null, piece));
+    }
+
+    private void index(AbstractPlayerPiece piece)
+    {
+        playerPieces.add(piece);
+        bucket(piece.getClass()).add(piece);
+
+        if (piece instanceof PointPiece)
+        {
+            pointPieces.add(piece);
+            HexPoint point = ((PointPiece) piece).getPoint();
+            if (point != null)
+                byPoint.put(point, piece);
+        }
+        if (piece instanceof SidePiece)
+        {
+            sidePieces.add(piece);
+            HexSide side = ((SidePiece) piece).getSide();
+            if (side != null)
+                bySide.put(side, piece);
+        }
+    }
+
+    /*
+     * Removes given piece from the list and the indexes. Returns false when
+     * this list does not contain the piece.
+     */
+    private boolean unindex(PlayerPiece piece)
+    {
+        if (!playerPieces.remove(piece))
+            return false;
+
+        byType.get(piece.getClass()).remove(piece);
+
+        // The location of the piece may have been changed after adding it,
+        // only unindex the piece itself
+        if (piece instanceof PointPiece)
+        {
+            pointPieces.remove(piece);
+            HexPoint point = ((PointPiece) piece).getPoint();
+            if (point != null && byPoint.get(point) == piece)
+                byPoint.remove(point);
+        }
+        if (piece instanceof SidePiece)
+        {
+            sidePieces.remove(piece);
+            HexSide side = ((SidePiece) piece).getSide();
+            if (side != null && bySide.get(side) == piece)
+                bySide.remove(side);
+        }
+
+        return true;
     }
 
     public int size()
@@ -116,51 +242,40 @@ public class PlayerPieceList implements Iterable<AbstractPlayerPiece>
     }
 
     /*
-     * Returns true if this collection contains an ISidePiece with given
-     * HexPoint
+     * Returns true if this collection contains a PointPiece on given HexPoint
      */
     public boolean contains(HexPoint point)
     {
-        for (PlayerPiece piece : playerPieces)
-        {
-            if (piece instanceof PointPiece)
-            {
-                PointPiece pointPiece = (PointPiece) piece;
-                if (pointPiece.getPoint().equals(point))
-                    return true;
-            }
-        }
-        return false;
+        return byPoint.containsKey(point);
     }
 
+    /*
+     * Returns true if this collection contains a SidePiece on given HexSide
+     */
     public boolean contains(HexSide hexSide)
     {
-        for (PlayerPiece piece : playerPieces)
-        {
-            if (piece instanceof SidePiece)
-            {
-                SidePiece pointPiece = (SidePiece) piece;
-                if (pointPiece.getSide().equals(hexSide))
-                    return true;
-            }
-        }
-        return false;
+        return bySide.containsKey(hexSide);
+    }
+
+    /*
+     * Returns the piece on given HexPoint, or null when this list has none
+     */
+    public AbstractPlayerPiece get(HexPoint point)
+    {
+        return byPoint.get(point);
+    }
+
+    /*
+     * Returns the piece on given HexSide, or null when this list has none
+     */
+    public AbstractPlayerPiece get(HexSide side)
+    {
+        return bySide.get(side);
     }
 
     public AbstractPlayerPiece remove(HexPoint pointLocation)
     {
-        AbstractPlayerPiece playerPieceToRemove = null;
-        for (AbstractPlayerPiece playerPiece : playerPieces)
-        {
-            if (playerPiece instanceof PointPiece)
-            {
-                PointPiece pointPieze = (PointPiece) playerPiece;
-                if (pointPieze.getPoint().equals(pointLocation))
-                {
-                    playerPieceToRemove = playerPiece;
-                }
-            }
-        }
+        AbstractPlayerPiece playerPieceToRemove = byPoint.get(pointLocation);
         if (playerPieceToRemove != null)
         {
             remove(playerPieceToRemove);
@@ -176,18 +291,7 @@ public class PlayerPieceList implements Iterable<AbstractPlayerPiece>
 
     public AbstractPlayerPiece remove(HexSide side)
     {
-        AbstractPlayerPiece playerPieceToRemove = null;
-        for (AbstractPlayerPiece playerPiece : playerPieces)
-        {
-            if (playerPiece instanceof PointPiece)
-            {
-                SidePiece sidePieze = (SidePiece) playerPiece;
-                if (sidePieze.getSide().equals(side))
-                {
-                    playerPieceToRemove = playerPiece;
-                }
-            }
-        }
+        AbstractPlayerPiece playerPieceToRemove = bySide.get(side);
         if (playerPieceToRemove != null)
         {
             remove(playerPieceToRemove);
@@ -195,7 +299,7 @@ public class PlayerPieceList implements Iterable<AbstractPlayerPiece>
         else
         {
             throw new RuntimeException(
-                    "Tried to remove a PointPiece not contained in this list");
+                    "Tried to remove a SidePiece not contained in this list");
         }
 
         return playerPieceToRemove;
@@ -203,15 +307,12 @@ public class PlayerPieceList implements Iterable<AbstractPlayerPiece>
 
     public PlayerPiece get(PlayerPiece pieceType)
     {
-        for (PlayerPiece playerPiece : playerPieces)
-        {
-            if (playerPiece.getClass() == pieceType.getClass())
-            {
-                return playerPiece;
-            }
-        }
-        throw new RuntimeException(
-                "Tried to get a piece which is not contained in the list");
+        PlayerPiece result = first(pieceType);
+        if (result == null)
+            throw new RuntimeException(
+                    "Tried to get a piece which is not contained in the list");
+
+        return result;
     }
 
     public static void move(AbstractPlayerPiece pieceToMove,
@@ -220,4 +321,41 @@ public class PlayerPieceList implements Iterable<AbstractPlayerPiece>
         from.remove(pieceToMove);
         to.add(pieceToMove);
     }
+
+    /*
+     * Returns a copy of this list with a copy of each piece, for a copy of a
+     * game. Given map holds the copies made so far: pieces copied already are
+     * taken from it, new copies are added to it.
+     */
+    public PlayerPieceList copy(Map<Object, Object> copies)
+    {
+        PlayerPieceList result = new PlayerPieceList();
+
+        for (AbstractPlayerPiece piece : playerPieces)
+            result.index((AbstractPlayerPiece) copyOf(piece, copies));
+
+        return result;
+    }
+
+    /*
+     * Returns the copy of given piece in given map of copies, copying it when
+     * it has none yet. A new copy belongs to the copy of the player of the
+     * piece, when that player is in the map.
+     */
+    public static PlayerPiece copyOf(PlayerPiece piece, Map<Object, Object> copies)
+    {
+        PlayerPiece result = (PlayerPiece) copies.get(piece);
+        if (result == null)
+        {
+            result = piece.copy();
+
+            GamePlayer player = (GamePlayer) copies.get(piece.getPlayer());
+            if (player != null)
+                result.setPlayer(player);
+
+            copies.put(piece, result);
+        }
+
+        return result;
+    }
 }
@@ -39,7 +39,7 @@ public class Road extends AbstractPlayerPiece implements SidePiece
     @Override
     public boolean canBuild(Board board, GamePlayer player)
     {
-        if (player.getStock().ofType(Road.ROAD).size() == 0)
+        if (player.getStock().count(Road.ROAD) == 0)
             return false;
 
         // TODO: port to java
@@ -78,4 +78,15 @@ public class Road extends AbstractPlayerPiece implements SidePiece
         sideLocation = side;
         return null;
     }
+
+    @Override
+    public Road copy()
+    {
+        Road result = new Road();
+
+        result.player = player;
+        result.sideLocation = sideLocation;
+
+        return result;
+    }
 }
@@ -46,7 +46,7 @@ public class Town extends AbstractPlayerPiece implements VictoryPointItem,
     public boolean canBuild(Board board, GamePlayer player)
     {
         // We need a town in stock...
-        if (player.getStock().ofType(Town.TOWN).size() == 0)
+        if (player.getStock().count(Town.TOWN) == 0)
             return false;
 
         // And we need a place to put it onto
@@ -82,4 +82,15 @@ public class Town extends AbstractPlayerPiece implements VictoryPointItem,
     {
         return true;
     }
+
+    @Override
+    public Town copy()
+    {
+        Town result = new Town();
+
+        result.player = player;
+        result.pointLocation = pointLocation;
+
+        return result;
+    }
 }
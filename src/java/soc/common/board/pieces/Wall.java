@@ -30,4 +30,13 @@ public class Wall extends AbstractPlayerPiece implements PointPiece
         return true;
     }
 
+    @Override
+    public Wall copy()
+    {
+        Wall result = new Wall();
+
+        result.player = player;
+
+        return result;
+    }
 }
@@ -77,6 +77,13 @@ public abstract class AbstractPort implements Port
         return rotationPosition;
     }
 
+    public Port setRotationPosition(RotationPosition rotationPosition)
+    {
+        this.rotationPosition = rotationPosition;
+
+        return this;
+    }
+
     /**
      * @param hexLocation
      *            the hexLocation to set
@@ -128,9 +135,21 @@ public abstract class AbstractPort implements Port
     {
         super();
 
+        setLocation(hexLocation, rotationPosition);
+    }
+
+    /*
+     * Places this port on the sea hex at given location, facing the land hex
+     * at given rotation
+     */
+    public AbstractPort setLocation(HexLocation hexLocation,
+            RotationPosition rotationPosition)
+    {
         this.rotationPosition = rotationPosition;
         this.setHexLocation(hexLocation);
         this.landLocation = hexSide.getOtherLocation(seaLocation);
+
+        return this;
     }
 
     /*
@@ -87,6 +87,24 @@ public class PortList implements Iterable<Port>
         ports.add(new FourToOnePort());
     }
 
+    /*
+     * Copy constructor. Ports do not change during a game, so the ports are
+     * shared with the original list.
+     */
+    private PortList(PortList original)
+    {
+        tradeableResourceTypes = original.tradeableResourceTypes;
+        ports.addAll(original.ports);
+    }
+
+    /*
+     * Returns a new list with the same ports
+     */
+    public PortList copy()
+    {
+        return new PortList(this);
+    }
+
     public void add(Port port)
     {
         ports.add(port);
@@ -107,6 +125,11 @@ public class PortList implements Iterable<Port>
         return getPort(resourceType, false).getInAmount();
     }
 
+    public int size()
+    {
+        return ports.size();
+    }
+
     @Override
     public Iterator<Port> iterator()
     {
@@ -1,20 +1,42 @@
 package soc.common.board.resources;
 
-import java.util.ArrayList;
 import java.util.Iterator;
 import java.util.List;
+import java.util.NoSuchElementException;
+
+import soc.common.server.random.Random;
 
 import com.google.gwt.event.shared.HandlerRegistration;
 import com.google.gwt.event.shared.SimpleEventBus;
-import com.google.gwt.user.client.Random;
 
+/*
+ * A bag of resources, kept as an amount per resource type.
+ *
+ * Resources of the same type are equal, so the list does not keep the
+ * resource objects added to it. Iterating returns one shared instance of each
+ * type as many times as the list holds it, grouped by type in the order of
+ * TYPES. Counting, containment and moving resources between lists take time
+ * proportional to the number of resource types, not the number of resources.
+ *
+ * Each change fires one ResourcesChangedEvent. The bulk operations exchange,
+ * moveTo and takeAll change a whole trade, discard or monopoly at once, and
+ * fire one event per list involved.
+ */
 public class ResourceList implements Iterable<Resource>
 {
+    // Resource types, in the order a list iterates them. The index of a type
+    // in this array is the index of its amount in counts.
+    private static final Resource[] TYPES = { new Timber(), new Wheat(),
+            new Ore(), new Clay(), new Sheep(), new Diamond(), new Gold() };
+
     // Notification mechanism
     SimpleEventBus eventBus;
 
-    // Encapsulated list of resources
-    List<Resource> resources = new ArrayList<Resource>();
+    // Amount of resources of each type, indexed like TYPES
+    int[] counts = new int[TYPES.length];
+
+    // Total amount of resources
+    int size;
 
     private SimpleEventBus getEventBus()
     {
@@ -33,21 +55,138 @@ public class ResourceList implements Iterable<Resource>
         }
     }
 
+    /*
+     * Returns the index of the type of given resource in TYPES
+     */
+    private static int indexOf(Resource resource)
+    {
+        for (int i = 0; i < TYPES.length; i++)
+        {
+            if (TYPES[i].getClass() == resource.getClass())
+                return i;
+        }
+
+        throw new IllegalArgumentException("Unknown resource type "
+                + resource.getName());
+    }
+
+    /*
+     * Returns a new list with given amounts of each type
+     */
+    private static ResourceList fromCounts(int[] amounts)
+    {
+        ResourceList result = new ResourceList();
+
+        for (int i = 0; i < TYPES.length; i++)
+        {
+            result.counts[i] = amounts[i];
+            result.size += amounts[i];
+        }
+
+        return result;
+    }
+
+    private void addCounts(int[] amounts)
+    {
+        for (int i = 0; i < TYPES.length; i++)
+        {
+            counts[i] += amounts[i];
+            size += amounts[i];
+        }
+    }
+
+    /*
+     * Removes given amounts of each type, as far as this list has them.
+     * Returns the amounts actually removed.
+     */
+    private int[] removeCounts(int[] amounts)
+    {
+        int[] removed = new int[TYPES.length];
+
+        for (int i = 0; i < TYPES.length; i++)
+        {
+            removed[i] = Math.min(counts[i], amounts[i]);
+            counts[i] -= removed[i];
+            size -= removed[i];
+        }
+
+        return removed;
+    }
+
+    /*
+     * Removes given resources from this list and adds them to the destination.
+     * Resources not in this list are ignored.
+     */
     public void moveTo(ResourceList toMove, ResourceList destination)
     {
-        resources.remove(toMove);
-        destination.add(toMove);
+        ResourceList moved = fromCounts(removeCounts(toMove.counts));
+        fireSafeEvent(new ResourcesChangedEvent(null, moved));
+
+        destination.add(moved);
     }
 
     /*
-     * Adds given ResourceList to this list of resources
+     * Removes one list of resources and adds another in one change, such as
+     * one side of a trade. This list should contain all of the resources to
+     * remove.
      */
-    public void add(ResourceList resourcesToAdd)
+    public void exchange(ResourceList toRemove, ResourceList toAdd)
     {
-        for (Resource resource : resourcesToAdd)
+        if (!hasAtLeast(toRemove))
         {
-            resources.add(resource);
+            throw new RuntimeException("Wants to remove non-existing resources");
         }
+
+        removeCounts(toRemove.counts);
+        addCounts(toAdd.counts);
+
+        fireSafeEvent(new ResourcesChangedEvent(toAdd, toRemove));
+    }
+
+    /*
+     * Moves all resources of given type from each of the given lists to this
+     * list, such as for a monopoly. Returns the amount of resources moved.
+     */
+    public int takeAll(Resource type, List<ResourceList> from)
+    {
+        int index = indexOf(type);
+        int total = 0;
+
+        for (ResourceList source : from)
+        {
+            int amount = source.counts[index];
+            if (amount > 0)
+            {
+                source.counts[index] = 0;
+                source.size -= amount;
+                total += amount;
+
+                if (source.eventBus != null)
+                    source.fireSafeEvent(new ResourcesChangedEvent(null,
+                            ofAmount(index, amount)));
+            }
+        }
+
+        if (total > 0)
+        {
+            counts[index] += total;
+            size += total;
+
+            if (eventBus != null)
+                fireSafeEvent(new ResourcesChangedEvent(
+                        ofAmount(index, total), null));
+        }
+
+        return total;
+    }
+
+    /*
+     * Adds given ResourceList to this list of resources
+     */
+    public void add(ResourceList resourcesToAdd)
+    {
+        addCounts(resourcesToAdd.counts);
+
         fireSafeEvent(new ResourcesChangedEvent(resourcesToAdd, null));
     }
 
@@ -56,14 +195,14 @@ public class ResourceList implements Iterable<Resource>
      */
     public void add(Resource resource)
     {
-        resources.add(resource);
+        int index = indexOf(resource);
+        counts[index]++;
+        size++;
 
         if (eventBus != null)
         {
             // Notify the list has been changed with only one resource
-            ResourceList addedResource = new ResourceList();
-            addedResource.add(resource);
-            fireSafeEvent(new ResourcesChangedEvent(addedResource, null));
+            fireSafeEvent(new ResourcesChangedEvent(ofAmount(index, 1), null));
         }
     }
 
@@ -72,14 +211,17 @@ public class ResourceList implements Iterable<Resource>
      */
     public void remove(Resource resource)
     {
-        resources.remove(resource);
+        int index = indexOf(resource);
+        if (counts[index] == 0)
+            return;
+
+        counts[index]--;
+        size--;
 
         if (eventBus != null)
         {
             // Notify the list has been changed with only one resource
-            ResourceList removedResource = new ResourceList();
-            removedResource.add(resource);
-            fireSafeEvent(new ResourcesChangedEvent(null, removedResource));
+            fireSafeEvent(new ResourcesChangedEvent(null, ofAmount(index, 1)));
         }
     }
 
@@ -89,23 +231,13 @@ public class ResourceList implements Iterable<Resource>
      */
     public void remove(ResourceList resourcesToRemove, boolean checkIfPossible)
     {
-        if (checkIfPossible)
+        // First check if this list contains all resources in given list
+        if (checkIfPossible && !hasAtLeast(resourcesToRemove))
         {
-            // First check if this list contains all resources in given list
-            if (hasAtLeast(resourcesToRemove))
-            {
-                remove(resourcesToRemove, checkIfPossible);
-            }
-            else
-            {
-                throw new RuntimeException(
-                        "Wants to remove non-existing resources");
-            }
-        }
-        else
-        {
-            removeAll(resourcesToRemove);
+            throw new RuntimeException("Wants to remove non-existing resources");
         }
+
+        removeAll(resourcesToRemove);
     }
 
     /*
@@ -114,43 +246,49 @@ public class ResourceList implements Iterable<Resource>
      */
     private void removeAll(ResourceList resourcesToRemove)
     {
-        for (Resource resource : resourcesToRemove)
-        {
-            resources.remove(resource);
-        }
+        int[] removed = removeCounts(resourcesToRemove.counts);
 
-        fireSafeEvent(new ResourcesChangedEvent(null, resourcesToRemove));
+        if (eventBus != null)
+            fireSafeEvent(new ResourcesChangedEvent(null, fromCounts(removed)));
     }
 
     /*
-     * Returns a copy of this ResourceList
+     * Returns a list with given amount of resources of the type at given index
      */
-    public ResourceList copy()
+    private static ResourceList ofAmount(int index, int amount)
     {
         ResourceList result = new ResourceList();
 
-        result.add(this);
+        result.counts[index] = amount;
+        result.size = amount;
 
         return result;
     }
 
+    /*
+     * Returns a copy of this ResourceList
+     */
+    public ResourceList copy()
+    {
+        return fromCounts(counts);
+    }
+
     /*
      * Returns a new ResourceList with only resources equivalent to given type
      */
     public ResourceList ofType(Resource type)
     {
-        ResourceList result = new ResourceList();
+        int index = indexOf(type);
 
-        // Iterate over all resources and add the ones equalling given type
-        for (Resource res : resources)
-        {
-            if (res.getClass() == type.getClass())
-            {
-                result.add(res);
-            }
-        }
+        return ofAmount(index, counts[index]);
+    }
 
-        return result;
+    /*
+     * Returns the amount of resources of given type in this list
+     */
+    public int getAmount(Resource type)
+    {
+        return counts[indexOf(type)];
     }
 
     /*
@@ -158,19 +296,13 @@ public class ResourceList implements Iterable<Resource>
      */
     public boolean hasAtLeast(ResourceList toHave)
     {
-        return ofType(new Timber()).size() >= toHave.ofType(new Timber())
-                .size()
-                && ofType(new Wheat()).size() >= toHave.ofType(new Wheat())
-                        .size()
-                && ofType(new Ore()).size() >= toHave.ofType(new Ore()).size()
-                && ofType(new Clay()).size() >= toHave.ofType(new Clay())
-                        .size()
-                && ofType(new Sheep()).size() >= toHave.ofType(new Sheep())
-                        .size()
-                && ofType(new Diamond()).size() >= toHave.ofType(new Diamond())
-                        .size()
-                && ofType(new Gold()).size() >= toHave.ofType(new Gold())
-                        .size();
+        for (int i = 0; i < TYPES.length; i++)
+        {
+            if (counts[i] < toHave.counts[i])
+                return false;
+        }
+
+        return true;
     }
 
     /*
@@ -199,11 +331,7 @@ public class ResourceList implements Iterable<Resource>
      */
     public int halfCount()
     {
-        int count = size();
-        // Make number even
-        if (count % 2 == 1)
-            count--;
-        return count / 2;
+        return size / 2;
     }
 
     /*
@@ -213,11 +341,14 @@ public class ResourceList implements Iterable<Resource>
     {
         ResourceList result = new ResourceList();
 
-        result.add(neededResources);
-        for (Resource resource : neededResources)
+        for (int i = 0; i < TYPES.length; i++)
         {
-            if (this.contains(resource))
-                result.remove(resource);
+            int needed = neededResources.counts[i] - counts[i];
+            if (needed > 0)
+            {
+                result.counts[i] = needed;
+                result.size += needed;
+            }
         }
 
         return result;
@@ -228,11 +359,7 @@ public class ResourceList implements Iterable<Resource>
      */
     public void subtractResources(ResourceList resourcesToSubtract)
     {
-        for (Resource resource : resourcesToSubtract)
-        {
-            if (this.contains(resource))
-                this.remove(resource);
-        }
+        removeAll(resourcesToSubtract);
     }
 
     public static ResourceList tradeableResources()
@@ -253,23 +380,59 @@ public class ResourceList implements Iterable<Resource>
      */
     public void clear()
     {
-        removeAll(this);
+        removeAll(copy());
     }
 
+    /*
+     * Iterates the resources grouped by type. Removing through the iterator
+     * is not supported.
+     */
     @Override
     public Iterator<Resource> iterator()
     {
-        return resources.iterator();
+        return new Iterator<Resource>()
+        {
+            // Type of the next resource, and how many of it are left
+            int index = -1;
+            int left = 0;
+
+            @Override
+            public boolean hasNext()
+            {
+                while (left == 0 && index < TYPES.length - 1)
+                {
+                    index++;
+                    left = counts[index];
+                }
+                return left > 0;
+            }
+
+            @Override
+            public Resource next()
+            {
+                if (!hasNext())
+                    throw new NoSuchElementException();
+
+                left--;
+                return TYPES[index];
+            }
+
+            @Override
+            public void remove()
+            {
+                throw new UnsupportedOperationException();
+            }
+        };
     }
 
     public int size()
     {
-        return resources.size();
+        return size;
     }
 
     public boolean contains(Resource resource)
     {
-        return resources.contains(resource);
+        return counts[indexOf(resource)] > 0;
     }
 
     public HandlerRegistration addResourcesChangedEventHandler(
@@ -280,8 +443,15 @@ public class ResourceList implements Iterable<Resource>
 
     public Resource getRandom(Random random)
     {
-        int randomResource = random.nextInt(resources.size());
-        return resources.get(randomResource);
+        int randomResource = random.nextInt(size);
+        for (int i = 0; i < TYPES.length; i++)
+        {
+            if (randomResource < counts[i])
+                return TYPES[i];
+            randomResource -= counts[i];
+        }
+
+        throw new NoSuchElementException();
     }
 
     /*
@@ -289,9 +459,9 @@ public class ResourceList implements Iterable<Resource>
      */
     public boolean hasTradeableResources()
     {
-        for (Resource resource : resources)
+        for (int i = 0; i < TYPES.length; i++)
         {
-            if (resource.isTradeable())
+            if (counts[i] > 0 && TYPES[i].isTradeable())
             {
                 return true;
             }
@@ -301,28 +471,24 @@ public class ResourceList implements Iterable<Resource>
 
     public ResourceList getTradeableResources()
     {
-        ResourceList result = new ResourceList();
-
-        for (Resource resource : resources)
-        {
-            if (resource.isTradeable())
-            {
-                result.add(resource);
-            }
-        }
-
-        return result;
+        return withTradeable(true);
     }
 
     public ResourceList getNonTradeableResources()
+    {
+        return withTradeable(false);
+    }
+
+    private ResourceList withTradeable(boolean tradeable)
     {
         ResourceList result = new ResourceList();
 
-        for (Resource resource : resources)
+        for (int i = 0; i < TYPES.length; i++)
         {
-            if (!resource.isTradeable())
+            if (TYPES[i].isTradeable() == tradeable)
             {
-                result.add(resource);
+                result.counts[i] = counts[i];
+                result.size += counts[i];
             }
         }
 
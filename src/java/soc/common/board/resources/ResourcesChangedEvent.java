@@ -31,9 +31,16 @@ public class ResourcesChangedEvent extends GwtEvent<ResourcesChangedEventHandler
     
     /*
      * Returns the added or removed resources depending on which is not-null.
+     * When resources are both added and removed, returns all of them.
      */
     public ResourceList getChangedResources()
     {
+        if (addedResources != null && removedResources != null)
+        {
+            ResourceList result = addedResources.copy();
+            result.add(removedResources);
+            return result;
+        }
         return addedResources != null ? addedResources : removedResources;
     }
     @Override
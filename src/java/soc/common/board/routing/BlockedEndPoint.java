@@ -1,7 +1,5 @@
 package soc.common.board.routing;
 
-import com.google.gwt.user.client.Random;
-
 import soc.common.board.HexPoint;
 import soc.common.board.pieces.PlayerPiece;
 import soc.common.game.GamePlayer;
@@ -12,11 +10,12 @@ import soc.common.game.GamePlayer;
  * vertices. This violates the constraint of graphs that each point should be unique 
  * and never be added twice. A SplittedEndPoint becomes the endpoint of the two roads
  * connecting to the point now owned by the player building a town on the existing road.  
+ * 
+ * Each BlockedEndPoint is only equal to itself.
  */
 public class BlockedEndPoint implements GraphPoint
 {
     private HexPoint pointLocation;
-    private int hashCode = Random.nextInt();
     
     @Override
     public HexPoint getPoint()
@@ -79,32 +78,4 @@ public class BlockedEndPoint implements GraphPoint
     {
         return null;
     }
-
-    /* (non-Javadoc)
-     * @see java.lang.Object#hashCode()
-     */
-    @Override
-    public int hashCode()
-    {
-        return hashCode;
-    }
-
-    /* (non-Javadoc)
-     * @see java.lang.Object#equals(java.lang.Object)
-     */
-    @Override
-    public boolean equals(Object obj)
-    {
-        if (this == obj)
-            return true;
-        if (obj == null)
-            return false;
-        if (getClass() != obj.getClass())
-            return false;
-        BlockedEndPoint other = (BlockedEndPoint) obj;
-        if (hashCode != other.hashCode())
-            return false;
-        return true;
-    }
-
 }
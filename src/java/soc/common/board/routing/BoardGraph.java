@@ -1,22 +1,34 @@
 package soc.common.board.routing;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 import org.jgrapht.Graphs;
 import org.jgrapht.UndirectedGraph;
+import org.jgrapht.event.GraphEdgeChangeEvent;
+import org.jgrapht.event.GraphListener;
+import org.jgrapht.event.GraphVertexChangeEvent;
 import org.jgrapht.graph.ListenableUndirectedGraph;
 import org.jgrapht.graph.SimpleGraph;
-import org.jgrapht.graph.UndirectedSubgraph;
 
 import soc.common.board.Board;
+import soc.common.board.HexCoordinateTable;
 import soc.common.board.HexPoint;
 import soc.common.board.HexSide;
 import soc.common.board.hexes.Hex;
 import soc.common.board.pieces.City;
+import soc.common.board.pieces.PlayerPiece;
+import soc.common.board.pieces.PlayerPieceList;
 import soc.common.board.pieces.Road;
+import soc.common.board.pieces.Ship;
 import soc.common.board.pieces.Town;
 import soc.common.game.GamePlayer;
 
@@ -31,6 +43,24 @@ import soc.common.game.GamePlayer;
  * 
  * A dot (HexPoint) is called a vertex. A line (HexSide) is called
  * an edge.  
+ * 
+ * The graph is built from the canonical HexPoints and HexSides of the 
+ * board's HexCoordinateTable. GraphPoints and GraphSides are looked up by 
+ * the id of their HexPoint and HexSide, through two arrays. A listener on 
+ * the graph keeps the arrays in step with it, including vertices and edges 
+ * added or removed through getGraph().
+ * 
+ * Longest routes are calculated per connected network of a player, see 
+ * PlayerGraph. Adding a piece only recalculates the networks touching it.
+ * 
+ * The places a player can build on are kept the same way: calculated for a 
+ * player when first asked for, and then updated by adding pieces, only for 
+ * the points and sides around the new piece. Candidates are handed out as 
+ * read-only views which follow the board. 
+ * 
+ * A copy of the graph shares the coordinates, and has its own vertices and 
+ * edges holding copies of the pieces. Networks and candidates are calculated 
+ * again when first asked for on the copy.
  */
 public class BoardGraph
 {
@@ -38,13 +68,91 @@ public class BoardGraph
     private ListenableUndirectedGraph<GraphPoint, GraphSide> graph = new ListenableUndirectedGraph<GraphPoint, GraphSide>(
             GraphSide.class);
 
+    // Canonical coordinates of the board
+    private HexCoordinateTable coordinates;
+
+    // Every vertex in the graph, by id of its canonical HexPoint
+    private GraphPoint[] pointIndex;
+
+    // Every edge in the graph, by id of its canonical HexSide
+    private GraphSide[] sideIndex;
+
+    // Connected networks of roads, ships and bridges with their longest
+    // route, for each player asked for. Updated by adding pieces, only for
+    // the networks touching the new piece.
+    private Map<GamePlayer, List<PlayerGraph>> playerComponents = new HashMap<GamePlayer, List<PlayerGraph>>();
+
+    // Places to build on for each player asked for. Updated by adding
+    // pieces, only around the new piece.
+    private Map<GamePlayer, BuildCandidates> playerCandidates = new HashMap<GamePlayer, BuildCandidates>();
+
+    // Empty points allowed to build a town on by the board and the distance
+    // rule, regardless of roads. Null until asked for.
+    private Set<GraphPoint> freeTownPoints;
+    private Set<GraphPoint> freeTownPointsView;
+
     public BoardGraph(Board board)
     {
         this.board = board;
+        coordinates = HexCoordinateTable.get(board.getWidth(), board
+                .getHeight());
+        pointIndex = new GraphPoint[coordinates.getPointCount()];
+        sideIndex = new GraphSide[coordinates.getSideCount()];
 
+        graph.addGraphListener(new IndexUpdater());
         buildGraph();
     }
 
+    /*
+     * Copy constructor. Vertices and edges are copied as they are, so the
+     * board is not asked again which points are part of the game.
+     */
+    private BoardGraph(Board board, BoardGraph original,
+            Map<Object, Object> copies)
+    {
+        this.board = board;
+        coordinates = original.coordinates;
+        pointIndex = new GraphPoint[original.pointIndex.length];
+        sideIndex = new GraphSide[original.sideIndex.length];
+
+        graph.addGraphListener(new IndexUpdater());
+
+        Map<GraphPoint, GraphPoint> points = new HashMap<GraphPoint, GraphPoint>();
+        for (GraphPoint point : original.graph.vertexSet())
+        {
+            GraphPoint copy = new GraphPointImpl().setPoint(point.getPoint())
+                    .setTownBuildable(point.isTownBuildable());
+            copy.setPlayerPiece(copyOf(point.getPiece(), copies));
+
+            graph.addVertex(copy);
+            points.put(point, copy);
+        }
+
+        for (GraphSide side : original.graph.edgeSet())
+        {
+            GraphSide copy = new GraphSideImpl(side.getSide());
+            copy.setPlayerPiece(copyOf(side.getPiece(), copies));
+
+            graph.addEdge(points.get(original.graph.getEdgeSource(side)),
+                    points.get(original.graph.getEdgeTarget(side)), copy);
+        }
+    }
+
+    private static PlayerPiece copyOf(PlayerPiece piece,
+            Map<Object, Object> copies)
+    {
+        return piece == null ? null : PlayerPieceList.copyOf(piece, copies);
+    }
+
+    /*
+     * Returns a copy of this graph for given copy of its board. Pieces are
+     * replaced by their copy in given map of copies.
+     */
+    public BoardGraph copy(Board board, Map<Object, Object> copies)
+    {
+        return new BoardGraph(board, this, copies);
+    }
+
     public Set<GraphSide> getSides()
     {
         return graph.edgeSet();
@@ -68,89 +176,63 @@ public class BoardGraph
      */
     private void buildGraph()
     {
-        // Iterate over all hexes in the board
-        for (Hex hex : board.getHexes())
+        // Add every point of the board which can be used in the game
+        for (HexPoint point : coordinates.getPoints())
         {
-            // Iterate over all 6 possible HexPoint of a hex
-            for (HexPoint point : hex.getLocation().getNeighbourHexPoints())
+            if (board.includeInGame(point))
             {
-                if (board.includeInGame(point))
-                {
-                    GraphPoint newGraphPoint = new GraphPointImpl()
-                            .setPoint(point);
-
-                    if (!graph.vertexSet().contains(newGraphPoint))
-                    {
-                        graph.addVertex(newGraphPoint);
-                    }
-                }
+                graph.addVertex(new GraphPointImpl().setPoint(point));
             }
         }
 
-        int y = graph.vertexSet().size();
-
         // Now we have all the HexPoints in place. Now add the sides.
-
-        // Iterate over all points in the graph
-        for (GraphPoint point : graph.vertexSet())
+        for (HexSide side : coordinates.getSides())
         {
-            // Each point has three sides. Add them when they fall within the
-            // bounds of the board
-            for (HexSide side : point.getPoint().getNeighbourSides())
+            // Side should be on the inner map space
+            if (side.fallsWithinBoardBounds(board.getWidth(), board.getHeight()))
             {
-                // Find existing side
-                GraphSide graphSide = new GraphSideImpl(side);
-
-                // Side should be on the inner map space
-                if (side.fallsWithinBoardBounds(board.getWidth(), board
-                        .getHeight())
-                        &&
-                        // undirected graph, only need to add the edge once
-                        !graph.edgeSet().contains(graphSide))
+                // Both points should be in the graph
+                GraphPoint point1 = pointIndex[side.getHexPoint1().getId()];
+                GraphPoint point2 = pointIndex[side.getHexPoint2().getId()];
+                if (point1 != null && point2 != null)
                 {
-                    // Get the other point
-                    HexPoint otherPoint = side.getOtherPoint(point.getPoint());
-
-                    // get the other IGraphPoint
-                    GraphPoint otherGraphPoint = findGraphPoint(otherPoint);
-                    if (otherGraphPoint != null)
-                    {
-                        graph.addEdge(otherGraphPoint, point, graphSide);
-                    }
+                    graph.addEdge(point1, point2, new GraphSideImpl(side));
                 }
             }
         }
     }
 
-    private GraphSide getSideFromSet(HexSide side)
+    /*
+     * Returns the GraphSide at given location, or null when the side is not
+     * part of the graph
+     */
+    public GraphSide getGraphSide(HexSide side)
     {
-        for (GraphSide graphSide : graph.edgeSet())
-        {
-            if (graphSide.getSide().equals(side))
-            {
-                return graphSide;
-            }
-        }
-
-        return null;
+        HexSide canonical = coordinates.getSide(side);
+        return canonical == null ? null : sideIndex[canonical.getId()];
     }
 
-    private GraphPoint findGraphPoint(HexPoint point)
+    /*
+     * Returns the GraphPoint at given location, or null when the point is not
+     * part of the graph
+     */
+    public GraphPoint getGraphPoint(HexPoint point)
     {
-        for (GraphPoint graphPoint : graph.vertexSet())
-        {
-            if (graphPoint.getPoint().equals(point))
-            {
-                return graphPoint;
-            }
-        }
+        HexPoint canonical = coordinates.getPoint(point);
+        return canonical == null ? null : pointIndex[canonical.getId()];
+    }
 
-        return null;
+    /*
+     * Returns the canonical coordinates of the board this graph was built for
+     */
+    public HexCoordinateTable getCoordinates()
+    {
+        return coordinates;
     }
 
     public void addTown(Town town)
     {
-        GraphPoint point = findGraphPoint(town.getPoint());
+        GraphPoint point = getGraphPoint(town.getPoint());
 
         if (!point.isTownBuildable())
         {
@@ -167,6 +249,13 @@ public class BoardGraph
 
         // Set the originating point as non-buildable
         point.setTownBuildable(false);
+
+        // The town may split routes of opponents, or link ships to roads
+        updateComponents(point);
+
+        // Neighbours can't get a town anymore
+        neighbours.add(point);
+        updateCandidates(neighbours);
     }
 
     /*
@@ -174,238 +263,320 @@ public class BoardGraph
      */
     public void addCity(City city)
     {
-        GraphPoint point = findGraphPoint(city.getPoint());
+        GraphPoint point = getGraphPoint(city.getPoint());
 
         point.setPlayerPiece(city);
     }
 
     public void addRoad(Road road)
     {
-        GraphSide side = getSideFromSet(road.getSide());
+        GraphSide side = getGraphSide(road.getSide());
 
         side.setPlayerPiece(road);
         side.setBuildable(false);
+
+        GraphPoint source = graph.getEdgeSource(side);
+        GraphPoint target = graph.getEdgeTarget(side);
+        updateComponents(source, target);
+        updateCandidates(source, target);
     }
 
-    /*
-     * Returns the second point of the given side, exlcuding the given point
-     */
-    private GraphPoint getOtherPoint(GraphPoint ignore, GraphSide side)
+    public void addShip(Ship ship)
     {
-        GraphPoint otherPoint = null;
-        otherPoint = graph.getEdgeSource(side);
-        if (ignore.equals(otherPoint))
-        {
-            return graph.getEdgeTarget(side);
-        }
-        else
-        {
-            return otherPoint;
-        }
+        GraphSide side = getGraphSide(ship.getSide());
+
+        side.setPlayerPiece(ship);
+        side.setBuildable(false);
+
+        GraphPoint source = graph.getEdgeSource(side);
+        GraphPoint target = graph.getEdgeTarget(side);
+        updateComponents(source, target);
+        updateCandidates(source, target);
     }
 
+    /*
+     * Returns a graph of all roads, ships and bridges of given player. Points
+     * with a piece of an opponent are split: each side of the player at such
+     * a point gets its own BlockedEndPoint, so no route passes through it.
+     */
     public UndirectedGraph<GraphPoint, GraphSide> getPlayerGraph(
             GamePlayer player)
     {
         UndirectedGraph<GraphPoint, GraphSide> result = new SimpleGraph<GraphPoint, GraphSide>(
                 GraphSide.class);
+        Set<GraphSide> visited = new HashSet<GraphSide>();
 
-        // Construct the players' graph with all his owned edges
         for (GraphSide side : graph.edgeSet())
         {
-            // Each encountered side ought to be unique.
-            if (side.getPlayer().equals(player))
-            {
-                GraphPoint source = graph.getEdgeSource(side);
-                GraphPoint target = graph.getEdgeTarget(side);
-                result.addVertex(source);
-                result.addVertex(target);
-                result.addEdge(source, target, side);
-            }
+            if (player.equals(side.getPlayer()) && visited.add(side))
+                collectComponent(player, side, visited, result);
         }
 
-        // Keep track of the points need splitting
-        List<GraphPoint> pointsToSplit = new ArrayList<GraphPoint>();
+        return result;
+    }
 
-        // Split points when there is a piece of an opponent,
-        // remove points when there are no roads/ships/bridges connecting
-        for (GraphPoint point : result.vertexSet())
-        {
-            // Split the chain when HexPoint is in use by another player
-            // TODO: add support for volcanos by checking for ship+road
-            // disconnects
-            if (point.getPlayer() != null && point.getPlayer() != player)
-            {
-                pointsToSplit.add(point);
-            }
-        }
+    /*
+     * Adds the sides of given player connected to given side to the result
+     * graph, splitting points with a piece of an opponent. Given side should
+     * already be in the set of visited sides.
+     */
+    private void collectComponent(GamePlayer player, GraphSide start,
+            Set<GraphSide> visited, UndirectedGraph<GraphPoint, GraphSide> result)
+    {
+        List<GraphSide> todo = new ArrayList<GraphSide>();
+        todo.add(start);
 
-        // Split marked points in subgraph
-        for (GraphPoint pointToSplit : pointsToSplit)
+        while (!todo.isEmpty())
         {
-            // Get rid of the old graphpoint containing the city/town/knight of
-            // opponent
-            result.removeVertex(pointToSplit);
-
-            for (GraphSide side : result.edgesOf(pointToSplit))
-            {
-                // Create the two new SplittedPoints
-                if (side.getPlayer().equals(player))
-                {
-                    // Create the splitted point
-                    BlockedEndPoint splittedPoint = new BlockedEndPoint(
-                            pointToSplit.getPoint());
+            GraphSide side = todo.remove(todo.size() - 1);
+            GraphPoint source = componentPoint(player, graph
+                    .getEdgeSource(side), visited, todo);
+            GraphPoint target = componentPoint(player, graph
+                    .getEdgeTarget(side), visited, todo);
+
+            result.addVertex(source);
+            result.addVertex(target);
+            result.addEdge(source, target, side);
+        }
+    }
 
-                    // Add the new splitted point to subgraph
-                    result.addVertex(splittedPoint);
+    /*
+     * Returns the point to use in a players' component for given point of
+     * the board. Routes are blocked by a piece of an opponent, so such a
+     * point is replaced by a new BlockedEndPoint. Otherwise, unvisited sides
+     * of the player on the point are added to the todo list.
+     */
+    private GraphPoint componentPoint(GamePlayer player, GraphPoint point,
+            Set<GraphSide> visited, List<GraphSide> todo)
+    {
+        // TODO: add support for volcanos by checking for ship+road
+        // disconnects
+        if (point.getPlayer() != null && !player.equals(point.getPlayer()))
+            return new BlockedEndPoint(point.getPoint());
 
-                    // Add removed edge to subgraph, along with it's new
-                    // splitted point
-                    result.addEdge(getOtherPoint(splittedPoint, side),
-                            splittedPoint, side);
-                }
-            }
+        for (GraphSide side : graph.edgesOf(point))
+        {
+            if (player.equals(side.getPlayer()) && visited.add(side))
+                todo.add(side);
         }
 
-        return result;
+        return point;
     }
 
     /*
-     * Calculate longest route 1. Create a PlayerGraph for every player 2. Split
-     * the playergraph in seperate islands (nonconnected graphs) 3. Calculate
-     * longest path for every playergraph of every player
+     * Returns the connected networks of given player, calculating them when
+     * not known yet
      */
-    public Route getLongestRoute(List<GamePlayer> players)
+    private List<PlayerGraph> getComponents(GamePlayer player)
     {
-        // Route longestRoute = new Route();
-
-        Set<UndirectedGraph<GraphPoint, GraphSide>> playerGraphs = new HashSet<UndirectedGraph<GraphPoint, GraphSide>>();
-
-        // Fill the set of graphs for each player
-        for (GamePlayer player : players)
+        List<PlayerGraph> components = playerComponents.get(player);
+        if (components == null)
         {
-            // Only consider players with at least 5 SidePieces
-            if (player.getBuildPieces().getSidePieces().size() >= 5)
+            components = new ArrayList<PlayerGraph>();
+            Set<GraphSide> visited = new HashSet<GraphSide>();
+            for (GraphSide side : graph.edgeSet())
             {
-                // Get the subgraph from the main graph
-                UndirectedGraph<GraphPoint, GraphSide> subGraph = getPlayerGraph(player);
-
-                // Add the graph when amount of vertices is equal or more then
-                // 5. No need
-                // to check longest road if there are not sufficient items to
-                // meet
-                // the requirement of at least 5 roads/ships/bridges per path
-                if (subGraph.vertexSet().size() >= 5)
-                {
-                    playerGraphs.add(subGraph);
-                }
+                if (player.equals(side.getPlayer()) && visited.add(side))
+                    components.add(newComponent(player, side, visited));
             }
+            playerComponents.put(player, components);
         }
 
-        // Graphs may have two properties:
-        // 1. Graphs with splits
-        // Amount of edges represents the length of the road
-        // 2. No points with degree = 1, any point in the graph has a degree of
-        // 2 or 3.
-        // When no points of degree = 3 (splits) exist, amount of edges
-        // represents length of the road
-        // When points of degree = 3 exist, compute longest path
+        return components;
+    }
 
-        return null;
+    private PlayerGraph newComponent(GamePlayer player, GraphSide start,
+            Set<GraphSide> visited)
+    {
+        UndirectedGraph<GraphPoint, GraphSide> component = new SimpleGraph<GraphPoint, GraphSide>(
+                GraphSide.class);
+        collectComponent(player, start, visited, component);
+
+        return new PlayerGraph(component, player);
     }
 
     /*
-     * Returns a set of PlayerGraphs derived from a graph containing all edges
-     * and vertices of a player
+     * Recalculates the networks of every known player touching any of given
+     * points. Networks elsewhere on the board are kept as they are.
      */
-    private Set<PlayerGraph> getSeperateSubGraphs(
-            UndirectedSubgraph<GraphPoint, GraphSide> subGraph)
+    private void updateComponents(GraphPoint... points)
     {
-        // List of subsets where we create new subsubgraphs from
-        Set<Set<GraphSide>> subSets = new HashSet<Set<GraphSide>>();
-
-        // Check every point and put it into a subgraph
-        for (GraphSide side : subGraph.edgeSet())
+        for (Map.Entry<GamePlayer, List<PlayerGraph>> entry : playerComponents
+                .entrySet())
         {
-            boolean isVisited = false;
-            for (Set<GraphSide> set : subSets)
+            GamePlayer player = entry.getKey();
+            List<PlayerGraph> components = entry.getValue();
+
+            // Throw away the networks of the player touching the points
+            for (Iterator<PlayerGraph> it = components.iterator(); it
+                    .hasNext();)
             {
-                if (set.contains(side))
-                    isVisited = true;
+                if (touches(it.next(), points))
+                    it.remove();
             }
-            if (!isVisited)
-            {
 
+            // Rebuild them from the sides of the player on the points
+            Set<GraphSide> visited = new HashSet<GraphSide>();
+            for (GraphPoint point : points)
+            {
+                for (GraphSide side : graph.edgesOf(point))
+                {
+                    if (player.equals(side.getPlayer()) && visited.add(side))
+                        components.add(newComponent(player, side, visited));
+                }
             }
-            Set<GraphSide> subSet = new HashSet<GraphSide>();
-            // subSet = getConnectedSides(subGraph, subSet, IGraphSide side);
         }
+    }
+
+    private boolean touches(PlayerGraph component, GraphPoint... points)
+    {
+        for (GraphPoint point : points)
+            for (GraphSide side : graph.edgesOf(point))
+                if (component.contains(side))
+                    return true;
 
-        return null;
+        return false;
     }
 
-    private Set<GraphSide> getConnectedSides(
-            UndirectedSubgraph<GraphPoint, GraphSide> subGraph,
-            Set<GraphSide> connectedSides, Set<GraphPoint> processedPoints,
-            GraphPoint point)
+    /*
+     * Forgets all calculated networks and build candidates. Needed after
+     * pieces on the graph are changed other than through addTown, addCity,
+     * addRoad and addShip.
+     */
+    public void invalidateRoutes()
     {
-        // Add each found edge to the list of connected edges, when not already
-        // present
-        for (GraphSide side : subGraph.edgeSet())
+        playerComponents.clear();
+        playerCandidates.clear();
+        freeTownPoints = null;
+        freeTownPointsView = null;
+    }
+
+    /*
+     * Returns the longest route of given player, or null when the player has
+     * no roads, ships or bridges
+     */
+    public Route getLongestRoute(GamePlayer player)
+    {
+        Route result = null;
+        for (PlayerGraph component : getComponents(player))
         {
-            // Add the side when not present
-            if (!connectedSides.contains(side))
-                connectedSides.add(side);
+            Route route = component.getLongestPath();
+            if (result == null || route.getLength() > result.getLength())
+                result = route;
         }
 
-        // Mark this point as "processed": we have added it's edges
-        processedPoints.add(point);
+        return result;
+    }
 
-        // Repeat the process for each neighbour point
-        List<GraphPoint> neighbours = Graphs.neighborListOf(subGraph, point);
+    /*
+     * Returns the longest route of at least 5 sides of given players, or null
+     * when there is none. When routes of different players have the same
+     * length, the route of the player first in the list is returned: pass the
+     * player holding the longest road first to let that player keep it on a
+     * tie.
+     */
+    public Route getLongestRoute(List<GamePlayer> players)
+    {
+        Route longestRoute = null;
 
-        for (GraphPoint neighbour : neighbours)
+        for (GamePlayer player : players)
         {
-            if (!processedPoints.contains(neighbour))
-                getConnectedSides(subGraph, connectedSides, processedPoints,
-                        neighbour);
+            // Only consider players with at least 5 SidePieces
+            if (player.getBuildPieces().getSidePieceCount() >= 5)
+            {
+                Route route = getLongestRoute(player);
+                if (route != null
+                        && route.getLength() >= 5
+                        && (longestRoute == null || route.getLength() > longestRoute
+                                .getLength()))
+                    longestRoute = route;
+            }
         }
 
-        return connectedSides;
+        return longestRoute;
     }
 
+    /*
+     * Returns the points where given player can build a town during a turn:
+     * empty, far enough from other towns and connected to a road or ship of
+     * the player. The returned set is read-only and follows the board.
+     */
     public Set<GraphPoint> getTownCandidatesTurnPhase(GamePlayer forPlayer)
     {
-        Set<GraphPoint> result = new HashSet<GraphPoint>();
-
-        return result;
+        return getCandidates(forPlayer).townsView;
     }
 
     /*
      * Returns a set of possibilties for a player to build on, for his first
-     * town
+     * town. The returned set is read-only and follows the board.
      */
     public Set<GraphPoint> getTownCandidatesFirstTown(GamePlayer forPlayer)
     {
-        Set<GraphPoint> result = new HashSet<GraphPoint>();
-
-        for (GraphPoint possibleCandidate : graph.vertexSet())
+        if (freeTownPoints == null)
         {
-            if (board.isTownBuildable(possibleCandidate)
-                    && possibleCandidate.isTownBuildable())
+            freeTownPoints = new HashSet<GraphPoint>();
+            for (GraphPoint point : graph.vertexSet())
             {
-                result.add(possibleCandidate);
+                if (isFreeTownPoint(point))
+                    freeTownPoints.add(point);
             }
+            freeTownPointsView = Collections.unmodifiableSet(freeTownPoints);
         }
 
-        int i = result.size();
-        if (i > 0)
+        return freeTownPointsView;
+    }
+
+    private boolean isFreeTownPoint(GraphPoint point)
+    {
+        return point.getPiece() == null && point.isTownBuildable()
+                && board.isTownBuildable(point);
+    }
+
+    /*
+     * Returns the build candidates of given player, calculating them when not
+     * known yet
+     */
+    private BuildCandidates getCandidates(GamePlayer player)
+    {
+        BuildCandidates candidates = playerCandidates.get(player);
+        if (candidates == null)
         {
-            int g = 8;
-            g++;
+            candidates = new BuildCandidates(player);
+            candidates.update(graph.vertexSet());
+            playerCandidates.put(player, candidates);
         }
 
-        return result;
+        return candidates;
+    }
+
+    /*
+     * Updates the candidates of every known player for given points and the
+     * sides touching them. Candidates elsewhere on the board are kept as they
+     * are.
+     */
+    private void updateCandidates(GraphPoint... points)
+    {
+        updateCandidates(Arrays.asList(points));
+    }
+
+    private void updateCandidates(Collection<GraphPoint> points)
+    {
+        if (freeTownPoints != null)
+        {
+            for (GraphPoint point : points)
+                include(freeTownPoints, point, isFreeTownPoint(point));
+        }
+
+        for (BuildCandidates candidates : playerCandidates.values())
+            candidates.update(points);
+    }
+
+    private static <T> void include(Set<T> set, T element, boolean include)
+    {
+        if (include)
+            set.add(element);
+        else
+            set.remove(element);
     }
 
     private boolean canBuildOnNeighbours(GraphPoint point)
@@ -444,7 +615,7 @@ public class BoardGraph
         Town town = (Town) player.getBuildPieces().get(0);
 
         // Grab the GraphPoint where the town resides
-        GraphPoint townPoint = findGraphPoint(town.getPoint());
+        GraphPoint townPoint = getGraphPoint(town.getPoint());
 
         // We assume it's safe to return all edges, because an opponent can't
         // build on a neighbour, since the opponent needs two roads for that.
@@ -462,7 +633,7 @@ public class BoardGraph
         Town town = (Town) player.getBuildPieces().get(2);
 
         // Grab the GraphPoint where the town resides
-        GraphPoint townPoint = findGraphPoint(town.getPoint());
+        GraphPoint townPoint = getGraphPoint(town.getPoint());
 
         // We assume it's safe to return all edges, because an opponent can't
         // build on a neighbour, since the opponent needs two roads for that.
@@ -470,42 +641,23 @@ public class BoardGraph
     }
 
     /*
-     * Returns a set of GraphSides where given player can build on
+     * Returns a set of GraphSides where given player can build a road on:
+     * empty land sides connected to a town, city or road of the player. The
+     * returned set is read-only and follows the board.
      */
     public Set<GraphSide> getRoadCandidates(GamePlayer player)
     {
-        Set<GraphSide> result = new HashSet<GraphSide>();
-        List<GraphSide> currentSidePieces = new ArrayList<GraphSide>();
-        for (GraphSide side : graph.edgeSet())
-        {
-            if (side.getPlayer().equals(player))
-                currentSidePieces.add(side);
-        }
-
-        for (GraphSide side : currentSidePieces)
-        {
-            for (GraphSide neighbour : getNeighbours(side))
-            {
-                // Only add neighbour when not yet present, and another player
-                // does not own it yet
-                if ((neighbour.getPlayer() == null || neighbour.getPlayer()
-                        .equals(player))
-                        && !result.contains(neighbour)
-                        && board.isRoadBuildable(neighbour))
-                    result.add(neighbour);
-            }
-        }
-
-        return result;
+        return getCandidates(player).roadsView;
     }
 
+    /*
+     * Returns a set of GraphSides where given player can build a ship on:
+     * empty sea sides connected to a town, city or ship of the player. The
+     * returned set is read-only and follows the board.
+     */
     public Set<GraphSide> getShipBuildCandidates(GamePlayer player)
     {
-        Set<GraphSide> result = new HashSet<GraphSide>();
-
-        // TODO: implement
-
-        return result;
+        return getCandidates(player).shipsView;
     }
 
     public Set<GraphSide> getShipMoveCandidates(GamePlayer player)
@@ -517,13 +669,14 @@ public class BoardGraph
         return result;
     }
 
+    /*
+     * Returns a set of GraphSides where given player can build a bridge on.
+     * There is no bridge piece yet, so the set is always empty: the UseBridges
+     * rule only sets the amount of bridges in stock.
+     */
     public Set<GraphSide> getBridgeBuildCandidates(GamePlayer player)
     {
-        Set<GraphSide> result = new HashSet<GraphSide>();
-
-        // TODO: implement
-
-        return result;
+        return Collections.emptySet();
     }
 
     public Set<GraphSide> getNeighbours(GraphSide fromSide)
@@ -554,4 +707,129 @@ public class BoardGraph
         }
         return result;
     }
+
+    /*
+     * The places one player can build on. Each point or side is checked again
+     * when a piece is added on or next to it.
+     */
+    private class BuildCandidates
+    {
+        private GamePlayer player;
+        private Set<GraphPoint> towns = new HashSet<GraphPoint>();
+        private Set<GraphSide> roads = new HashSet<GraphSide>();
+        private Set<GraphSide> ships = new HashSet<GraphSide>();
+
+        private Set<GraphPoint> townsView = Collections.unmodifiableSet(towns);
+        private Set<GraphSide> roadsView = Collections.unmodifiableSet(roads);
+        private Set<GraphSide> shipsView = Collections.unmodifiableSet(ships);
+
+        public BuildCandidates(GamePlayer player)
+        {
+            this.player = player;
+        }
+
+        /*
+         * Checks given points and the sides touching them again
+         */
+        public void update(Collection<GraphPoint> points)
+        {
+            for (GraphPoint point : points)
+            {
+                include(towns, point, isFreeTownPoint(point)
+                        && hasSide(point));
+
+                for (GraphSide side : graph.edgesOf(point))
+                {
+                    boolean free = side.getPiece() == null;
+                    include(roads, side, free && board.isRoadBuildable(side)
+                            && connects(side, false));
+                    include(ships, side, free && board.isShipBuildable(side)
+                            && connects(side, true));
+                }
+            }
+        }
+
+        /*
+         * Returns true when the player has a road or ship on given point
+         */
+        private boolean hasSide(GraphPoint point)
+        {
+            for (GraphSide side : graph.edgesOf(point))
+            {
+                if (player.equals(side.getPlayer()))
+                    return true;
+            }
+
+            return false;
+        }
+
+        /*
+         * Returns true when given side connects to a town or city of the
+         * player, or to a ship or road of the player not cut off by a piece
+         * of an opponent
+         */
+        private boolean connects(GraphSide side, boolean ship)
+        {
+            return connects(graph.getEdgeSource(side), side, ship)
+                    || connects(graph.getEdgeTarget(side), side, ship);
+        }
+
+        private boolean connects(GraphPoint point, GraphSide from, boolean ship)
+        {
+            if (point.getPiece() != null)
+                return player.equals(point.getPlayer());
+
+            for (GraphSide side : graph.edgesOf(point))
+            {
+                if (side != from && player.equals(side.getPlayer())
+                        && (side.getPiece() instanceof Ship) == ship)
+                    return true;
+            }
+
+            return false;
+        }
+    }
+
+    /*
+     * Keeps the point and side indexes in step with the graph. Points and
+     * sides outside the board's coordinate table can't be looked up.
+     */
+    private class IndexUpdater implements GraphListener<GraphPoint, GraphSide>
+    {
+        @Override
+        public void vertexAdded(GraphVertexChangeEvent<GraphPoint> e)
+        {
+            GraphPoint point = e.getVertex();
+            HexPoint canonical = coordinates.getPoint(point.getPoint());
+            if (canonical != null)
+                pointIndex[canonical.getId()] = point;
+        }
+
+        @Override
+        public void vertexRemoved(GraphVertexChangeEvent<GraphPoint> e)
+        {
+            GraphPoint point = e.getVertex();
+            HexPoint canonical = coordinates.getPoint(point.getPoint());
+            if (canonical != null && pointIndex[canonical.getId()] == point)
+                pointIndex[canonical.getId()] = null;
+        }
+
+        @Override
+        public void edgeAdded(GraphEdgeChangeEvent<GraphPoint, GraphSide> e)
+        {
+            GraphSide side = e.getEdge();
+            HexSide canonical = coordinates.getSide(side.getSide());
+            if (canonical != null)
+                sideIndex[canonical.getId()] = side;
+        }
+
+        @Override
+        public void edgeRemoved(GraphEdgeChangeEvent<GraphPoint, GraphSide> e)
+        {
+            GraphSide side = e.getEdge();
+            HexSide canonical = coordinates.getSide(side.getSide());
+            if (canonical != null && sideIndex[canonical.getId()] == side)
+                sideIndex[canonical.getId()] = null;
+        }
+    }
 }
@@ -1,15 +1,32 @@
 package soc.common.board.routing;
 
 import java.util.ArrayList;
-import java.util.HashSet;
+import java.util.HashMap;
 import java.util.List;
-import java.util.Set;
+import java.util.Map;
 
 import org.jgrapht.UndirectedGraph;
-import org.jgrapht.graph.SimpleGraph;
 
+import soc.common.board.pieces.Ship;
 import soc.common.game.GamePlayer;
 
+/*
+ * One connected network of roads, ships and bridges of a player, with its
+ * longest route.
+ * 
+ * The base graph is a component of the player's graph as returned by
+ * BoardGraph.getPlayerGraph: points with a piece of an opponent are already
+ * replaced by a BlockedEndPoint for each side, so a route can end there but
+ * never pass through.
+ * 
+ * The longest route is the longest trail: a walk using each side at most
+ * once, which may visit a point more than once. A route may only change
+ * between ships and roads/bridges on a point holding a town or city of the
+ * player. Finding the longest trail is a depth first search over the sides,
+ * started from every point where a longest trail can start: ends, splits and
+ * points where ships and roads meet without a town. When every point has two
+ * sides the network is a loop, and any point will do.
+ */
 public class PlayerGraph
 {
     // Set of GraphPoints connected to only one GraphSide
@@ -18,52 +35,210 @@ public class PlayerGraph
     // Set of GraphPoints connected to three GraphSides
     private List<GraphPoint> splits = new ArrayList<GraphPoint>();
 
-    private UndirectedGraph<GraphPoint, GraphSide> graph = new SimpleGraph<GraphPoint, GraphSide>(
-            GraphSide.class);
     UndirectedGraph<GraphPoint, GraphSide> base;
     private Route longestPath;
     private GamePlayer player;
 
+    // Search state: points and sides numbered, sides by point
+    private GraphPoint[] points;
+    private GraphSide[] sides;
+    private int[] sideSource;
+    private int[] sideTarget;
+    private boolean[] sideIsShip;
+    private boolean[] canSwitch;
+    private int[][] sidesOfPoint;
+    private boolean[] used;
+    private int[] trail;
+    private int[] bestTrail;
+    private int bestLength;
+    private int bestStart;
+
     public PlayerGraph(UndirectedGraph<GraphPoint, GraphSide> base,
             GamePlayer player)
     {
         this.base = base;
+        this.player = player;
 
         constructEndsAndSplits();
 
-        // If there are no splits, all the edges belong to the longest path
-        if (splits.size() == 0)
-        {
-            longestPath = new RouteImpl(base, base.edgeSet(), player);
-        }
-        else
-        // We have splits. Create weighted graph where every split is a new
-        // node, with edge weight
-        // representing amount of edges between a split
-        {
-            calculatLongestPath();
-        }
+        calculateLongestPath();
+    }
+
+    /*
+     * Returns the longest route of this network, or null when it has no sides
+     */
+    public Route getLongestPath()
+    {
+        return longestPath;
+    }
 
+    public GamePlayer getPlayer()
+    {
+        return player;
     }
 
-    private void calculatLongestPath()
+    public UndirectedGraph<GraphPoint, GraphSide> getGraph()
     {
-        // Create a set of paths (set of edges) for every split
-        List<Set<GraphSide>> paths = new ArrayList<Set<GraphSide>>();
-        for (GraphPoint split : splits)
+        return base;
+    }
+
+    /*
+     * Returns true when given side is part of this network
+     */
+    public boolean contains(GraphSide side)
+    {
+        return base.containsEdge(side);
+    }
+
+    public List<GraphPoint> getEnds()
+    {
+        return ends;
+    }
+
+    public List<GraphPoint> getSplits()
+    {
+        return splits;
+    }
+
+    private void calculateLongestPath()
+    {
+        int sideCount = base.edgeSet().size();
+        if (sideCount == 0)
+            return;
+
+        numberPointsAndSides();
+
+        used = new boolean[sideCount];
+        trail = new int[sideCount];
+        bestTrail = new int[sideCount];
+        bestLength = 0;
+
+        // Start from each point where a longest trail may start. A trail
+        // starting at a point with two sides which can be passed can be made
+        // at least as long by starting elsewhere.
+        boolean started = false;
+        for (int point = 0; point < points.length
+                && bestLength < sideCount; point++)
         {
-            Set<GraphSide> neighbourSides = base.edgesOf(split);
-            for (GraphSide side : neighbourSides)
+            if (isStart(point))
             {
-                Set<GraphSide> path = new HashSet<GraphSide>();
-                path.add(side);
+                started = true;
+                search(point, point, -1, 0);
             }
+        }
+
+        // A loop: start anywhere
+        if (!started)
+            search(0, 0, -1, 0);
 
+        List<GraphSide> route = new ArrayList<GraphSide>(bestLength);
+        for (int i = 0; i < bestLength; i++)
+            route.add(sides[bestTrail[i]]);
+        longestPath = new RouteImpl(base, route, points[bestStart], player);
+
+        // Only the result is kept
+        points = null;
+        sides = null;
+        sideSource = null;
+        sideTarget = null;
+        sideIsShip = null;
+        canSwitch = null;
+        sidesOfPoint = null;
+        used = null;
+        trail = null;
+        bestTrail = null;
+    }
+
+    private boolean isStart(int point)
+    {
+        int[] pointSides = sidesOfPoint[point];
+        if (pointSides.length != 2)
+            return true;
+
+        return !canPass(point, pointSides[0], pointSides[1]);
+    }
+
+    /*
+     * Returns true when a route can continue from one side to the other on
+     * given point
+     */
+    private boolean canPass(int point, int fromSide, int toSide)
+    {
+        return sideIsShip[fromSide] == sideIsShip[toSide] || canSwitch[point];
+    }
+
+    /*
+     * Extends the current trail of given length, ending at given point
+     * through the last side, with every unused side of the point
+     */
+    private void search(int start, int point, int lastSide, int length)
+    {
+        if (length > bestLength)
+        {
+            bestLength = length;
+            bestStart = start;
+            System.arraycopy(trail, 0, bestTrail, 0, length);
+        }
+
+        for (int side : sidesOfPoint[point])
+        {
+            // Stop as soon as every side is used, nothing beats that
+            if (bestLength == sides.length)
+                return;
+
+            if (used[side])
+                continue;
+            if (lastSide >= 0 && !canPass(point, lastSide, side))
+                continue;
+
+            used[side] = true;
+            trail[length] = side;
+            search(start, sideSource[side] == point ? sideTarget[side]
+                    : sideSource[side], side, length + 1);
+            used[side] = false;
         }
     }
 
-    private void constructRoad(GraphPoint start)
+    /*
+     * Puts the points and sides in arrays, so the search needs no hashing
+     */
+    private void numberPointsAndSides()
     {
+        points = base.vertexSet().toArray(new GraphPoint[0]);
+        sides = base.edgeSet().toArray(new GraphSide[0]);
+
+        Map<GraphPoint, Integer> pointIds = new HashMap<GraphPoint, Integer>();
+        canSwitch = new boolean[points.length];
+        for (int i = 0; i < points.length; i++)
+        {
+            pointIds.put(points[i], i);
+
+            // A town or city of the player links ships to roads
+            canSwitch[i] = player != null
+                    && player.equals(points[i].getPlayer());
+        }
+
+        sideSource = new int[sides.length];
+        sideTarget = new int[sides.length];
+        sideIsShip = new boolean[sides.length];
+        int[] degree = new int[points.length];
+        for (int i = 0; i < sides.length; i++)
+        {
+            sideSource[i] = pointIds.get(base.getEdgeSource(sides[i]));
+            sideTarget[i] = pointIds.get(base.getEdgeTarget(sides[i]));
+            sideIsShip[i] = sides[i].getPiece() instanceof Ship;
+            degree[sideSource[i]]++;
+            degree[sideTarget[i]]++;
+        }
+
+        sidesOfPoint = new int[points.length][];
+        for (int i = 0; i < points.length; i++)
+            sidesOfPoint[i] = new int[degree[i]];
+        for (int i = 0; i < sides.length; i++)
+        {
+            sidesOfPoint[sideSource[i]][--degree[sideSource[i]]] = i;
+            sidesOfPoint[sideTarget[i]][--degree[sideTarget[i]]] = i;
+        }
     }
 
     private void constructEndsAndSplits()
@@ -1,28 +1,39 @@
 package soc.common.board.routing;
 
 import java.util.List;
-import java.util.Set;
 
 import org.jgrapht.Graph;
 import org.jgrapht.UndirectedGraph;
 
 import soc.common.game.GamePlayer;
 
+/*
+ * A route of a player: a trail of sides in the order they are walked,
+ * starting at the start vertex.
+ */
 public class RouteImpl implements Route
 {
     List<GraphSide> edges;
     transient UndirectedGraph<GraphPoint, GraphSide> baseGraph;
     transient GamePlayer player;
+    transient GraphPoint start;
+    transient GraphPoint end;
 
     public RouteImpl(UndirectedGraph<GraphPoint, GraphSide> baseGraph,
-            Set<GraphSide> edges, GamePlayer player)
+            List<GraphSide> edges, GraphPoint start, GamePlayer player)
     {
         this.baseGraph = baseGraph;
+        this.edges = edges;
+        this.start = start;
+        this.player = player;
 
+        // Walk the trail to find where it ends
+        end = start;
         for (GraphSide side : edges)
-            this.edges.add(side);
-
-        this.player = player;
+        {
+            GraphPoint source = baseGraph.getEdgeSource(side);
+            end = source.equals(end) ? baseGraph.getEdgeTarget(side) : source;
+        }
     }
 
     @Override
@@ -46,10 +57,7 @@ public class RouteImpl implements Route
     @Override
     public GraphPoint getEndVertex()
     {
-        int lastIndex = edges.size() - 1;
-        GraphPoint source = baseGraph.getEdgeSource(edges.get(lastIndex));
-        return baseGraph.degreeOf(source) == 1 ? source : baseGraph
-                .getEdgeTarget(edges.get(lastIndex));
+        return end;
     }
 
     @Override
@@ -61,9 +69,7 @@ public class RouteImpl implements Route
     @Override
     public GraphPoint getStartVertex()
     {
-        GraphPoint source = baseGraph.getEdgeSource(edges.get(0));
-        return baseGraph.degreeOf(source) == 1 ? source : baseGraph
-                .getEdgeTarget(edges.get(0));
+        return start;
     }
 
     @Override
@@ -0,0 +1,271 @@
+package soc.common.board.rules;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import soc.common.board.Board;
+import soc.common.board.HexChangedEvent;
+import soc.common.board.HexChangedEventHandler;
+import soc.common.board.HexCoordinateTable;
+import soc.common.board.HexGrid;
+import soc.common.board.HexLocation;
+
+import com.google.gwt.event.shared.HandlerRegistration;
+
+/*
+ * Keeps the violations of a set of design rules on a board up to date while
+ * the board is edited.
+ * 
+ * LocalDesignRules are checked per hex. When a hex changes, only the hexes
+ * within the radius of each rule around it are checked again, and the
+ * locations breaking a rule are kept per rule. Other rules are checked for
+ * the whole board by validate() and validateBoardRules(), for instance after
+ * changing the board settings.
+ */
+public class DesignRuleValidator
+{
+    private final Board board;
+    private final List<DesignRule> rules;
+
+    // Locations breaking each local rule
+    private final Map<DesignRule, Set<HexLocation>> violations = new HashMap<DesignRule, Set<HexLocation>>();
+
+    // Board wide rules which are not met
+    private final Set<DesignRule> failedBoardRules = new HashSet<DesignRule>();
+
+    private HexGrid hexes;
+    private HexCoordinateTable coordinates;
+    private HandlerRegistration hexChangedRegistration;
+
+    public DesignRuleValidator(Board board, List<DesignRule> rules)
+    {
+        this.board = board;
+        this.rules = new ArrayList<DesignRule>(rules);
+
+        for (DesignRule rule : rules)
+        {
+            if (rule instanceof LocalDesignRule)
+                violations.put(rule, new HashSet<HexLocation>());
+        }
+
+        validate();
+    }
+
+    /*
+     * Checks all rules against the whole board. Call after replacing the hexes
+     * of the board at once, such as by resizing it.
+     */
+    public void validate()
+    {
+        if (hexes != board.getHexes())
+            attach();
+
+        for (DesignRule rule : rules)
+        {
+            if (rule instanceof LocalDesignRule)
+            {
+                Set<HexLocation> locations = violations.get(rule);
+                locations.clear();
+
+                for (int h = 0; h < board.getHeight(); h++)
+                    for (int w = 0; w < board.getWidth(); w++)
+                        check((LocalDesignRule) rule, coordinates
+                                .getLocation(w, h), locations);
+            }
+        }
+
+        validateBoardRules();
+    }
+
+    /*
+     * Checks the rules which are not checked per hex against the board
+     */
+    public void validateBoardRules()
+    {
+        failedBoardRules.clear();
+
+        for (DesignRule rule : rules)
+        {
+            if (!(rule instanceof LocalDesignRule) && !rule.invoke(board))
+                failedBoardRules.add(rule);
+        }
+    }
+
+    private void attach()
+    {
+        detach();
+
+        hexes = board.getHexes();
+        coordinates = HexCoordinateTable.get(board.getWidth(), board
+                .getHeight());
+        hexChangedRegistration = hexes
+                .addHexChangedHandler(new HexChangedEventHandler()
+                {
+                    @Override
+                    public void onHexChanged(HexChangedEvent event)
+                    {
+                        validate(event.getNewHex().getLocation());
+                    }
+                });
+    }
+
+    /*
+     * Stops following the changes of the board
+     */
+    public void detach()
+    {
+        if (hexChangedRegistration != null)
+        {
+            hexChangedRegistration.removeHandler();
+            hexChangedRegistration = null;
+        }
+        hexes = null;
+    }
+
+    /*
+     * Checks the local rules again for the hexes around given changed location
+     */
+    public void validate(HexLocation changed)
+    {
+        HexLocation location = coordinates.getLocation(changed);
+        if (location == null)
+            return;
+
+        for (DesignRule rule : rules)
+        {
+            if (rule instanceof LocalDesignRule)
+            {
+                LocalDesignRule localRule = (LocalDesignRule) rule;
+                Set<HexLocation> locations = violations.get(rule);
+
+                for (HexLocation affected : region(location, localRule
+                        .getRadius()))
+                    check(localRule, affected, locations);
+            }
+        }
+    }
+
+    private void check(LocalDesignRule rule, HexLocation location,
+            Set<HexLocation> locations)
+    {
+        if (rule.isViolatedAt(board, location))
+            locations.add(location);
+        else
+            locations.remove(location);
+    }
+
+    /*
+     * Returns the locations on the board within given distance of given
+     * location
+     */
+    private List<HexLocation> region(HexLocation center, int radius)
+    {
+        List<HexLocation> result = new ArrayList<HexLocation>();
+        Set<HexLocation> seen = new HashSet<HexLocation>();
+        result.add(center);
+        seen.add(center);
+
+        // Breadth first, one ring of neighbours per step
+        int ringStart = 0;
+        for (int distance = 0; distance < radius; distance++)
+        {
+            int ringEnd = result.size();
+            for (int i = ringStart; i < ringEnd; i++)
+            {
+                for (HexLocation neighbour : result.get(i).getNeighbours())
+                {
+                    HexLocation location = coordinates.getLocation(neighbour);
+                    if (location != null && seen.add(location))
+                        result.add(location);
+                }
+            }
+            ringStart = ringEnd;
+        }
+
+        // Drop the locations outside the board
+        List<HexLocation> onBoard = new ArrayList<HexLocation>(result.size());
+        for (HexLocation location : result)
+        {
+            if (location.fallsInsideBoardBounds(board.getWidth(), board
+                    .getHeight()))
+                onBoard.add(location);
+        }
+
+        return onBoard;
+    }
+
+    /*
+     * Returns true when no rule with ERROR severity is broken
+     */
+    public boolean isValid()
+    {
+        for (DesignRule rule : getViolatedRules())
+        {
+            if (rule.getSeverity() == RuleSeverity.ERROR)
+                return false;
+        }
+
+        return true;
+    }
+
+    /*
+     * Returns true when given rule is met on the whole board
+     */
+    public boolean isMet(DesignRule rule)
+    {
+        if (rule instanceof LocalDesignRule)
+            return violations.get(rule).isEmpty();
+
+        return !failedBoardRules.contains(rule);
+    }
+
+    /*
+     * Returns the rules broken somewhere on the board, in the order given
+     */
+    public List<DesignRule> getViolatedRules()
+    {
+        List<DesignRule> result = new ArrayList<DesignRule>();
+
+        for (DesignRule rule : rules)
+        {
+            if (!isMet(rule))
+                result.add(rule);
+        }
+
+        return result;
+    }
+
+    /*
+     * Returns the local rules broken by the hex at given location
+     */
+    public List<DesignRule> getViolatedRules(HexLocation location)
+    {
+        List<DesignRule> result = new ArrayList<DesignRule>();
+
+        for (DesignRule rule : rules)
+        {
+            if (rule instanceof LocalDesignRule
+                    && violations.get(rule).contains(location))
+                result.add(rule);
+        }
+
+        return result;
+    }
+
+    /*
+     * Returns the locations breaking given local rule
+     */
+    public Set<HexLocation> getViolations(DesignRule rule)
+    {
+        Set<HexLocation> locations = violations.get(rule);
+        if (locations == null)
+            return Collections.emptySet();
+
+        return Collections.unmodifiableSet(locations);
+    }
+}
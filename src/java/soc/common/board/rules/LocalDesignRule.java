@@ -0,0 +1,24 @@
+package soc.common.board.rules;
+
+import soc.common.board.Board;
+import soc.common.board.HexLocation;
+
+/*
+ * Design rule checked per hex. Whether a hex breaks the rule depends only on
+ * the hexes within a radius around it, so after changing a hex only the hexes
+ * within that radius need checking again.
+ */
+public interface LocalDesignRule extends DesignRule
+{
+    /*
+     * Returns the distance in hexes up to which the hexes around a location
+     * decide whether the rule is met at that location. A radius of 0 means
+     * only the hex itself matters.
+     */
+    public int getRadius();
+
+    /*
+     * Returns true when the hex at given location breaks this rule
+     */
+    public boolean isViolatedAt(Board board, HexLocation location);
+}
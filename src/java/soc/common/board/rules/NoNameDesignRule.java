@@ -23,7 +23,8 @@ public class NoNameDesignRule implements DesignRule
     @Override
     public boolean invoke(Board b)
     {
-        if (b.getBoardSettings().getName() != null)
+        if (b.getBoardSettings() != null
+                && b.getBoardSettings().getName() != null)
         {
             if (b.getBoardSettings().getName().length() > 0)
             {
@@ -9,14 +9,14 @@ import soc.common.board.hexes.SeaHex;
 /*
  * NoneHexes should always be bordered with SeaHexes. 
  */
-public class NoneHexOnlyBorderSea implements DesignRule
+public class NoneHexOnlyBorderSea implements LocalDesignRule
 {
 
     @Override
     public String getProblem()
     {
-        // TODO: fix message
-        return null;
+        // TODO: internationalize message
+        return "A NoneHex borders a hex which is not a SeaHex";
     }
 
     @Override
@@ -36,26 +36,44 @@ public class NoneHexOnlyBorderSea implements DesignRule
         // Check all Hexes
         for (Hex hex : b.getHexes())
         {
-            // Only check when we encounter a NoneHex
-            if (hex instanceof NoneHex)
-            {
-                // Check each neighbour inside the board bounds if it's a
-                // SeaHex.
-                for (HexLocation neighbour : hex.getLocation().getNeighbours())
-                {
-                    if (neighbour.fallsInsideBoardBounds(b.getWidth(), b
-                            .getHeight())
-                            && !(b.getHexes().get(neighbour) instanceof SeaHex))
-                    {
-                        // Non-SeaHex found, this rule is not met.
-                        return false;
-                    }
-                }
-            }
+            if (isViolatedAt(b, hex.getLocation()))
+                return false;
         }
 
         // All NoneHexes have only SeaHexes as neighbours, evaulate to true
         return true;
     }
 
+    /*
+     * A NoneHex depends on its direct neighbours
+     * 
+     * @see soc.common.board.rules.LocalDesignRule#getRadius()
+     */
+    @Override
+    public int getRadius()
+    {
+        return 1;
+    }
+
+    @Override
+    public boolean isViolatedAt(Board b, HexLocation location)
+    {
+        // Only check when we encounter a NoneHex
+        if (!(b.getHexes().get(location) instanceof NoneHex))
+            return false;
+
+        // Check each neighbour inside the board bounds if it's a SeaHex.
+        for (HexLocation neighbour : location.getNeighbours())
+        {
+            if (neighbour.fallsInsideBoardBounds(b.getWidth(), b.getHeight())
+                    && !(b.getHexes().get(neighbour) instanceof SeaHex))
+            {
+                // Non-SeaHex found, this rule is not met.
+                return true;
+            }
+        }
+
+        return false;
+    }
+
 }
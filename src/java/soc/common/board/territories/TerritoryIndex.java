@@ -0,0 +1,211 @@
+package soc.common.board.territories;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import soc.common.annotations.SeaFarers;
+import soc.common.board.Board;
+import soc.common.board.HexCoordinateTable;
+import soc.common.board.HexLocation;
+import soc.common.board.HexPoint;
+import soc.common.board.hexes.Hex;
+import soc.common.game.GamePlayer;
+
+/*
+ * Territories of a board in play by location, and the territories each
+ * player has settled.
+ * 
+ * The territory of each hex and the territories touching each point are
+ * computed once when the board is prepared for play, as hexes don't change
+ * during a game. Settled territories are kept as a bitset per player, updated
+ * when a player builds a town. Looking up a territory and checking whether a
+ * player has settled it don't walk any hexes.
+ */
+@SeaFarers
+public class TerritoryIndex
+{
+    private static final List<Territory> NONE = Collections.emptyList();
+
+    private final HexCoordinateTable coordinates;
+
+    // Territory of each hex, by id of its canonical HexLocation
+    private final Territory[] hexTerritories;
+
+    // Distinct territories of the hexes of each point, by id of its canonical
+    // HexPoint
+    private final List<List<Territory>> pointTerritories;
+
+    // Bit of each territory in the settled bitsets
+    private final Map<Territory, Integer> bits;
+
+    // Territories settled by each player: a bit per territory
+    private final Map<GamePlayer, long[]> settled = new HashMap<GamePlayer, long[]>();
+
+    // Amount of players settled on each territory, by bit
+    private final int[] settlerCounts;
+
+    public TerritoryIndex(Board board)
+    {
+        coordinates = HexCoordinateTable.get(board.getWidth(), board
+                .getHeight());
+
+        bits = new HashMap<Territory, Integer>();
+        for (Territory territory : board.getTerritories())
+            bits.put(territory, Integer.valueOf(bits.size()));
+        settlerCounts = new int[bits.size()];
+
+        hexTerritories = new Territory[coordinates.getLocationCount()];
+        for (Hex hex : board.getHexes())
+        {
+            HexLocation location = coordinates.getLocation(hex.getLocation());
+            if (location != null && bits.containsKey(hex.getTerritory()))
+                hexTerritories[location.getId()] = hex.getTerritory();
+        }
+
+        pointTerritories = new ArrayList<List<Territory>>(Collections.nCopies(
+                coordinates.getPointCount(), NONE));
+        for (HexPoint point : coordinates.getPoints())
+        {
+            List<Territory> territories = null;
+            for (HexLocation location : point.getHexLocations())
+            {
+                Territory territory = getTerritory(location);
+                if (territory == null)
+                    continue;
+
+                if (territories == null)
+                    territories = new ArrayList<Territory>(1);
+                if (!territories.contains(territory))
+                    territories.add(territory);
+            }
+
+            if (territories != null)
+                pointTerritories.set(point.getId(), Collections
+                        .unmodifiableList(territories));
+        }
+    }
+
+    /*
+     * Copy constructor. Territories are shared, settled territories are
+     * copied for the copies of the players.
+     */
+    private TerritoryIndex(TerritoryIndex original, Map<Object, Object> copies)
+    {
+        coordinates = original.coordinates;
+        hexTerritories = original.hexTerritories;
+        pointTerritories = original.pointTerritories;
+        bits = original.bits;
+        settlerCounts = original.settlerCounts.clone();
+
+        for (Map.Entry<GamePlayer, long[]> entry : original.settled.entrySet())
+        {
+            GamePlayer player = (GamePlayer) copies.get(entry.getKey());
+            settled.put(player == null ? entry.getKey() : player, entry
+                    .getValue().clone());
+        }
+    }
+
+    /*
+     * Returns a copy of this index for a copy of a game. Players are replaced
+     * by their copy in given map of copies.
+     */
+    public TerritoryIndex copy(Map<Object, Object> copies)
+    {
+        return new TerritoryIndex(this, copies);
+    }
+
+    /*
+     * Returns the territory of the hex at given location, or null when the
+     * hex is not part of a territory
+     */
+    public Territory getTerritory(HexLocation location)
+    {
+        HexLocation canonical = coordinates.getLocation(location);
+        return canonical == null ? null : hexTerritories[canonical.getId()];
+    }
+
+    /*
+     * Returns the territories of the hexes touching given point
+     */
+    public List<Territory> getTerritories(HexPoint point)
+    {
+        HexPoint canonical = coordinates.getPoint(point);
+        return canonical == null ? NONE : pointTerritories.get(canonical
+                .getId());
+    }
+
+    /*
+     * Returns true when given player has built on given territory
+     */
+    public boolean isSettled(GamePlayer player, Territory territory)
+    {
+        long[] playerBits = settled.get(player);
+        Integer bit = bits.get(territory);
+        if (playerBits == null || bit == null)
+            return false;
+
+        int index = bit.intValue();
+        return (playerBits[index >> 6] & (1L << (index & 63))) != 0;
+    }
+
+    /*
+     * Returns the amount of territories given player has built on
+     */
+    public int getSettledCount(GamePlayer player)
+    {
+        long[] playerBits = settled.get(player);
+        if (playerBits == null)
+            return 0;
+
+        int result = 0;
+        for (long word : playerBits)
+            result += Long.bitCount(word);
+
+        return result;
+    }
+
+    /*
+     * Returns the amount of players who have built on given territory
+     */
+    public int getSettlerCount(Territory territory)
+    {
+        Integer bit = bits.get(territory);
+        return bit == null ? 0 : settlerCounts[bit.intValue()];
+    }
+
+    /*
+     * Marks the territories touching given point as settled by given player,
+     * after the player built a town on it. Returns the territories the player
+     * had not settled before.
+     */
+    public List<Territory> settle(GamePlayer player, HexPoint point)
+    {
+        List<Territory> result = NONE;
+
+        for (Territory territory : getTerritories(point))
+        {
+            if (isSettled(player, territory))
+                continue;
+
+            long[] playerBits = settled.get(player);
+            if (playerBits == null)
+            {
+                playerBits = new long[(settlerCounts.length + 63) >> 6];
+                settled.put(player, playerBits);
+            }
+
+            int index = bits.get(territory).intValue();
+            playerBits[index >> 6] |= 1L << (index & 63);
+            settlerCounts[index]++;
+
+            if (result == NONE)
+                result = new ArrayList<Territory>(1);
+            result.add(territory);
+        }
+
+        return result;
+    }
+}
@@ -1,18 +1,26 @@
 package soc.common.game;
 
 import java.util.ArrayList;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Map;
 
 import soc.common.actions.Action;
 import soc.common.actions.gameAction.GameAction;
 import soc.common.board.Board;
 import soc.common.board.HexLocation;
+import soc.common.board.HexPoint;
+import soc.common.board.HexSide;
+import soc.common.board.hexes.DesertHex;
+import soc.common.board.hexes.Hex;
+import soc.common.board.pieces.AbstractPlayerPiece;
 import soc.common.board.pieces.LargestArmy;
 import soc.common.board.pieces.LongestRoad;
 import soc.common.board.pieces.Pirate;
 import soc.common.board.pieces.PlayerPieceList;
 import soc.common.board.pieces.Robber;
 import soc.common.board.resources.ResourceList;
+import soc.common.board.routing.Route;
 import soc.common.game.developmentCards.DevelopmentCardList;
 import soc.common.game.dices.Dice;
 import soc.common.game.gamePhase.GamePhase;
@@ -100,21 +108,6 @@ public class Game
         return this;
     }
 
-    /*
-     * Returns a list of all PlayerPieces in the game residing on a HexPoint
-     */
-    public PlayerPieceList getAllPointPieces()
-    {
-        PlayerPieceList result = new PlayerPieceList();
-
-        for (GamePlayer player : players)
-        {
-            result.add(player.getBuildPieces().getPointPieces());
-        }
-
-        return result;
-    }
-
     public void advanceTurn()
     {
         Turn newTurn = currentPhase.nextTurn(this);
@@ -124,6 +117,7 @@ public class Game
 
         Turn oldTurn = currentTurn;
         this.currentTurn = newTurn;
+        gameLog.startTurn(newTurn);
 
         // Notify handlers the current turn is changed
         eventBus.fireEvent(new TurnChangedEvent(oldTurn, newTurn));
@@ -133,21 +127,53 @@ public class Game
     {
         gameRules.setRules(this);
         board.prepareForPlay(gameSettings);
+
+        // The robber starts on the desert
+        if (robber == null)
+        {
+            robber = new Robber(new HexLocation(0, 0));
+            for (Hex hex : board.getHexes())
+            {
+                if (hex instanceof DesertHex)
+                {
+                    robber.setLocation(hex.getLocation());
+                    break;
+                }
+            }
+        }
     }
 
     /*
-     * Returns a list of all PlayerPieces in the game residing on a HexSide
+     * Returns the piece any player has built on given HexPoint, or null when
+     * the point is free. Looks the point up in the pieces of each player
+     * rather than in a combined list, so it is always up to date.
      */
-    public PlayerPieceList getAllSidePieces()
+    public AbstractPlayerPiece getPiece(HexPoint point)
     {
-        PlayerPieceList result = new PlayerPieceList();
+        for (GamePlayer player : players)
+        {
+            AbstractPlayerPiece piece = player.getBuildPieces().get(point);
+            if (piece != null)
+                return piece;
+        }
 
+        return null;
+    }
+
+    /*
+     * Returns the piece any player has built on given HexSide, or null when
+     * the side is free
+     */
+    public AbstractPlayerPiece getPiece(HexSide side)
+    {
         for (GamePlayer player : players)
         {
-            result.add(player.getBuildPieces().getSidePieces());
+            AbstractPlayerPiece piece = player.getBuildPieces().get(side);
+            if (piece != null)
+                return piece;
         }
 
-        return result;
+        return null;
     }
 
     public void updateStatus()
@@ -399,19 +425,79 @@ public class Game
         return this;
     }
 
+    /*
+     * Returns a copy of this game in the same state, for bots looking ahead
+     * and for checkpoints of the server. Changing the copy does not change
+     * this game, and the other way around.
+     * 
+     * Players with their pieces and cards, the board graph, the bank, the
+     * development card stack, the queue, the gamelog, the dice and the turn
+     * are copied. What does not change during play is shared: the hexes and
+     * territories of the board, the rules, the settings, the users, and the
+     * queued and logged actions. The chatlog is shared too. The copy has no
+     * event handlers.
+     */
     public Game copy()
     {
+        return new Game(this);
+    }
 
-        // try
-        // {
-        // return (Game) super.clone();
-        // }
-        // catch (CloneNotSupportedException e)
-        // {
-        // // TODO Auto-generated catch block
-        // e.printStackTrace();
-        // }
-        return null;
+    /*
+     * Copy constructor, see copy()
+     */
+    private Game(Game original)
+    {
+        // Originals mapped to their copies. Pieces and cards referred to from
+        // several places, such as a town in the build pieces, the victory
+        // points and on the board, are copied once.
+        Map<Object, Object> copies = new IdentityHashMap<Object, Object>();
+
+        for (GamePlayer player : original.players)
+            players.add(player.copy(copies));
+        spectators.addAll(original.spectators);
+        gameStarter = copyOf(original.gameStarter, copies);
+
+        if (original.board != null)
+            board = original.board.copy(copies);
+        if (original.largestArmy != null)
+            largestArmy = (LargestArmy) PlayerPieceList.copyOf(
+                    original.largestArmy, copies);
+        if (original.longestRoute != null)
+            longestRoute = (LongestRoad) PlayerPieceList.copyOf(
+                    original.longestRoute, copies);
+        pirate = original.pirate == null ? null : new Pirate(original.pirate
+                .getLocation());
+        if (original.robber != null)
+            robber = new Robber(original.robber.getLocation());
+
+        bank = original.bank.copy();
+        developmentCardStack = original.developmentCardStack.copy(copies);
+        actionsQueue = original.actionsQueue.copy();
+        gameLog = original.gameLog.copy(this);
+        chatLog = original.chatLog.copy();
+
+        gameRules = original.gameRules;
+        gameSettings = original.gameSettings;
+        currentPhase = original.currentPhase.copy();
+        currentStatus = original.currentStatus;
+
+        if (original.currentTurn != null)
+            currentTurn = original.currentTurn.copy(copyOf(original.currentTurn
+                    .getPlayer(), copies));
+        if (original.currentDice != null)
+            currentDice = original.currentDice.copy();
+    }
+
+    /*
+     * Returns the copy of given player, or the player itself when it has no
+     * copy, such as a spectator
+     */
+    private static GamePlayer copyOf(GamePlayer player,
+            Map<Object, Object> copies)
+    {
+        GamePlayer result = (GamePlayer) copies.get(player);
+
+        return result == null ? player : result;
     }
 
     /**
@@ -473,8 +559,48 @@ public class Game
         currentPhase.performAction(action, this);
     }
 
+    /*
+     * Gives the longest road to the player with the longest route of at least
+     * 5 roads, ships and bridges, or takes it away when nobody has one. The
+     * player holding it keeps it on a tie.
+     */
+    public void updateLongestRoute()
+    {
+        GamePlayer holder = longestRoute == null ? null : longestRoute
+                .getPlayer();
+
+        // Put the holder first, to keep it on a tie
+        List<GamePlayer> candidates = new ArrayList<GamePlayer>();
+        if (holder != null)
+            candidates.add(holder);
+        for (GamePlayer player : players)
+        {
+            if (player != holder)
+                candidates.add(player);
+        }
+
+        Route route = board.getGraph().getLongestRoute(candidates);
+        GamePlayer newHolder = route == null ? null : route.getPlayer();
+
+        if (newHolder != holder)
+        {
+            if (longestRoute == null)
+                longestRoute = new LongestRoad();
+            if (holder != null)
+                holder.getVictoryPoints().remove(longestRoute);
+
+            longestRoute.setPlayer(newHolder);
+
+            if (newHolder != null)
+                newHolder.getVictoryPoints().add(longestRoute);
+        }
+        if (longestRoute != null)
+            longestRoute.setRoute(route);
+    }
+
     public void initialize()
     {
         currentTurn = new TurnImpl().setPlayer(players.get(0));
+        gameLog.startTurn(currentTurn);
     }
 }
@@ -1,5 +1,9 @@
 package soc.common.game;
 
+import java.util.List;
+import java.util.Map;
+
+import soc.common.board.pieces.AbstractPlayerPiece;
 import soc.common.board.pieces.PlayerPieceList;
 import soc.common.board.ports.PortList;
 import soc.common.board.resources.ResourceList;
@@ -11,7 +15,10 @@ public interface GamePlayer
 {
     public User getUser();
 
-    public abstract PlayerPieceList getTownsCities();
+    /*
+     * Returns a read-only view of the towns and cities the player has built
+     */
+    public abstract List<AbstractPlayerPiece> getTownsCities();
 
     /**
      * @return the roadBuildingTokens
@@ -111,4 +118,11 @@ public interface GamePlayer
     public void addRoadTokenChangedEventHandler(
             RoadTokensChangedEventHandler handler);
 
+    /*
+     * Returns a copy of this player for a copy of a game, without event
+     * handlers. The player, its pieces and its cards are registered in given
+     * map from original to copy.
+     */
+    public GamePlayer copy(Map<Object, Object> copies);
+
 }
\ No newline at end of file
@@ -1,5 +1,10 @@
 package soc.common.game;
 
+import java.util.AbstractList;
+import java.util.List;
+import java.util.Map;
+
+import soc.common.board.pieces.AbstractPlayerPiece;
 import soc.common.board.pieces.City;
 import soc.common.board.pieces.PlayerPieceList;
 import soc.common.board.pieces.Town;
@@ -77,14 +82,26 @@ public class GamePlayerImpl implements GamePlayer
      * 
      * @see soc.common.game.GamePlayer#getTownsCities()
      */
-    public PlayerPieceList getTownsCities()
+    public List<AbstractPlayerPiece> getTownsCities()
     {
-        PlayerPieceList result = new PlayerPieceList();
+        final List<AbstractPlayerPiece> towns = buildPieces.ofType(Town.TOWN);
+        final List<AbstractPlayerPiece> cities = buildPieces.ofType(City.CITY);
 
-        result.add(buildPieces.ofType(Town.TOWN));
-        result.add(buildPieces.ofType(City.CITY));
+        return new AbstractList<AbstractPlayerPiece>()
+        {
+            @Override
+            public AbstractPlayerPiece get(int index)
+            {
+                return index < towns.size() ? towns.get(index) : cities
+                        .get(index - towns.size());
+            }
 
-        return result;
+            @Override
+            public int size()
+            {
+                return towns.size() + cities.size();
+            }
+        };
     }
 
     /*
@@ -140,7 +157,7 @@ public class GamePlayerImpl implements GamePlayer
      */
     public void removeResources(ResourceList resources)
     {
-        resources.subtractResources(resources);
+        this.resources.subtractResources(resources);
     }
 
     /*
@@ -151,7 +168,7 @@ public class GamePlayerImpl implements GamePlayer
      */
     public void addResources(ResourceList resources)
     {
-        resources.add(resources);
+        this.resources.add(resources);
     }
 
     /*
@@ -402,6 +419,35 @@ public class GamePlayerImpl implements GamePlayer
         return user;
     }
 
+    /*
+     * Copies the state of this player. The user is shared, as are the ports:
+     * both do not change during a game. The player is put in the map of
+     * copies first, so the copied pieces belong to the copied player.
+     * 
+     * @see soc.common.game.GamePlayer#copy(java.util.Map)
+     */
+    @Override
+    public GamePlayer copy(Map<Object, Object> copies)
+    {
+        GamePlayerImpl result = new GamePlayerImpl();
+        copies.put(this, result);
+
+        result.user = user;
+        result.resources = resources.copy();
+        result.roadBuildingTokens = roadBuildingTokens;
+        result.color = color;
+        result.maximumCardsInHandWhenSeven = maximumCardsInHandWhenSeven;
+        result.stock = stock.copy(copies);
+        result.buildPieces = buildPieces.copy(copies);
+        result.isOnTurn = isOnTurn;
+        result.ports = ports.copy();
+        result.developmentCards = developmentCards.copy(copies);
+        result.playedDevelopmentCards = playedDevelopmentCards.copy(copies);
+        result.victoryPoints = victoryPoints.copy(copies);
+
+        return result;
+    }
+
     /*
      * (non-Javadoc)
      * 
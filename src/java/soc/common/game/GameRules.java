@@ -10,12 +10,24 @@ import soc.common.board.pieces.PlayerPiece;
 import soc.common.board.resources.Resource;
 import soc.common.game.developmentCards.DevelopmentCardList;
 import soc.common.game.dices.Dice;
+import soc.common.game.variants.Variant;
 
 /*
  * Abstracted properties for game {@see IRuleSet} to modify
  */
 public interface GameRules
 {
+    /*
+     * Adds given variant to the variants played. Should be called before the
+     * game starts.
+     */
+    public GameRules addVariant(Variant variant);
+
+    /*
+     * Returns the variants played, the standard variant first
+     */
+    public List<Variant> getVariants();
+
     public int getStockRoadAmount();
 
     public GameRules setStockRoadAmount(int stockRoads);
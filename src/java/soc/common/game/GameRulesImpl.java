@@ -59,6 +59,23 @@ public class GameRulesImpl implements GameRules
         variants.add(new Standard(game));
     }
 
+    /*
+     * Adds given variant to the variants played, after the standard one
+     */
+    @Override
+    public GameRulesImpl addVariant(Variant variant)
+    {
+        variants.add(variant);
+
+        return this;
+    }
+
+    @Override
+    public List<Variant> getVariants()
+    {
+        return variants;
+    }
+
     /**
      * @return the isSeaFarers
      */
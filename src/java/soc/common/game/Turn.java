@@ -20,4 +20,9 @@ public interface Turn
      *            the player to set
      */
     public Turn setPlayer(GamePlayer player);
+
+    /*
+     * Returns a copy of this turn for given player, for a copy of a game
+     */
+    public Turn copy(GamePlayer player);
 }
\ No newline at end of file
@@ -54,4 +54,16 @@ public class TurnImpl implements Turn
         return null;
     }
 
+    @Override
+    public Turn copy(GamePlayer player)
+    {
+        TurnImpl result = new TurnImpl();
+
+        result.player = player;
+        result.id = id;
+        result.tradeOffers = tradeOffers;
+
+        return result;
+    }
+
 }
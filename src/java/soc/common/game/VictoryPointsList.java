@@ -3,6 +3,12 @@ package soc.common.game;
 import java.util.ArrayList;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+
+import soc.common.board.pieces.PlayerPiece;
+import soc.common.board.pieces.PlayerPieceList;
+import soc.common.game.developmentCards.DevelopmentCard;
+import soc.common.game.developmentCards.DevelopmentCardList;
 
 import com.google.gwt.event.shared.SimpleEventBus;
 
@@ -68,4 +74,28 @@ public class VictoryPointsList implements Iterable<VictoryPointItem>
     {
         getEventBus().addHandler(VictoryPointsChangedEvent.TYPE, handler);
     }
+    
+    /*
+     * Returns a copy of this list for a copy of a game. Pieces and cards are 
+     * replaced by their copy in given map of copies, and copied when they 
+     * have none yet. Other items are kept as they are.
+     */
+    public VictoryPointsList copy(Map<Object, Object> copies)
+    {
+        VictoryPointsList result = new VictoryPointsList();
+        
+        for (VictoryPointItem item : points)
+        {
+            if (item instanceof PlayerPiece)
+                result.points.add((VictoryPointItem) PlayerPieceList.copyOf(
+                        (PlayerPiece) item, copies));
+            else if (item instanceof DevelopmentCard)
+                result.points.add((VictoryPointItem) DevelopmentCardList.copyOf(
+                        (DevelopmentCard) item, copies));
+            else
+                result.points.add(item);
+        }
+        
+        return result;
+    }
 }
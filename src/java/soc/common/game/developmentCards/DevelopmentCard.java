@@ -164,5 +164,28 @@ public class DevelopmentCard
     {
         return ClassUtils.getSimpleClassName(this.getClass().getName());
     }
+
+    /*
+     * Returns a copy of this card. Subclasses return a new card of their own
+     * type, filled in by copyTo.
+     */
+    public DevelopmentCard copy()
+    {
+        return copyTo(new DevelopmentCard());
+    }
+
+    /*
+     * Copies the state of this card to given card, and returns given card
+     */
+    protected DevelopmentCard copyTo(DevelopmentCard card)
+    {
+        card.invalidMessage = invalidMessage;
+        card.message = message;
+        card.turnBought = turnBought;
+        card.id = id;
+        card.isPlayable = isPlayable;
+
+        return card;
+    }
     
 }
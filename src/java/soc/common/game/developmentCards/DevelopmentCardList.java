@@ -3,6 +3,7 @@ package soc.common.game.developmentCards;
 import java.util.ArrayList;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 
 import soc.common.game.developmentCards.standard.Monopoly;
 import soc.common.game.developmentCards.standard.RoadBuilding;
@@ -136,4 +137,35 @@ public class DevelopmentCardList implements Iterable<DevelopmentCard>
     {
         return devCards.contains(devCard);
     }
+    
+    /*
+     * Returns a copy of this list with a copy of each card, for a copy of a 
+     * game. Cards copied already are taken from given map of copies, new 
+     * copies are added to it.
+     */
+    public DevelopmentCardList copy(Map<Object, Object> copies)
+    {
+        DevelopmentCardList result = new DevelopmentCardList();
+        
+        for (DevelopmentCard card : devCards)
+            result.devCards.add(copyOf(card, copies));
+        
+        return result;
+    }
+    
+    /*
+     * Returns the copy of given card in given map of copies, copying it when 
+     * it has none yet
+     */
+    public static DevelopmentCard copyOf(DevelopmentCard card, Map<Object, Object> copies)
+    {
+        DevelopmentCard result = (DevelopmentCard) copies.get(card);
+        if (result == null)
+        {
+            result = card.copy();
+            copies.put(card, result);
+        }
+        
+        return result;
+    }
 }
@@ -1,5 +1,8 @@
 package soc.common.game.developmentCards.standard;
 
+import java.util.ArrayList;
+import java.util.List;
+
 import soc.common.board.resources.*;
 import soc.common.game.Game;
 import soc.common.game.GamePlayer;
@@ -79,38 +82,30 @@ public class Monopoly extends DevelopmentCard
     @Override
     public void play(Game game, GamePlayer player)
     {
-        StringBuilder msg = new StringBuilder();
-        // TODO: fix using external library
-        //msg.append(String.format("%s stole ", player.getName()));
-
+        // Collect the resources of all opponents...
+        List<ResourceList> opponentResources = new ArrayList<ResourceList>();
         for (GamePlayer opponent : game.getPlayers())
         {
             //steal only form opponents
             if (!opponent.equals(player))
-            {
-                // Get the list of resources to steal 
-                ResourceList opponentResources = opponent.getResources().ofType(resource); 
-                
-                // steal only if there are resources to steal anyways
-                if (opponentResources.size() > 0)
-                {
-                    // add resources to the development card owner
-                    player.getResources().add(opponentResources);
-
-                    // TODO: fix using external library
-                    //msg.append(String.format("%s %s from %s, ",
-                    //    opponentResources.size(), resource.toString(), player.getName()));
-
-                    // remove resources at victims
-                    opponent.removeResources(opponentResources);
-                }
-            }
+                opponentResources.add(opponent.getResources());
         }
 
-        // remove the trailing ","
-        message = msg.toString().substring(0, msg.toString().length() - 2);
+        // ...and move them to the development card owner in one go
+        int stolen = player.getResources().takeAll(resource, opponentResources);
+
+        message = player.getUser().getName() + " stole " + stolen + " "
+                + resource.getName();
 
         super.play(game, player);
     }
 
+    @Override
+    public DevelopmentCard copy()
+    {
+        Monopoly result = (Monopoly) copyTo(new Monopoly());
+        result.resource = resource;
+        
+        return result;
+    }
 }
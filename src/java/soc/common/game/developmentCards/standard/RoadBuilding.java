@@ -25,4 +25,9 @@ public class RoadBuilding extends DevelopmentCard
         super.play(game, player);
     }
 
+    @Override
+    public DevelopmentCard copy()
+    {
+        return copyTo(new RoadBuilding());
+    }
 }
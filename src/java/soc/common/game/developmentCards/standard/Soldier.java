@@ -52,4 +52,10 @@ public class Soldier extends DevelopmentCard
 
         super.play(game, player);
     }
+
+    @Override
+    public DevelopmentCard copy()
+    {
+        return copyTo(new Soldier());
+    }
 }
@@ -65,4 +65,9 @@ public class VictoryPoint extends DevelopmentCard implements VictoryPointItem
         super.play(game, player);
     }
 
+    @Override
+    public DevelopmentCard copy()
+    {
+        return copyTo(new VictoryPoint());
+    }
 }
@@ -58,4 +58,13 @@ public class YearOfPlenty extends DevelopmentCard
         return true;
     }
     
+
+    @Override
+    public DevelopmentCard copy()
+    {
+        YearOfPlenty result = (YearOfPlenty) copyTo(new YearOfPlenty());
+        result.goldPick = goldPick == null ? null : goldPick.copy();
+        
+        return result;
+    }
 }
@@ -21,4 +21,12 @@ public class CardsDeckDice implements Dice
 
     }
 
+    @Override
+    public Dice copy()
+    {
+        CardsDeckDice result = new CardsDeckDice();
+        result.diceRolls.addAll(diceRolls);
+
+        return result;
+    }
 }
@@ -13,4 +13,10 @@ public class CitiesKnightsDice implements Dice
         // TODO Auto-generated method stub
 
     }
+
+    @Override
+    public Dice copy()
+    {
+        return new CitiesKnightsDice();
+    }
 }
@@ -5,4 +5,6 @@ import soc.common.server.random.Random;
 public interface Dice
 {
     public void roll(Random random);
+
+    public Dice copy();
 }
@@ -66,4 +66,9 @@ public class StandardDice implements Dice
         return this;
     }
 
+    @Override
+    public Dice copy()
+    {
+        return new StandardDice().setDice1(dice1).setDice2(dice2);
+    }
 }
@@ -50,4 +50,9 @@ public class VolcanoDice implements Dice
         return this;
     }
 
+    @Override
+    public Dice copy()
+    {
+        return new VolcanoDice().setDice(dice);
+    }
 }
@@ -1,8 +1,11 @@
 package soc.common.game.gamePhase;
 
+import java.util.List;
+
 import soc.common.actions.gameAction.GameAction;
 import soc.common.actions.gameAction.GamePhaseHasEnded;
 import soc.common.game.Game;
+import soc.common.game.GamePlayer;
 import soc.common.game.Turn;
 import soc.common.game.TurnImpl;
 import soc.common.utils.ClassUtils;
@@ -22,7 +25,12 @@ public abstract class AbstractGamePhase implements GamePhase
         GameAction next = game.getActionsQueue().peekAction();
         if (next != null && !(next instanceof GamePhaseHasEnded))
         {
-            return new TurnImpl().setPlayer(next.getPlayer());
+            // Queued actions are shared by copies of a game, so take the
+            // player of this game equal to the player of the action
+            List<GamePlayer> players = game.getPlayers();
+            int index = players.indexOf(next.getPlayer());
+            return new TurnImpl().setPlayer(index < 0 ? next.getPlayer()
+                    : players.get(index));
         }
         throw new RuntimeException("No expected action, no turn to create");
     }
@@ -67,4 +75,14 @@ public abstract class AbstractGamePhase implements GamePhase
     {
         return ClassUtils.getSimpleClassName(this.getClass().getName());
     }
+
+    /*
+     * Phases without state of their own are shared between copies of a game
+     * 
+     * @see soc.common.game.gamePhase.GamePhase#copy()
+     */
+    public GamePhase copy()
+    {
+        return this;
+    }
 }
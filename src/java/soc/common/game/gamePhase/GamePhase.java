@@ -20,4 +20,9 @@ public interface GamePhase
 
     public String getMessage();
 
+    /*
+     * Returns a phase in the same state, for a copy of a game
+     */
+    public GamePhase copy();
+
 }
\ No newline at end of file
@@ -105,4 +105,13 @@ public class InitialPlacementGamePhase extends AbstractGamePhase
         // TODO fix message
         return "Place initial towns and roads";
     }
+
+    @Override
+    public GamePhase copy()
+    {
+        InitialPlacementGamePhase result = new InitialPlacementGamePhase();
+        result.actionCount = actionCount;
+
+        return result;
+    }
 }
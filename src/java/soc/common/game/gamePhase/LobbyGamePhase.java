@@ -83,4 +83,17 @@ public class LobbyGamePhase extends AbstractGamePhase
     {
         return new TurnImpl().setPlayer(game.getPlayers().get(0));
     }
+
+    /*
+     * Players are equal by their user, so the copy keeps the players of this
+     * phase
+     */
+    @Override
+    public GamePhase copy()
+    {
+        LobbyGamePhase result = new LobbyGamePhase();
+        result.playersWhoAcceptedSettings.addAll(playersWhoAcceptedSettings);
+
+        return result;
+    }
 }
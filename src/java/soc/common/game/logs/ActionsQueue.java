@@ -32,7 +32,8 @@ public interface ActionsQueue
     // to process from the queue
     public QueuedAction dequeue(QueuedAction action);
 
-    // Returns true when first item in the queue equals given GameAction
+    // Returns the queued action in the blocking window of the same type and
+    // player as given GameAction, or null when it is not expected
     public QueuedAction findExpected(GameAction action, Game game);
 
     // Returns GameAction on top of the queue without removing it
@@ -47,9 +48,12 @@ public interface ActionsQueue
     // Returns true if first action in the queue is blocking
     public boolean isWaitingForActions();
 
-    // Returns a list of the actions which must be performed first
+    // Returns a read-only list of the actions which must be performed first
     public List<QueuedAction> getBlockingActions();
 
     public HandlerRegistration addQueueChangedEventHandler(
             ActionQueueChangedEventHandler handler);
+
+    // Returns a queue with copies of the queued actions, without handlers
+    public ActionsQueue copy();
 }
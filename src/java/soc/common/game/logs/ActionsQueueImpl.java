@@ -1,7 +1,10 @@
 package soc.common.game.logs;
 
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 import soc.common.actions.gameAction.GameAction;
 import soc.common.game.Game;
@@ -12,12 +15,35 @@ import com.google.gwt.event.shared.SimpleEventBus;
 /*
  * A list of queued actions. This aids the user in what to expect from them, they
  * can actually see a list of things they must do.
+ *
+ * The queue is a doubly linked list through the QueuedActions themselves, so
+ * adding and removing at either end, or removing a given queued action, does
+ * not move other actions around.
+ *
+ * The actions up to and including the first blocking action form the blocking
+ * window: those are the actions expected next. The window is kept up to date
+ * as the queue changes, together with an index of the actions in it by action
+ * type and sender. findExpected is a lookup in that index.
  */
 public class ActionsQueueImpl implements ActionsQueue
 {
-    private List<QueuedAction> actions = new ArrayList<QueuedAction>();
     private SimpleEventBus eventBus = new SimpleEventBus();
 
+    // First and last queued action
+    private QueuedAction first;
+    private QueuedAction last;
+    private int size;
+
+    // First blocking action, which ends the blocking window. When null, the
+    // whole queue is in the window.
+    private QueuedAction windowEnd;
+
+    // First expected action in the window, by type of action and sender
+    private Map<Class<?>, Map<Integer, QueuedAction>> expectedActions = new HashMap<Class<?>, Map<Integer, QueuedAction>>();
+
+    // Last result of getBlockingActions, until the window changes
+    private List<QueuedAction> blockingActions;
+
     @Override
     public void enqueue(GameAction inGameAction)
     {
@@ -28,28 +54,91 @@ public class ActionsQueueImpl implements ActionsQueue
     @Override
     public void enqueue(QueuedAction queuedAction)
     {
-        actions.add(queuedAction);
+        link(queuedAction, last, null);
+
+        // Joins the window when no blocking action is queued before it
+        if (windowEnd == null)
+        {
+            addExpected(queuedAction);
+            if (queuedAction.isBlocking())
+                windowEnd = queuedAction;
+        }
+
+        eventBus.fireEvent(new ActionQueueChangedEvent(null, queuedAction));
+    }
+
+    @Override
+    public void enqueuePriority(QueuedAction queuedAction)
+    {
+        link(queuedAction, null, first);
+
+        if (queuedAction.isBlocking())
+        {
+            // The window is now only this action
+            clearExpected();
+            addExpected(queuedAction);
+            windowEnd = queuedAction;
+        }
+        else
+        {
+            addExpected(queuedAction);
+        }
+
         eventBus.fireEvent(new ActionQueueChangedEvent(null, queuedAction));
     }
 
+    @Override
+    public void enqueuePriority(GameAction action)
+    {
+        QueuedAction queuedAction = new QueuedAction(action);
+        enqueuePriority(queuedAction);
+    }
+
     @Override
     public QueuedAction peek()
     {
-        return actions.get(0);
+        if (first == null)
+            throw new IndexOutOfBoundsException("Queue is empty");
+
+        return first;
+    }
+
+    @Override
+    public GameAction peekAction()
+    {
+        return first == null ? null : first.getAction();
     }
 
     @Override
     public QueuedAction dequeue()
     {
-        QueuedAction queuedAction = actions.get(0);
-        actions.remove(0);
+        QueuedAction queuedAction = peek();
+        remove(queuedAction);
         eventBus.fireEvent(new ActionQueueChangedEvent(queuedAction, null));
         return queuedAction;
     }
 
+    @Override
+    public QueuedAction dequeue(QueuedAction queuedAction)
+    {
+        if (queuedAction == null)
+        {
+            throw new RuntimeException("Expected dequeued action is contained");
+        }
+
+        if (queuedAction.queue == this)
+            remove(queuedAction);
+
+        eventBus.fireEvent(new ActionQueueChangedEvent(queuedAction, null));
+
+        return queuedAction;
+    }
+
     /*
-     * Returns true when given action is expected with relation to the gamestate
-     * 
+     * Returns the first action in the blocking window of the same type and
+     * from the same player as given action. When a server action is first in
+     * line, that is returned instead.
+     *
      * @see
      * soc.common.game.logs.IActionsQueue#isExpected(soc.common.actions.gameAction
      * .GameAction, soc.common.game.Game)
@@ -57,104 +146,248 @@ public class ActionsQueueImpl implements ActionsQueue
     @Override
     public QueuedAction findExpected(GameAction action, Game game)
     {
-        if (actions.size() > 0 && actions.get(0).getAction().isServer())
+        if (first != null && first.getAction().isServer())
         {
-            return actions.get(0);
-        }
-        for (QueuedAction blockingAction : getBlockingActions())
-        {
-            if (blockingAction.getAction().getClass() == action.getClass()
-                    && blockingAction.getAction().getPlayer().equals(
-                            action.getPlayer()))
-                return blockingAction;
+            return first;
         }
 
-        return null;
+        Map<Integer, QueuedAction> bySender = expectedActions.get(action
+                .getClass());
+
+        return bySender == null ? null : bySender.get(action.getSender());
     }
 
     @Override
     public int size()
     {
-        return actions.size();
+        return size;
     }
 
     @Override
-    public GameAction peekAction()
+    public boolean isWaitingForActions()
     {
-        return actions.size() == 0 ? null : actions.get(0).getAction();
+        return first != null && first.isBlocking();
+    }
+
+    /*
+     * Returns the actions up to and including the first blocking action. The
+     * returned list can't be modified, and is the same until the window
+     * changes.
+     */
+    public List<QueuedAction> getBlockingActions()
+    {
+        if (blockingActions == null)
+        {
+            List<QueuedAction> result = new ArrayList<QueuedAction>();
+            for (QueuedAction action = first; action != null; action = action.next)
+            {
+                result.add(action);
+                if (action == windowEnd)
+                    break;
+            }
+            blockingActions = Collections.unmodifiableList(result);
+        }
+
+        return blockingActions;
     }
 
     @Override
-    public void enqueuePriority(QueuedAction queuedAction)
+    public HandlerRegistration addQueueChangedEventHandler(
+            ActionQueueChangedEventHandler handler)
     {
-        actions.add(0, queuedAction);
-        eventBus.fireEvent(new ActionQueueChangedEvent(null, queuedAction));
+        return eventBus.addHandler(ActionQueueChangedEvent.TYPE, handler);
     }
 
+    /*
+     * Links copies of the queued actions in the same order, and builds the
+     * window once. No events are fired.
+     */
     @Override
-    public boolean isWaitingForActions()
+    public ActionsQueue copy()
     {
-        return actions.get(0).isBlocking();
+        ActionsQueueImpl result = new ActionsQueueImpl();
+
+        for (QueuedAction action = first; action != null; action = action.next)
+            result.link(action.copy(), result.last, null);
+        result.extendWindow(result.first);
+
+        return result;
     }
 
-    public List<QueuedAction> getBlockingActions()
+    /*
+     * Called by a queued action when its blocking flag changed. Rebuilds the
+     * window.
+     */
+    void blockingChanged()
+    {
+        clearExpected();
+        windowEnd = null;
+        extendWindow(first);
+    }
+
+    /*
+     * Inserts given action between given neighbours
+     */
+    private void link(QueuedAction action, QueuedAction previous,
+            QueuedAction next)
     {
-        List<QueuedAction> result = new ArrayList<QueuedAction>();
+        if (action.queue != null)
+            throw new RuntimeException("Action is queued already");
+
+        action.queue = this;
+        action.previous = previous;
+        action.next = next;
+
+        if (previous == null)
+            first = action;
+        else
+            previous.next = action;
+
+        if (next == null)
+            last = action;
+        else
+            next.previous = action;
+
+        size++;
+    }
 
-        for (int i = 0; i < actions.size(); i++)
+    /*
+     * Takes given action out of the queue, moving the window on when it was
+     * the end of the window
+     */
+    private void remove(QueuedAction action)
+    {
+        QueuedAction next = action.next;
+
+        if (action.previous == null)
+            first = next;
+        else
+            action.previous.next = next;
+
+        if (next == null)
+            last = action.previous;
+        else
+            next.previous = action.previous;
+
+        action.queue = null;
+        action.previous = null;
+        action.next = null;
+        size--;
+
+        if (action.expected)
         {
-            QueuedAction action = actions.get(i);
-            result.add(action);
-            if (action.isBlocking())
+            removeExpected(action);
+
+            if (action == windowEnd)
             {
-                break;
+                windowEnd = null;
+                extendWindow(next);
             }
         }
-
-        return result;
     }
 
-    @Override
-    public HandlerRegistration addQueueChangedEventHandler(
-            ActionQueueChangedEventHandler handler)
+    /*
+     * Adds actions to the window from given action up to and including the
+     * next blocking action
+     */
+    private void extendWindow(QueuedAction from)
     {
-        return eventBus.addHandler(ActionQueueChangedEvent.TYPE, handler);
+        for (QueuedAction action = from; action != null; action = action.next)
+        {
+            addExpected(action);
+            if (action.isBlocking())
+            {
+                windowEnd = action;
+                return;
+            }
+        }
     }
 
-    @Override
-    public QueuedAction dequeue(QueuedAction queuedAction)
+    /*
+     * Adds given action to the index of expected actions. The action is
+     * either the first or after the last action of the window.
+     */
+    private void addExpected(QueuedAction action)
     {
-        if (queuedAction != null)
+        GameAction gameAction = action.getAction();
+        Map<Integer, QueuedAction> bySender = expectedActions.get(gameAction
+                .getClass());
+        if (bySender == null)
+        {
+            bySender = new HashMap<Integer, QueuedAction>();
+            expectedActions.put(gameAction.getClass(), bySender);
+        }
+
+        Integer sender = gameAction.getSender();
+        QueuedAction same = bySender.get(sender);
+        if (same == null)
         {
-            actions.remove(queuedAction);
+            bySender.put(sender, action);
+        }
+        else if (action == first)
+        {
+            // New first action in the window
+            action.nextSame = same;
+            same.previousSame = action;
+            bySender.put(sender, action);
         }
         else
         {
-            throw new RuntimeException("Expected dequeued action is contained");
+            // New last action in the window
+            while (same.nextSame != null)
+                same = same.nextSame;
+            same.nextSame = action;
+            action.previousSame = same;
         }
 
-        eventBus.fireEvent(new ActionQueueChangedEvent(queuedAction, null));
-
-        return queuedAction;
+        action.expected = true;
+        blockingActions = null;
     }
 
-    private QueuedAction findByAction(GameAction action)
+    private void removeExpected(QueuedAction action)
     {
-        for (QueuedAction queuedAction : actions)
+        if (action.nextSame != null)
+            action.nextSame.previousSame = action.previousSame;
+
+        if (action.previousSame != null)
         {
-            if (queuedAction.getAction().equals(action))
-            {
-                return queuedAction;
-            }
+            action.previousSame.nextSame = action.nextSame;
+        }
+        else
+        {
+            GameAction gameAction = action.getAction();
+            Map<Integer, QueuedAction> bySender = expectedActions
+                    .get(gameAction.getClass());
+            if (action.nextSame != null)
+                bySender.put(gameAction.getSender(), action.nextSame);
+            else
+                bySender.remove(gameAction.getSender());
         }
 
-        return null;
+        action.expected = false;
+        action.previousSame = null;
+        action.nextSame = null;
+        blockingActions = null;
     }
 
-    @Override
-    public void enqueuePriority(GameAction action)
+    private void clearExpected()
     {
-        QueuedAction queuedAction = new QueuedAction(action);
-        enqueuePriority(queuedAction);
+        for (Map<Integer, QueuedAction> bySender : expectedActions.values())
+        {
+            for (QueuedAction action : bySender.values())
+            {
+                while (action != null)
+                {
+                    QueuedAction nextSame = action.nextSame;
+                    action.expected = false;
+                    action.previousSame = null;
+                    action.nextSame = null;
+                    action = nextSame;
+                }
+            }
+        }
+
+        expectedActions.clear();
+        blockingActions = null;
     }
 }
@@ -1,5 +1,7 @@
 package soc.common.game.logs;
 
+import java.util.List;
+
 import soc.common.actions.gameAction.GameChat;
 
 public interface ChatLog
@@ -12,4 +14,13 @@ public interface ChatLog
     
     // Ability for listeners to register themselves
     public void addSaidEventHandler(SaidEventHandler handler);
+
+    // Amount of lines said, including the ones no longer retained
+    public int size();
+
+    // Position of the oldest line retained
+    public int getFirstRetained();
+
+    // At most limit lines retained, starting at given position
+    public List<GameChat> getLines(int from, int limit);
 }
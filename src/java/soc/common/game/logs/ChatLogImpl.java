@@ -7,11 +7,38 @@ import com.google.gwt.event.shared.SimpleEventBus;
 
 import soc.common.actions.gameAction.GameChat;
 
+/*
+ * Retains the last lines said, in a ring of fixed capacity. Line n said is
+ * kept at n modulo the capacity, until the line said capacity lines later
+ * takes its place. Evicted lines go to the ChatLogStore when one is set.
+ *
+ * A copy shares the ring with this log, and either copies it on its first
+ * line said after the copy. Copies do not get the store, so lines evicted
+ * from a copy are dropped.
+ */
 public class ChatLogImpl implements ChatLog
 {
-    private List<GameChat> chats = new ArrayList<GameChat>();
+    public static final int DEFAULT_CAPACITY = 200;
+
+    private GameChat[] lines;
+    private int size;
+    private boolean shared;
+    private transient ChatLogStore store;
     private SimpleEventBus eventBus;
-    
+
+    public ChatLogImpl()
+    {
+        this(DEFAULT_CAPACITY);
+    }
+
+    public ChatLogImpl(int capacity)
+    {
+        if (capacity < 1)
+            throw new IllegalArgumentException("Capacity should be positive");
+
+        lines = new GameChat[capacity];
+    }
+
     private void safelyFireEvent(SaidEvent event)
     {
         if (eventBus != null)
@@ -28,16 +55,53 @@ public class ChatLogImpl implements ChatLog
         
         return eventBus;
     }
+
+    /*
+     * Sends lines evicted from now on to given store. Pass null to drop them.
+     */
+    public ChatLogImpl setStore(ChatLogStore store)
+    {
+        this.store = store;
+
+        return this;
+    }
+
+    public int getCapacity()
+    {
+        return lines.length;
+    }
+
     @Override
     public ChatLog copy()
     {
-        throw new RuntimeException("ChatLog.copy not yet implemented");
+        ChatLogImpl result = new ChatLogImpl(1);
+        result.lines = lines;
+        result.size = size;
+
+        shared = true;
+        result.shared = true;
+
+        return result;
     }
 
     @Override
     public void say(GameChat gameChat)
     {
-        chats.add(gameChat);
+        if (shared)
+        {
+            GameChat[] copied = new GameChat[lines.length];
+            System.arraycopy(lines, 0, copied, 0, lines.length);
+            lines = copied;
+            shared = false;
+        }
+
+        int index = size % lines.length;
+        if (size >= lines.length && store != null)
+            store.append(lines[index]);
+
+        lines[index] = gameChat;
+        size++;
+
         safelyFireEvent(new SaidEvent(gameChat));
     }
     
@@ -47,4 +111,34 @@ public class ChatLogImpl implements ChatLog
         getEventBus().addHandler(SaidEvent.TYPE, handler);
     }
 
+    @Override
+    public int size()
+    {
+        return size;
+    }
+
+    @Override
+    public int getFirstRetained()
+    {
+        return Math.max(0, size - lines.length);
+    }
+
+    /*
+     * Returns at most limit lines, starting at given position or at the oldest
+     * line retained when that is later. Late joiners page through the history
+     * by asking the lines after the last one they got.
+     */
+    @Override
+    public List<GameChat> getLines(int from, int limit)
+    {
+        int start = Math.max(from, getFirstRetained());
+        int end = (int) Math.min((long) start + Math.max(0, limit), size);
+
+        List<GameChat> result = new ArrayList<GameChat>(Math.max(0, end
+                - start));
+        for (int position = start; position < end; position++)
+            result.add(lines[position % lines.length]);
+
+        return result;
+    }
 }
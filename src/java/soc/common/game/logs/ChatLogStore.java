@@ -0,0 +1,12 @@
+package soc.common.game.logs;
+
+import soc.common.actions.gameAction.GameChat;
+
+/*
+ * Receives the lines a ChatLogImpl no longer retains, in the order they were
+ * said. Lines are only appended, never read back by the log.
+ */
+public interface ChatLogStore
+{
+    public void append(GameChat chat);
+}
@@ -6,6 +6,7 @@ import soc.common.actions.gameAction.GameAction;
 import soc.common.actions.gameAction.turnActions.standard.RollDice;
 import soc.common.game.Game;
 import soc.common.game.GamePlayer;
+import soc.common.game.Turn;
 
 /*
  * List of GameActions which occurred during a game
@@ -17,6 +18,41 @@ public interface GameLog extends Iterable<GameAction>
      */
     public void addAction(GameAction inGameAction);
 
+    /*
+     * Starts a new turn. Actions added from now on belong to given turn.
+     */
+    public void startTurn(Turn turn);
+
+    /*
+     * Returns amount of actions in this gamelog
+     */
+    public int size();
+
+    /*
+     * Returns the action at given position, the first action being 0
+     */
+    public GameAction getAction(int index);
+
+    /*
+     * Returns the last given amount of actions, oldest first
+     */
+    public List<GameAction> getLastActions(int amount);
+
+    /*
+     * Returns the actions performed during the current turn
+     */
+    public List<GameAction> getCurrentTurnActions();
+
+    /*
+     * Returns all actions of exactly given type, oldest first
+     */
+    public <T extends GameAction> List<T> getActions(Class<T> type);
+
+    /*
+     * Returns all actions sent by given player, oldest first
+     */
+    public List<GameAction> getActions(GamePlayer player);
+
     /*
      * Returns a list of RollDice actions performed during current dicerolling
      * round
@@ -35,4 +71,11 @@ public interface GameLog extends Iterable<GameAction>
     public void addActionPerformedEventHandler(
             ActionPerformedEventHandler handler);
 
+    /*
+     * Returns a copy of this gamelog for given copy of its game, without
+     * handlers. Actions added to the copy are not added to this gamelog, and
+     * the other way around.
+     */
+    public GameLog copy(Game game);
+
 }
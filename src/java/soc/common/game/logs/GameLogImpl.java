@@ -1,22 +1,67 @@
 package soc.common.game.logs;
 
+import java.util.AbstractList;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
 
 import soc.common.actions.gameAction.GameAction;
 import soc.common.actions.gameAction.turnActions.RolledSame;
 import soc.common.actions.gameAction.turnActions.standard.RollDice;
 import soc.common.game.Game;
 import soc.common.game.GamePlayer;
+import soc.common.game.Turn;
 
 import com.google.gwt.event.shared.SimpleEventBus;
 
+/*
+ * The actions of a game, split in segments of one turn each.
+ *
+ * Every action gets a position: its index in the whole log. Next to the
+ * segments, the log keeps the positions of the actions of each type and of
+ * each sender. Views by type or by player are lists over those positions, and
+ * finding the segment of a position is a binary search over the segments.
+ *
+ * When a GameLogStore is set, turns older than the most recent ones are
+ * stored there and dropped from memory. Their positions stay indexed; reading
+ * such an action loads its segment from the store. The segment loaded last is
+ * kept, as reads tend to stay in the same turn.
+ *
+ * Copies share everything but the current turn: earlier turns don't change,
+ * and the position indexes are copied on the first write after a copy. A copy
+ * loads stored turns through a store of its own, bound to the copied game.
+ */
 public class GameLogImpl implements GameLog
 {
-    private List<GameAction> actions = new ArrayList<GameAction>();
+    private List<Segment> segments = new ArrayList<Segment>();
+    private int size;
+
+    // Positions of actions by exact type, and by sender
+    private Map<Class<?>, Positions> byType = new HashMap<Class<?>, Positions>();
+    private Map<Integer, Positions> bySender = new HashMap<Integer, Positions>();
+
+    // Storage for older turns, and how many turns to keep in memory
+    private transient GameLogStore store;
+    private int turnsInMemory;
+
+    // First segment which is still in memory
+    private int firstInMemory;
+
+    // Stored segment loaded last, and its actions
+    private transient Segment loaded;
+    private transient List<GameAction> loadedActions;
+
     private SimpleEventBus eventBus;
 
+    public GameLogImpl()
+    {
+        segments.add(new Segment(null, 0));
+    }
+
     private void safelyFireEvent(ActionPerformedEvent actionPerformedEvent)
     {
         if (eventBus != null)
@@ -35,34 +80,189 @@ public class GameLogImpl implements GameLog
         return eventBus;
     }
 
+    /*
+     * Moves turns older than the last given amount of turns to given store.
+     * Pass null to keep everything in memory.
+     */
+    public void setStore(GameLogStore store, int turnsInMemory)
+    {
+        this.store = store;
+        this.turnsInMemory = Math.max(1, turnsInMemory);
+
+        pageOut();
+    }
+
     @Override
     public void addAction(GameAction inGameAction)
     {
-        actions.add(inGameAction);
+        int position = size++;
+        currentSegment().actions.add(inGameAction);
+
+        index(byType, inGameAction.getClass(), position);
+        index(bySender, inGameAction.getSender(), position);
 
         safelyFireEvent(new ActionPerformedEvent(inGameAction));
     }
 
+    private <K> void index(Map<K, Positions> indexes, K key, int position)
+    {
+        Positions positions = indexes.get(key);
+        if (positions == null)
+        {
+            positions = new Positions();
+            indexes.put(key, positions);
+        }
+        positions.add(position);
+    }
+
+    @Override
+    public void startTurn(Turn turn)
+    {
+        Segment current = currentSegment();
+
+        // Reuse an empty segment, such as the first one before any action
+        if (current.actions.isEmpty())
+            current.turn = turn;
+        else
+            segments.add(new Segment(turn, size));
+
+        pageOut();
+    }
+
+    private Segment currentSegment()
+    {
+        return segments.get(segments.size() - 1);
+    }
+
+    /*
+     * Stores the segments beyond the amount to keep in memory
+     */
+    private void pageOut()
+    {
+        if (store == null)
+            return;
+
+        while (segments.size() - firstInMemory > turnsInMemory)
+        {
+            Segment segment = segments.get(firstInMemory++);
+            segment.handle = store.store(segment.actions);
+            segment.actions = null;
+        }
+    }
+
+    /*
+     * Returns the index of the segment containing given position
+     */
+    private int segmentOf(int position)
+    {
+        int low = 0;
+        int high = segments.size() - 1;
+        while (low < high)
+        {
+            int middle = (low + high + 1) >>> 1;
+            if (segments.get(middle).start <= position)
+                low = middle;
+            else
+                high = middle - 1;
+        }
+
+        return low;
+    }
+
+    private List<GameAction> actionsOf(Segment segment)
+    {
+        if (segment.actions != null)
+            return segment.actions;
+
+        if (segment != loaded)
+        {
+            loadedActions = store.load(segment.handle);
+            loaded = segment;
+        }
+
+        return loadedActions;
+    }
+
+    @Override
+    public int size()
+    {
+        return size;
+    }
+
+    @Override
+    public GameAction getAction(int index)
+    {
+        if (index < 0 || index >= size)
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: "
+                    + size);
+
+        Segment segment = segments.get(segmentOf(index));
+        return actionsOf(segment).get(index - segment.start);
+    }
+
+    @Override
+    public List<GameAction> getLastActions(int amount)
+    {
+        final int from = Math.max(0, size - amount);
+        final int to = size;
+
+        return new AbstractList<GameAction>()
+        {
+            @Override
+            public GameAction get(int index)
+            {
+                return getAction(from + index);
+            }
+
+            @Override
+            public int size()
+            {
+                return to - from;
+            }
+        };
+    }
+
+    @Override
+    public List<GameAction> getCurrentTurnActions()
+    {
+        return Collections.unmodifiableList(currentSegment().actions);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T extends GameAction> List<T> getActions(Class<T> type)
+    {
+        return (List<T>) new PositionsView(byType, type);
+    }
+
+    @Override
+    public List<GameAction> getActions(GamePlayer player)
+    {
+        return new PositionsView(bySender, player.getUser().getId());
+    }
+
+    /*
+     * Returns the rolls since the last RolledSame action, newest first, at
+     * most one per player
+     */
     public List<RollDice> getCurrentRoundRolls(Game game)
     {
         List<RollDice> result = new ArrayList<RollDice>();
 
-        // We run the like a stack, first to examine is last in the list
-        for (int i = actions.size() - 1; i > 0; i--)
-        {
-            GameAction action = actions.get(i);
-            String x = action.getPlayer().getUser().getName();
-            // we break the loop when we encountered a rolledsame action
-            if (action instanceof RolledSame)
-                break;
+        Positions rolls = byType.get(RollDice.class);
+        if (rolls == null)
+            return result;
 
-            // When we encounter a RollDiceAction, add it to the list
-            if (action instanceof RollDice)
-                result.add((RollDice) action);
+        // we stop when we encounter a rolledsame action
+        Positions rolledSame = byType.get(RolledSame.class);
+        int roundStart = rolledSame == null ? -1 : rolledSame.last();
 
-            // We always have maximum of PlayerCount RollDiceAction
-            if (result.size() == game.getPlayers().size())
-                break;
+        // We always have maximum of PlayerCount RollDiceAction
+        for (int i = rolls.size - 1; i >= 0
+                && rolls.items[i] > roundStart
+                && result.size() < game.getPlayers().size(); i--)
+        {
+            result.add((RollDice) getAction(rolls.items[i]));
         }
 
         return result;
@@ -93,10 +293,42 @@ public class GameLogImpl implements GameLog
         }
     }
 
+    /*
+     * Iterates all actions, loading stored turns one at a time
+     */
     @Override
     public Iterator<GameAction> iterator()
     {
-        return actions.iterator();
+        return new Iterator<GameAction>()
+        {
+            int segment = 0;
+            Iterator<GameAction> actions = Collections
+                    .<GameAction> emptyList().iterator();
+
+            @Override
+            public boolean hasNext()
+            {
+                while (!actions.hasNext() && segment < segments.size())
+                    actions = actionsOf(segments.get(segment++)).iterator();
+
+                return actions.hasNext();
+            }
+
+            @Override
+            public GameAction next()
+            {
+                if (!hasNext())
+                    throw new NoSuchElementException();
+
+                return actions.next();
+            }
+
+            @Override
+            public void remove()
+            {
+                throw new UnsupportedOperationException();
+            }
+        };
     }
 
     @Override
@@ -105,4 +337,143 @@ public class GameLogImpl implements GameLog
     {
         getEventBus().addHandler(ActionPerformedEvent.TYPE, handler);
     }
+
+    @Override
+    public GameLog copy(Game game)
+    {
+        GameLogImpl result = new GameLogImpl();
+
+        result.segments.clear();
+        for (Segment segment : segments)
+            result.segments.add(segment.copy());
+        result.size = size;
+
+        // Only the current turn gets more actions
+        Segment current = result.currentSegment();
+        current.actions = new ArrayList<GameAction>(current.actions);
+
+        copyIndexes(byType, result.byType);
+        copyIndexes(bySender, result.bySender);
+
+        if (store != null)
+            result.store = store.copyFor(game);
+        result.turnsInMemory = turnsInMemory;
+        result.firstInMemory = firstInMemory;
+
+        return result;
+    }
+
+    private static <K> void copyIndexes(Map<K, Positions> indexes,
+            Map<K, Positions> destination)
+    {
+        for (Map.Entry<K, Positions> entry : indexes.entrySet())
+            destination.put(entry.getKey(), entry.getValue().share());
+    }
+
+    /*
+     * Actions of one turn. When stored, actions is null and handle refers to
+     * the stored actions.
+     */
+    private static class Segment
+    {
+        Turn turn;
+        int start;
+        List<GameAction> actions = new ArrayList<GameAction>();
+        Object handle;
+
+        Segment(Turn turn, int start)
+        {
+            this.turn = turn;
+            this.start = start;
+        }
+
+        /*
+         * Returns a segment sharing the actions or handle of this segment
+         */
+        Segment copy()
+        {
+            Segment result = new Segment(turn, start);
+            result.actions = actions;
+            result.handle = handle;
+
+            return result;
+        }
+    }
+
+    /*
+     * Growing array of positions, in increasing order. The array may be shared
+     * with the positions of a copy of the log, in which case it is copied
+     * before adding to it.
+     */
+    private static class Positions
+    {
+        int[] items = new int[8];
+        int size;
+        boolean shared;
+
+        void add(int position)
+        {
+            if (size == items.length || shared)
+            {
+                int[] grown = new int[size == items.length ? size * 2
+                        : items.length];
+                System.arraycopy(items, 0, grown, 0, size);
+                items = grown;
+                shared = false;
+            }
+            items[size++] = position;
+        }
+
+        /*
+         * Returns positions sharing the array of these positions
+         */
+        Positions share()
+        {
+            Positions result = new Positions();
+            result.items = items;
+            result.size = size;
+
+            shared = true;
+            result.shared = true;
+
+            return result;
+        }
+
+        int last()
+        {
+            return items[size - 1];
+        }
+    }
+
+    /*
+     * Read-only list of the actions at the positions of an index key. Follows
+     * the log as actions are added.
+     */
+    private class PositionsView extends AbstractList<GameAction>
+    {
+        private final Map<?, Positions> indexes;
+        private final Object key;
+
+        PositionsView(Map<?, Positions> indexes, Object key)
+        {
+            this.indexes = indexes;
+            this.key = key;
+        }
+
+        @Override
+        public GameAction get(int index)
+        {
+            if (index < 0 || index >= size())
+                throw new IndexOutOfBoundsException("Index: " + index);
+
+            return getAction(indexes.get(key).items[index]);
+        }
+
+        @Override
+        public int size()
+        {
+            Positions positions = indexes.get(key);
+            return positions == null ? 0 : positions.size;
+        }
+    }
 }
@@ -0,0 +1,30 @@
+package soc.common.game.logs;
+
+import java.util.List;
+
+import soc.common.actions.gameAction.GameAction;
+import soc.common.game.Game;
+
+/*
+ * Storage for turns of a GameLog which are not needed in memory anymore.
+ * Implementations may store the actions in any compact form, as long as
+ * loading returns equivalent actions in the same order.
+ */
+public interface GameLogStore
+{
+    /*
+     * Stores given actions, and returns a handle to load them again with
+     */
+    public Object store(List<GameAction> actions);
+
+    /*
+     * Returns the actions stored with given handle
+     */
+    public List<GameAction> load(Object handle);
+
+    /*
+     * Returns a store loading the same handles for given copy of the game, so
+     * loaded actions belong to the players of that copy
+     */
+    public GameLogStore copyFor(Game game);
+}
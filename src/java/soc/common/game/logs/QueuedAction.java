@@ -23,6 +23,17 @@ public class QueuedAction
     private boolean isBlocking = true;
     private boolean isOptional = false;
 
+    // Links maintained by the ActionsQueueImpl this action is queued in
+    transient ActionsQueueImpl queue;
+    transient QueuedAction previous;
+    transient QueuedAction next;
+
+    // Links to expected actions of the same type and player, when this action
+    // is in the blocking window of the queue
+    transient boolean expected;
+    transient QueuedAction previousSame;
+    transient QueuedAction nextSame;
+
     public QueuedAction()
     {
     }
@@ -109,9 +120,24 @@ public class QueuedAction
      */
     public QueuedAction setBlocking(boolean isBlocking)
     {
-        this.isBlocking = isBlocking;
+        if (this.isBlocking != isBlocking)
+        {
+            this.isBlocking = isBlocking;
+
+            if (queue != null)
+                queue.blockingChanged();
+        }
 
         return this;
     }
 
+    /*
+     * Returns an unqueued copy of this queued action. The GameAction itself
+     * is shared.
+     */
+    public QueuedAction copy()
+    {
+        return new QueuedAction(action, isBlocking, isOptional);
+    }
+
 }
@@ -5,16 +5,23 @@ package soc.common.internationalization;
  */
 public class I18n
 {
-    private static OpenSettlersInternationalization i18n = new ClientInternationalization();
+    // Created on first use, so a server can initialize its own
+    // internationalization before the client one is created
+    private static OpenSettlersInternationalization i18n;
 
     public static OpenSettlersInternationalization get()
     {
+        if (i18n == null)
+        {
+            i18n = new ClientInternationalization();
+        }
+
         return i18n;
     }
 
     // Call initialize before any other call to get()
     public static void initialize(OpenSettlersInternationalization i18n)
     {
-        // I18n.i18n = i18n;
+        I18n.i18n = i18n;
     }
-}
\ No newline at end of file
+}
@@ -11,6 +11,9 @@ import soc.common.server.random.Random;
 /*
  * Abstracted implementation of a gameserver. Should be able to be used locally 
  * as hotseat implementation, as well as a thread synchronized remote server deployment.
+ * 
+ * A gameserver is not thread safe itself: a remote deployment should make sure
+ * all actions of one game are sent from one thread at a time.
  */
 public abstract class AbstractGameServer implements GameServer
 {
@@ -41,7 +44,9 @@ public abstract class AbstractGameServer implements GameServer
     }
 
     /*
-     * (non-Javadoc)
+     * Performs given action, followed by the server actions it queued. Server
+     * actions are performed in a loop, not by recursion, so long chains of
+     * server actions don't grow the stack.
      * 
      * @see
      * soc.common.server.IGameServer#sendAction(soc.common.actions.gameAction
@@ -50,36 +55,8 @@ public abstract class AbstractGameServer implements GameServer
     @Override
     public void sendAction(GameAction action)
     {
-        if (action != null)
+        while (action != null && perform(action))
         {
-            QueuedAction expectedAction = null;
-            if (!action.isValid(game))
-            {
-                callback.receive(new MessageFromServer().setServerMessage(
-                        "Invalid action! \r\n Reason: "
-                                + action.getInvalidMessage()).setSender(0));
-                return;
-            }
-            if (game.getActionsQueue().size() > 0)
-            {
-                expectedAction = game.getActionsQueue().findExpected(action,
-                        game);
-                if (expectedAction == null)
-                {
-                    notifyUnexpected(action);
-                    return;
-                }
-            }
-
-            // Get associated server side action if present
-            ServerAction serverAction = serverActionFactory.createServerAction(
-                    action, this);
-
-            serverAction.execute();
-
-            // send the action to all the players
-            callback.receive(serverAction.getAction());
-
             // Check if the action enqueued a server action, if so: execute it
             // right away
             GameAction possibleNextServerAction = game.getActionsQueue()
@@ -87,11 +64,51 @@ public abstract class AbstractGameServer implements GameServer
             if (possibleNextServerAction != null
                     && possibleNextServerAction.isServer())
             {
-                sendAction(possibleNextServerAction);
+                action = possibleNextServerAction;
+            }
+            else
+            {
+                action = null;
             }
         }
     }
 
+    /*
+     * Performs given action when valid and expected, and sends it to all the
+     * players. Returns false when the action is refused.
+     */
+    private boolean perform(GameAction action)
+    {
+        QueuedAction expectedAction = null;
+        if (!action.isValid(game))
+        {
+            callback.receive(new MessageFromServer().setServerMessage(
+                    "Invalid action! \r\n Reason: "
+                            + action.getInvalidMessage()).setSender(0));
+            return false;
+        }
+        if (game.getActionsQueue().size() > 0)
+        {
+            expectedAction = game.getActionsQueue().findExpected(action, game);
+            if (expectedAction == null)
+            {
+                notifyUnexpected(action);
+                return false;
+            }
+        }
+
+        // Get associated server side action if present
+        ServerAction serverAction = serverActionFactory.createServerAction(
+                action, this);
+
+        serverAction.execute();
+
+        // send the action to all the players
+        callback.receive(serverAction.getAction());
+
+        return true;
+    }
+
     private void notifyUnexpected(GameAction action)
     {
         // Grab the expected action
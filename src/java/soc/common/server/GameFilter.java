@@ -0,0 +1,52 @@
+package soc.common.server;
+
+import java.io.Serializable;
+
+/*
+ * Selects the games of a lobby listing. An empty filter accepts every game.
+ */
+public class GameFilter implements Serializable
+{
+    private static final long serialVersionUID = -2270427619305283817L;
+
+    // Name of a variant the game should play, or null for any
+    private String variant;
+
+    // Whether to list only games players can still join
+    private boolean openSeatsOnly;
+
+    public String getVariant()
+    {
+        return variant;
+    }
+
+    public GameFilter setVariant(String variant)
+    {
+        this.variant = variant;
+
+        return this;
+    }
+
+    public boolean isOpenSeatsOnly()
+    {
+        return openSeatsOnly;
+    }
+
+    public GameFilter setOpenSeatsOnly(boolean openSeatsOnly)
+    {
+        this.openSeatsOnly = openSeatsOnly;
+
+        return this;
+    }
+
+    public boolean accepts(GameSummary game)
+    {
+        if (openSeatsOnly && game.getOpenSeats() == 0)
+            return false;
+
+        if (variant != null && !game.getVariants().contains(variant))
+            return false;
+
+        return true;
+    }
+}
@@ -0,0 +1,66 @@
+package soc.common.server;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+
+/*
+ * A page of a lobby listing of games, ordered by id. The next page starts
+ * after the id of the last game on this page.
+ */
+public class GamePage implements Serializable
+{
+    private static final long serialVersionUID = -6187419502932861265L;
+
+    private ArrayList<GameSummary> games = new ArrayList<GameSummary>();
+    private boolean last;
+    private long revision;
+
+    public List<GameSummary> getGames()
+    {
+        return games;
+    }
+
+    /*
+     * Returns true when no games follow this page
+     */
+    public boolean isLast()
+    {
+        return last;
+    }
+
+    public GamePage setLast(boolean last)
+    {
+        this.last = last;
+
+        return this;
+    }
+
+    /*
+     * Returns the id to ask the next page after, or -1 when this is the last
+     * page
+     */
+    public int getNextAfterId()
+    {
+        if (last || games.isEmpty())
+            return -1;
+
+        return games.get(games.size() - 1).getId();
+    }
+
+    /*
+     * Returns the revision of the lobby this page was read at. Changes with a
+     * higher revision are not on this page yet.
+     */
+    public long getRevision()
+    {
+        return revision;
+    }
+
+    public GamePage setRevision(long revision)
+    {
+        this.revision = revision;
+
+        return this;
+    }
+}
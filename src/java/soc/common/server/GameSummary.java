@@ -0,0 +1,130 @@
+package soc.common.server;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+
+/*
+ * What the lobby shows of a game: enough to list it and to decide whether
+ * to join it, without sending the game itself
+ */
+public class GameSummary implements Serializable
+{
+    private static final long serialVersionUID = 3416780092385467722L;
+
+    private int id;
+    private String name;
+    private ArrayList<String> variants = new ArrayList<String>();
+    private int playerCount;
+    private int maxPlayers;
+    private boolean waitingForPlayers;
+
+    public int getId()
+    {
+        return id;
+    }
+
+    public GameSummary setId(int id)
+    {
+        this.id = id;
+
+        return this;
+    }
+
+    public String getName()
+    {
+        return name;
+    }
+
+    public GameSummary setName(String name)
+    {
+        this.name = name;
+
+        return this;
+    }
+
+    /*
+     * Returns the names of the variants played, such as "SeaFarers"
+     */
+    public List<String> getVariants()
+    {
+        return variants;
+    }
+
+    public GameSummary addVariant(String variant)
+    {
+        variants.add(variant);
+
+        return this;
+    }
+
+    public int getPlayerCount()
+    {
+        return playerCount;
+    }
+
+    public GameSummary setPlayerCount(int playerCount)
+    {
+        this.playerCount = playerCount;
+
+        return this;
+    }
+
+    public int getMaxPlayers()
+    {
+        return maxPlayers;
+    }
+
+    public GameSummary setMaxPlayers(int maxPlayers)
+    {
+        this.maxPlayers = maxPlayers;
+
+        return this;
+    }
+
+    /*
+     * Returns true when the game has not started yet
+     */
+    public boolean isWaitingForPlayers()
+    {
+        return waitingForPlayers;
+    }
+
+    public GameSummary setWaitingForPlayers(boolean waitingForPlayers)
+    {
+        this.waitingForPlayers = waitingForPlayers;
+
+        return this;
+    }
+
+    /*
+     * Returns the amount of players who can still join the game
+     */
+    public int getOpenSeats()
+    {
+        return waitingForPlayers ? Math.max(0, maxPlayers - playerCount) : 0;
+    }
+
+    @Override
+    public int hashCode()
+    {
+        return id;
+    }
+
+    @Override
+    public boolean equals(Object obj)
+    {
+        if (this == obj)
+            return true;
+        if (!(obj instanceof GameSummary))
+            return false;
+
+        GameSummary other = (GameSummary) obj;
+        return id == other.id
+                && playerCount == other.playerCount
+                && maxPlayers == other.maxPlayers
+                && waitingForPlayers == other.waitingForPlayers
+                && (name == null ? other.name == null : name
+                        .equals(other.name)) && variants.equals(other.variants);
+    }
+}
@@ -3,14 +3,24 @@ package soc.common.server;
 import soc.common.game.Game;
 import soc.common.server.actions.ServerActionFactory;
 import soc.common.server.random.ClientRandom;
+import soc.common.server.random.Random;
 
 public class HotSeatServer extends AbstractGameServer
 {
     public HotSeatServer(IGameServerCallback callback)
+    {
+        this(callback, new ClientRandom());
+    }
+
+    /*
+     * Hotseat server drawing its random numbers from given random, such as a
+     * SeededRandom to play a game outside the browser
+     */
+    public HotSeatServer(IGameServerCallback callback, Random random)
     {
         this.callback = callback;
-        game = new Game();
-        random = new ClientRandom();
+        this.game = new Game();
+        this.random = random;
     }
 
     @Override
@@ -23,6 +23,22 @@ public interface Lobby
      */
     public List<Game> getGames();
 
+    /*
+     * Returns at most limit games accepted by given filter, ordered by id and
+     * starting after given id. Pass -1 to start with the first game.
+     */
+    public GamePage getGames(GameFilter filter, int afterId, int limit);
+
+    /*
+     * Returns the game with given id, or null
+     */
+    public Game getGame(int id);
+
+    /*
+     * Returns the player in the lobby with given id, or null
+     */
+    public Player getPlayer(int id);
+
     /*
      * A player creates a game
      */
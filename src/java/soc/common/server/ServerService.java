@@ -1,5 +1,6 @@
 package soc.common.server;
 
+import soc.common.actions.gameAction.GameAction;
 import soc.common.actions.lobby.LobbyAction;
 import soc.common.server.data.User;
 
@@ -33,4 +34,27 @@ public interface ServerService extends RemoteService
      */
     public void send(LobbyAction action);
 
+    /**
+     * Send an action to a game hosted on the server. Returns false when the
+     * game is unknown or too busy to accept the action, or when the action is
+     * not sent by the user logged in on this session. Actions of a user who
+     * does not play the game are dropped.
+     * 
+     * @param gameId
+     * @param action
+     */
+    public boolean sendGameAction(int gameId, GameAction action);
+
+    /**
+     * Returns a page of the games in the lobby accepted by given filter,
+     * ordered by id and starting after given id. Changes to the games listed
+     * are pushed to the lobby afterwards.
+     * 
+     * @param filter
+     * @param afterId
+     *            -1 for the first page
+     * @param limit
+     */
+    public GamePage getGames(GameFilter filter, int afterId, int limit);
+
 }
@@ -1,5 +1,6 @@
 package soc.common.server;
 
+import soc.common.actions.gameAction.GameAction;
 import soc.common.actions.lobby.LobbyAction;
 import soc.common.server.data.User;
 
@@ -14,4 +15,10 @@ public interface ServerServiceAsync
 
     public void send(LobbyAction action, AsyncCallback<Void> callBack);
 
+    public void sendGameAction(int gameId, GameAction action,
+            AsyncCallback<Boolean> callBack);
+
+    public void getGames(GameFilter filter, int afterId, int limit,
+            AsyncCallback<GamePage> callBack);
+
 }
@@ -2,17 +2,13 @@ package soc.common.server.actions;
 
 import soc.common.actions.gameAction.AbstractGameAction;
 import soc.common.actions.gameAction.turnActions.standard.RobPlayer;
-import soc.common.game.Game;
 import soc.common.game.GamePlayer;
 import soc.common.server.GameServer;
-
-import com.google.gwt.user.client.Random;
+import soc.common.server.random.SeededRandom;
 
 public class ServerRobPlayer implements ServerAction
 {
     private RobPlayer robPlayer;
-    private Game game;
-    private Random random;
     private GameServer gameServer;
 
     public ServerRobPlayer(RobPlayer robPlayer, GameServer gameServer)
@@ -25,8 +21,11 @@ public class ServerRobPlayer implements ServerAction
     @Override
     public void execute()
     {
-        GamePlayer victim = game.getPlayerByID(robPlayer.getVictimID());
-        robPlayer.setStolenResource(victim.getResources().getRandom(random));
+        GamePlayer victim = gameServer.getGame().getPlayerByID(
+                robPlayer.getVictimID());
+        robPlayer.setStolenResource(victim.getResources().getRandom(
+                SeededRandom.stream(gameServer.getRandom(),
+                        SeededRandom.ROBBER)));
 
         gameServer.getGame().performAction(robPlayer);
     }
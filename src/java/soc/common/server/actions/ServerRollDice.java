@@ -4,6 +4,7 @@ import soc.common.actions.gameAction.GameAction;
 import soc.common.actions.gameAction.turnActions.standard.RollDice;
 import soc.common.game.dices.StandardDice;
 import soc.common.server.GameServer;
+import soc.common.server.random.SeededRandom;
 
 public class ServerRollDice implements ServerAction
 {
@@ -21,7 +22,8 @@ public class ServerRollDice implements ServerAction
     public void execute()
     {
         StandardDice dice = new StandardDice();
-        dice.roll(gameServer.getRandom());
+        dice.roll(SeededRandom.stream(gameServer.getRandom(),
+                SeededRandom.DICE));
         rollDice.setDice(dice);
 
         gameServer.getGame().performAction(rollDice);
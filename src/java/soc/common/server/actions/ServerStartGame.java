@@ -12,6 +12,7 @@ import soc.common.server.GameServer;
 import soc.common.server.data.Player;
 import soc.common.server.data.UnregisteredUser;
 import soc.common.server.data.User;
+import soc.common.server.random.SeededRandom;
 
 public class ServerStartGame implements ServerAction
 {
@@ -39,7 +40,27 @@ public class ServerStartGame implements ServerAction
         gameServer.getGame().performAction(hostStartsGame);
     }
 
+    /*
+     * Starts the game. A game without players or board is started with the
+     * test players and the standard board.
+     */
     private void createNewGame()
+    {
+        if (gameServer.getGame().getPlayers().isEmpty())
+            addTestPlayers();
+
+        if (gameServer.getGame().getBoard() == null)
+            gameServer.getGame().setBoard(new Board());
+        gameServer.getGame().getBoard().setRandom(
+                SeededRandom.stream(gameServer.getRandom(),
+                        SeededRandom.BOARD));
+
+        gameServer.getGame().start();
+
+        hostStartsGame.setGame(gameServer.getGame());
+    }
+
+    private void addTestPlayers()
     {
         gameServer.getGame().getPlayers().add(
                 (GamePlayerImpl) new GamePlayerImpl().setUser(
@@ -47,26 +68,20 @@ public class ServerStartGame implements ServerAction
                         .setColor("yellow"));
         gameServer.getGame().getPlayers().add(
                 (GamePlayerImpl) new GamePlayerImpl().setUser(
-                        new UnregisteredUser().setId(1).setName("Kees"))
+                        new UnregisteredUser().setId(2).setName("Kees"))
                         .setColor("white"));
         gameServer.getGame().getPlayers().add(
                 (GamePlayerImpl) new GamePlayerImpl().setUser(
-                        new UnregisteredUser().setId(1).setName("Truus"))
+                        new UnregisteredUser().setId(3).setName("Truus"))
                         .setColor("green"));
         gameServer.getGame().getPlayers().add(
                 (GamePlayerImpl) new GamePlayerImpl().setUser(
-                        new UnregisteredUser().setId(1).setName("Klaas"))
+                        new UnregisteredUser().setId(4).setName("Klaas"))
                         .setColor("red"));
         gameServer.getGame().getPlayers().add(
                 (GamePlayerImpl) new GamePlayerImpl().setUser(
-                        new UnregisteredUser().setId(1).setName("Henk"))
+                        new UnregisteredUser().setId(5).setName("Henk"))
                         .setColor("blue"));
-
-        gameServer.getGame().setBoard(new Board());
-
-        gameServer.getGame().start();
-
-        hostStartsGame.setGame(gameServer.getGame());
     }
 
     private Board copyBoard(Board board)
@@ -36,7 +36,7 @@ public class BoardList implements BoardProvider
 
         for (Board board : boards)
         {
-            if (board.getBoardSettings().getName().equals(user.getName()))
+            if (board.getBoardSettings().getDesigner().equals(user.getName()))
             {
                 result.add(board);
             }
@@ -48,7 +48,14 @@ public class BoardList implements BoardProvider
     @Override
     public Board getBoardByName(String name)
     {
-        // TODO Auto-generated method stub
+        for (Board board : boards)
+        {
+            if (board.getBoardSettings().getName().equals(name))
+            {
+                return board;
+            }
+        }
+
         return null;
     }
 
@@ -0,0 +1,56 @@
+package soc.common.server.random;
+
+/*
+ * Hands out numbers below a fixed maximum from a block computed in advance,
+ * such as dice rolls. A block is filled in one go from the wrapped random
+ * whenever the previous one is used up. Numbers below any other maximum are
+ * taken from the wrapped random directly.
+ *
+ * When only numbers below the fixed maximum are asked, the same numbers are
+ * returned as without buffering. Otherwise the numbers still only depend on
+ * the wrapped random and the calls made. Not thread safe.
+ */
+public class BufferedRandom implements Random
+{
+    private final Random random;
+    private final int max;
+    private final int[] block;
+
+    // Index of the next number to hand out, block.length when used up
+    private int next;
+
+    public BufferedRandom(Random random, int max, int blockSize)
+    {
+        if (blockSize <= 0)
+            throw new IllegalArgumentException("blockSize must be positive");
+
+        this.random = random;
+        this.max = max;
+        this.block = new int[blockSize];
+        this.next = blockSize;
+    }
+
+    @Override
+    public int nextInt(int max)
+    {
+        if (max != this.max)
+            return random.nextInt(max);
+
+        if (next == block.length)
+        {
+            for (int i = 0; i < block.length; i++)
+                block[i] = random.nextInt(max);
+            next = 0;
+        }
+
+        return block[next++];
+    }
+
+    /*
+     * Returns the amount of numbers left in the current block
+     */
+    public int getRemaining()
+    {
+        return block.length - next;
+    }
+}
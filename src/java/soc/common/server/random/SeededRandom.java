@@ -0,0 +1,142 @@
+package soc.common.server.random;
+
+/*
+ * Random numbers of one game, from one seed. The same seed always gives the
+ * same board, deck, dice rolls and stolen resources, so a game can be
+ * replayed from its seed and its log.
+ *
+ * Each part of the game draws from its own stream. Streams are seeded from
+ * the game seed and the stream number, so drawing more numbers from one
+ * stream (such as an extra robbery) does not change what the others give.
+ *
+ * The generator is SplitMix64: a single long of state, no shared or atomic
+ * fields, so games generating numbers in parallel never contend. Not thread
+ * safe; a game is played on one thread at a time.
+ */
+public class SeededRandom implements Random
+{
+    // Stream for anything without a stream of its own
+    public static final int GENERAL = 0;
+
+    // Stream for dice rolls
+    public static final int DICE = 1;
+
+    // Stream for placing random hexes, chits and ports on the board
+    public static final int BOARD = 2;
+
+    // Stream for shuffling the development cards deck
+    public static final int DEVELOPMENT_CARDS = 3;
+
+    // Stream for picking the resource stolen by the robber or pirate
+    public static final int ROBBER = 4;
+
+    public static final int STREAM_COUNT = 5;
+
+    // Golden ratio increment of SplitMix64
+    private static final long GAMMA = 0x9E3779B97F4A7C15L;
+
+    private final long seed;
+    private final Random[] streams = new Random[STREAM_COUNT];
+
+    public SeededRandom(long seed)
+    {
+        this.seed = seed;
+
+        for (int i = 0; i < STREAM_COUNT; i++)
+            streams[i] = new Stream(mix64(seed + (i + 1) * GAMMA));
+    }
+
+    /*
+     * Returns the seed this random was created with. Record it to replay the
+     * game.
+     */
+    public long getSeed()
+    {
+        return seed;
+    }
+
+    /*
+     * Returns the stream with given number, such as DICE or ROBBER
+     */
+    public Random getStream(int stream)
+    {
+        return streams[stream];
+    }
+
+    /*
+     * Precomputes dice rolls in blocks of given size. Rolls stay the same for
+     * the same seed, provided the dice stream is only asked for numbers below
+     * given amount of sides.
+     */
+    public SeededRandom setBufferedDice(int sides, int blockSize)
+    {
+        streams[DICE] = new BufferedRandom(streams[DICE], sides, blockSize);
+
+        return this;
+    }
+
+    /*
+     * Draws from the general stream
+     */
+    @Override
+    public int nextInt(int max)
+    {
+        return streams[GENERAL].nextInt(max);
+    }
+
+    /*
+     * Returns given stream of given random when it is seeded, or the random
+     * itself otherwise, such as on a hotseat game in the browser
+     */
+    public static Random stream(Random random, int stream)
+    {
+        if (random instanceof SeededRandom)
+            return ((SeededRandom) random).getStream(stream);
+
+        return random;
+    }
+
+    /*
+     * SplitMix64 output function
+     */
+    static long mix64(long z)
+    {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    /*
+     * One stream of numbers of a game
+     */
+    private static class Stream implements Random
+    {
+        private long state;
+
+        public Stream(long state)
+        {
+            this.state = state;
+        }
+
+        @Override
+        public int nextInt(int max)
+        {
+            if (max <= 0)
+                throw new IllegalArgumentException("max must be positive");
+
+            // Take 31 bits, and draw again when they fall in the incomplete
+            // last range so each number is equally likely
+            int last = Integer.MAX_VALUE
+                    - (int) ((Integer.MAX_VALUE + 1L) % max);
+            int bits;
+            do
+            {
+                state += GAMMA;
+                bits = (int) (mix64(state) >>> 33);
+            }
+            while (bits > last);
+
+            return bits % max;
+        }
+    }
+}
@@ -17,10 +17,19 @@
  * along with this program.  If not, see <http://www.gnu.org/licenses/>. **/
 package soc.debug;
 
+import java.util.Hashtable;
+import java.util.StringTokenizer;
+
 /**
  * Debug output; can be switched on and off.  All output goes to System.out.
  * soc.debug.D and {@link soc.disableDebug.D} have the same interface, to easily switch
  * debug on and off per class.
+ *<P>
+ * Output can also be limited at runtime per category and level,
+ * see {@link #ebugIsEnabled(String, int)}.
+ * Switching a class's import to soc.disableDebug.D is the build-time switch:
+ * its {@link #ebugOn} is a false constant, so calls guarded by <tt>if (D.ebugOn)</tt>
+ * are removed by the compiler, and nothing is spent building their messages.
  *
  * @author $author$
  * @version $Revision: 1.4 $
@@ -98,6 +107,142 @@ public class D
      */
     public static final void debug(String text) { ebugPrintln(text); }
 
+    /**
+     * Category log levels, used by {@link #ebugIsEnabled(String, int)}
+     * and {@link #ebugPrintln(String, int, String, Object[])}.
+     * Higher levels are more verbose.
+     * @since 1.1.09
+     */
+    public static final int OFF = 0, ERROR = 1, WARN = 2, INFO = 3, DEBUG = 4, TRACE = 5;
+
+    /**
+     * Level for categories without their own entry in {@link #categoryLevels}.
+     * @since 1.1.09
+     */
+    private static volatile int defaultLevel = DEBUG;
+
+    /**
+     * Per-category levels; key is the category name ("robot.brain"),
+     * value is an Integer level.  Categories are dot-separated, so
+     * "robot" also sets the level for "robot.brain" unless that has its own entry.
+     * Read from the <tt>soc.debug.levels</tt> system property at startup,
+     * formatted like "robot=4,robot.tracker=1,game=2".
+     * @since 1.1.09
+     */
+    private static final Hashtable<String, Integer> categoryLevels = new Hashtable<String, Integer>();
+
+    static
+    {
+        String lv = null;
+        try
+        {
+            lv = System.getProperty("soc.debug.levels");
+        }
+        catch (SecurityException e) {}  // applets can't read properties
+        if (lv != null)
+        {
+            StringTokenizer st = new StringTokenizer(lv, ",");
+            while (st.hasMoreTokens())
+            {
+                String tok = st.nextToken().trim();
+                int eq = tok.indexOf('=');
+                try
+                {
+                    if (eq == -1)
+                        defaultLevel = Integer.parseInt(tok);
+                    else
+                        ebug_setLevel(tok.substring(0, eq).trim(), Integer.parseInt(tok.substring(eq + 1).trim()));
+                }
+                catch (NumberFormatException e) {}
+            }
+        }
+    }
+
+    /**
+     * Set the debug level for this category and its sub-categories.
+     * @param category  Category name, such as "robot.brain", or null for the default level
+     * @param level  Level, such as {@link #DEBUG}, or {@link #OFF}
+     * @since 1.1.09
+     */
+    public static final void ebug_setLevel(String category, int level)
+    {
+        if (category == null)
+            defaultLevel = level;
+        else
+            categoryLevels.put(category, new Integer(level));
+    }
+
+    /**
+     * Get the debug level for this category, looking at parent categories
+     * if it has no level of its own.
+     * @param category  Category name, such as "robot.brain", or null for the default level
+     * @return the category's level, such as {@link #DEBUG}
+     * @since 1.1.09
+     */
+    public static final int ebugGetLevel(String category)
+    {
+        while ((category != null) && ! categoryLevels.isEmpty())
+        {
+            Integer lv = categoryLevels.get(category);
+            if (lv != null)
+                return lv.intValue();
+            final int dot = category.lastIndexOf('.');
+            category = (dot > 0) ? category.substring(0, dot) : null;
+        }
+        return defaultLevel;
+    }
+
+    /**
+     * Is debug currently enabled for this category at this level?
+     * Callers with costly messages should check this (and {@link #ebugOn})
+     * before building the message text.
+     * @param category  Category name, such as "robot.brain"
+     * @param level  Level of the message, such as {@link #DEBUG}
+     * @since 1.1.09
+     */
+    public static final boolean ebugIsEnabled(String category, int level)
+    {
+        return enabled && (level <= ebugGetLevel(category));
+    }
+
+    /**
+     * Debug-println a message in this category, if enabled at this level.
+     * The message text is built only when it will be printed:
+     * <tt>format</tt> and <tt>args</tt> are given to {@link String#format(String, Object[])},
+     * so the arguments' <tt>toString()</tt> is never called when disabled.
+     * For zero cost in hot paths, also wrap the call in <tt>if (D.ebugOn)</tt>,
+     * so it's removed at compile time when the class imports {@link soc.disableDebug.D}.
+     * @param category  Category name, such as "robot.brain"
+     * @param level  Level of the message, such as {@link #DEBUG}
+     * @param format  Format string, as in {@link String#format(String, Object[])}
+     * @param args  Arguments for <tt>format</tt>
+     * @since 1.1.09
+     */
+    public static final void ebugPrintln(String category, int level, String format, Object... args)
+    {
+        if (ebugIsEnabled(category, level))
+        {
+            System.out.println((args.length == 0) ? format : String.format(format, args));
+        }
+    }
+
+    /**
+     * Debug-print a message in this category without ending the line, if enabled at this level.
+     * Same as {@link #ebugPrintln(String, int, String, Object[])} otherwise.
+     * @param category  Category name, such as "robot.brain"
+     * @param level  Level of the message, such as {@link #DEBUG}
+     * @param format  Format string, as in {@link String#format(String, Object[])}
+     * @param args  Arguments for <tt>format</tt>
+     * @since 1.1.09
+     */
+    public static final void ebugPrint(String category, int level, String format, Object... args)
+    {
+        if (ebugIsEnabled(category, level))
+        {
+            System.out.print((args.length == 0) ? format : String.format(format, args));
+        }
+    }
+
     /**
      * If debug is enabled, print the stack trace of this exception
      * @param ex Exception or other Throwable.  If null, will create an exception
@@ -21,6 +21,9 @@ package soc.disableDebug;
  * Debug output; the disabled class is always off.
  * {@link soc.debug.D} and soc.disableDebug.D have the same interface, to easily switch
  * debug on and off per class.
+ *<P>
+ * Since {@link #ebugOn} is a false constant here, the compiler removes
+ * any code guarded by <tt>if (D.ebugOn)</tt> in classes importing this one.
  */
 public class D
 {
@@ -79,4 +82,50 @@ public class D
      */
     public static final void debug(String text) { ebugPrintln(text); }
 
+    /**
+     * Category log levels, same values as in {@link soc.debug.D}.
+     * @since 1.1.09
+     */
+    public static final int OFF = 0, ERROR = 1, WARN = 2, INFO = 3, DEBUG = 4, TRACE = 5;
+
+    /**
+     * Does nothing, since this is the disabled version.
+     * @since 1.1.09
+     */
+    public static final void ebug_setLevel(String category, int level) {}
+
+    /**
+     * Always {@link #OFF}, since this is the disabled version.
+     * @since 1.1.09
+     */
+    public static final int ebugGetLevel(String category)
+    {
+        return OFF;
+    }
+
+    /**
+     * Is debug currently enabled for this category at this level?
+     * Always false, since this is the disabled version.
+     * @since 1.1.09
+     */
+    public static final boolean ebugIsEnabled(String category, int level)
+    {
+        return false;
+    }
+
+    /**
+     * Does nothing, since this is the disabled version.
+     * The arguments are still evaluated by the caller;
+     * wrap hot-path calls in <tt>if (D.ebugOn)</tt> to remove them at compile time.
+     * @since 1.1.09
+     */
+    public static final void ebugPrintln(String category, int level, String format, Object... args) {}
+
+    /**
+     * Does nothing, since this is the disabled version.
+     * @see #ebugPrintln(String, int, String, Object[])
+     * @since 1.1.09
+     */
+    public static final void ebugPrint(String category, int level, String format, Object... args) {}
+
 }
@@ -549,9 +549,11 @@ public class Board implements Serializable, Cloneable
     private Vector cities;
 
     /**
-     * random number generator
+     * random number generator for {@link #makeNewBoard(Hashtable)};
+     * the game's {@link GameRandom#BOARD} stream, from {@link #setRandom(Random)}.
+     * If that's never called, makeNewBoard uses an unseeded generator.
      */
-    private Random rand = new Random();
+    private Random rand;
 
     /**
      * a list of nodes on the land of the board; key is node's Integer coordinate, value is Boolean.
@@ -700,6 +702,17 @@ public class Board implements Serializable, Cloneable
         }
     }
 
+    /**
+     * Set the random number generator used by {@link #makeNewBoard(Hashtable)}.
+     * Called by the game, with its {@link GameRandom#BOARD} stream.
+     * @param r  random number generator
+     * @since 1.1.09
+     */
+    public void setRandom(Random r)
+    {
+        rand = r;
+    }
+
     /**
      * Shuffle the hex tiles and layout a board.
      * This is called at server, but not at client;
@@ -711,6 +724,9 @@ public class Board implements Serializable, Cloneable
      */
     public void makeNewBoard(Hashtable opts)
     {
+        if (rand == null)
+            rand = new Random();
+
         final boolean is6player = (boardEncodingFormat == BOARD_ENCODING_6PLAYER);
 
         final int[] landHex_v1 = { 0, 1, 1, 1, 2, 2, 2, 3, 3, 3, 3, 4, 4, 4, 4, 5, 5, 5, 5 };
@@ -855,7 +871,7 @@ public class Board implements Serializable, Cloneable
                 for (int i = 0; i < landHex.length; i++)
                 {
                     // Swap a random card below the ith card with the ith card
-                    idx = Math.abs(rand.nextInt() % (landHex.length - i));
+                    idx = rand.nextInt(landHex.length - i);
                     tmp = landHex[idx];
                     landHex[idx] = landHex[i];
                     landHex[i] = tmp;
@@ -1066,7 +1082,7 @@ public class Board implements Serializable, Cloneable
                 for (i = 1; i < portHex.length; i++) // don't swap 0 with 0!
                 {
                     // Swap a random card below the ith card with the ith card
-                    idx = Math.abs(rand.nextInt() % (portHex.length - i));
+                    idx = rand.nextInt(portHex.length - i);
                     tmp = portHex[idx];
                     portHex[idx] = portHex[i];
                     portHex[i] = tmp;
@@ -1621,6 +1637,40 @@ public class Board implements Serializable, Cloneable
         }
     }
 
+    /**
+     * Restore the board layout and robber from a snapshot, and remove all pieces;
+     * used by {@link Game#restoreSnapshot(GameSnapshot)}, which then puts the snapshot's pieces back.
+     * The layout is set only if it differs from the current one,
+     * since the layout doesn't change during play.
+     * @param snap  Snapshot to restore from; not changed
+     * @since 1.1.09
+     */
+    void restoreState(GameSnapshot snap)
+    {
+        final GameSnapshot.BoardLayout lay = snap.layout;
+        if (! lay.matches(this))
+        {
+            boardEncodingFormat = lay.boardEncodingFormat;
+            for (int i = 0; i < ports.length; ++i)
+                ports[i].removeAllElements();
+            if (nodeIDtoPortType != null)
+                for (int i = 0; i <= MAXNODE; ++i)
+                    nodeIDtoPortType[i] = -1;
+
+            // copies, so later changes to this board can't change the shared layout
+            setHexLayout(lay.hexLayout.clone());
+            if (lay.portsLayout != null)
+                setPortsLayout(lay.portsLayout.clone());
+            numberLayout = lay.numberLayout.clone();
+        }
+        robberHex = snap.robberHex;
+
+        pieces.removeAllElements();
+        roads.removeAllElements();
+        settlements.removeAllElements();
+        cities.removeAllElements();
+    }
+
     /**
      * get the list of pieces on the board
      */
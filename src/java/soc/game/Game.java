@@ -385,6 +385,13 @@ public class Game implements Serializable, Cloneable
      */
     private Hashtable opts;
 
+    /**
+     * the game options, parsed once into indexed fields for quick checks during play;
+     * {@link GameOptionSet#EMPTY} if no options.
+     * @since 1.1.09
+     */
+    private GameOptionSet optSet;
+
     /**
      * the players; never contains a null element, use {@link #isSeatVacant(int)}
      * to see if a position is occupied.
@@ -499,7 +506,7 @@ public class Game implements Serializable, Cloneable
     /**
      * used to restore the LR player
      */
-    Stack oldPlayerWithLongestRoad;
+    Stack<OldLRStats> oldPlayerWithLongestRoad;
 
     /**
      * the player declared winner, if gamestate == OVER; otherwise -1
@@ -517,9 +524,10 @@ public class Game implements Serializable, Cloneable
     private int[] devCardDeck;
 
     /**
-     * used to generate random numbers
+     * used to generate random numbers: dice, dev card deck, robber steals, etc.
+     * Seeded per game; see {@link #getRandomSeed()}.
      */
-    private Random rand = new Random();
+    private GameRandom random;
 
     /**
      * used to track if there were any player subs
@@ -643,6 +651,8 @@ public class Game implements Serializable, Cloneable
             maxPlayers = 4;
         }
         board = new Board(op, maxPlayers);
+        random = new GameRandom(GameRandom.newSeed());
+        board.setRandom(random.stream(GameRandom.BOARD));
         players = new Player[maxPlayers];
         seats = new int[maxPlayers];
         seatLocks = new boolean[maxPlayers];
@@ -668,12 +678,13 @@ public class Game implements Serializable, Cloneable
         forcingEndTurn = false;
         askedSpecialBuildPhase = false;
         placingRobberForKnightCard = false;
-        oldPlayerWithLongestRoad = new Stack();
+        oldPlayerWithLongestRoad = new Stack<OldLRStats>();
 
         opts = op;
         if (op == null)
         {
             clientVersionMinRequired = -1;
+            optSet = GameOptionSet.EMPTY;
         } else {
             if (! GameOption.adjustOptionsToKnown(op, null))
                 throw new IllegalArgumentException("op: unknown option");
@@ -682,6 +693,7 @@ public class Game implements Serializable, Cloneable
             // object is found within opts.
 
             clientVersionMinRequired = GameOption.optionsMinimumVersion(op);
+            optSet = new GameOptionSet(op);
         }
 
         if (maxPlayers > 4)
@@ -842,8 +854,8 @@ public class Game implements Serializable, Cloneable
     public int getAvailableSeatCount()
     {
         int availSeats;
-        if (isGameOptionDefined("PL"))
-            availSeats = getGameOptionIntValue("PL");
+        if (optSet.isDefined(GameOptionSet.PL))
+            availSeats = optSet.getIntValue(GameOptionSet.PL);
         else
             availSeats = maxPlayers;
 
@@ -937,6 +949,59 @@ public class Game implements Serializable, Cloneable
         return opts;
     }
 
+    /**
+     * This game's options, parsed once when the game was created;
+     * for quick checks by index, such as
+     * <tt>getGameOptionSet().isSet({@link GameOptionSet#RD})</tt>,
+     * and for the packed string sent in the game list.
+     * @return this game's option set; {@link GameOptionSet#EMPTY} if none, never null
+     * @since 1.1.09
+     */
+    public GameOptionSet getGameOptionSet()
+    {
+        return optSet;
+    }
+
+    /**
+     * The seed for this game's random numbers: board layout, dev card deck,
+     * dice, robber steals, and so on. A game started with the same seed,
+     * options and players plays out the same way given the same moves.
+     * @return this game's random seed
+     * @see #setRandomSeed(long)
+     * @since 1.1.09
+     */
+    public long getRandomSeed()
+    {
+        return random.getSeed();
+    }
+
+    /**
+     * Set the seed for this game's random numbers, to replay a game
+     * exactly. Each new game is given a different seed by its constructor.
+     * @param seed  the seed, from {@link #getRandomSeed()} of the game to replay
+     * @throws IllegalStateException if the game has already started
+     * @since 1.1.09
+     */
+    public void setRandomSeed(final long seed)
+        throws IllegalStateException
+    {
+        if (gameState >= START1A)
+            throw new IllegalStateException("game already started");
+        random = new GameRandom(seed);
+        board.setRandom(random.stream(GameRandom.BOARD));
+    }
+
+    /**
+     * This game's random number source, for decisions about the game made
+     * outside this class; use its own stream, such as {@link GameRandom#SERVER}.
+     * @return this game's random source
+     * @since 1.1.09
+     */
+    public GameRandom getRandom()
+    {
+        return random;
+    }
+
     /**
      * Is this game option contained in the current game's options?
      * @param optKey Name of a {@link GameOption}
@@ -947,10 +1012,7 @@ public class Game implements Serializable, Cloneable
      */
     public boolean isGameOptionDefined(final String optKey)
     {
-        if (opts == null)
-            return false;
-        else
-            return opts.containsKey(optKey);
+        return optSet.isDefined(optKey);
     }
 
     /**
@@ -968,7 +1030,7 @@ public class Game implements Serializable, Cloneable
     {
         // OTYPE_* - if a new type is added, update this method's javadoc.
 
-        return isGameOptionSet(opts, optKey);
+        return optSet.isSet(optKey);
     }
 
     /**
@@ -1012,7 +1074,7 @@ public class Game implements Serializable, Cloneable
     {
         // OTYPE_* - if a new type is added, update this method's javadoc.
 
-        return getGameOptionIntValue(opts, optKey);
+        return optSet.getIntValue(optKey);
     }
 
     /**
@@ -1056,7 +1118,7 @@ public class Game implements Serializable, Cloneable
     {
         // OTYPE_* - if a new type is added, update this method's javadoc.
 
-        return getGameOptionStringValue(opts, optKey);
+        return optSet.getStringValue(optKey);
     }
 
     /**
@@ -2045,7 +2107,7 @@ public class Game implements Serializable, Cloneable
         //
         // update which player has longest road
         //
-        OldLRStats oldLRStats = (OldLRStats) oldPlayerWithLongestRoad.pop();
+        OldLRStats oldLRStats = oldPlayerWithLongestRoad.pop();
         oldLRStats.restoreOldStats(this);
     }
 
@@ -2134,12 +2196,13 @@ public class Game implements Serializable, Cloneable
             devCardDeck[33] = DevCardConstants.DISC;
         }
 
+        final Random deckRand = random.stream(GameRandom.DEV_CARDS);
         for (j = 0; j < 10; j++)
         {
             for (i = 1; i < devCardDeck.length; i++) // don't swap 0 with 0!
             {
                 // Swap a random card below the ith card with the ith card
-                int idx = Math.abs(rand.nextInt() % (devCardDeck.length - 1));
+                int idx = deckRand.nextInt(devCardDeck.length - 1);
                 int tmp = devCardDeck[idx];
                 devCardDeck[idx] = devCardDeck[i];
                 devCardDeck[i] = tmp;
@@ -2152,9 +2215,10 @@ public class Game implements Serializable, Cloneable
         /**
          * choose who goes first
          */
+        final Random firstRand = random.stream(GameRandom.FIRST_PLAYER);
         do
         {
-            currentPlayerNumber = Math.abs(rand.nextInt() % maxPlayers);
+            currentPlayerNumber = firstRand.nextInt(maxPlayers);
         } while (isSeatVacant(currentPlayerNumber));
         setFirstPlayer(currentPlayerNumber);
     }
@@ -2581,7 +2645,8 @@ public class Game implements Serializable, Cloneable
         ResourceSet discards = new ResourceSet();
         {
             ResourceSet hand = players[pn].getResources(); 
-            discardPickRandom(hand, hand.getTotal() / 2, discards, rand);
+            discardPickRandom(hand, hand.getTotal() / 2, discards,
+                random.stream(GameRandom.DISCARD));
             discard(pn, discards);  // Checks for other discarders, sets gameState
         }
 
@@ -2627,7 +2692,7 @@ public class Game implements Serializable, Cloneable
         for (; numDiscards > 0; numDiscards--)
         {
             // System.err.println("numDiscards="+numDiscards+"|hand.size="+hand.size());
-            int idx = Math.abs(rand.nextInt() % tempHand.size());
+            int idx = rand.nextInt(tempHand.size());
 
             // System.err.println("idx="+idx);
             discards.add(1, ((Integer) tempHand.elementAt(idx)).intValue());
@@ -2699,13 +2764,14 @@ public class Game implements Serializable, Cloneable
         // N7: Roll no 7s during first # rounds.
         //     Use > not >= because roundCount includes current round
         final boolean okToRoll7 =
-            (! isGameOptionSet("N7")) || (roundCount > getGameOptionIntValue("N7"));
+            (! optSet.isSet(GameOptionSet.N7)) || (roundCount > optSet.getIntValue(GameOptionSet.N7));
 
+        final Random diceRand = random.stream(GameRandom.DICE);
         int die1, die2;
         do
         {
-            die1 = Math.abs(rand.nextInt() % 6) + 1;
-            die2 = Math.abs(rand.nextInt() % 6) + 1;
+            die1 = diceRand.nextInt(6) + 1;
+            die2 = diceRand.nextInt(6) + 1;
 
             currentDice = die1 + die2;
         } while ((currentDice == 7) && ! okToRoll7);
@@ -2980,7 +3046,7 @@ public class Game implements Serializable, Cloneable
         switch (board.getHexTypeFromCoord(co))
         {
         case Board.DESERT_HEX:
-            return ! isGameOptionSet("RD");  // Only if it can return to the desert
+            return ! optSet.isSet(GameOptionSet.RD);  // Only if it can return to the desert
 
         case Board.CLAY_HEX:
         case Board.ORE_HEX:
@@ -3342,7 +3408,7 @@ public class Game implements Serializable, Cloneable
             }
         }
 
-        int pick = Math.abs(rand.nextInt() % cnt);
+        int pick = random.stream(GameRandom.ROBBER).nextInt(cnt);
 
         /**
          * and transfer it to the current player
@@ -3381,7 +3447,7 @@ public class Game implements Serializable, Cloneable
             return false;
         }
 
-        if (isGameOptionSet("NT"))
+        if (optSet.isSet(GameOptionSet.NT))
             return false;
 
         if (players[offering].getCurrentOffer() == null)
@@ -3437,7 +3503,7 @@ public class Game implements Serializable, Cloneable
      */
     public void makeTrade(int offering, int accepting)
     {
-        if (isGameOptionSet("NT"))
+        if (optSet.isSet(GameOptionSet.NT))
             return;
 
         ResourceSet offeringPlayerResources = players[offering].getResources();
@@ -4195,7 +4261,7 @@ public class Game implements Serializable, Cloneable
 
         players = null;
         board = null;
-        rand = null;
+        random = null;
     }
 
     /**
@@ -4261,6 +4327,176 @@ public class Game implements Serializable, Cloneable
         return cp;
     }
 
+    /**
+     * Take a snapshot of this game's state, which can later be restored
+     * quickly with {@link #restoreSnapshot(GameSnapshot)}; useful for
+     * look-ahead instead of {@link #putTempPiece(PlayingPiece)},
+     * or for checkpoints at the server.
+     *
+     * @param previous  An earlier snapshot of this game, or null.
+     *     If given, its board layout and options are shared
+     *     instead of copied again, when they haven't changed.
+     * @return a new snapshot of this game
+     * @see GameSnapshot#createGame()
+     * @since 1.1.09
+     */
+    public GameSnapshot takeSnapshot(GameSnapshot previous)
+    {
+        GameSnapshot snap = new GameSnapshot(this, previous);
+
+        snap.active = active;
+        snap.gameState = gameState;
+        snap.oldGameState = oldGameState;
+        snap.currentPlayerNumber = currentPlayerNumber;
+        snap.firstPlayerNumber = firstPlayerNumber;
+        snap.lastPlayerNumber = lastPlayerNumber;
+        snap.currentDice = currentDice;
+        snap.placingRobberForKnightCard = placingRobberForKnightCard;
+        snap.forcingEndTurn = forcingEndTurn;
+        snap.askedSpecialBuildPhase = askedSpecialBuildPhase;
+        snap.specialBuildPhase_afterPlayerNumber = specialBuildPhase_afterPlayerNumber;
+        snap.playerWithLargestArmy = playerWithLargestArmy;
+        snap.oldPlayerWithLargestArmy = oldPlayerWithLargestArmy;
+        snap.playerWithLongestRoad = playerWithLongestRoad;
+        snap.playerWithWin = playerWithWin;
+        snap.numDevCards = numDevCards;
+        snap.devCardDeck = (devCardDeck != null) ? devCardDeck.clone() : null;
+        snap.allOriginalPlayers = allOriginalPlayers;
+        snap.turnCount = turnCount;
+        snap.roundCount = roundCount;
+        snap.randomSeed = random.getSeed();
+        snap.randomState = random.getState();
+        snap.seats = seats.clone();
+        snap.seatLocks = seatLocks.clone();
+
+        snap.oldLongestRoadStats = new int[oldPlayerWithLongestRoad.size()][];
+        for (int i = 0; i < snap.oldLongestRoadStats.length; ++i)
+        {
+            final OldLRStats lrs = oldPlayerWithLongestRoad.elementAt(i);
+            int[] st = new int[maxPlayers + 1];
+            System.arraycopy(lrs.lrLengths, 0, st, 0, maxPlayers);
+            st[maxPlayers] = (lrs.playerWithLR != null) ? lrs.playerWithLR.getPlayerNumber() : -1;
+            snap.oldLongestRoadStats[i] = st;
+        }
+
+        /**
+         * board: layout is shared if unchanged, pieces are packed
+         */
+        if ((previous != null) && previous.layout.matches(board))
+            snap.layout = previous.layout;
+        else
+            snap.layout = new GameSnapshot.BoardLayout(board);
+        snap.robberHex = board.getRobberHex();
+        final Vector<?> bpieces = board.getPieces();
+        snap.boardPieces = new int[bpieces.size()];
+        for (int i = 0; i < snap.boardPieces.length; ++i)
+        {
+            final PlayingPiece pp = (PlayingPiece) bpieces.elementAt(i);
+            snap.boardPieces[i] = (pp.getPlayer().getPlayerNumber() << 16)
+                | (pp.getType() << 8) | pp.getCoordinates();
+        }
+
+        for (int pn = 0; pn < maxPlayers; ++pn)
+        {
+            GameSnapshot.PlayerState ps = new GameSnapshot.PlayerState();
+            players[pn].saveState(ps);
+            snap.players[pn] = ps;
+        }
+
+        return snap;
+    }
+
+    /**
+     * Put this game back into the state of a snapshot taken earlier
+     * with {@link #takeSnapshot(GameSnapshot)}, from this game or one with the
+     * same number of players.  Player and board objects are kept;
+     * their contents are replaced.  The snapshot isn't changed,
+     * and can be restored again.
+     *<P>
+     * Call {@link #takeMonitor()} first if other threads may use this game.
+     *
+     * @param snap  Snapshot to restore
+     * @throws IllegalArgumentException if <tt>snap</tt>'s {@link #maxPlayers} is different from ours
+     * @since 1.1.09
+     */
+    public void restoreSnapshot(GameSnapshot snap)
+        throws IllegalArgumentException
+    {
+        if (snap.maxPlayers != maxPlayers)
+            throw new IllegalArgumentException("maxPlayers: " + snap.maxPlayers);
+
+        active = snap.active;
+        gameState = snap.gameState;
+        oldGameState = snap.oldGameState;
+        currentPlayerNumber = snap.currentPlayerNumber;
+        firstPlayerNumber = snap.firstPlayerNumber;
+        lastPlayerNumber = snap.lastPlayerNumber;
+        currentDice = snap.currentDice;
+        placingRobberForKnightCard = snap.placingRobberForKnightCard;
+        forcingEndTurn = snap.forcingEndTurn;
+        askedSpecialBuildPhase = snap.askedSpecialBuildPhase;
+        specialBuildPhase_afterPlayerNumber = snap.specialBuildPhase_afterPlayerNumber;
+        playerWithLargestArmy = snap.playerWithLargestArmy;
+        oldPlayerWithLargestArmy = snap.oldPlayerWithLargestArmy;
+        playerWithLongestRoad = snap.playerWithLongestRoad;
+        playerWithWin = snap.playerWithWin;
+        numDevCards = snap.numDevCards;
+        devCardDeck = (snap.devCardDeck != null) ? snap.devCardDeck.clone() : null;
+        allOriginalPlayers = snap.allOriginalPlayers;
+        turnCount = snap.turnCount;
+        roundCount = snap.roundCount;
+        if (random.getSeed() != snap.randomSeed)
+        {
+            random = new GameRandom(snap.randomSeed);
+            board.setRandom(random.stream(GameRandom.BOARD));
+        }
+        random.setState(snap.randomState);
+        System.arraycopy(snap.seats, 0, seats, 0, maxPlayers);
+        System.arraycopy(snap.seatLocks, 0, seatLocks, 0, maxPlayers);
+
+        oldPlayerWithLongestRoad.removeAllElements();
+        for (int i = 0; i < snap.oldLongestRoadStats.length; ++i)
+        {
+            final int[] st = snap.oldLongestRoadStats[i];
+            int[] lengths = new int[maxPlayers];
+            System.arraycopy(st, 0, lengths, 0, maxPlayers);
+            final int lrpn = st[maxPlayers];
+            oldPlayerWithLongestRoad.push
+                (new OldLRStats(lengths, (lrpn != -1) ? players[lrpn] : null));
+        }
+
+        board.restoreState(snap);
+        for (int pn = 0; pn < maxPlayers; ++pn)
+            players[pn].restoreState(snap.players[pn]);
+
+        /**
+         * Re-create the pieces in their original order;
+         * each is shared by the board and its player, as in putPiece.
+         */
+        for (int i = 0; i < snap.boardPieces.length; ++i)
+        {
+            final int pk = snap.boardPieces[i];
+            final Player pl = players[pk >> 16];
+            final int coord = pk & 0xFF;
+            final PlayingPiece pp;
+            switch ((pk >> 8) & 0xFF)
+            {
+            case PlayingPiece.ROAD:
+                pp = new Road(pl, coord, board);
+                break;
+
+            case PlayingPiece.SETTLEMENT:
+                pp = new Settlement(pl, coord, board);
+                break;
+
+            default:
+                pp = new City(pl, coord, board);
+            }
+            board.putPiece(pp);
+            pl.restorePiece(pp);
+        }
+    }
+
     /**
      * Begin a board-reset vote.
      * The requester is marked as voting yes, and we mark other players as "no vote yet".
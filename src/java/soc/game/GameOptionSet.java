@@ -0,0 +1,254 @@
+/**
+ * Open Settlers - an open implementation of the game Settlers of Catan
+ * This file copyright (C) 2010 The Open Settlers team
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>. **/
+package soc.game;
+
+import java.io.Serializable;
+import java.util.Hashtable;
+
+/**
+ * A game's {@link GameOption}s, parsed once when the game is created
+ * and not changed afterwards.  The known options used during play
+ * are indexed by field ({@link #PL}, {@link #RD}, ...) so that rules checks
+ * such as {@link Game#canMoveRobber(int, int)} are an array lookup instead of
+ * a hashtable lookup by key.  The packed string form, sent to clients
+ * in the game list, is also kept here after the first call to {@link #getPackedString()}.
+ *<P>
+ * The values are copied from the options when constructed;
+ * later changes to those {@link GameOption} objects are not seen here.
+ *
+ * @see Game#getGameOptionSet()
+ * @since 1.1.09
+ */
+public final class GameOptionSet implements Serializable
+{
+    private static final long serialVersionUID = 1109L;
+
+    /**
+     * Indexes of known options, for {@link #isDefined(int)}, {@link #isSet(int)},
+     * and {@link #getIntValue(int)}. Same names as the options' keys.
+     * NEW_OPTION - If the new option is checked during play, add its index here and to {@link #INDEXED_KEYS}.
+     */
+    public static final int PL = 0, RD = 1, N7 = 2, BC = 3, NT = 4;
+
+    /** Option keys, in the same order as the indexes {@link #PL}, {@link #RD}, ... */
+    private static final String[] INDEXED_KEYS = { "PL", "RD", "N7", "BC", "NT" };
+
+    /** Options set for a game without options; {@link #getOptions()} returns null. */
+    public static final GameOptionSet EMPTY = new GameOptionSet(null);
+
+    /** The options hashtable this set was built from, or null */
+    private final Hashtable<String, GameOption> opts;
+
+    /** Each indexed option's presence and value */
+    private final boolean[] defined, boolValue;
+    private final int[] intValue;
+
+    /**
+     * Copies of any options without an index, for lookup by key; or null if none.
+     */
+    private final Hashtable<String, GameOption> others;
+
+    /**
+     * Packed string from {@link GameOption#packOptionsToString(Hashtable, boolean)},
+     * or null until {@link #getPackedString()} is called.
+     */
+    private String packed;
+
+    /**
+     * Create an option set from these options.
+     * @param opts  Hashtable of {@link GameOption}, or null.
+     *     Kept for {@link #getOptions()}, and not changed here.
+     * @throws ClassCastException if <tt>opts</tt> contains anything other than GameOptions
+     */
+    @SuppressWarnings("unchecked")
+    public GameOptionSet(Hashtable<?, ?> opts)
+        throws ClassCastException
+    {
+        this.opts = (Hashtable<String, GameOption>) opts;
+        defined = new boolean[INDEXED_KEYS.length];
+        boolValue = new boolean[INDEXED_KEYS.length];
+        intValue = new int[INDEXED_KEYS.length];
+        if (opts == null)
+        {
+            others = null;
+            packed = "-";
+            return;
+        }
+
+        for (int i = 0; i < INDEXED_KEYS.length; ++i)
+        {
+            GameOption op = this.opts.get(INDEXED_KEYS[i]);
+            if (op != null)
+            {
+                defined[i] = true;
+                boolValue[i] = op.getBoolValue();
+                intValue[i] = op.getIntValue();
+            }
+        }
+
+        Hashtable<String, GameOption> oth = null;
+        if (opts.size() > countDefined())
+        {
+            oth = GameOption.cloneOptions(this.opts);
+            for (int i = 0; i < INDEXED_KEYS.length; ++i)
+                oth.remove(INDEXED_KEYS[i]);
+        }
+        others = oth;
+    }
+
+    /**
+     * Parse packed options into an option set.
+     * @param optsStr  Options as packed by {@link GameOption#packOptionsToString(Hashtable, boolean)},
+     *     or null or "-" for none
+     * @return the parsed options; {@link #EMPTY} if none
+     */
+    public static GameOptionSet parse(final String optsStr)
+    {
+        Hashtable<String, GameOption> opts = GameOption.parseOptionsToHash(optsStr);
+        if (opts == null)
+            return EMPTY;
+        GameOptionSet os = new GameOptionSet(opts);
+        os.packed = optsStr;
+        return os;
+    }
+
+    /**
+     * @return number of indexed options which are defined
+     */
+    private int countDefined()
+    {
+        int n = 0;
+        for (int i = 0; i < defined.length; ++i)
+            if (defined[i])
+                ++n;
+        return n;
+    }
+
+    /**
+     * @return index of this option key, such as {@link #RD}, or -1 if not indexed
+     */
+    private static int indexOf(final String optKey)
+    {
+        for (int i = 0; i < INDEXED_KEYS.length; ++i)
+            if (INDEXED_KEYS[i].equals(optKey))
+                return i;
+        return -1;
+    }
+
+    /**
+     * @return the options hashtable this set was built from, or null if none
+     */
+    public Hashtable<String, GameOption> getOptions()
+    {
+        return opts;
+    }
+
+    /**
+     * Is this indexed option contained in the game's options?
+     * @param idx  Option index, such as {@link #PL}
+     */
+    public boolean isDefined(final int idx)
+    {
+        return defined[idx];
+    }
+
+    /**
+     * Is this indexed boolean-valued option set to true?
+     * @param idx  Option index, such as {@link #RD}
+     * @return True if option is set, false if not set or not defined
+     */
+    public boolean isSet(final int idx)
+    {
+        return boolValue[idx];
+    }
+
+    /**
+     * This indexed integer option's value.
+     * @param idx  Option index, such as {@link #N7}
+     * @return Option's int value, or 0 if not defined
+     */
+    public int getIntValue(final int idx)
+    {
+        return intValue[idx];
+    }
+
+    /**
+     * Is this option contained in the game's options?
+     * @param optKey Name of a {@link GameOption}
+     * @see Game#isGameOptionDefined(String)
+     */
+    public boolean isDefined(final String optKey)
+    {
+        final int idx = indexOf(optKey);
+        if (idx != -1)
+            return defined[idx];
+        return (others != null) && others.containsKey(optKey);
+    }
+
+    /**
+     * Is this boolean-valued option set to true?
+     * @param optKey Name of a {@link GameOption}
+     * @return True if option is set, false if not set or not defined
+     * @see Game#isGameOptionSet(String)
+     */
+    public boolean isSet(final String optKey)
+    {
+        final int idx = indexOf(optKey);
+        if (idx != -1)
+            return boolValue[idx];
+        return Game.isGameOptionSet(others, optKey);
+    }
+
+    /**
+     * This integer option's value.
+     * @param optKey Name of a {@link GameOption}
+     * @return Option's int value, or 0 if not defined
+     * @see Game#getGameOptionIntValue(String)
+     */
+    public int getIntValue(final String optKey)
+    {
+        final int idx = indexOf(optKey);
+        if (idx != -1)
+            return intValue[idx];
+        return Game.getGameOptionIntValue(others, optKey);
+    }
+
+    /**
+     * This string option's value.  None of the indexed options are strings.
+     * @param optKey Name of a {@link GameOption}
+     * @return Option's string value, or null if not defined
+     * @see Game#getGameOptionStringValue(String)
+     */
+    public String getStringValue(final String optKey)
+    {
+        return Game.getGameOptionStringValue(others, optKey);
+    }
+
+    /**
+     * The options packed into a string, as sent to clients in the game list.
+     * Packed on the first call, and kept for later calls.
+     * @return options packed by {@link GameOption#packOptionsToString(Hashtable, boolean)},
+     *     or "-" if none
+     */
+    public String getPackedString()
+    {
+        if (packed == null)
+            packed = GameOption.packOptionsToString(opts, false);
+        return packed;
+    }
+
+}
@@ -0,0 +1,203 @@
+/**
+ * Open Settlers - an open implementation of the game Settlers of Catan
+ * This file copyright (C) 2010 The Open Settlers team
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>. **/
+package soc.game;
+
+import java.io.Serializable;
+import java.util.Random;
+
+
+/**
+ * A game's source of randomness, from one seed.
+ *<P>
+ * Each part of the game that needs random numbers draws from its own
+ * {@link #stream(int) stream}: dice, board layout, dev card deck, and so on.
+ * Each stream is seeded from the game's seed and the stream number, so the
+ * same seed always gives the same board, deck and dice rolls, and drawing
+ * more numbers from one stream (such as extra robber steals) doesn't change
+ * what the others give.
+ *<P>
+ * Streams belong to one game and are used under its monitor, so unlike a
+ * shared {@link java.util.Random} there's no contention between games.
+ * Streams are not thread-safe.
+ *<P>
+ * The generator is SplitMix64, which is fast, has a 64-bit state that's
+ * cheap to save in a {@link GameSnapshot}, and gives well-mixed output even
+ * from neighbouring seeds.
+ *<P>
+ * Serialized with its {@link Game}: each stream keeps its position.
+ *
+ * @see Game#getRandomSeed()
+ * @since 1.1.09
+ */
+public final class GameRandom implements Serializable
+{
+    private static final long serialVersionUID = 1109L;
+
+    /** Stream for dice rolls */
+    public static final int DICE = 0;
+
+    /** Stream for shuffling the board's hexes, numbers and ports */
+    public static final int BOARD = 1;
+
+    /** Stream for shuffling the development card deck */
+    public static final int DEV_CARDS = 2;
+
+    /** Stream for picking the resource stolen by the robber */
+    public static final int ROBBER = 3;
+
+    /** Stream for picking the first player */
+    public static final int FIRST_PLAYER = 4;
+
+    /** Stream for picking resources to discard for a player who took too long */
+    public static final int DISCARD = 5;
+
+    /** Stream for the server's choices about the game, such as which robots to invite */
+    public static final int SERVER = 6;
+
+    /** Number of streams */
+    public static final int NUM_STREAMS = 7;
+
+    /** Golden-ratio increment used by SplitMix64 */
+    private static final long GAMMA = 0x9E3779B97F4A7C15L;
+
+    /** Makes seeds from {@link #newSeed()} distinct even when the clock isn't */
+    private static long seedCounter;
+
+    private final long seed;
+
+    private final Stream[] streams = new Stream[NUM_STREAMS];
+
+    /**
+     * Create the random source for a game.
+     *
+     * @param seed  the game's seed; the same seed gives the same game
+     * @see #newSeed()
+     */
+    public GameRandom(final long seed)
+    {
+        this.seed = seed;
+        for (int i = 0; i < NUM_STREAMS; ++i)
+            streams[i] = new Stream(mix64(seed + (i + 1) * GAMMA));
+    }
+
+    /**
+     * Make a seed for a new game, from the clock.
+     * Two calls never return the same seed.
+     *
+     * @return a new seed
+     */
+    public static long newSeed()
+    {
+        final long n;
+        synchronized (GameRandom.class)
+        {
+            n = ++seedCounter;
+        }
+        return mix64(System.nanoTime() ^ (n * GAMMA));
+    }
+
+    /**
+     * @return the seed this was created with
+     */
+    public long getSeed()
+    {
+        return seed;
+    }
+
+    /**
+     * Get one of the game's random streams.
+     *
+     * @param which  stream number, such as {@link #DICE} or {@link #BOARD}
+     * @return that stream; the same object is returned each time
+     * @throws ArrayIndexOutOfBoundsException if <tt>which</tt> is out of range
+     */
+    public Random stream(final int which)
+        throws ArrayIndexOutOfBoundsException
+    {
+        return streams[which];
+    }
+
+    /**
+     * Get the current position of every stream, for {@link GameSnapshot}.
+     *
+     * @return each stream's state, indexed by stream number
+     */
+    long[] getState()
+    {
+        long[] st = new long[NUM_STREAMS];
+        for (int i = 0; i < NUM_STREAMS; ++i)
+            st[i] = streams[i].state;
+        return st;
+    }
+
+    /**
+     * Put every stream back where it was when {@link #getState()} was called.
+     *
+     * @param st  state from {@link #getState()}
+     */
+    void setState(final long[] st)
+    {
+        for (int i = 0; i < NUM_STREAMS; ++i)
+            streams[i].state = st[i];
+    }
+
+    /**
+     * The SplitMix64 output function.
+     */
+    static long mix64(long z)
+    {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    /**
+     * One stream of random numbers. Extends {@link Random} so it can be
+     * passed to existing code such as
+     * {@link Game#discardPickRandom(ResourceSet, int, ResourceSet, Random)},
+     * but keeps its state in a plain field instead of Random's atomic one.
+     */
+    private static final class Stream extends Random
+    {
+        private static final long serialVersionUID = 1109L;
+
+        /** Current position; not initialized here, since super() calls setSeed */
+        long state;
+
+        Stream(final long seed)
+        {
+            super(seed);
+        }
+
+        public void setSeed(final long seed)
+        {
+            state = seed;
+        }
+
+        protected int next(final int bits)
+        {
+            state += GAMMA;
+            return (int) (mix64(state) >>> (64 - bits));
+        }
+
+        public long nextLong()
+        {
+            state += GAMMA;
+            return mix64(state);
+        }
+    }
+}
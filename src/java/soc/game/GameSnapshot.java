@@ -0,0 +1,255 @@
+/**
+ * Open Settlers - an open implementation of the game Settlers of Catan
+ * This file copyright (C) 2010 The Open Settlers team
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>. **/
+package soc.game;
+
+import java.util.Hashtable;
+
+/**
+ * A snapshot of a {@link Game}'s state: board pieces and robber,
+ * players (pieces, resources, dev cards, legal/potential placement arrays, etc),
+ * the development card deck, and the game state and turn fields.
+ * Not to be modified after capture: its fields are package-private only so that
+ * {@link Game#takeSnapshot(GameSnapshot)} can fill them in, and nothing else writes them.
+ * Take one with {@link Game#takeSnapshot(GameSnapshot)},
+ * and put the game back to that state with {@link Game#restoreSnapshot(GameSnapshot)},
+ * or {@link #createGame()} to restore into a new game object.
+ *<P>
+ * Pieces and the placement arrays are stored in packed form ({@link #pack(boolean[])}),
+ * so a snapshot is a few KB.  The board layout (hexes, numbers, ports) doesn't
+ * change during play, so snapshots of the same game share one {@link BoardLayout}.
+ *<P>
+ * Not captured: board-reset vote progress, connection-related fields
+ * such as {@link Game#isLocal} and client versions, and {@link Game#boardResetOngoingInfo}.
+ * Those aren't part of the game's play state.
+ *
+ * @since 1.1.09
+ */
+public final class GameSnapshot
+{
+    /** Game name, from {@link Game#getName()} */
+    final String gameName;
+
+    /** Game options, cloned with {@link GameOption#cloneOptions(Hashtable)}, or null */
+    final Hashtable<String, GameOption> opts;
+
+    /** Game's {@link Game#maxPlayers} */
+    final int maxPlayers;
+
+    boolean active;
+    int gameState, oldGameState;
+    int currentPlayerNumber, firstPlayerNumber, lastPlayerNumber;
+    int currentDice;
+    boolean placingRobberForKnightCard, forcingEndTurn, askedSpecialBuildPhase;
+    int specialBuildPhase_afterPlayerNumber;
+    int playerWithLargestArmy, oldPlayerWithLargestArmy;
+    int playerWithLongestRoad, playerWithWin;
+    int numDevCards;
+    int[] devCardDeck;
+    boolean allOriginalPlayers;
+    int turnCount, roundCount;
+    /** Game's {@link GameRandom} seed, and each stream's position */
+    long randomSeed;
+    long[] randomState;
+    int[] seats;
+    boolean[] seatLocks;
+
+    /**
+     * The game's {@link OldLRStats} stack, bottom first.
+     * Each element is {@link #maxPlayers} longest road lengths,
+     * then the player number with longest road or -1.
+     */
+    int[][] oldLongestRoadStats;
+
+    /** Board layout; may be shared with other snapshots of the same game */
+    BoardLayout layout;
+
+    int robberHex;
+
+    /**
+     * Each piece on the board, in the board's order, packed as
+     * <tt>(playerNumber &lt;&lt; 16) | (pieceType &lt;&lt; 8) | coord</tt>.
+     */
+    int[] boardPieces;
+
+    /** Per-player state, indexed by player number */
+    PlayerState[] players;
+
+    /**
+     * Create an empty snapshot; {@link Game#takeSnapshot(GameSnapshot)} fills the fields.
+     * @param ga  Game being snapshotted
+     * @param previous  Earlier snapshot of the same game, or null;
+     *     its options are shared, since they can't change during a game
+     */
+    GameSnapshot(final Game ga, final GameSnapshot previous)
+    {
+        gameName = ga.getName();
+        if ((previous != null) && gameName.equals(previous.gameName))
+            opts = previous.opts;
+        else
+            opts = GameOption.cloneOptions(ga.getGameOptionSet().getOptions());
+        maxPlayers = ga.maxPlayers;
+        players = new PlayerState[maxPlayers];
+    }
+
+    /**
+     * @return the snapshotted game's name
+     */
+    public String getGameName()
+    {
+        return gameName;
+    }
+
+    /**
+     * @return the snapshotted game's state, such as {@link Game#PLAY1}
+     */
+    public int getGameState()
+    {
+        return gameState;
+    }
+
+    /**
+     * @return the snapshotted game's turn count, from {@link Game#getTurnCount()}
+     */
+    public int getTurnCount()
+    {
+        return turnCount;
+    }
+
+    /**
+     * Is this snapshot's board layout shared with (identical to) another snapshot's?
+     * @param other  Another snapshot, or null
+     * @return true if both use the same {@link BoardLayout} object
+     */
+    public boolean sharesLayoutWith(GameSnapshot other)
+    {
+        return (other != null) && (other.layout == layout);
+    }
+
+    /**
+     * Create a new game having this snapshot's name, options and state.
+     * For crash recovery or replay tooling; for look-ahead within the same game,
+     * {@link Game#restoreSnapshot(GameSnapshot)} is faster.
+     * @return a new game, restored from this snapshot
+     */
+    public Game createGame()
+    {
+        Game ga = new Game(gameName, active, GameOption.cloneOptions(opts));
+        ga.restoreSnapshot(this);
+        return ga;
+    }
+
+    /**
+     * Pack a boolean array into a bitset.
+     * @param b  Array to pack
+     * @return bits, with b[i] at bit (i % 64) of element (i / 64)
+     * @see #unpack(long[], boolean[])
+     */
+    static long[] pack(final boolean[] b)
+    {
+        long[] bits = new long[(b.length + 63) >> 6];
+        for (int i = 0; i < b.length; ++i)
+            if (b[i])
+                bits[i >> 6] |= (1L << (i & 63));
+        return bits;
+    }
+
+    /**
+     * Unpack a bitset made by {@link #pack(boolean[])} into an existing array.
+     * @param bits  Packed bits
+     * @param b  Array to fill; same length as the packed array
+     */
+    static void unpack(final long[] bits, final boolean[] b)
+    {
+        for (int i = 0; i < b.length; ++i)
+            b[i] = ((bits[i >> 6] & (1L << (i & 63))) != 0);
+    }
+
+
+
+    /**
+     * The board's layout: Hex types, dice numbers, and ports.
+     * Set when the game starts, and never changed afterwards,
+     * so each snapshot of a game can share the same layout.
+     * The arrays here are never modified.
+     */
+    static final class BoardLayout
+    {
+        final int boardEncodingFormat;
+        final int[] hexLayout;
+        final int[] numberLayout;
+
+        /** Ports layout for the 6-player board, or null */
+        final int[] portsLayout;
+
+        BoardLayout(Board board)
+        {
+            boardEncodingFormat = board.getBoardEncodingFormat();
+            hexLayout = board.getHexLayout().clone();
+            numberLayout = board.getNumberLayout().clone();
+            final int[] pl = board.getPortsLayout();
+            portsLayout = (pl != null) ? pl.clone() : null;
+        }
+
+        /**
+         * Does this layout have the same contents as the board's current layout?
+         * @param board  Board to compare with
+         */
+        boolean matches(Board board)
+        {
+            return (boardEncodingFormat == board.getBoardEncodingFormat())
+                && java.util.Arrays.equals(hexLayout, board.getHexLayout())
+                && java.util.Arrays.equals(numberLayout, board.getNumberLayout())
+                && java.util.Arrays.equals(portsLayout, board.getPortsLayout());
+        }
+
+    }  // BoardLayout
+
+
+
+    /**
+     * One player's state within a {@link GameSnapshot}.
+     * Pieces aren't kept here; they're in {@link GameSnapshot#boardPieces}.
+     * Filled by {@link Player#saveState(PlayerState)}.
+     */
+    static final class PlayerState
+    {
+        String name;
+        int[] numPieces;
+        int lastSettlementCoord, lastRoadCoord;
+        int longestRoadLength;
+
+        /** Longest road paths; {@link LRPathData} isn't changed once created, so is shared */
+        LRPathData[] lrPaths;
+
+        ResourceSet resources;
+        int[] resourceStats;
+        DevCardSet devCards;
+        int numKnights, buildingVP, finalTotalVP;
+        boolean needToDiscard;
+        int[] roadNodes;
+        long[] legalRoads, legalSettlements;
+        long[] potentialRoads, potentialSettlements, potentialCities;
+        boolean[] ports;
+        TradeOffer currentOffer;
+        boolean playedDevCard, boardResetAskedThisTurn, askedSpecialBuild, hasSpecialBuiltThisTurn;
+        boolean robotFlag, builtInRobotFlag;
+        int faceId;
+        PlayerNumbers ourNumbers;
+
+    }  // PlayerState
+
+}
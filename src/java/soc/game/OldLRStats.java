@@ -58,6 +58,19 @@ public class OldLRStats
         }
     }
 
+    /**
+     * constructor for restoring a {@link GameSnapshot}
+     *
+     * @param  lengths  each player's longest road length; not copied
+     * @param  withLR   the player with longest road, or null
+     * @since 1.1.09
+     */
+    OldLRStats(int[] lengths, Player withLR)
+    {
+        lrLengths = lengths;
+        playerWithLR = withLR;
+    }
+
     /**
      * restore the old stats
      *
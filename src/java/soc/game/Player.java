@@ -48,6 +48,12 @@ import soc.util.NodeLenVis;
 public class Player implements DevCardConstants, Serializable, Cloneable
 {
     private static final long serialVersionUID = -2394953476862097264L;
+    /**
+     * Category of this class's debug output, see {@link D#ebugGetLevel(String)}.
+     * @since 1.1.09
+     */
+    private static final String DEBUG_CATEGORY = "game.player";
+
 
     /**
      * the name of the player
@@ -1632,7 +1638,10 @@ public class Player implements DevCardConstants, Serializable, Cloneable
      */
     public void removePiece(PlayingPiece piece)
     {
-        D.ebugPrintln("--- Player.removePiece(" + piece + ")");
+        if (D.ebugOn)
+        {
+            D.ebugPrintln(DEBUG_CATEGORY, D.DEBUG, "--- Player.removePiece(%s)", piece);
+        }
 
         Enumeration pEnum = pieces.elements();
         Board board = game.getBoard();
@@ -2227,7 +2236,10 @@ public class Player implements DevCardConstants, Serializable, Cloneable
         // representation. if someone cut our longest path in two
         // we won't catch it unless we clear the vector
         //
-        D.ebugPrintln("CLEARING PATH DATA");
+        if (D.ebugOn)
+        {
+            D.ebugPrintln(DEBUG_CATEGORY, D.DEBUG, "CLEARING PATH DATA");
+        }
         lrPaths.removeAllElements();
 
         /**
@@ -2417,7 +2429,10 @@ public class Player implements DevCardConstants, Serializable, Cloneable
                     {
                         LRPathData oldPathData = (LRPathData) pdEnum
                                 .nextElement();
-                        D.ebugPrintln("oldPathData = " + oldPathData);
+                        if (D.ebugOn)
+                        {
+                            D.ebugPrintln(DEBUG_CATEGORY, D.DEBUG, "oldPathData = %s", oldPathData);
+                        }
 
                         Vector nodePairs = oldPathData.getNodePairs();
                         intersection = false;
@@ -2426,13 +2441,19 @@ public class Player implements DevCardConstants, Serializable, Cloneable
                                 .hasMoreElements();)
                         {
                             IntPair vis = (IntPair) ev.nextElement();
-                            D.ebugPrintln("vis = " + vis);
+                            if (D.ebugOn)
+                            {
+                                D.ebugPrintln(DEBUG_CATEGORY, D.DEBUG, "vis = %s", vis);
+                            }
 
                             for (Enumeration npev = nodePairs.elements(); npev
                                     .hasMoreElements();)
                             {
                                 IntPair np = (IntPair) npev.nextElement();
-                                D.ebugPrintln("np = " + np);
+                                if (D.ebugOn)
+                                {
+                                    D.ebugPrintln(DEBUG_CATEGORY, D.DEBUG, "np = %s", np);
+                                }
 
                                 if (np.equals(vis))
                                 {
@@ -2457,13 +2478,19 @@ public class Player implements DevCardConstants, Serializable, Cloneable
                             //
                             if (oldPathData.getLength() < len)
                             {
-                                D.ebugPrintln("REMOVING OLDPATHDATA");
+                                if (D.ebugOn)
+                                {
+                                    D.ebugPrintln(DEBUG_CATEGORY, D.DEBUG, "REMOVING OLDPATHDATA");
+                                }
                                 trash.addElement(oldPathData);
                             }
                             else
                             {
                                 addNewPath = false;
-                                D.ebugPrintln("NOT ADDING NEW PATH");
+                                if (D.ebugOn)
+                                {
+                                    D.ebugPrintln(DEBUG_CATEGORY, D.DEBUG, "NOT ADDING NEW PATH");
+                                }
                             }
                         }
                     }
@@ -2483,7 +2510,10 @@ public class Player implements DevCardConstants, Serializable, Cloneable
                     {
                         LRPathData newPathData = new LRPathData(pathStartCoord,
                                 coord, len, visited);
-                        D.ebugPrintln("ADDING PATH: " + newPathData);
+                        if (D.ebugOn)
+                        {
+                            D.ebugPrintln(DEBUG_CATEGORY, D.DEBUG, "ADDING PATH: %s", newPathData);
+                        }
                         lrPaths.addElement(newPathData);
                     }
                 }
@@ -2532,6 +2562,144 @@ public class Player implements DevCardConstants, Serializable, Cloneable
         return ports;
     }
 
+    /**
+     * Save this player's state into a snapshot; used by {@link Game#takeSnapshot(GameSnapshot)}.
+     * Pieces are saved by the game, not here.
+     * @param ps  Player state to fill
+     * @since 1.1.09
+     */
+    void saveState(GameSnapshot.PlayerState ps)
+    {
+        ps.name = name;
+        ps.numPieces = numPieces.clone();
+        ps.lastSettlementCoord = lastSettlementCoord;
+        ps.lastRoadCoord = lastRoadCoord;
+        ps.longestRoadLength = longestRoadLength;
+        ps.lrPaths = new LRPathData[lrPaths.size()];
+        lrPaths.copyInto(ps.lrPaths);
+        ps.resources = resources.copy();
+        ps.resourceStats = resourceStats.clone();
+        ps.devCards = new DevCardSet(devCards);
+        ps.numKnights = numKnights;
+        ps.buildingVP = buildingVP;
+        ps.finalTotalVP = finalTotalVP;
+        ps.needToDiscard = needToDiscard;
+        ps.roadNodes = new int[roadNodes.size()];
+        for (int i = 0; i < ps.roadNodes.length; ++i)
+            ps.roadNodes[i] = ((Integer) roadNodes.elementAt(i)).intValue();
+        ps.legalRoads = GameSnapshot.pack(legalRoads);
+        ps.legalSettlements = GameSnapshot.pack(legalSettlements);
+        ps.potentialRoads = GameSnapshot.pack(potentialRoads);
+        ps.potentialSettlements = GameSnapshot.pack(potentialSettlements);
+        ps.potentialCities = GameSnapshot.pack(potentialCities);
+        ps.ports = ports.clone();
+        ps.currentOffer = (currentOffer != null) ? new TradeOffer(currentOffer) : null;
+        ps.playedDevCard = playedDevCard;
+        ps.boardResetAskedThisTurn = boardResetAskedThisTurn;
+        ps.askedSpecialBuild = askedSpecialBuild;
+        ps.hasSpecialBuiltThisTurn = hasSpecialBuiltThisTurn;
+        ps.robotFlag = robotFlag;
+        ps.builtInRobotFlag = builtInRobotFlag;
+        ps.faceId = faceId;
+        ps.ourNumbers = new PlayerNumbers(ourNumbers);
+    }
+
+    /**
+     * Restore this player's state from a snapshot, and remove all its pieces;
+     * used by {@link Game#restoreSnapshot(GameSnapshot)}, which then
+     * calls {@link #restorePiece(PlayingPiece)} for each of the snapshot's pieces.
+     * Resource and dev card sets are updated in place, not replaced.
+     * @param ps  Player state to restore from; not changed
+     * @since 1.1.09
+     */
+    @SuppressWarnings("unchecked")
+    void restoreState(GameSnapshot.PlayerState ps)
+    {
+        /**
+         * clear the road graph using our current roads;
+         * the restored roads are added back by restorePiece.
+         */
+        for (int i = roads.size() - 1; i >= 0; --i)
+        {
+            final int[] nodeCoords = ((Road) roads.elementAt(i)).getAdjacentNodes();
+            roadNodeGraph[nodeCoords[0]][nodeCoords[1]] = false;
+            roadNodeGraph[nodeCoords[1]][nodeCoords[0]] = false;
+        }
+        pieces.removeAllElements();
+        roads.removeAllElements();
+        settlements.removeAllElements();
+        cities.removeAllElements();
+
+        name = ps.name;
+        System.arraycopy(ps.numPieces, 0, numPieces, 0, numPieces.length);
+        lastSettlementCoord = ps.lastSettlementCoord;
+        lastRoadCoord = ps.lastRoadCoord;
+        longestRoadLength = ps.longestRoadLength;
+        lrPaths.removeAllElements();
+        for (int i = 0; i < ps.lrPaths.length; ++i)
+            lrPaths.addElement(ps.lrPaths[i]);
+        resources.setAmounts(ps.resources);
+        System.arraycopy(ps.resourceStats, 0, resourceStats, 0, resourceStats.length);
+        for (int dcType = DevCardConstants.MIN; dcType < DevCardConstants.MAXPLUSONE; dcType++)
+        {
+            devCards.setAmount(ps.devCards.getAmount(DevCardSet.OLD, dcType), DevCardSet.OLD, dcType);
+            devCards.setAmount(ps.devCards.getAmount(DevCardSet.NEW, dcType), DevCardSet.NEW, dcType);
+        }
+        numKnights = ps.numKnights;
+        buildingVP = ps.buildingVP;
+        finalTotalVP = ps.finalTotalVP;
+        needToDiscard = ps.needToDiscard;
+        roadNodes.removeAllElements();
+        for (int i = 0; i < ps.roadNodes.length; ++i)
+            roadNodes.addElement(new Integer(ps.roadNodes[i]));
+        GameSnapshot.unpack(ps.legalRoads, legalRoads);
+        GameSnapshot.unpack(ps.legalSettlements, legalSettlements);
+        GameSnapshot.unpack(ps.potentialRoads, potentialRoads);
+        GameSnapshot.unpack(ps.potentialSettlements, potentialSettlements);
+        GameSnapshot.unpack(ps.potentialCities, potentialCities);
+        System.arraycopy(ps.ports, 0, ports, 0, ports.length);
+        currentOffer = (ps.currentOffer != null) ? new TradeOffer(ps.currentOffer) : null;
+        playedDevCard = ps.playedDevCard;
+        boardResetAskedThisTurn = ps.boardResetAskedThisTurn;
+        askedSpecialBuild = ps.askedSpecialBuild;
+        hasSpecialBuiltThisTurn = ps.hasSpecialBuiltThisTurn;
+        robotFlag = ps.robotFlag;
+        builtInRobotFlag = ps.builtInRobotFlag;
+        faceId = ps.faceId;
+        ourNumbers = new PlayerNumbers(ps.ourNumbers);
+    }
+
+    /**
+     * Add one of our pieces while restoring a snapshot.
+     * Unlike {@link #putPiece(PlayingPiece)}, updates only the piece lists
+     * and road graph: the counts, numbers and placement arrays
+     * were already restored by {@link #restoreState(GameSnapshot.PlayerState)}.
+     * @param piece  Our piece
+     * @since 1.1.09
+     */
+    @SuppressWarnings("unchecked")
+    void restorePiece(PlayingPiece piece)
+    {
+        pieces.addElement(piece);
+        switch (piece.getType())
+        {
+        case PlayingPiece.ROAD:
+            roads.addElement(piece);
+            final int[] nodeCoords = ((Road) piece).getAdjacentNodes();
+            roadNodeGraph[nodeCoords[0]][nodeCoords[1]] = true;
+            roadNodeGraph[nodeCoords[1]][nodeCoords[0]] = true;
+            break;
+
+        case PlayingPiece.SETTLEMENT:
+            settlements.addElement(piece);
+            break;
+
+        case PlayingPiece.CITY:
+            cities.addElement(piece);
+            break;
+        }
+    }
+
     /**
      * TO-DO this constructor is unused; is it worth maintaining? is it missing
      * fields?
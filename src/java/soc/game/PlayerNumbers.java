@@ -19,6 +19,7 @@ package soc.game;
 
 import soc.util.IntPair;
 
+import java.io.Serializable;
 import java.util.Enumeration;
 import java.util.Vector;
 
@@ -28,8 +29,10 @@ import java.util.Vector;
  *
  * @author Robert S. Thomas
  */
-public class PlayerNumbers
+public class PlayerNumbers implements Serializable
 {
+    private static final long serialVersionUID = 1109L;
+
     /**
      * Dice roll numbers which yield this resource.
      * Uses indexes in range {@link ResourceConstants#CLAY} to {@link ResourceConstants#WOOD}.
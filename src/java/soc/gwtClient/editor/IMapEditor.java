@@ -1,8 +1,14 @@
 package soc.gwtClient.editor;
 
+import soc.common.board.rules.DesignRuleValidator;
 import soc.common.board.territories.Territory;
 
 public interface IMapEditor
 {
     public Territory getCurrentTerritory();
+
+    /*
+     * Returns the design rule violations of the edited board
+     */
+    public DesignRuleValidator getDesignRuleValidator();
 }
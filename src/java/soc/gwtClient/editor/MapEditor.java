@@ -1,5 +1,13 @@
 package soc.gwtClient.editor;
 
+import java.util.ArrayList;
+import java.util.List;
+
+import soc.common.board.Board;
+import soc.common.board.rules.DesignRule;
+import soc.common.board.rules.DesignRuleValidator;
+import soc.common.board.rules.NoNameDesignRule;
+import soc.common.board.rules.NoneHexOnlyBorderSea;
 import soc.common.board.territories.Territory;
 import soc.common.client.behaviour.InteractionBehaviour;
 
@@ -7,10 +15,35 @@ public class MapEditor implements IMapEditor
 {
     protected InteractionBehaviour editBehaviour;
     protected Territory currentTerritory;
+    protected Board board;
+    protected DesignRuleValidator designRuleValidator;
 
     @Override
     public Territory getCurrentTerritory()
     {
         return currentTerritory;
     }
+
+    /*
+     * Starts editing given board. The design rules are checked again for the
+     * hexes around each changed hex.
+     */
+    public void setBoard(Board board)
+    {
+        if (designRuleValidator != null)
+            designRuleValidator.detach();
+
+        this.board = board;
+
+        List<DesignRule> rules = new ArrayList<DesignRule>();
+        rules.add(new NoNameDesignRule());
+        rules.add(new NoneHexOnlyBorderSea());
+        designRuleValidator = new DesignRuleValidator(board, rules);
+    }
+
+    @Override
+    public DesignRuleValidator getDesignRuleValidator()
+    {
+        return designRuleValidator;
+    }
 }
@@ -23,8 +23,8 @@ public class StockCityBitmapWidget extends AbstractStockItemWidget implements
         super(player);
 
         cityImage.setSize("16px", "16px");
-        amountCities.setText(Integer.toString(player.getStock().ofType(
-                City.CITY).size()));
+        amountCities.setText(Integer.toString(player.getStock().count(
+                City.CITY)));
 
         rootPanel.add(cityImage);
         rootPanel.add(amountCities);
@@ -43,8 +43,8 @@ public class StockCityBitmapWidget extends AbstractStockItemWidget implements
     {
         if (event.getChangedPiece() instanceof City)
         {
-            amountCities.setText(Integer.toString(player.getStock().ofType(
-                    City.CITY).size()));
+            amountCities.setText(Integer.toString(player.getStock().count(
+                    City.CITY)));
         }
     }
 
@@ -23,8 +23,7 @@ public class StockRoadBitmapWidget extends AbstractStockItemWidget implements
         super(player);
 
         roadImage.setSize("16px", "16px");
-        roadAmount.setText(Integer.toString(player.getStock().ofType(Road.ROAD)
-                .size()));
+        roadAmount.setText(Integer.toString(player.getStock().count(Road.ROAD)));
 
         rootPanel.add(roadImage);
         rootPanel.add(roadAmount);
@@ -43,8 +42,8 @@ public class StockRoadBitmapWidget extends AbstractStockItemWidget implements
     {
         if (event.getChangedPiece() instanceof Road)
         {
-            roadAmount.setText(Integer.toString(player.getStock().ofType(
-                    Road.ROAD).size()));
+            roadAmount.setText(Integer.toString(player.getStock().count(
+                    Road.ROAD)));
         }
     }
 }
@@ -23,8 +23,7 @@ public class StockTownBitmapWidget extends AbstractStockItemWidget implements
         super(player);
 
         townImage.setSize("16px", "16px");
-        townAmount.setText(Integer.toString(player.getStock().ofType(Town.TOWN)
-                .size()));
+        townAmount.setText(Integer.toString(player.getStock().count(Town.TOWN)));
 
         rootPanel.add(townImage);
         rootPanel.add(townAmount);
@@ -43,8 +42,8 @@ public class StockTownBitmapWidget extends AbstractStockItemWidget implements
     {
         if (event.getChangedPiece() instanceof Town)
         {
-            townAmount.setText(Integer.toString(player.getStock().ofType(
-                    Town.TOWN).size()));
+            townAmount.setText(Integer.toString(player.getStock().count(
+                    Town.TOWN)));
         }
     }
 
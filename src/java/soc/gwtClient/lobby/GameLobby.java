@@ -6,6 +6,8 @@ import java.util.List;
 import net.zschech.gwt.comet.client.CometListener;
 import soc.common.game.Game;
 import soc.common.game.logs.ChatLog;
+import soc.common.server.GameFilter;
+import soc.common.server.GamePage;
 import soc.common.server.Lobby;
 import soc.common.server.data.Player;
 import soc.gwtClient.game.CenterWidget;
@@ -106,6 +108,27 @@ public class GameLobby extends Composite implements Lobby, CometListener,
         return null;
     }
 
+    @Override
+    public GamePage getGames(GameFilter filter, int afterId, int limit)
+    {
+        // TODO Auto-generated method stub
+        return null;
+    }
+
+    @Override
+    public Game getGame(int id)
+    {
+        // TODO Auto-generated method stub
+        return null;
+    }
+
+    @Override
+    public Player getPlayer(int id)
+    {
+        // TODO Auto-generated method stub
+        return null;
+    }
+
     @Override
     public List<Player> getPlayers()
     {
@@ -0,0 +1,95 @@
+package soc.gwtServer;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/*
+ * Figures of the batches pushed to Comet sessions: how many messages go out
+ * per push, and how long the first message of a batch waited for it.
+ *
+ * Readable from any thread.
+ */
+public class CometBatchMetrics
+{
+    private final AtomicLong flushes = new AtomicLong();
+    private final AtomicLong messages = new AtomicLong();
+    private final AtomicLong maxBatchSize = new AtomicLong();
+    private final AtomicLong totalLatencyNanos = new AtomicLong();
+    private final AtomicLong maxLatencyNanos = new AtomicLong();
+
+    void record(int batchSize, long latencyNanos)
+    {
+        flushes.incrementAndGet();
+        messages.addAndGet(batchSize);
+        totalLatencyNanos.addAndGet(latencyNanos);
+        raise(maxBatchSize, batchSize);
+        raise(maxLatencyNanos, latencyNanos);
+    }
+
+    private static void raise(AtomicLong max, long value)
+    {
+        long current = max.get();
+        while (value > current && !max.compareAndSet(current, value))
+        {
+            current = max.get();
+        }
+    }
+
+    /*
+     * Returns the amount of pushes to sessions
+     */
+    public long getFlushCount()
+    {
+        return flushes.get();
+    }
+
+    /*
+     * Returns the amount of messages pushed
+     */
+    public long getMessageCount()
+    {
+        return messages.get();
+    }
+
+    /*
+     * Returns the average amount of messages per push
+     */
+    public double getAverageBatchSize()
+    {
+        long count = flushes.get();
+        return count == 0 ? 0 : (double) messages.get() / count;
+    }
+
+    public long getMaxBatchSize()
+    {
+        return maxBatchSize.get();
+    }
+
+    /*
+     * Returns the average time from the first message of a batch until it
+     * was pushed, in microseconds
+     */
+    public long getAverageLatencyMicros()
+    {
+        long count = flushes.get();
+        return count == 0 ? 0 : totalLatencyNanos.get() / count / 1000;
+    }
+
+    /*
+     * Returns the longest time from the first message of a batch until it
+     * was pushed, in microseconds
+     */
+    public long getMaxLatencyMicros()
+    {
+        return maxLatencyNanos.get() / 1000;
+    }
+
+    @Override
+    public String toString()
+    {
+        return "flushes=" + getFlushCount() + " messages="
+                + getMessageCount() + " avgBatch=" + getAverageBatchSize()
+                + " maxBatch=" + getMaxBatchSize() + " avgLatency="
+                + getAverageLatencyMicros() + "us maxLatency="
+                + getMaxLatencyMicros() + "us";
+    }
+}
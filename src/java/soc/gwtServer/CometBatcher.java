@@ -0,0 +1,178 @@
+package soc.gwtServer;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import net.zschech.gwt.comet.server.CometSession;
+
+/*
+ * Collects the messages for each Comet session for a short window, and
+ * hands them to the session as one batch. A burst of actions, such as after a
+ * dice roll, then reaches the browser as one push instead of many.
+ *
+ * A batch is sent when the window after its first message has passed, or
+ * right away when it reaches the maximum size. Messages of a session keep
+ * their order. A window of 0 disables batching.
+ */
+public class CometBatcher
+{
+    private final long windowMillis;
+    private final int maxBatchSize;
+    private final ScheduledExecutorService timer;
+    private final ConcurrentMap<CometSession, Batch> batches = new ConcurrentHashMap<CometSession, Batch>();
+    private final CometBatchMetrics metrics = new CometBatchMetrics();
+
+    public CometBatcher(long windowMillis, int maxBatchSize)
+    {
+        this.windowMillis = windowMillis;
+        this.maxBatchSize = maxBatchSize;
+        this.timer = Executors
+                .newSingleThreadScheduledExecutor(new DaemonThreadFactory(
+                        "flush"));
+    }
+
+    /*
+     * Adds given message to the batch of given session
+     */
+    public void enqueue(CometSession session, Serializable message)
+    {
+        if (windowMillis <= 0)
+        {
+            session.enqueue(message);
+            metrics.record(1, 0);
+            return;
+        }
+
+        getBatch(session).add(message);
+    }
+
+    /*
+     * Drops the batch of given session without sending it, such as when its
+     * user logs out
+     */
+    public void remove(CometSession session)
+    {
+        batches.remove(session);
+    }
+
+    /*
+     * Sends the batches of all sessions right away
+     */
+    public void flushAll()
+    {
+        for (Batch batch : batches.values())
+            batch.flush();
+    }
+
+    public CometBatchMetrics getMetrics()
+    {
+        return metrics;
+    }
+
+    /*
+     * Sends the waiting batches, and stops the timer
+     */
+    public void shutdown()
+    {
+        flushAll();
+        timer.shutdown();
+    }
+
+    private Batch getBatch(CometSession session)
+    {
+        Batch batch = batches.get(session);
+        if (batch == null)
+        {
+            Batch created = new Batch(session);
+            batch = batches.putIfAbsent(session, created);
+            if (batch == null)
+                batch = created;
+        }
+
+        return batch;
+    }
+
+    /*
+     * Messages waiting for one session
+     */
+    private class Batch implements Runnable
+    {
+        private final CometSession session;
+        private List<Serializable> messages = new ArrayList<Serializable>();
+
+        // Time the first waiting message was added
+        private long started;
+
+        // True while a flush is scheduled on the timer
+        private boolean scheduled;
+
+        public Batch(CometSession session)
+        {
+            this.session = session;
+        }
+
+        public synchronized void add(Serializable message)
+        {
+            if (messages.isEmpty())
+                started = System.nanoTime();
+            messages.add(message);
+
+            if (messages.size() >= maxBatchSize)
+            {
+                flush();
+            }
+            else if (!scheduled)
+            {
+                scheduled = true;
+                timer.schedule(this, windowMillis, TimeUnit.MILLISECONDS);
+            }
+        }
+
+        @Override
+        public synchronized void run()
+        {
+            scheduled = false;
+            flush();
+        }
+
+        /*
+         * Puts the waiting messages on the queue of the session, and wakes it
+         * once for all of them. Runs while holding the lock of the batch, so
+         * batches of a session can't pass each other.
+         */
+        @SuppressWarnings("unchecked")
+        public synchronized void flush()
+        {
+            if (messages.isEmpty())
+                return;
+
+            List<Serializable> sent = messages;
+            messages = new ArrayList<Serializable>();
+
+            try
+            {
+                if (!session.isValid())
+                {
+                    batches.remove(session);
+                    return;
+                }
+
+                ((Queue<Serializable>) session.getQueue()).addAll(sent);
+                session.enqueued();
+                metrics.record(sent.size(), System.nanoTime() - started);
+            }
+            catch (IllegalStateException e)
+            {
+                // Session was invalidated meanwhile
+                batches.remove(session);
+            }
+        }
+    }
+}
@@ -0,0 +1,204 @@
+package soc.gwtServer;
+
+import java.io.Serializable;
+import java.util.Collections;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import net.zschech.gwt.comet.server.CometSession;
+
+/*
+ * Pushes messages to the Comet sessions subscribed to a topic, such as the
+ * lobby, a game or a single user.
+ *
+ * The same message object is queued on every subscriber; each session
+ * serializes it when pushing, in the format clients read with the
+ * OpenSettlersSerializer.
+ *
+ * Publishing returns right away: the fan out runs on a small pool of its own,
+ * one message at a time per topic, so subscribers receive the messages of a
+ * topic in the order they were published. Messages for a session are then
+ * batched by a CometBatcher, so a burst of them makes one push.
+ */
+public class CometTopics
+{
+    public static final String LOBBY = "lobby";
+
+    // Time messages for a session are collected before pushing them
+    public static final long BATCH_WINDOW_MILLIS = 10;
+
+    // Amount of messages for a session which are pushed right away
+    public static final int MAX_BATCH_SIZE = 32;
+
+    private final ExecutorService threads;
+    private final CometBatcher batcher;
+    private final ConcurrentMap<String, Topic> topics = new ConcurrentHashMap<String, Topic>();
+
+    public CometTopics()
+    {
+        this(2, BATCH_WINDOW_MILLIS, MAX_BATCH_SIZE);
+    }
+
+    /*
+     * Creates topics fanning out on given amount of threads. Messages for a
+     * session are collected for given window, or until given amount is
+     * reached. A window of 0 pushes every message on its own.
+     */
+    public CometTopics(int threadCount, long batchWindowMillis,
+            int maxBatchSize)
+    {
+        threads = Executors.newFixedThreadPool(threadCount,
+                new DaemonThreadFactory("fanout"));
+        batcher = new CometBatcher(batchWindowMillis, maxBatchSize);
+    }
+
+    /*
+     * Returns the topic of the game with given id
+     */
+    public static String game(int gameId)
+    {
+        return "game/" + gameId;
+    }
+
+    /*
+     * Returns the topic of the user with given name
+     */
+    public static String user(String name)
+    {
+        return "user/" + name;
+    }
+
+    /*
+     * Creates given topic when it doesn't exist yet. Messages published to a
+     * topic which doesn't exist are dropped.
+     */
+    public void create(String topic)
+    {
+        getTopic(topic);
+    }
+
+    public void subscribe(String topic, CometSession session)
+    {
+        getTopic(topic).subscribers.add(session);
+    }
+
+    public void unsubscribe(String topic, CometSession session)
+    {
+        Topic existing = topics.get(topic);
+        if (existing != null)
+            existing.subscribers.remove(session);
+    }
+
+    /*
+     * Removes given session from every topic, such as when its user logs out
+     */
+    public void unsubscribeAll(CometSession session)
+    {
+        for (Topic topic : topics.values())
+            topic.subscribers.remove(session);
+
+        batcher.remove(session);
+    }
+
+    /*
+     * Forgets given topic and its subscribers. Messages published already
+     * are still delivered.
+     */
+    public void remove(String topic)
+    {
+        topics.remove(topic);
+    }
+
+    /*
+     * Queues given message for every session subscribed to given topic
+     */
+    public void publish(String topic, final Serializable message)
+    {
+        final Topic target = topics.get(topic);
+        if (target == null)
+            return;
+
+        target.executor.execute(new Runnable()
+        {
+            @Override
+            public void run()
+            {
+                if (target.subscribers.isEmpty())
+                    return;
+
+                for (CometSession session : target.subscribers)
+                {
+                    if (session.isValid())
+                        batcher.enqueue(session, message);
+                    else
+                        target.subscribers.remove(session);
+                }
+            }
+        });
+    }
+
+    /*
+     * Returns the amount of sessions subscribed to given topic
+     */
+    public int getSubscriberCount(String topic)
+    {
+        Topic existing = topics.get(topic);
+        return existing == null ? 0 : existing.subscribers.size();
+    }
+
+    /*
+     * Returns the figures of the batches pushed to sessions
+     */
+    public CometBatchMetrics getBatchMetrics()
+    {
+        return batcher.getMetrics();
+    }
+
+    /*
+     * Stops the threads after the published messages are queued, and pushes
+     * the waiting batches
+     */
+    public void shutdown()
+    {
+        threads.shutdown();
+        try
+        {
+            threads.awaitTermination(1, TimeUnit.SECONDS);
+        }
+        catch (InterruptedException e)
+        {
+            Thread.currentThread().interrupt();
+        }
+        batcher.shutdown();
+    }
+
+    private Topic getTopic(String name)
+    {
+        Topic topic = topics.get(name);
+        if (topic == null)
+        {
+            Topic created = new Topic(threads);
+            topic = topics.putIfAbsent(name, created);
+            if (topic == null)
+                topic = created;
+        }
+
+        return topic;
+    }
+
+    private static class Topic
+    {
+        private final Set<CometSession> subscribers = Collections
+                .newSetFromMap(new ConcurrentHashMap<CometSession, Boolean>());
+        private final SerialExecutor executor;
+
+        public Topic(ExecutorService threads)
+        {
+            executor = new SerialExecutor(threads);
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package soc.gwtServer;
+
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/*
+ * Creates numbered daemon threads, so pools of the server don't keep the VM
+ * running on shutdown
+ */
+public class DaemonThreadFactory implements ThreadFactory
+{
+    private final String prefix;
+    private final AtomicInteger count = new AtomicInteger();
+
+    public DaemonThreadFactory(String prefix)
+    {
+        this.prefix = prefix;
+    }
+
+    @Override
+    public Thread newThread(Runnable runnable)
+    {
+        Thread thread = new Thread(runnable, prefix + "-"
+                + count.incrementAndGet());
+        thread.setDaemon(true);
+        return thread;
+    }
+}
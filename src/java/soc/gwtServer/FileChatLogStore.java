@@ -0,0 +1,69 @@
+package soc.gwtServer;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+
+import soc.common.actions.gameAction.GameChat;
+import soc.common.game.logs.ChatLogStore;
+
+/*
+ * Appends the lines evicted from a chat log to a UTF-8 text file, one line
+ * per chat: the id of the sender, a tab and the message. Each line is flushed
+ * as it is appended, so the file holds every evicted line when the server
+ * stops. When writing fails, the store stops writing and drops further lines.
+ */
+public class FileChatLogStore implements ChatLogStore, Closeable
+{
+    private Writer out;
+
+    public FileChatLogStore(File file) throws IOException
+    {
+        out = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(
+                file, true), "UTF-8"));
+    }
+
+    @Override
+    public synchronized void append(GameChat chat)
+    {
+        if (out == null)
+            return;
+
+        String message = chat.getChatMessage() == null ? "" : chat
+                .getChatMessage();
+        try
+        {
+            out.write(Integer.toString(chat.getSender()));
+            out.write('\t');
+            out.write(message.replace('\n', ' ').replace('\r', ' '));
+            out.write('\n');
+            out.flush();
+        }
+        catch (IOException e)
+        {
+            e.printStackTrace();
+            close();
+        }
+    }
+
+    @Override
+    public synchronized void close()
+    {
+        if (out == null)
+            return;
+
+        try
+        {
+            out.close();
+        }
+        catch (IOException e)
+        {
+            e.printStackTrace();
+        }
+        out = null;
+    }
+}
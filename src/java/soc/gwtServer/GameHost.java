@@ -0,0 +1,148 @@
+package soc.gwtServer;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import soc.common.actions.gameAction.GameAction;
+import soc.common.game.Game;
+import soc.common.server.IGameServerCallback;
+import soc.common.server.random.SeededRandom;
+
+/*
+ * Hosts many games at once on a fixed pool of threads.
+ *
+ * Each game gets a RemoteGameServer with its own serial executor, so a game
+ * runs on one thread at a time while different games run in parallel. A game
+ * waiting for players does not hold a thread.
+ */
+public class GameHost
+{
+    // Maximum amount of actions waiting per game
+    private static final int MAX_PENDING = 256;
+
+    // Amount of dice rolled in advance per game
+    private static final int DICE_BLOCK_SIZE = 64;
+
+    // Makes seeds of games created at the same time differ
+    private static final AtomicLong seeds = new AtomicLong(System.nanoTime());
+
+    private final ExecutorService threads;
+    private final ConcurrentMap<Integer, RemoteGameServer> servers = new ConcurrentHashMap<Integer, RemoteGameServer>();
+    private final AtomicInteger lastId = new AtomicInteger();
+
+    public GameHost()
+    {
+        this(Runtime.getRuntime().availableProcessors());
+    }
+
+    public GameHost(int threadCount)
+    {
+        threads = Executors.newFixedThreadPool(threadCount,
+                new DaemonThreadFactory("game"));
+    }
+
+    /*
+     * Starts hosting given game. Actions performed on the game are sent to
+     * given callback, from the thread running the game.
+     */
+    public RemoteGameServer host(Game game, IGameServerCallback callback)
+    {
+        return host(game, callback, seeds.addAndGet(0x9E3779B97F4A7C15L));
+    }
+
+    /*
+     * Starts hosting given game, with random numbers from given seed. Hosting
+     * a new game with the seed of a hosted game and sending it the same
+     * actions plays the same game again.
+     */
+    public RemoteGameServer host(Game game, IGameServerCallback callback,
+            long seed)
+    {
+        int id = lastId.incrementAndGet();
+        RemoteGameServer server = new RemoteGameServer(id, game,
+                new SeededRandom(seed).setBufferedDice(6, DICE_BLOCK_SIZE),
+                callback, threads, MAX_PENDING);
+        servers.put(id, server);
+
+        return server;
+    }
+
+    /*
+     * Queues given action for the game with given id. Returns false when the
+     * game is unknown or has too many actions waiting.
+     */
+    public boolean send(int gameId, GameAction action)
+    {
+        RemoteGameServer server = servers.get(gameId);
+
+        return server != null && server.submit(action);
+    }
+
+    /*
+     * Queues given action for the game with given id, to be performed only
+     * when its sender plays the game. Returns false when the game is unknown
+     * or has too many actions waiting.
+     */
+    public boolean sendFromPlayer(int gameId, GameAction action)
+    {
+        RemoteGameServer server = servers.get(gameId);
+        return server != null && server.submitFromPlayer(action);
+    }
+
+    public RemoteGameServer getServer(int gameId)
+    {
+        return servers.get(gameId);
+    }
+
+    /*
+     * Returns the servers of the hosted games. Games hosted or removed while
+     * iterating may or may not be seen.
+     */
+    public Collection<RemoteGameServer> getServers()
+    {
+        return servers.values();
+    }
+
+    /*
+     * Stops hosting the game with given id. Actions already queued are still
+     * performed.
+     */
+    public RemoteGameServer remove(int gameId)
+    {
+        return servers.remove(gameId);
+    }
+
+    /*
+     * Returns the metrics of each hosted game, by game id
+     */
+    public Map<Integer, GameServerMetrics> getMetrics()
+    {
+        Map<Integer, GameServerMetrics> result = new HashMap<Integer, GameServerMetrics>();
+        for (RemoteGameServer server : servers.values())
+        {
+            result.put(server.getId(), server.getMetrics());
+        }
+
+        return result;
+    }
+
+    public int size()
+    {
+        return servers.size();
+    }
+
+    /*
+     * Stops the threads after the queued actions are performed
+     */
+    public void shutdown()
+    {
+        threads.shutdown();
+    }
+}
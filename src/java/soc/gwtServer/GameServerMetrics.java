@@ -0,0 +1,109 @@
+package soc.gwtServer;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/*
+ * Latency figures of one hosted game. An action waits in the queue of its
+ * game, and is then processed together with the server actions following
+ * it. Both times are recorded per action sent.
+ *
+ * Written from the thread running the game, readable from any thread.
+ */
+public class GameServerMetrics
+{
+    private final AtomicLong actions = new AtomicLong();
+    private final AtomicLong refused = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private final AtomicLong totalWaitNanos = new AtomicLong();
+    private final AtomicLong totalProcessNanos = new AtomicLong();
+    private final AtomicLong maxLatencyNanos = new AtomicLong();
+
+    void record(long waitNanos, long processNanos)
+    {
+        actions.incrementAndGet();
+        totalWaitNanos.addAndGet(waitNanos);
+        totalProcessNanos.addAndGet(processNanos);
+
+        long latency = waitNanos + processNanos;
+        long max = maxLatencyNanos.get();
+        while (latency > max
+                && !maxLatencyNanos.compareAndSet(max, latency))
+        {
+            max = maxLatencyNanos.get();
+        }
+    }
+
+    void recordRefused()
+    {
+        refused.incrementAndGet();
+    }
+
+    void recordFailed()
+    {
+        failed.incrementAndGet();
+    }
+
+    /*
+     * Returns the amount of actions processed
+     */
+    public long getActionCount()
+    {
+        return actions.get();
+    }
+
+    /*
+     * Returns the amount of actions not accepted because the queue of the
+     * game was full, or dropped because their sender does not play the game
+     */
+    public long getRefusedCount()
+    {
+        return refused.get();
+    }
+
+    /*
+     * Returns the amount of actions which threw an exception
+     */
+    public long getFailedCount()
+    {
+        return failed.get();
+    }
+
+    /*
+     * Returns the average time an action waited for its turn, in
+     * microseconds
+     */
+    public long getAverageWaitMicros()
+    {
+        long count = actions.get();
+        return count == 0 ? 0 : totalWaitNanos.get() / count / 1000;
+    }
+
+    /*
+     * Returns the average time taken to process an action including its
+     * server actions, in microseconds
+     */
+    public long getAverageProcessMicros()
+    {
+        long count = actions.get();
+        return count == 0 ? 0 : totalProcessNanos.get() / count / 1000;
+    }
+
+    /*
+     * Returns the longest time from sending an action until it was
+     * processed, in microseconds
+     */
+    public long getMaxLatencyMicros()
+    {
+        return maxLatencyNanos.get() / 1000;
+    }
+
+    @Override
+    public String toString()
+    {
+        return "actions=" + getActionCount() + " refused="
+                + getRefusedCount() + " failed=" + getFailedCount()
+                + " avgWait=" + getAverageWaitMicros() + "us avgProcess="
+                + getAverageProcessMicros() + "us maxLatency="
+                + getMaxLatencyMicros() + "us";
+    }
+}
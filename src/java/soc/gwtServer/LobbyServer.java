@@ -0,0 +1,290 @@
+package soc.gwtServer;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import soc.common.actions.gameAction.GameChat;
+import soc.common.actions.lobby.GameStatusChanged;
+import soc.common.actions.lobby.GameStatusChanged.Change;
+import soc.common.board.Board;
+import soc.common.game.Game;
+import soc.common.game.logs.ChatLog;
+import soc.common.game.logs.ChatLogImpl;
+import soc.common.game.logs.ChatLogStore;
+import soc.common.game.statuses.WaitingForPlayers;
+import soc.common.game.variants.Variant;
+import soc.common.server.GameFilter;
+import soc.common.server.GamePage;
+import soc.common.server.GameSummary;
+import soc.common.server.ILobbyServerCallback;
+import soc.common.server.Lobby;
+import soc.common.server.data.Player;
+
+/*
+ * Lobby of the server, safe to use from many threads at once.
+ *
+ * Games and players are kept in sharded registries by id. Games are listed a
+ * page at a time from their summaries, and every change to the listing is
+ * sent to the callback as a GameStatusChanged carrying the revision of the
+ * lobby after the change. A client reads a page, and then applies the changes
+ * with a higher revision than the page. Changes made while a page was read
+ * may show up on the page and as a change too; applying them again does no
+ * harm.
+ */
+public class LobbyServer implements Lobby
+{
+    // Most games listed on one page
+    public static final int MAX_PAGE_SIZE = 100;
+
+    private final ShardedRegistry<ListedGame> games = new ShardedRegistry<ListedGame>();
+    private final ShardedRegistry<Player> players = new ShardedRegistry<Player>();
+    private final AtomicInteger lastGameId = new AtomicInteger();
+    private final AtomicInteger lastGuestId = new AtomicInteger();
+    private final AtomicLong revision = new AtomicLong();
+    private final ChatLogImpl chatLog = new ChatLogImpl();
+    private final ILobbyServerCallback callback;
+
+    public LobbyServer(ILobbyServerCallback callback)
+    {
+        this.callback = callback;
+    }
+
+    /*
+     * Lists given game under given id. Games created by this lobby get ids
+     * higher than the ids listed here.
+     */
+    public void addGame(int id, Game game)
+    {
+        int last = lastGameId.get();
+        while (last < id && !lastGameId.compareAndSet(last, id))
+            last = lastGameId.get();
+
+        ListedGame listed = new ListedGame(game, summarize(id, game));
+        synchronized (listed)
+        {
+            if (games.putIfAbsent(id, listed) != null)
+                throw new IllegalArgumentException("Game " + id
+                        + " is listed already");
+
+            publish(Change.ADDED, listed.summary);
+        }
+    }
+
+    /*
+     * Summarizes the game with given id again, and sends the change when its
+     * summary changed. Should be called from the thread running the game.
+     */
+    public void updateGame(int id)
+    {
+        ListedGame listed = games.get(id);
+        if (listed == null)
+            return;
+
+        GameSummary summary = summarize(id, listed.game);
+
+        // Removing the game meanwhile must not list it again
+        synchronized (listed)
+        {
+            if (listed.removed || summary.equals(listed.summary))
+                return;
+
+            listed.summary = summary;
+            publish(Change.UPDATED, summary);
+        }
+    }
+
+    /*
+     * Stops listing the game with given id
+     */
+    public void removeGame(int id)
+    {
+        ListedGame listed = games.remove(id);
+        if (listed == null)
+            return;
+
+        synchronized (listed)
+        {
+            listed.removed = true;
+            publish(Change.REMOVED, listed.summary);
+        }
+    }
+
+    /*
+     * Returns the revision of the lobby, raised by every change sent
+     */
+    public long getRevision()
+    {
+        return revision.get();
+    }
+
+    private void publish(Change change, GameSummary summary)
+    {
+        GameStatusChanged action = new GameStatusChanged().setChange(change)
+                .setGame(summary).setRevision(revision.incrementAndGet());
+
+        if (callback != null)
+            callback.receive(action);
+    }
+
+    private static GameSummary summarize(int id, Game game)
+    {
+        GameSummary summary = new GameSummary().setId(id).setName(
+                game.getGameSettings().getName()).setPlayerCount(
+                game.getPlayers().size()).setWaitingForPlayers(
+                game.getGameStatus() instanceof WaitingForPlayers);
+
+        Board board = game.getBoard();
+        summary.setMaxPlayers(board == null
+                || board.getBoardSettings() == null ? game.getPlayers()
+                .size() : board.getBoardSettings().getMaxPlayers());
+
+        for (Variant variant : game.getGameRules().getVariants())
+            summary.addVariant(variant.getClass().getSimpleName());
+
+        return summary;
+    }
+
+    @Override
+    public void createGame(Game game)
+    {
+        addGame(lastGameId.incrementAndGet(), game);
+    }
+
+    @Override
+    public Game getGame(int id)
+    {
+        ListedGame listed = games.get(id);
+        return listed == null ? null : listed.game;
+    }
+
+    @Override
+    public List<Game> getGames()
+    {
+        List<ListedGame> listed = games.values();
+        List<Game> result = new ArrayList<Game>(listed.size());
+        for (ListedGame game : listed)
+            result.add(game.game);
+
+        return result;
+    }
+
+    @Override
+    public GamePage getGames(final GameFilter filter, int afterId, int limit)
+    {
+        limit = Math.max(0, Math.min(limit, MAX_PAGE_SIZE));
+        GamePage page = new GamePage().setRevision(revision.get());
+
+        // Ask one game more, to know whether this page is the last
+        List<ListedGame> listed = games.page(afterId, limit + 1,
+                filter == null ? null : new ShardedRegistry.Filter<ListedGame>()
+                {
+                    @Override
+                    public boolean accepts(ListedGame game)
+                    {
+                        return filter.accepts(game.summary);
+                    }
+                });
+
+        page.setLast(listed.size() <= limit);
+        for (int i = 0; i < listed.size() && i < limit; i++)
+            page.getGames().add(listed.get(i).summary);
+
+        return page;
+    }
+
+    /*
+     * Adds given player to the lobby. A player without an id, such as a guest,
+     * gets a negative one, so it never equals the id of a registered player.
+     */
+    @Override
+    public void addPlayer(Player player)
+    {
+        if (player.getId() == 0)
+            player.setId(-lastGuestId.incrementAndGet());
+
+        players.put(player.getId(), player);
+    }
+
+    @Override
+    public Player getPlayer(int id)
+    {
+        return players.get(id);
+    }
+
+    @Override
+    public List<Player> getPlayers()
+    {
+        return players.values();
+    }
+
+    @Override
+    public void removePlayer(Player player)
+    {
+        players.remove(player.getId());
+    }
+
+    @Override
+    public ChatLog getChatLog()
+    {
+        return chatLog;
+    }
+
+    /*
+     * Returns at most limit lines of the lobby chat, starting at given
+     * position, for players joining late. Lines no longer retained are
+     * skipped.
+     */
+    public List<GameChat> getChatLines(int from, int limit)
+    {
+        synchronized (chatLog)
+        {
+            return chatLog.getLines(from, limit);
+        }
+    }
+
+    /*
+     * Sends the lobby chat lines no longer retained to given store, or drops
+     * them when null
+     */
+    public void setChatLogStore(ChatLogStore store)
+    {
+        synchronized (chatLog)
+        {
+            chatLog.setStore(store);
+        }
+    }
+
+    @Override
+    public void say(Player player, String chatMessage)
+    {
+        GameChat chat = new GameChat().setChatMessage(chatMessage);
+        chat.setSender(player.getId());
+
+        synchronized (chatLog)
+        {
+            chatLog.say(chat);
+        }
+    }
+
+    /*
+     * A game in the lobby with its last summary. Changes to a game are
+     * published while holding its lock, so their revisions follow the order
+     * they are sent in.
+     */
+    private static class ListedGame
+    {
+        private final Game game;
+        private volatile GameSummary summary;
+
+        // Set once the game is no longer listed, guarded by this
+        private boolean removed;
+
+        private ListedGame(Game game, GameSummary summary)
+        {
+            this.game = game;
+            this.summary = summary;
+        }
+    }
+}
@@ -0,0 +1,184 @@
+package soc.gwtServer;
+
+import java.util.concurrent.Executor;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import soc.common.actions.gameAction.GameAction;
+import soc.common.game.Game;
+import soc.common.game.GamePlayer;
+import soc.common.game.logs.GameLogImpl;
+import soc.common.server.AbstractGameServer;
+import soc.common.server.IGameServerCallback;
+import soc.common.server.JoinResult;
+import soc.common.server.UserCredentials;
+import soc.common.server.actions.ServerActionFactory;
+import soc.common.server.random.SeededRandom;
+
+/*
+ * Gameserver for one game hosted by a GameHost.
+ *
+ * The game is confined to a SerialExecutor: actions are submitted from any
+ * thread, and performed one at a time in the order they were submitted.
+ * Anything else touching the game, such as reading its state or taking a
+ * copy, should be run through execute().
+ */
+public class RemoteGameServer extends AbstractGameServer
+{
+    private static final Logger LOG = Logger.getLogger(RemoteGameServer.class
+            .getName());
+
+    // Turns of the log kept in memory, older ones are stored serialized
+    private static final int TURNS_IN_MEMORY = 8;
+
+    private final int id;
+    private final SerialExecutor executor;
+    private final int maxPending;
+    private final long seed;
+    private final GameServerMetrics metrics = new GameServerMetrics();
+
+    public RemoteGameServer(int id, Game game, SeededRandom random,
+            IGameServerCallback callback, Executor threads, int maxPending)
+    {
+        this.id = id;
+        this.game = game;
+        this.random = random;
+        this.seed = random.getSeed();
+        if (game.getBoard() != null)
+            game.getBoard().setRandom(random.getStream(SeededRandom.BOARD));
+        if (game.getGameLog() instanceof GameLogImpl)
+            ((GameLogImpl) game.getGameLog()).setStore(
+                    new SerializedGameLogStore(game), TURNS_IN_MEMORY);
+        this.callback = callback;
+        this.executor = new SerialExecutor(threads);
+        this.maxPending = maxPending;
+    }
+
+    /*
+     * Queues given action to be performed on the game. Returns false when the
+     * action is refused because too many actions are waiting already. The
+     * check is not atomic with queueing, so the limit is approximate.
+     */
+    public boolean submit(GameAction action)
+    {
+        return submit(action, false);
+    }
+
+    /*
+     * Queues given action like submit(), but drops it when its sender does
+     * not play the game. The players are checked on the thread of the game,
+     * where the action gets its sender as player: actions received over RPC
+     * don't carry their player.
+     */
+    public boolean submitFromPlayer(GameAction action)
+    {
+        return submit(action, true);
+    }
+
+    private boolean submit(final GameAction action, final boolean fromPlayer)
+    {
+        if (executor.getPending() >= maxPending)
+        {
+            metrics.recordRefused();
+            return false;
+        }
+
+        final long submitted = System.nanoTime();
+        executor.execute(new Runnable()
+        {
+            @Override
+            public void run()
+            {
+                if (fromPlayer)
+                {
+                    if (!isPlayer(action.getSender()))
+                    {
+                        metrics.recordRefused();
+                        return;
+                    }
+                    action.setPlayer(game.getPlayerByID(action.getSender()));
+                }
+
+                long started = System.nanoTime();
+                try
+                {
+                    sendAction(action);
+                    metrics.record(started - submitted, System.nanoTime()
+                            - started);
+                }
+                catch (RuntimeException e)
+                {
+                    // Keep the game running for the other actions
+                    metrics.recordFailed();
+                    LOG.log(Level.WARNING, "Game " + id + " failed to perform "
+                            + action, e);
+                }
+            }
+        });
+
+        return true;
+    }
+
+    private boolean isPlayer(int userId)
+    {
+        for (GamePlayer player : game.getPlayers())
+        {
+            if (player.getUser() != null && player.getUser().getId() == userId)
+                return true;
+        }
+
+        return false;
+    }
+
+    /*
+     * Runs given task on the thread of this game, after the actions submitted
+     * so far
+     */
+    public void execute(Runnable task)
+    {
+        executor.execute(task);
+    }
+
+    public int getId()
+    {
+        return id;
+    }
+
+    /*
+     * Returns the seed of the random numbers of this game, to replay it
+     */
+    public long getSeed()
+    {
+        return seed;
+    }
+
+    public GameServerMetrics getMetrics()
+    {
+        return metrics;
+    }
+
+    /*
+     * Returns the amount of actions waiting to be performed
+     */
+    public int getPending()
+    {
+        return executor.getPending();
+    }
+
+    @Override
+    public JoinResult join(UserCredentials credentials)
+    {
+        return null;
+    }
+
+    @Override
+    public void leave()
+    {
+    }
+
+    @Override
+    public ServerActionFactory createActionFactory()
+    {
+        return new ServerActionFactory();
+    }
+}
@@ -0,0 +1,67 @@
+package soc.gwtServer;
+
+import java.util.LinkedList;
+import java.util.Queue;
+import java.util.concurrent.Executor;
+
+/*
+ * Runs tasks one at a time, in the order they were submitted, on threads of a
+ * shared executor. Tasks of one SerialExecutor never run concurrently, and
+ * each task sees the changes made by the tasks before it. Many serial
+ * executors can share a small thread pool.
+ */
+public class SerialExecutor implements Executor
+{
+    private final Executor executor;
+    private final Queue<Runnable> tasks = new LinkedList<Runnable>();
+
+    // Task currently handed to the shared executor, null when idle
+    private Runnable active;
+
+    public SerialExecutor(Executor executor)
+    {
+        this.executor = executor;
+    }
+
+    @Override
+    public synchronized void execute(final Runnable task)
+    {
+        tasks.offer(new Runnable()
+        {
+            @Override
+            public void run()
+            {
+                try
+                {
+                    task.run();
+                }
+                finally
+                {
+                    scheduleNext();
+                }
+            }
+        });
+
+        if (active == null)
+        {
+            scheduleNext();
+        }
+    }
+
+    private synchronized void scheduleNext()
+    {
+        active = tasks.poll();
+        if (active != null)
+        {
+            executor.execute(active);
+        }
+    }
+
+    /*
+     * Returns the amount of tasks waiting, not counting the running task
+     */
+    public synchronized int getPending()
+    {
+        return tasks.size();
+    }
+}
@@ -0,0 +1,97 @@
+package soc.gwtServer;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.InflaterInputStream;
+
+import soc.common.actions.gameAction.GameAction;
+import soc.common.game.Game;
+import soc.common.game.GamePlayer;
+import soc.common.game.logs.GameLogStore;
+
+/*
+ * Keeps turns paged out of a GameLogImpl as deflated serialized bytes.
+ *
+ * Serialization drops the transient player of each action, so actions are
+ * given their player back from the game when loaded. Turns containing an
+ * action which can't be serialized are kept as they are.
+ */
+public class SerializedGameLogStore implements GameLogStore
+{
+    private Game game;
+
+    public SerializedGameLogStore(Game game)
+    {
+        this.game = game;
+    }
+
+    @Override
+    public Object store(List<GameAction> actions)
+    {
+        try
+        {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            ObjectOutputStream out = new ObjectOutputStream(
+                    new DeflaterOutputStream(bytes));
+            out.writeInt(actions.size());
+            for (GameAction action : actions)
+                out.writeObject(action);
+            out.close();
+
+            return bytes.toByteArray();
+        }
+        catch (IOException e)
+        {
+            return actions;
+        }
+    }
+
+    @Override
+    public GameLogStore copyFor(Game copy)
+    {
+        return new SerializedGameLogStore(copy);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public List<GameAction> load(Object handle)
+    {
+        if (!(handle instanceof byte[]))
+            return (List<GameAction>) handle;
+
+        try
+        {
+            ObjectInputStream in = new ObjectInputStream(
+                    new InflaterInputStream(new ByteArrayInputStream(
+                            (byte[]) handle)));
+            int size = in.readInt();
+            List<GameAction> result = new ArrayList<GameAction>(size);
+            for (int i = 0; i < size; i++)
+            {
+                GameAction action = (GameAction) in.readObject();
+                GamePlayer player = action.getSender() == 0 ? null : game
+                        .getPlayerByID(action.getSender());
+                if (player != null)
+                    action.setPlayer(player);
+                result.add(action);
+            }
+            in.close();
+
+            return result;
+        }
+        catch (IOException e)
+        {
+            throw new RuntimeException("Can't load stored turn", e);
+        }
+        catch (ClassNotFoundException e)
+        {
+            throw new RuntimeException("Can't load stored turn", e);
+        }
+    }
+}
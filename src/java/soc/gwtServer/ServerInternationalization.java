@@ -0,0 +1,71 @@
+package soc.gwtServer;
+
+import java.io.IOException;
+
+import org.scb.gwt.web.server.i18n.GWTI18N;
+
+import soc.common.internationalization.OpenSettlersActions;
+import soc.common.internationalization.OpenSettlersConstants;
+import soc.common.internationalization.OpenSettlersInternationalization;
+import soc.common.internationalization.OpenSettlersLobby;
+import soc.common.internationalization.OpenSettlersMisc;
+import soc.common.internationalization.OpenSettlersStatuses;
+
+/*
+ * Internationalization for code shared with the client running on the JVM,
+ * such as actions performed by a game server. GWT.create() only works in the
+ * browser, so the messages and constants are created by gwt_i18n_server
+ * instead.
+ */
+public class ServerInternationalization implements
+        OpenSettlersInternationalization
+{
+    private final OpenSettlersConstants constants = create(OpenSettlersConstants.class);
+    private final OpenSettlersActions actions = create(OpenSettlersActions.class);
+    private final OpenSettlersMisc misc = create(OpenSettlersMisc.class);
+    private final OpenSettlersStatuses statuses = create(OpenSettlersStatuses.class);
+    private final OpenSettlersLobby lobby = create(OpenSettlersLobby.class);
+
+    private static <T> T create(Class<T> type)
+    {
+        try
+        {
+            return GWTI18N.create(type);
+        }
+        catch (IOException e)
+        {
+            throw new RuntimeException("Can't read messages of "
+                    + type.getName(), e);
+        }
+    }
+
+    @Override
+    public OpenSettlersActions actions()
+    {
+        return actions;
+    }
+
+    @Override
+    public OpenSettlersConstants constants()
+    {
+        return constants;
+    }
+
+    @Override
+    public OpenSettlersMisc misc()
+    {
+        return misc;
+    }
+
+    @Override
+    public OpenSettlersStatuses statuses()
+    {
+        return statuses;
+    }
+
+    @Override
+    public OpenSettlersLobby lobby()
+    {
+        return lobby;
+    }
+}
@@ -1,6 +1,8 @@
 package soc.gwtServer;
 
+import java.util.HashSet;
 import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
 
@@ -8,7 +10,15 @@ import javax.servlet.http.HttpSession;
 
 import net.zschech.gwt.comet.server.CometServlet;
 import net.zschech.gwt.comet.server.CometSession;
+import soc.common.actions.gameAction.GameAction;
 import soc.common.actions.lobby.LobbyAction;
+import soc.common.game.Game;
+import soc.common.game.GamePlayer;
+import soc.common.internationalization.I18n;
+import soc.common.server.GameFilter;
+import soc.common.server.GamePage;
+import soc.common.server.IGameServerCallback;
+import soc.common.server.ILobbyServerCallback;
 import soc.common.server.ServerService;
 import soc.common.server.data.Player;
 import soc.common.server.data.User;
@@ -19,7 +29,33 @@ public class ServerServiceImpl extends RemoteServiceServlet implements
         ServerService
 {
     private static final long serialVersionUID = -6382128923291927955L;
+
+    static
+    {
+        // Actions performed by the games on this server use messages
+        I18n.initialize(new ServerInternationalization());
+    }
+
     private ConcurrentMap<User, CometSession> users = new ConcurrentHashMap<User, CometSession>();
+    private GameHost games = new GameHost();
+    private CometTopics topics = new CometTopics();
+    private LobbyServer lobby = new LobbyServer(new ILobbyServerCallback()
+    {
+        @Override
+        public void receive(LobbyAction action)
+        {
+            topics.publish(CometTopics.LOBBY, action);
+        }
+    })
+    {
+        // Games created in the lobby are hosted, so players can send actions
+        // to them
+        @Override
+        public void createGame(Game game)
+        {
+            hostGame(game);
+        }
+    };
 
     @Override
     public User login(String nickName, String password)
@@ -29,7 +65,7 @@ public class ServerServiceImpl extends RemoteServiceServlet implements
         // Get or create the Comet session for the browser
         CometSession cometSession = CometServlet.getCometSession(httpSession);
 
-        User user = new Player();
+        Player user = new Player();
         user.setName(nickName);
         user.setPassword(password);
 
@@ -42,6 +78,17 @@ public class ServerServiceImpl extends RemoteServiceServlet implements
             // some one else has already logged in with this user name
             httpSession.invalidate();
         }
+        else
+        {
+            topics.subscribe(CometTopics.LOBBY, cometSession);
+            topics.subscribe(CometTopics.user(user.getName()), cometSession);
+            lobby.addPlayer(user);
+            httpSession.setAttribute("playerid", user.getId());
+
+            // Push the games the user plays or watches already
+            for (RemoteGameServer server : games.getServers())
+                watchIfMember(server, user, cometSession);
+        }
 
         return user;
     }
@@ -77,6 +124,11 @@ public class ServerServiceImpl extends RemoteServiceServlet implements
 
         // remove the mapping of user name to CometSession
         users.remove(user, cometSession);
+        Player player = lobby.getPlayer(user.getId());
+        if (player != null)
+            lobby.removePlayer(player);
+        if (cometSession != null)
+            topics.unsubscribeAll(cometSession);
         httpSession.invalidate();
     }
 
@@ -98,9 +150,224 @@ public class ServerServiceImpl extends RemoteServiceServlet implements
             // ChatException("not logged in: no http session username");
         }
 
+        action.perform(lobby);
+        topics.publish(CometTopics.LOBBY, action);
+    }
+
+    @Override
+    public GamePage getGames(GameFilter filter, int afterId, int limit)
+    {
+        return lobby.getGames(filter, afterId, limit);
+    }
+
+    @Override
+    public boolean sendGameAction(int gameId, GameAction action)
+    {
+        // check if there is a HTTP session setup.
+        HttpSession httpSession = getThreadLocalRequest().getSession(false);
+        if (httpSession == null)
+        {
+            return false;
+        }
+
+        // Players only act for themselves
+        Object playerId = httpSession.getAttribute("playerid");
+        if (!(playerId instanceof Integer)
+                || action.getSender() != ((Integer) playerId).intValue())
+        {
+            return false;
+        }
+
+        // The action is performed later, on the thread of the game, when its
+        // sender plays the game
+        return games.sendFromPlayer(gameId, action);
+    }
+
+    /*
+     * Starts hosting given game, as the lobby does for each game created in
+     * it. Actions performed on the game are pushed to
+     * the Comet sessions of its players and spectators logged in, including
+     * the ones joining or logging in later. Returns the id of the game.
+     */
+    public int hostGame(Game game)
+    {
+        final GameCallback callback = new GameCallback(game);
+        RemoteGameServer server = games.host(game, callback);
+        int id = server.getId();
+        callback.topic = CometTopics.game(id);
+        callback.id = id;
+        topics.create(callback.topic);
+        lobby.addGame(id, game);
+
+        server.execute(new Runnable()
+        {
+            @Override
+            public void run()
+            {
+                callback.watchNewMembers();
+            }
+        });
+
+        return id;
+    }
+
+    /*
+     * Subscribes given session to the game of given server when given user
+     * plays or watches it. The game is read on its own thread.
+     */
+    private void watchIfMember(final RemoteGameServer server, final User user,
+            final CometSession session)
+    {
+        server.execute(new Runnable()
+        {
+            @Override
+            public void run()
+            {
+                // A closed game should not get its topic back
+                if (games.getServer(server.getId()) == server
+                        && isMember(server.getGame(), user))
+                    topics.subscribe(CometTopics.game(server.getId()), session);
+            }
+        });
+    }
+
+    private static boolean isMember(Game game, User user)
+    {
+        for (GamePlayer player : game.getPlayers())
+            if (player.getUser() != null
+                    && user.getName().equals(player.getUser().getName()))
+                return true;
+        for (GamePlayer spectator : game.getSpectators())
+            if (spectator.getUser() != null
+                    && user.getName().equals(spectator.getUser().getName()))
+                return true;
+
+        return false;
+    }
+
+    /*
+     * Pushes the actions of the game with given id to given user, when logged
+     * in
+     */
+    public void watchGame(User user, int gameId)
+    {
+        CometSession session = getSession(user);
+        if (session != null)
+            topics.subscribe(CometTopics.game(gameId), session);
+    }
+
+    /*
+     * Stops pushing the actions of the game with given id to given user
+     */
+    public void unwatchGame(User user, int gameId)
+    {
+        CometSession session = getSession(user);
+        if (session != null)
+            topics.unsubscribe(CometTopics.game(gameId), session);
+    }
+
+    /*
+     * Returns the Comet session of the user logged in with the name of given
+     * user, or null
+     */
+    private CometSession getSession(User user)
+    {
         for (Map.Entry<User, CometSession> entry : users.entrySet())
         {
-            entry.getValue().enqueue(action);
+            if (entry.getKey().getName().equals(user.getName()))
+                return entry.getValue();
+        }
+
+        return null;
+    }
+
+    /*
+     * Pushes given message to given user only, when logged in
+     */
+    public void sendToUser(User user, LobbyAction message)
+    {
+        topics.publish(CometTopics.user(user.getName()), message);
+    }
+
+    /*
+     * Stops hosting the game with given id, and removes it from the lobby
+     */
+    public void closeGame(int gameId)
+    {
+        games.remove(gameId);
+        lobby.removeGame(gameId);
+        topics.remove(CometTopics.game(gameId));
+    }
+
+    public GameHost getGames()
+    {
+        return games;
+    }
+
+    public LobbyServer getLobby()
+    {
+        return lobby;
+    }
+
+    public CometTopics getTopics()
+    {
+        return topics;
+    }
+
+    @Override
+    public void destroy()
+    {
+        games.shutdown();
+        topics.shutdown();
+
+        super.destroy();
+    }
+
+    /*
+     * Pushes the actions of a game to the users watching it
+     */
+    private class GameCallback implements IGameServerCallback
+    {
+        // Set once the game is hosted, before any action is sent to it
+        private volatile String topic;
+        private volatile int id;
+        private final Game game;
+
+        // Names of the players and spectators subscribed already, used on
+        // the thread of the game only
+        private final Set<String> watched = new HashSet<String>();
+
+        private GameCallback(Game game)
+        {
+            this.game = game;
+        }
+
+        /*
+         * Subscribes the players and spectators who joined since the last
+         * check
+         */
+        private void watchNewMembers()
+        {
+            for (GamePlayer player : game.getPlayers())
+                watchNewMember(player.getUser());
+            for (GamePlayer spectator : game.getSpectators())
+                watchNewMember(spectator.getUser());
+        }
+
+        private void watchNewMember(User user)
+        {
+            if (user != null && games.getServer(id) != null
+                    && watched.add(user.getName()))
+                watchGame(user, id);
+        }
+
+        @Override
+        public void receive(GameAction gameAction)
+        {
+            // Who joins with this action gets it too
+            watchNewMembers();
+            topics.publish(topic, gameAction);
+            lobby.updateGame(id);
         }
     }
 
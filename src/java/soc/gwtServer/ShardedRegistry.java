@@ -0,0 +1,219 @@
+package soc.gwtServer;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/*
+ * Values by int id, spread over a number of shards each guarded by its own
+ * lock, so threads registering and looking up different ids rarely wait for
+ * each other. Each shard keeps its ids ordered, so a page of values after
+ * some id is read without walking or copying the whole registry.
+ */
+public class ShardedRegistry<V>
+{
+    public static final int DEFAULT_SHARDS = 16;
+
+    /*
+     * Selects the values of a page
+     */
+    public interface Filter<V>
+    {
+        public boolean accepts(V value);
+    }
+
+    private final List<TreeMap<Integer, V>> shards;
+    private final int mask;
+    private final AtomicInteger size = new AtomicInteger();
+
+    public ShardedRegistry()
+    {
+        this(DEFAULT_SHARDS);
+    }
+
+    /*
+     * Creates a registry with at least given amount of shards, rounded up to a
+     * power of two
+     */
+    public ShardedRegistry(int shardCount)
+    {
+        int count = 1;
+        while (count < shardCount)
+            count <<= 1;
+
+        shards = new ArrayList<TreeMap<Integer, V>>(count);
+        for (int i = 0; i < count; i++)
+            shards.add(new TreeMap<Integer, V>());
+        mask = count - 1;
+    }
+
+    private TreeMap<Integer, V> shard(int id)
+    {
+        return shards.get(id & mask);
+    }
+
+    public V get(int id)
+    {
+        TreeMap<Integer, V> shard = shard(id);
+        synchronized (shard)
+        {
+            return shard.get(id);
+        }
+    }
+
+    /*
+     * Registers given value, returning the value it replaces or null
+     */
+    public V put(int id, V value)
+    {
+        TreeMap<Integer, V> shard = shard(id);
+        V old;
+        synchronized (shard)
+        {
+            old = shard.put(id, value);
+        }
+        if (old == null)
+            size.incrementAndGet();
+
+        return old;
+    }
+
+    /*
+     * Registers given value unless a value is registered with given id
+     * already. Returns the registered value, or null when given value was
+     * registered.
+     */
+    public V putIfAbsent(int id, V value)
+    {
+        TreeMap<Integer, V> shard = shard(id);
+        synchronized (shard)
+        {
+            V old = shard.get(id);
+            if (old != null)
+                return old;
+
+            shard.put(id, value);
+        }
+        size.incrementAndGet();
+
+        return null;
+    }
+
+    /*
+     * Unregisters the value with given id, returning it or null
+     */
+    public V remove(int id)
+    {
+        TreeMap<Integer, V> shard = shard(id);
+        V old;
+        synchronized (shard)
+        {
+            old = shard.remove(id);
+        }
+        if (old != null)
+            size.decrementAndGet();
+
+        return old;
+    }
+
+    public int size()
+    {
+        return size.get();
+    }
+
+    /*
+     * Returns a snapshot of all values, ordered by id. The id
+     * Integer.MIN_VALUE is reserved.
+     */
+    public List<V> values()
+    {
+        return page(Integer.MIN_VALUE, Integer.MAX_VALUE, null);
+    }
+
+    /*
+     * Returns at most limit values accepted by given filter, ordered by id and
+     * starting after given id. A null filter accepts every value. Each shard
+     * is locked while reading its part of the page only, so a page reflects
+     * the registrations made before and during the call.
+     */
+    public List<V> page(int afterId, int limit, Filter<? super V> filter)
+    {
+        List<Map.Entry<Integer, V>> entries = new ArrayList<Map.Entry<Integer, V>>();
+
+        for (TreeMap<Integer, V> shard : shards)
+        {
+            synchronized (shard)
+            {
+                // No shard contributes more than the page holds
+                int taken = 0;
+                for (Map.Entry<Integer, V> entry : shard.tailMap(afterId,
+                        false).entrySet())
+                {
+                    if (taken == limit)
+                        break;
+
+                    if (filter == null || filter.accepts(entry.getValue()))
+                    {
+                        entries.add(new Entry<V>(entry.getKey(), entry
+                                .getValue()));
+                        taken++;
+                    }
+                }
+            }
+        }
+
+        Collections.sort(entries, new Comparator<Map.Entry<Integer, V>>()
+        {
+            @Override
+            public int compare(Map.Entry<Integer, V> first,
+                    Map.Entry<Integer, V> second)
+            {
+                return first.getKey().compareTo(second.getKey());
+            }
+        });
+
+        int count = Math.min(limit, entries.size());
+        List<V> result = new ArrayList<V>(count);
+        for (int i = 0; i < count; i++)
+            result.add(entries.get(i).getValue());
+
+        return result;
+    }
+
+    /*
+     * Entry read from a shard, safe to use after its lock is released
+     */
+    private static class Entry<V> implements Map.Entry<Integer, V>
+    {
+        private final Integer key;
+        private final V value;
+
+        private Entry(Integer key, V value)
+        {
+            this.key = key;
+            this.value = value;
+        }
+
+        @Override
+        public Integer getKey()
+        {
+            return key;
+        }
+
+        @Override
+        public V getValue()
+        {
+            return value;
+        }
+
+        @Override
+        public V setValue(V value)
+        {
+            throw new UnsupportedOperationException();
+        }
+    }
+}
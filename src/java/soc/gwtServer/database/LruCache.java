@@ -0,0 +1,55 @@
+package soc.gwtServer.database;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/*
+ * Keeps the most recently used values up to a maximum amount, dropping the
+ * least recently used value when full. Thread safe.
+ */
+public class LruCache<K, V>
+{
+    private final Map<K, V> values;
+
+    public LruCache(final int capacity)
+    {
+        values = new LinkedHashMap<K, V>(capacity * 4 / 3 + 1, 0.75f, true)
+        {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, V> eldest)
+            {
+                return size() > capacity;
+            }
+        };
+    }
+
+    /*
+     * Returns the value with given key, or null when not cached
+     */
+    public synchronized V get(K key)
+    {
+        return values.get(key);
+    }
+
+    public synchronized void put(K key, V value)
+    {
+        values.put(key, value);
+    }
+
+    public synchronized void remove(K key)
+    {
+        values.remove(key);
+    }
+
+    public synchronized void clear()
+    {
+        values.clear();
+    }
+
+    public synchronized int size()
+    {
+        return values.size();
+    }
+}
@@ -1,40 +1,107 @@
 package soc.gwtServer.database;
 
+import java.util.ArrayList;
 import java.util.List;
 
 import soc.common.board.Board;
 import soc.common.server.data.BoardProvider;
 import soc.common.server.data.User;
 
+/*
+ * Boards stored in a db4o database in their compact encoding. Lookups by id,
+ * name and designer use the field indexes of the stored boards, and recently
+ * used boards are cached by id.
+ *
+ * Each call returns a new board read from its encoding, so a board prepared
+ * for play does not change the stored design.
+ */
 public class OdbBoardProvider implements BoardProvider
 {
+    // Amount of boards kept in the cache
+    public static final int CACHE_SIZE = 100;
+
+    private OdbDatabase database;
+    private LruCache<String, StoredBoard> byId = new LruCache<String, StoredBoard>(
+            CACHE_SIZE);
+
+    public OdbBoardProvider(OdbDatabase database)
+    {
+        this.database = database;
+    }
 
     @Override
     public List<Board> getAllBoards()
     {
-        // TODO Auto-generated method stub
-        return null;
+        return toBoards(database.findAll(StoredBoard.class));
     }
 
     @Override
     public Board getBoardByID(String id)
     {
-        // TODO Auto-generated method stub
-        return null;
+        StoredBoard stored = getStoredBoard(id);
+        return stored == null ? null : stored.getBoard();
     }
 
     @Override
     public Board getBoardByName(String name)
     {
-        // TODO Auto-generated method stub
-        return null;
+        StoredBoard stored = first(database.find(StoredBoard.class, name,
+                "name"));
+        return stored == null ? null : stored.getBoard();
     }
 
     @Override
     public List<Board> getBoardsFromUser(User user)
     {
-        // TODO Auto-generated method stub
-        return null;
+        return toBoards(database.find(StoredBoard.class, user.getName(),
+                "designer"));
+    }
+
+    /*
+     * Stores given new or changed board. The board should have settings with
+     * an id.
+     */
+    public void storeBoard(Board board)
+    {
+        String id = board.getBoardSettings().getId();
+        StoredBoard stored = getStoredBoard(id);
+        if (stored == null)
+        {
+            stored = new StoredBoard(board);
+        }
+        else
+        {
+            stored.setBoard(board);
+        }
+
+        database.store(stored);
+        byId.put(id, stored);
+    }
+
+    private StoredBoard getStoredBoard(String id)
+    {
+        StoredBoard stored = byId.get(id);
+        if (stored == null)
+        {
+            stored = first(database.find(StoredBoard.class, id, "id"));
+            if (stored != null)
+                byId.put(id, stored);
+        }
+
+        return stored;
     }
 
+    private static List<Board> toBoards(List<StoredBoard> stored)
+    {
+        List<Board> result = new ArrayList<Board>(stored.size());
+        for (StoredBoard board : stored)
+            result.add(board.getBoard());
+
+        return result;
+    }
+
+    private static StoredBoard first(List<StoredBoard> boards)
+    {
+        return boards.isEmpty() ? null : boards.get(0);
+    }
 }
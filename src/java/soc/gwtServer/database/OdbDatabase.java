@@ -0,0 +1,141 @@
+package soc.gwtServer.database;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import soc.common.server.data.Player;
+
+import com.db4o.Db4oEmbedded;
+import com.db4o.ObjectContainer;
+import com.db4o.ObjectSet;
+import com.db4o.config.EmbeddedConfiguration;
+import com.db4o.query.Query;
+
+/*
+ * Embedded db4o database holding the users and boards of the server.
+ *
+ * User names and ids, and board ids, names and designers are indexed, so
+ * looking them up does not scan the stored objects. Boards are stored in
+ * their compact encoding, see StoredBoard. Stored objects are
+ * committed in batches: a transaction is committed after a number of writes,
+ * or when commit() or close() is called. Uncommitted objects are found by
+ * queries on this database already, but are lost when the server stops
+ * without closing it.
+ */
+public class OdbDatabase
+{
+    public static final String DEFAULT_FILE = "somedb.dbfile";
+
+    // Amount of stored objects committed in one transaction
+    public static final int DEFAULT_BATCH_SIZE = 64;
+
+    private final ObjectContainer container;
+    private final int batchSize;
+    private int uncommitted;
+
+    public OdbDatabase()
+    {
+        this(DEFAULT_FILE, DEFAULT_BATCH_SIZE);
+    }
+
+    public OdbDatabase(String fileName, int batchSize)
+    {
+        this.batchSize = batchSize;
+
+        EmbeddedConfiguration config = Db4oEmbedded.newConfiguration();
+        config.common().objectClass(Player.class).objectField("name")
+                .indexed(true);
+        config.common().objectClass(Player.class).objectField("id")
+                .indexed(true);
+        config.common().objectClass(StoredBoard.class).objectField("id")
+                .indexed(true);
+        config.common().objectClass(StoredBoard.class).objectField("name")
+                .indexed(true);
+        config.common().objectClass(StoredBoard.class).objectField(
+                "designer").indexed(true);
+
+        container = Db4oEmbedded.openFile(config, fileName);
+    }
+
+    /*
+     * Stores given object, committing the transaction when the batch is full
+     */
+    public synchronized void store(Object object)
+    {
+        container.store(object);
+
+        if (++uncommitted >= batchSize)
+            commit();
+    }
+
+    /*
+     * Commits the objects stored since the last commit
+     */
+    public synchronized void commit()
+    {
+        if (uncommitted > 0)
+        {
+            container.commit();
+            uncommitted = 0;
+        }
+    }
+
+    /*
+     * Returns the stored objects of given type whose field at given path
+     * equals given value. The path may descend into referenced objects, such
+     * as "settings", "name".
+     */
+    public synchronized <T> List<T> find(Class<T> type, Object value,
+            String... path)
+    {
+        Query query = container.query();
+        query.constrain(type);
+
+        Query field = query;
+        for (String name : path)
+            field = field.descend(name);
+        field.constrain(value);
+
+        return toList(query.<T> execute());
+    }
+
+    /*
+     * Returns all stored objects of given type
+     */
+    public synchronized <T> List<T> findAll(Class<T> type)
+    {
+        return toList(container.query(type));
+    }
+
+    /*
+     * Returns the stored object of given type with the highest value of
+     * given field, or null when none is stored
+     */
+    public synchronized <T> T findHighest(Class<T> type, String field)
+    {
+        Query query = container.query();
+        query.constrain(type);
+        query.descend(field).orderDescending();
+
+        ObjectSet<T> result = query.execute();
+        return result.hasNext() ? result.next() : null;
+    }
+
+    /*
+     * Commits the stored objects, and closes the database file
+     */
+    public synchronized void close()
+    {
+        commit();
+        container.close();
+    }
+
+    private static <T> List<T> toList(ObjectSet<T> set)
+    {
+        List<T> result = new ArrayList<T>(set.size());
+        while (set.hasNext())
+            result.add(set.next());
+
+        return result;
+    }
+}
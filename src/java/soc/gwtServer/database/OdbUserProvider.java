@@ -1,39 +1,102 @@
 package soc.gwtServer.database;
 
+import java.util.ArrayList;
 import java.util.List;
 
+import soc.common.server.data.Player;
 import soc.common.server.data.User;
 import soc.common.server.data.UserProvider;
 
+/*
+ * Users stored in a db4o database, as registered Players. Lookups by name and
+ * id use the field indexes of the database, and recently used users are
+ * cached.
+ */
 public class OdbUserProvider implements UserProvider
 {
+    // Amount of users kept in each cache
+    public static final int CACHE_SIZE = 1000;
+
+    private OdbDatabase database;
+    private LruCache<String, User> byName = new LruCache<String, User>(
+            CACHE_SIZE);
+    private LruCache<Integer, User> byId = new LruCache<Integer, User>(
+            CACHE_SIZE);
+
+    public OdbUserProvider(OdbDatabase database)
+    {
+        this.database = database;
+    }
 
     @Override
     public List<User> getAllUsers()
     {
-        // TODO Auto-generated method stub
-        return null;
+        return new ArrayList<User>(database.findAll(Player.class));
     }
 
     @Override
     public User getUserByID(int ID)
     {
-        // TODO Auto-generated method stub
-        return null;
+        User user = byId.get(ID);
+        if (user == null)
+        {
+            user = first(database.find(Player.class, ID, "id"));
+            if (user != null)
+                cache(user);
+        }
+
+        return user;
     }
 
     @Override
     public User getUserByName(String name)
     {
-        // TODO Auto-generated method stub
-        return null;
+        User user = byName.get(name);
+        if (user == null)
+        {
+            user = first(database.find(Player.class, name, "name"));
+            if (user != null)
+                cache(user);
+        }
+
+        return user;
     }
 
+    /*
+     * Stores given user as a registered player, giving it a new id when it
+     * has none. Returns the stored player, or null when another user has the
+     * same name already.
+     */
     @Override
-    public User registerUser(User user)
+    public synchronized User registerUser(User user)
+    {
+        if (getUserByName(user.getName()) != null)
+            return null;
+
+        User player = user instanceof Player ? user : new Player().setName(
+                user.getName()).setId(user.getId()).setPassword(
+                user.getPassword()).setGamesPlayed(user.getGamesPlayed());
+        if (player.getId() == 0)
+        {
+            Player last = database.findHighest(Player.class, "id");
+            player.setId(last == null ? 1 : last.getId() + 1);
+        }
+        player.setRegistered(true);
+
+        database.store(player);
+        cache(player);
+
+        return player;
+    }
+
+    private void cache(User user)
     {
-        // TODO Auto-generated method stub
-        return null;
+        byName.put(user.getName(), user);
+        byId.put(user.getId(), user);
     }
 
+    private static User first(List<Player> users)
+    {
+        return users.isEmpty() ? null : users.get(0);
+    }
 }
@@ -0,0 +1,92 @@
+package soc.gwtServer.database;
+
+import java.io.File;
+import java.util.Random;
+
+import soc.common.board.Board;
+import soc.common.board.BoardSettings;
+import soc.common.server.data.BoardList;
+import soc.common.server.data.BoardProvider;
+import soc.common.server.data.Player;
+import soc.common.server.data.User;
+
+/*
+ * Compares looking up boards in the in-memory BoardList with the db4o
+ * OdbBoardProvider, with and without its cache warmed up.
+ *
+ * Usage: ProviderBenchmark [boards] [lookups]
+ */
+public class ProviderBenchmark
+{
+    private static final int DESIGNERS = 50;
+
+    public static void main(String[] args)
+    {
+        int boardCount = args.length > 0 ? Integer.parseInt(args[0]) : 2000;
+        int lookups = args.length > 1 ? Integer.parseInt(args[1]) : 20000;
+
+        File file = new File(System.getProperty("java.io.tmpdir"),
+                "benchmark.dbfile");
+        file.delete();
+
+        OdbDatabase database = new OdbDatabase(file.getPath(),
+                OdbDatabase.DEFAULT_BATCH_SIZE);
+        OdbBoardProvider odb = new OdbBoardProvider(database);
+        BoardList list = new BoardList();
+
+        long started = System.nanoTime();
+        for (int i = 0; i < boardCount; i++)
+            odb.storeBoard(createBoard(i));
+        database.commit();
+        report("odb store", boardCount, started);
+
+        for (int i = 0; i < boardCount; i++)
+            list.getAllBoards().add(createBoard(i));
+
+        benchmark("list", list, boardCount, lookups);
+        benchmark("odb", odb, boardCount, lookups);
+        benchmark("odb warm", odb, boardCount, lookups);
+
+        database.close();
+        file.delete();
+    }
+
+    private static Board createBoard(int index)
+    {
+        return new Board(7, 7).setBoardSettings(new BoardSettings().setId(
+                "board-" + index).setDesigner("designer-" + index % DESIGNERS)
+                .setName("Board " + index));
+    }
+
+    private static void benchmark(String name, BoardProvider provider,
+            int boardCount, int lookups)
+    {
+        // Lookups follow a skewed distribution: a few boards are hot
+        Random random = new Random(1);
+        long started = System.nanoTime();
+        for (int i = 0; i < lookups; i++)
+        {
+            int index = (int) (boardCount * Math.pow(random.nextDouble(), 4));
+            if (provider.getBoardByID("board-" + index) == null)
+                throw new IllegalStateException("Board " + index + " missing");
+        }
+        report(name + " byId", lookups, started);
+
+        started = System.nanoTime();
+        int found = 0;
+        for (int i = 0; i < lookups / 100; i++)
+        {
+            User designer = new Player().setName("designer-" + i % DESIGNERS);
+            found += provider.getBoardsFromUser(designer).size();
+        }
+        report(name + " byDesigner (" + found + " boards)", lookups / 100,
+                started);
+    }
+
+    private static void report(String name, int count, long started)
+    {
+        long nanos = System.nanoTime() - started;
+        System.out.println(name + ": " + count + " in " + nanos / 1000000
+                + "ms, " + nanos / count / 1000 + "us each");
+    }
+}
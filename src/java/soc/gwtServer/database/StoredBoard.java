@@ -0,0 +1,67 @@
+package soc.gwtServer.database;
+
+import soc.common.board.Board;
+import soc.common.board.BoardFormat;
+import soc.common.board.BoardSettings;
+
+/*
+ * A board as stored in the database: its binary encoding, and the fields of
+ * its settings boards are looked up by. Storing the encoding instead of the
+ * board keeps the database small, and reading a board back does not activate
+ * an object for each hex.
+ */
+public class StoredBoard
+{
+    private String id;
+    private String name;
+    private String designer;
+    private byte[] data;
+
+    public StoredBoard(Board board)
+    {
+        setBoard(board);
+    }
+
+    /*
+     * Replaces the stored board by given board
+     */
+    public void setBoard(Board board)
+    {
+        BoardSettings settings = board.getBoardSettings();
+        id = settings.getId();
+        name = settings.getName();
+        designer = settings.getDesigner();
+        data = BoardFormat.toBytes(board);
+    }
+
+    /*
+     * Returns a new board read from the stored encoding
+     */
+    public Board getBoard()
+    {
+        return BoardFormat.fromBytes(data);
+    }
+
+    public String getId()
+    {
+        return id;
+    }
+
+    public String getName()
+    {
+        return name;
+    }
+
+    public String getDesigner()
+    {
+        return designer;
+    }
+
+    /*
+     * Returns the size of the stored encoding in bytes
+     */
+    public int getSize()
+    {
+        return data.length;
+    }
+}
@@ -0,0 +1,292 @@
+package soc.gwtServer.simulation;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+
+import soc.common.actions.gameAction.GameAction;
+import soc.common.actions.gameAction.HostStartsGame;
+import soc.common.actions.gameAction.MessageFromServer;
+import soc.common.actions.gameAction.turnActions.EndTurn;
+import soc.common.actions.gameAction.turnActions.standard.ClaimVictory;
+import soc.common.actions.gameAction.turnActions.standard.RollDice;
+import soc.common.board.Board;
+import soc.common.board.BoardSettings;
+import soc.common.board.Chit;
+import soc.common.board.HexLocation;
+import soc.common.board.hexes.Hex;
+import soc.common.board.hexes.ResourceHex;
+import soc.common.board.resources.Ore;
+import soc.common.board.resources.Wheat;
+import soc.common.board.territories.TerritoryImpl;
+import soc.common.game.Game;
+import soc.common.game.GamePlayer;
+import soc.common.game.GamePlayerImpl;
+import soc.common.game.gamePhase.PlayTurnsGamePhase;
+import soc.common.game.variants.SeaFarers;
+import soc.common.internationalization.I18n;
+import soc.common.server.HotSeatServer;
+import soc.common.server.IGameServerCallback;
+import soc.common.server.data.UnregisteredUser;
+import soc.common.server.random.SeededRandom;
+import soc.gwtServer.ServerInternationalization;
+
+/*
+ * Plays complete games outside the browser: a HotSeatServer per game, with
+ * simulated players sending their actions through
+ * AbstractGameServer.sendAction like a client would. Games are reproducible
+ * from their seed, which makes the simulator a bed for benchmarking the game
+ * engine.
+ * 
+ * Usage: GameSimulator [games] [standard|seafarers] [players] [seed]
+ */
+public class GameSimulator
+{
+    public static final int DEFAULT_MAX_TURNS = 1000;
+
+    // Maximum amount of actions a player performs in one turn
+    private static final int MAX_ACTIONS_PER_TURN = 20;
+
+    // Maximum amount of refused actions before a game is given up
+    private static final int MAX_REFUSED = 100;
+
+    private static final String[] COLORS = { "yellow", "white", "green",
+            "red", "blue", "orange" };
+
+    private final int playerCount;
+    private final boolean seaFarers;
+    private final int maxTurns;
+
+    public GameSimulator(int playerCount, boolean seaFarers, int maxTurns)
+    {
+        if (playerCount < 1 || playerCount > COLORS.length)
+            throw new IllegalArgumentException("Between 1 and "
+                    + COLORS.length + " players expected");
+
+        this.playerCount = playerCount;
+        this.seaFarers = seaFarers;
+        this.maxTurns = maxTurns;
+    }
+
+    /*
+     * Plays given amount of games with random players, seeded with
+     * consecutive seeds starting at given seed
+     */
+    public SimulationResult play(int games, long seed)
+    {
+        SimulationResult result = new SimulationResult();
+        long allocatedBefore = allocatedBytes();
+        long started = System.nanoTime();
+
+        for (int i = 0; i < games; i++)
+            play(seed + i, result);
+
+        result.setNanos(System.nanoTime() - started);
+        long allocatedAfter = allocatedBytes();
+        if (allocatedBefore >= 0 && allocatedAfter >= 0)
+            result.setAllocatedBytes(allocatedAfter - allocatedBefore);
+
+        return result;
+    }
+
+    /*
+     * Plays one game with random players, adding its figures to given result
+     */
+    public void play(long seed, SimulationResult result)
+    {
+        List<SimulatedPlayer> strategies = new ArrayList<SimulatedPlayer>();
+        for (int i = 0; i < playerCount; i++)
+            strategies.add(new RandomPlayer(new SeededRandom(seed * 31 + i)));
+
+        play(seed, strategies, result);
+    }
+
+    /*
+     * Plays one game with given strategy per player, adding its figures to
+     * given result
+     */
+    public void play(long seed, List<SimulatedPlayer> strategies,
+            SimulationResult result)
+    {
+        CountingCallback callback = new CountingCallback();
+        HotSeatServer server = new HotSeatServer(callback, new SeededRandom(
+                seed).setBufferedDice(6, 64));
+        Game game = server.getGame();
+
+        for (int i = 0; i < playerCount; i++)
+            game.getPlayers().add(
+                    (GamePlayerImpl) new GamePlayerImpl().setUser(
+                            new UnregisteredUser().setId(i + 1).setName(
+                                    "Bot " + (i + 1))).setColor(COLORS[i]));
+        game.setBoard(createBoard());
+        if (seaFarers)
+            game.getGameRules().addVariant(new SeaFarers(game));
+
+        server.sendAction(new HostStartsGame().setPlayer(game.getPlayers()
+                .get(0)));
+
+        int turns = 0;
+        while (!callback.won && turns < maxTurns
+                && callback.refused < MAX_REFUSED)
+        {
+            GameAction expected = game.getActionsQueue().peekAction();
+            if (expected != null)
+            {
+                GamePlayer player = expected.getPlayer();
+                GameAction action = strategies.get(indexOf(game, player)).act(
+                        game, player, expected);
+                if (action == null)
+                    break;
+
+                server.sendAction(action);
+            }
+            else if (game.getCurrentPhase() instanceof PlayTurnsGamePhase)
+            {
+                playTurn(server, game, strategies, callback);
+                turns++;
+            }
+            else
+            {
+                // Nothing expected outside playing turns: the game is stuck
+                break;
+            }
+        }
+
+        result.recordGame(callback.won, callback.actions, callback.refused,
+                turns);
+    }
+
+    /*
+     * Returns the board to play on: the standard board, with two islands off
+     * its coast for sea farers games. Each island is a bonus territory of one
+     * hex. Ships can't be built yet, so the islands lie where roads reach
+     * them.
+     */
+    private Board createBoard()
+    {
+        Board board = new Board().setBoardSettings(BoardSettings.standard());
+        if (seaFarers)
+        {
+            addIsland(board, new HexLocation(0, 3), new ResourceHex(new Ore())
+                    .setChit(new Chit(5)));
+            addIsland(board, new HexLocation(6, 3), new ResourceHex(
+                    new Wheat()).setChit(new Chit(9)));
+        }
+
+        return board;
+    }
+
+    private static void addIsland(Board board, HexLocation location, Hex hex)
+    {
+        TerritoryImpl island = new TerritoryImpl();
+        island.setID(board.getTerritories().size());
+        island.setName("Island " + island.getID());
+        island.setIsland(true);
+        island.setBonus(true);
+        board.getTerritories().add(island);
+
+        board.getHexes().set(location,
+                hex.setLocation(location).setTerritory(island));
+    }
+
+    private void playTurn(HotSeatServer server, Game game,
+            List<SimulatedPlayer> strategies, CountingCallback callback)
+    {
+        GamePlayer player = game.getCurrentTurn().getPlayer();
+        SimulatedPlayer strategy = strategies.get(indexOf(game, player));
+        int vpToWin = game.getBoard().getBoardSettings().getVpToWin();
+
+        server.sendAction(new RollDice().setPlayer(player));
+
+        for (int i = 0; i < MAX_ACTIONS_PER_TURN; i++)
+        {
+            // Rolling a seven or building may have queued actions to do
+            // before the turn can continue
+            if (game.getActionsQueue().peekAction() != null)
+                return;
+
+            if (player.getVictoryPoints().getTotalPoints() >= vpToWin)
+            {
+                server.sendAction(new ClaimVictory().setPlayer(player));
+                return;
+            }
+
+            GameAction action = strategy.act(game, player, null);
+            if (action == null)
+                break;
+
+            server.sendAction(action);
+        }
+
+        server.sendAction(new EndTurn().setPlayer(player));
+    }
+
+    private static int indexOf(Game game, GamePlayer player)
+    {
+        return game.getPlayers().indexOf(player);
+    }
+
+    /*
+     * Returns the amount of bytes allocated by the current thread, or -1 when
+     * the JVM does not tell
+     */
+    private static long allocatedBytes()
+    {
+        java.lang.management.ThreadMXBean bean = ManagementFactory
+                .getThreadMXBean();
+        if (bean instanceof com.sun.management.ThreadMXBean)
+        {
+            com.sun.management.ThreadMXBean sunBean = (com.sun.management.ThreadMXBean) bean;
+            if (sunBean.isThreadAllocatedMemorySupported()
+                    && sunBean.isThreadAllocatedMemoryEnabled())
+                return sunBean.getThreadAllocatedBytes(Thread.currentThread()
+                        .getId());
+        }
+
+        return -1;
+    }
+
+    /*
+     * Counts the actions the server sends to the players, and notes refused
+     * actions and a claimed victory
+     */
+    private static class CountingCallback implements IGameServerCallback
+    {
+        private long actions;
+        private long refused;
+        private boolean won;
+
+        @Override
+        public void receive(GameAction gameAction)
+        {
+            if (gameAction instanceof MessageFromServer)
+            {
+                refused++;
+                return;
+            }
+
+            actions++;
+            if (gameAction instanceof ClaimVictory)
+                won = true;
+        }
+    }
+
+    public static void main(String[] args)
+    {
+        int games = args.length > 0 ? Integer.parseInt(args[0]) : 100;
+        boolean seaFarers = args.length > 1 && args[1].equals("seafarers");
+        int players = args.length > 2 ? Integer.parseInt(args[2]) : 4;
+        long seed = args.length > 3 ? Long.parseLong(args[3]) : 1;
+
+        I18n.initialize(new ServerInternationalization());
+
+        GameSimulator simulator = new GameSimulator(players, seaFarers,
+                DEFAULT_MAX_TURNS);
+
+        // Warm up the JIT before measuring
+        simulator.play(Math.max(1, games / 10), seed + games);
+
+        System.out.println((seaFarers ? "seafarers" : "standard") + ": "
+                + simulator.play(games, seed));
+    }
+}
@@ -0,0 +1,213 @@
+package soc.gwtServer.simulation;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+import soc.common.actions.gameAction.GameAction;
+import soc.common.actions.gameAction.turnActions.standard.BuildCity;
+import soc.common.actions.gameAction.turnActions.standard.BuildRoad;
+import soc.common.actions.gameAction.turnActions.standard.BuildTown;
+import soc.common.actions.gameAction.turnActions.standard.RollDice;
+import soc.common.actions.gameAction.turnActions.standard.TradeBank;
+import soc.common.board.Board;
+import soc.common.board.HexPoint;
+import soc.common.board.pieces.AbstractPlayerPiece;
+import soc.common.board.pieces.City;
+import soc.common.board.pieces.PlayerPiece;
+import soc.common.board.pieces.PointPiece;
+import soc.common.board.pieces.Road;
+import soc.common.board.pieces.Town;
+import soc.common.board.resources.Resource;
+import soc.common.board.resources.ResourceList;
+import soc.common.board.routing.BoardGraph;
+import soc.common.board.routing.GraphPoint;
+import soc.common.board.routing.GraphSide;
+import soc.common.game.Game;
+import soc.common.game.GamePlayer;
+import soc.common.server.random.Random;
+
+/*
+ * Player picking a random action out of the actions it can pay for, and a
+ * random place to build on. When it can't build anything, it trades with the
+ * bank.
+ */
+public class RandomPlayer implements SimulatedPlayer
+{
+    // Chance in percents of ending the turn while something can be built
+    private static final int END_TURN_CHANCE = 10;
+
+    private final Random random;
+
+    public RandomPlayer(Random random)
+    {
+        this.random = random;
+    }
+
+    @Override
+    public GameAction act(Game game, GamePlayer player, GameAction expected)
+    {
+        BoardGraph graph = game.getBoard().getGraph();
+
+        if (expected instanceof RollDice)
+            return new RollDice().setPlayer(player);
+
+        if (expected instanceof BuildTown)
+            return buildTown(graph.getTownCandidatesFirstTown(player), player);
+
+        if (expected instanceof BuildRoad)
+            return buildInitialRoad(graph, player);
+
+        if (expected != null)
+            return null;
+
+        return build(game, graph, player);
+    }
+
+    /*
+     * Returns a random piece the player can pay for and has a place for, or
+     * null to end the turn
+     */
+    private GameAction build(Game game, BoardGraph graph, GamePlayer player)
+    {
+        Board board = game.getBoard();
+        List<GameAction> options = new ArrayList<GameAction>();
+
+        if (City.CITY.canBuild(board, player) && hasCost(player, City.CITY))
+        {
+            List<AbstractPlayerPiece> towns = player.getBuildPieces().ofType(
+                    Town.TOWN);
+            PointPiece town = (PointPiece) towns.get(random.nextInt(towns
+                    .size()));
+            options.add(new BuildCity().setLocation(town.getPoint())
+                    .setPlayer(player));
+        }
+
+        if (Town.TOWN.canBuild(board, player) && hasCost(player, Town.TOWN))
+        {
+            GameAction town = buildTown(graph
+                    .getTownCandidatesTurnPhase(player), player);
+            if (town != null)
+                options.add(town);
+        }
+
+        if (Road.ROAD.canBuild(board, player) && hasCost(player, Road.ROAD))
+        {
+            GameAction road = buildRoad(graph.getRoadCandidates(player),
+                    player);
+            if (road != null)
+                options.add(road);
+        }
+
+        if (random.nextInt(100) < END_TURN_CHANCE)
+            return null;
+
+        if (options.isEmpty())
+            return tradeBank(game, player);
+
+        return pick(options);
+    }
+
+    /*
+     * Returns true when the player holds the resources given piece costs.
+     * PlayerPiece.canPay also counts on resources the player could trade for,
+     * which building a piece does not trade.
+     */
+    private static boolean hasCost(GamePlayer player, PlayerPiece piece)
+    {
+        return player.getResources().hasAtLeast(piece.getCost());
+    }
+
+    /*
+     * Returns a trade with the bank of a resource the player has enough of
+     * for a random other resource, or null when the player can't trade
+     */
+    private GameAction tradeBank(Game game, GamePlayer player)
+    {
+        List<Resource> offerable = new ArrayList<Resource>();
+        for (Resource resource : ResourceList.tradeableResources())
+        {
+            if (player.getResources().getAmount(resource) >= player
+                    .getPorts().amountNeededToTrade(resource))
+                offerable.add(resource);
+        }
+
+        Resource offered = pick(offerable);
+        if (offered == null)
+            return null;
+
+        List<Resource> wantable = new ArrayList<Resource>();
+        for (Resource resource : ResourceList.tradeableResources())
+        {
+            if (resource.getClass() != offered.getClass()
+                    && game.getBank().getAmount(resource) > 0)
+                wantable.add(resource);
+        }
+
+        Resource wanted = pick(wantable);
+        if (wanted == null)
+            return null;
+
+        ResourceList offeredResources = new ResourceList();
+        for (int i = player.getPorts().amountNeededToTrade(offered); i > 0; i--)
+            offeredResources.add(offered.copy());
+
+        ResourceList wantedResources = new ResourceList();
+        wantedResources.add(wanted);
+
+        return new TradeBank().setOfferedResources(offeredResources)
+                .setWantedResources(wantedResources).setPlayer(player);
+    }
+
+    private GameAction buildTown(Collection<GraphPoint> candidates,
+            GamePlayer player)
+    {
+        GraphPoint point = pick(candidates);
+
+        return point == null ? null : new BuildTown().setPointLocation(
+                point.getPoint()).setPlayer(player);
+    }
+
+    private GameAction buildRoad(Collection<GraphSide> candidates,
+            GamePlayer player)
+    {
+        GraphSide side = pick(candidates);
+
+        return side == null ? null : new BuildRoad().setSideLocation(
+                side.getSide()).setPlayer(player);
+    }
+
+    /*
+     * Returns a road next to the town placed last
+     */
+    private GameAction buildInitialRoad(BoardGraph graph, GamePlayer player)
+    {
+        List<AbstractPlayerPiece> towns = player.getBuildPieces()
+                .getPointPieces();
+        HexPoint town = ((PointPiece) towns.get(towns.size() - 1)).getPoint();
+
+        List<GraphSide> candidates = new ArrayList<GraphSide>();
+        for (GraphSide side : graph.getRoadCandidates(player))
+        {
+            if (town.getNeighbourSides().contains(side.getSide()))
+                candidates.add(side);
+        }
+
+        return buildRoad(candidates, player);
+    }
+
+    private <T> T pick(Collection<T> candidates)
+    {
+        if (candidates.isEmpty())
+            return null;
+
+        int index = random.nextInt(candidates.size());
+        for (T candidate : candidates)
+        {
+            if (index-- == 0)
+                return candidate;
+        }
+
+        return null;
+    }
+}
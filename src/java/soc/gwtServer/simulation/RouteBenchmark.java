@@ -0,0 +1,190 @@
+package soc.gwtServer.simulation;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Set;
+
+import soc.common.board.Board;
+import soc.common.board.HexLocation;
+import soc.common.board.HexPoint;
+import soc.common.board.pieces.Road;
+import soc.common.board.routing.BoardGraph;
+import soc.common.board.routing.GraphPoint;
+import soc.common.board.routing.GraphSide;
+import soc.common.game.GamePlayer;
+import soc.common.game.GamePlayerImpl;
+import soc.common.server.data.Player;
+
+/*
+ * Measures the longest route of BoardGraph on road networks of growing size.
+ * A network is grown breadth first from the middle of a board of sea, so it
+ * has many forks and loops. For each size it measures calculating the longest
+ * route from scratch, extending the network by one road, and adding a road of
+ * another player elsewhere on the board.
+ *
+ * Usage: RouteBenchmark [largest network] [repetitions]
+ */
+public class RouteBenchmark
+{
+    private static final int BOARD_SIZE = 12;
+
+    private final Board board = new Board(BOARD_SIZE, BOARD_SIZE);
+    private final GamePlayer red = createPlayer(1);
+    private final GamePlayer blue = createPlayer(2);
+
+    // Whether to print the figures, false while warming up
+    private final boolean reporting;
+
+    public RouteBenchmark(boolean reporting)
+    {
+        this.reporting = reporting;
+    }
+
+    /*
+     * Returns the sides of a network of given size, grown breadth first from
+     * the middle of the board
+     */
+    private List<GraphSide> network(BoardGraph graph, int size)
+    {
+        List<GraphSide> result = new ArrayList<GraphSide>();
+        Set<GraphSide> added = new HashSet<GraphSide>();
+        Set<GraphPoint> reached = new HashSet<GraphPoint>();
+        LinkedList<GraphPoint> todo = new LinkedList<GraphPoint>();
+
+        HexLocation middle = new HexLocation(BOARD_SIZE / 2, BOARD_SIZE / 2);
+        GraphPoint start = graph.getGraphPoint(middle.getNeighbourHexPoints()
+                .get(0));
+        todo.add(start);
+        reached.add(start);
+
+        while (!todo.isEmpty() && result.size() < size)
+        {
+            GraphPoint point = todo.removeFirst();
+            for (GraphSide side : graph.getGraph().edgesOf(point))
+            {
+                if (result.size() == size || !added.add(side))
+                    continue;
+
+                result.add(side);
+                GraphPoint other = graph.getGraph().getEdgeSource(side);
+                if (other == point)
+                    other = graph.getGraph().getEdgeTarget(side);
+                if (reached.add(other))
+                    todo.add(other);
+            }
+        }
+
+        return result;
+    }
+
+    /*
+     * Returns a free side in a corner of the board, away from the network
+     */
+    private GraphSide elsewhere(BoardGraph graph)
+    {
+        HexPoint corner = new HexLocation(1, 1).getNeighbourHexPoints().get(0);
+        for (GraphSide side : graph.getGraph().edgesOf(
+                graph.getGraphPoint(corner)))
+        {
+            if (side.getPiece() == null)
+                return side;
+        }
+
+        throw new IllegalStateException("No free side in the corner");
+    }
+
+    /*
+     * Measures a network of given size, and returns its longest route
+     */
+    private int benchmark(int size, int repetitions)
+    {
+        BoardGraph graph = new BoardGraph(board);
+        List<GraphSide> sides = network(graph, size);
+        for (GraphSide side : sides)
+            addRoad(graph, red, side);
+
+        int length = 0;
+        long started = System.nanoTime();
+        for (int i = 0; i < repetitions; i++)
+        {
+            graph.invalidateRoutes();
+            length = graph.getLongestRoute(red).getLength();
+        }
+        report(size + " roads, full", repetitions, System.nanoTime()
+                - started);
+
+        long nanos = 0;
+        for (int i = 0; i < repetitions; i++)
+        {
+            graph = new BoardGraph(board);
+            for (GraphSide side : sides.subList(0, size - 1))
+                addRoad(graph, red, graph.getGraphSide(side.getSide()));
+            graph.getLongestRoute(red);
+
+            long start = System.nanoTime();
+            addRoad(graph, red, graph.getGraphSide(sides.get(size - 1)
+                    .getSide()));
+            graph.getLongestRoute(red);
+            nanos += System.nanoTime() - start;
+        }
+        report(size + " roads, extend", repetitions, nanos);
+
+        nanos = 0;
+        for (int i = 0; i < repetitions; i++)
+        {
+            graph = new BoardGraph(board);
+            for (GraphSide side : sides)
+                addRoad(graph, red, graph.getGraphSide(side.getSide()));
+            graph.getLongestRoute(red);
+            graph.getLongestRoute(blue);
+
+            long start = System.nanoTime();
+            addRoad(graph, blue, elsewhere(graph));
+            graph.getLongestRoute(red);
+            nanos += System.nanoTime() - start;
+        }
+        report(size + " roads, elsewhere", repetitions, nanos);
+
+        return length;
+    }
+
+    private static void addRoad(BoardGraph graph, GamePlayer player,
+            GraphSide side)
+    {
+        Road road = new Road();
+        road.setPlayer(player);
+        road.setSide(side.getSide());
+        graph.addRoad(road);
+    }
+
+    private static GamePlayer createPlayer(int id)
+    {
+        GamePlayerImpl player = new GamePlayerImpl();
+        player.setUser(new Player().setId(id).setName("Player " + id));
+        return player;
+    }
+
+    private void report(String name, int count, long nanos)
+    {
+        if (reporting)
+            System.out.println(name + ": " + count + " in " + nanos / 1000000
+                    + "ms, " + nanos / count / 1000 + "us each");
+    }
+
+    public static void main(String[] args)
+    {
+        int largest = args.length > 0 ? Integer.parseInt(args[0]) : 30;
+        int repetitions = args.length > 1 ? Integer.parseInt(args[1]) : 200;
+
+        // Warm up the JIT before measuring
+        new RouteBenchmark(false).benchmark(largest, repetitions);
+
+        for (int size = 5; size <= largest; size += 5)
+        {
+            int length = new RouteBenchmark(true).benchmark(size, repetitions);
+            System.out.println(size + " roads: longest route " + length);
+        }
+    }
+}
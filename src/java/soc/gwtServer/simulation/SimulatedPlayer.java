@@ -0,0 +1,20 @@
+package soc.gwtServer.simulation;
+
+import soc.common.actions.gameAction.GameAction;
+import soc.common.game.Game;
+import soc.common.game.GamePlayer;
+
+/*
+ * Decides the actions of a player in a simulated game
+ */
+public interface SimulatedPlayer
+{
+    /*
+     * Returns the action given player performs next. Expected is the action
+     * the game waits for from the player, such as a town during initial
+     * placement, or null when the player is on turn and has rolled the dice.
+     * Returning null ends the turn, or gives up the game when an action was
+     * expected.
+     */
+    public GameAction act(Game game, GamePlayer player, GameAction expected);
+}
@@ -0,0 +1,105 @@
+package soc.gwtServer.simulation;
+
+/*
+ * Figures of a batch of simulated games
+ */
+public class SimulationResult
+{
+    private int games;
+    private int finishedGames;
+    private long actions;
+    private long refusedActions;
+    private long turns;
+    private long nanos;
+
+    // Bytes allocated by the simulating thread, or -1 when the JVM does not
+    // tell
+    private long allocatedBytes = -1;
+
+    void recordGame(boolean finished, long gameActions, long gameRefused,
+            long gameTurns)
+    {
+        games++;
+        if (finished)
+            finishedGames++;
+        actions += gameActions;
+        refusedActions += gameRefused;
+        turns += gameTurns;
+    }
+
+    void setNanos(long nanos)
+    {
+        this.nanos = nanos;
+    }
+
+    void setAllocatedBytes(long allocatedBytes)
+    {
+        this.allocatedBytes = allocatedBytes;
+    }
+
+    public int getGames()
+    {
+        return games;
+    }
+
+    /*
+     * Returns the amount of games won by a player before the maximum amount
+     * of turns
+     */
+    public int getFinishedGames()
+    {
+        return finishedGames;
+    }
+
+    /*
+     * Returns the amount of actions performed, including server actions
+     */
+    public long getActions()
+    {
+        return actions;
+    }
+
+    /*
+     * Returns the amount of actions the server refused as invalid or
+     * unexpected
+     */
+    public long getRefusedActions()
+    {
+        return refusedActions;
+    }
+
+    public long getTurns()
+    {
+        return turns;
+    }
+
+    public double getGamesPerSecond()
+    {
+        return nanos == 0 ? 0 : games * 1e9 / nanos;
+    }
+
+    public double getActionsPerSecond()
+    {
+        return nanos == 0 ? 0 : actions * 1e9 / nanos;
+    }
+
+    /*
+     * Returns the average amount of bytes allocated per game, or -1 when not
+     * known
+     */
+    public long getAllocatedBytesPerGame()
+    {
+        return allocatedBytes < 0 || games == 0 ? -1 : allocatedBytes / games;
+    }
+
+    @Override
+    public String toString()
+    {
+        return games + " games (" + finishedGames + " finished), " + turns
+                + " turns, " + actions + " actions (" + refusedActions
+                + " refused) in " + nanos / 1000000 + "ms: "
+                + Math.round(getGamesPerSecond()) + " games/s, "
+                + Math.round(getActionsPerSecond()) + " actions/s, "
+                + getAllocatedBytesPerGame() / 1024 + "KB allocated per game";
+    }
+}
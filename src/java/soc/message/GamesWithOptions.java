@@ -20,7 +20,6 @@ package soc.message;
 import java.util.Vector;
 
 import soc.game.Game;
-import soc.game.GameOption;
 import soc.util.GameList;
 
 /**
@@ -122,7 +121,7 @@ public class GamesWithOptions extends MessageTemplateMs
             {
                 sb.append(((Game) ob).getName());
                 sb.append(sep);
-                sb.append(GameOption.packOptionsToString(((Game) ob).getGameOptions(), false));
+                sb.append(((Game) ob).getGameOptionSet().getPackedString());
             } else {
                 sb.append((String) ob);
                 sb.append(sep);
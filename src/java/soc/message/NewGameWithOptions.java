@@ -157,7 +157,7 @@ public class NewGameWithOptions extends MessageTemplate2s
     public static String toCmd(Game ga)
     {
         return toCmd(ga.getName(),
-                GameOption.packOptionsToString(ga.getGameOptions(), false),
+                ga.getGameOptionSet().getPackedString(),
                 ga.getClientVersionMinRequired());
     }
 
@@ -43,6 +43,12 @@ public class BuildingSpeedEstimate
     public static final int MIN = 0;
     public static final int MAXPLUSONE = 4;
     public static final int DEFAULT_ROLL_LIMIT = 40;
+    /**
+     * Category of this class's debug output, see {@link D#ebugGetLevel(String)}.
+     * @since 1.1.09
+     */
+    private static final String DEBUG_CATEGORY = "robot.estimate";
+
     protected static boolean recalc;
     int[] estimatesFromNothing;
     int[] estimatesFromNow;
@@ -296,9 +302,13 @@ public class BuildingSpeedEstimate
      */
     public void recalculateRollsPerResource(PlayerNumbers numbers, int robberHex)
     {
-        D.ebugPrintln("@@@@@@@@ recalculateRollsPerResource");
-        D.ebugPrintln("@@@@@@@@ numbers = " + numbers);
-        D.ebugPrintln("@@@@@@@@ robberHex = " + Integer.toHexString(robberHex));
+        if (D.ebugOn)
+        {
+            D.ebugPrintln(DEBUG_CATEGORY, D.DEBUG, "@@@@@@@@ recalculateRollsPerResource");
+            D.ebugPrintln(DEBUG_CATEGORY, D.DEBUG, "@@@@@@@@ numbers = %s", numbers);
+            D.ebugPrintln(DEBUG_CATEGORY, D.DEBUG, "@@@@@@@@ robberHex = %s",
+                    Integer.toHexString(robberHex));
+        }
         recalc = true;
 
         /**
@@ -307,7 +317,10 @@ public class BuildingSpeedEstimate
         for (int resource = ResourceConstants.CLAY;
                 resource <= ResourceConstants.WOOD; resource++)
         {
-            D.ebugPrintln("resource: " + resource);
+            if (D.ebugOn)
+            {
+                D.ebugPrintln(DEBUG_CATEGORY, D.DEBUG, "resource: %s", resource);
+            }
 
             float totalProbability = 0.0f;
 
@@ -319,7 +332,10 @@ public class BuildingSpeedEstimate
                 totalProbability += NumberProbabilities.FLOAT_VALUES[number.intValue()];
             }
 
-            D.ebugPrintln("totalProbability: " + totalProbability);
+            if (D.ebugOn)
+            {
+                D.ebugPrintln(DEBUG_CATEGORY, D.DEBUG, "totalProbability: %s", totalProbability);
+            }
 
             if (totalProbability != 0.0f)
             {
@@ -330,7 +346,11 @@ public class BuildingSpeedEstimate
                 rollsPerResource[resource] = 55555;
             }
 
-            D.ebugPrintln("rollsPerResource: " + rollsPerResource[resource]);
+            if (D.ebugOn)
+            {
+                D.ebugPrintln(DEBUG_CATEGORY, D.DEBUG, "rollsPerResource: %s",
+                        rollsPerResource[resource]);
+            }
         }
     }
 
@@ -702,9 +722,12 @@ public class BuildingSpeedEstimate
      */
     protected ResSetBuildTimePair calculateRollsAccurate(ResourceSet startingResources, ResourceSet targetResources, int cutoff, boolean[] ports) throws CutoffExceededException
     {
-        D.ebugPrintln("calculateRollsAccurate");
-        D.ebugPrintln("  start: " + startingResources);
-        D.ebugPrintln("  target: " + targetResources);
+        if (D.ebugOn)
+        {
+            D.ebugPrintln(DEBUG_CATEGORY, D.DEBUG, "calculateRollsAccurate");
+            D.ebugPrintln(DEBUG_CATEGORY, D.DEBUG, "  start: %s", startingResources);
+            D.ebugPrintln(DEBUG_CATEGORY, D.DEBUG, "  target: %s", targetResources);
+        }
 
         ResourceSet ourResources = startingResources.copy();
         int rolls = 0;
@@ -725,8 +748,8 @@ public class BuildingSpeedEstimate
         {
             if (D.ebugOn)
             {
-                D.ebugPrintln("roll: " + rolls);
-                D.ebugPrintln("resourcesOnRoll[lastRoll]:");
+                D.ebugPrintln(DEBUG_CATEGORY, D.DEBUG, "roll: %s", rolls);
+                D.ebugPrintln(DEBUG_CATEGORY, D.DEBUG, "resourcesOnRoll[lastRoll]:");
 
                 Enumeration roltEnum = resourcesOnRoll[lastRoll].keys();
 
@@ -734,20 +757,25 @@ public class BuildingSpeedEstimate
                 {
                     ResourceSet rs = (ResourceSet) roltEnum.nextElement();
                     Float prob = (Float) resourcesOnRoll[lastRoll].get(rs);
-                    D.ebugPrintln("---- prob:" + prob);
-                    D.ebugPrintln("---- rsrcs:" + rs);
-                    D.ebugPrintln();
+                    D.ebugPrintln(DEBUG_CATEGORY, D.DEBUG, "---- prob:%s", prob);
+                    D.ebugPrintln(DEBUG_CATEGORY, D.DEBUG, "---- rsrcs:%s", rs);
+                    D.ebugPrintln(DEBUG_CATEGORY, D.DEBUG, "");
                 }
 
-                D.ebugPrintln("targetReachedProb: " + targetReachedProb);
-                D.ebugPrintln("===================================");
+                D.ebugPrintln(DEBUG_CATEGORY, D.DEBUG, "targetReachedProb: %s", targetReachedProb);
+                D.ebugPrintln(DEBUG_CATEGORY, D.DEBUG, "===================================");
             }
 
             rolls++;
 
             if (rolls > cutoff)
             {
-                D.ebugPrintln("startingResources=" + startingResources + "\ntargetResources=" + targetResources + "\ncutoff=" + cutoff + "\nourResources=" + ourResources);
+                if (D.ebugOn)
+                {
+                    D.ebugPrintln(DEBUG_CATEGORY, D.DEBUG,
+                            "startingResources=%s\ntargetResources=%s\ncutoff=%s\nourResources=%s",
+                            startingResources, targetResources, cutoff, ourResources);
+                }
                 throw new CutoffExceededException();
             }
 
@@ -899,9 +927,12 @@ public class BuildingSpeedEstimate
                     //
                     if (newResources.contains(targetResources))
                     {
-                        D.ebugPrintln("-----> TARGET HIT *");
-                        D.ebugPrintln("newResources: " + newResources);
-                        D.ebugPrintln("newProb: " + newProb);
+                        if (D.ebugOn)
+                        {
+                            D.ebugPrintln(DEBUG_CATEGORY, D.DEBUG, "-----> TARGET HIT *");
+                            D.ebugPrintln(DEBUG_CATEGORY, D.DEBUG, "newResources: %s", newResources);
+                            D.ebugPrintln(DEBUG_CATEGORY, D.DEBUG, "newProb: %s", newProb);
+                        }
                         targetReachedProb += newProb;
 
                         if (targetReachedResources == null)
@@ -935,11 +966,12 @@ public class BuildingSpeedEstimate
         if (D.ebugOn)
         {
             float probSum = (float) 0.0;
-            D.ebugPrintln("**************** TARGET REACHED ************");
-            D.ebugPrintln("targetReachedResources: " + targetReachedResources);
-            D.ebugPrintln("targetReachedProb: " + targetReachedProb);
-            D.ebugPrintln("roll: " + rolls);
-            D.ebugPrintln("resourcesOnRoll[lastRoll]:");
+            D.ebugPrintln(DEBUG_CATEGORY, D.DEBUG, "**************** TARGET REACHED ************");
+            D.ebugPrintln(DEBUG_CATEGORY, D.DEBUG, "targetReachedResources: %s",
+                    targetReachedResources);
+            D.ebugPrintln(DEBUG_CATEGORY, D.DEBUG, "targetReachedProb: %s", targetReachedProb);
+            D.ebugPrintln(DEBUG_CATEGORY, D.DEBUG, "roll: %s", rolls);
+            D.ebugPrintln(DEBUG_CATEGORY, D.DEBUG, "resourcesOnRoll[lastRoll]:");
 
             Enumeration roltEnum = resourcesOnRoll[lastRoll].keys();
 
@@ -948,13 +980,13 @@ public class BuildingSpeedEstimate
                 ResourceSet rs = (ResourceSet) roltEnum.nextElement();
                 Float prob = (Float) resourcesOnRoll[lastRoll].get(rs);
                 probSum += prob.floatValue();
-                D.ebugPrintln("---- prob:" + prob);
-                D.ebugPrintln("---- rsrcs:" + rs);
-                D.ebugPrintln();
+                D.ebugPrintln(DEBUG_CATEGORY, D.DEBUG, "---- prob:%s", prob);
+                D.ebugPrintln(DEBUG_CATEGORY, D.DEBUG, "---- rsrcs:%s", rs);
+                D.ebugPrintln(DEBUG_CATEGORY, D.DEBUG, "");
             }
 
-            D.ebugPrintln("probSum = " + probSum);
-            D.ebugPrintln("===================================");
+            D.ebugPrintln(DEBUG_CATEGORY, D.DEBUG, "probSum = %s", probSum);
+            D.ebugPrintln(DEBUG_CATEGORY, D.DEBUG, "===================================");
         }
 
         return (new ResSetBuildTimePair(targetReachedResources, rolls));
@@ -71,6 +71,12 @@ public class PlayerTracker
     protected static final DecimalFormat df1 = new DecimalFormat("###0.00");
     static protected int EXPAND_LEVEL = 1;
     static protected int LR_CALC_LEVEL = 2;
+    /**
+     * Category of this class's debug output, see {@link D#ebugGetLevel(String)}.
+     * @since 1.1.09
+     */
+    private static final String DEBUG_CATEGORY = "robot.tracker";
+
     protected RobotBrain brain;
     protected Player player;
     protected TreeMap possibleSettlements;
@@ -972,7 +978,10 @@ public class PlayerTracker
          * if another player's road is on one of our possible roads, then remove
          * it
          */
-        D.ebugPrintln("$$$ addTheirNewRoad : " + road);
+        if (D.ebugOn)
+        {
+            D.ebugPrintln(DEBUG_CATEGORY, D.DEBUG, "$$$ addTheirNewRoad : %s", road);
+        }
 
         Integer roadCoordinates = new Integer(road.getCoordinates());
         PossibleRoad pr = (PossibleRoad) possibleRoads.get(roadCoordinates);
@@ -1099,8 +1108,11 @@ public class PlayerTracker
         Integer settlementCoords = new Integer(settlement.getCoordinates());
         PossibleSettlement ps = (PossibleSettlement) possibleSettlements
                 .get(settlementCoords);
-        D.ebugPrintln("$$$ removing (wrong) "
-                + Integer.toHexString(settlement.getCoordinates()));
+        if (D.ebugOn)
+        {
+            D.ebugPrintln(DEBUG_CATEGORY, D.DEBUG, "$$$ removing (wrong) %s",
+                    Integer.toHexString(settlement.getCoordinates()));
+        }
         possibleSettlements.remove(settlementCoords);
         removeFromNecessaryRoads(ps);
 
@@ -1118,7 +1130,10 @@ public class PlayerTracker
             HashMap trackers)
     {
         // D.ebugPrintln();
-        D.ebugPrintln("$$$ addOurNewSettlement : " + settlement);
+        if (D.ebugOn)
+        {
+            D.ebugPrintln(DEBUG_CATEGORY, D.DEBUG, "$$$ addOurNewSettlement : %s", settlement);
+        }
         Board board = player.getGame().getBoard();
 
         Integer settlementCoords = new Integer(settlement.getCoordinates());
@@ -1138,7 +1153,10 @@ public class PlayerTracker
 
         if (ps != null)
         {
-            D.ebugPrintln("$$$ was a possible settlement");
+            if (D.ebugOn)
+            {
+                D.ebugPrintln(DEBUG_CATEGORY, D.DEBUG, "$$$ was a possible settlement");
+            }
 
             /**
              * copy a list of all the conflicting settlements
@@ -1148,8 +1166,11 @@ public class PlayerTracker
             /**
              * remove the possible settlement that is now a real settlement
              */
-            D.ebugPrintln("$$$ removing "
-                    + Integer.toHexString(settlement.getCoordinates()));
+            if (D.ebugOn)
+            {
+                D.ebugPrintln(DEBUG_CATEGORY, D.DEBUG, "$$$ removing %s",
+                        Integer.toHexString(settlement.getCoordinates()));
+            }
             possibleSettlements.remove(settlementCoords);
             removeFromNecessaryRoads(ps);
 
@@ -1162,17 +1183,23 @@ public class PlayerTracker
             {
                 PossibleSettlement conflict = (PossibleSettlement) conflictEnum
                         .nextElement();
-                D.ebugPrintln("$$$ checking conflict with "
-                        + conflict.getPlayer().getPlayerNumber() + ":"
-                        + Integer.toHexString(conflict.getCoordinates()));
+                if (D.ebugOn)
+                {
+                    D.ebugPrintln(DEBUG_CATEGORY, D.DEBUG, "$$$ checking conflict with %s:%s",
+                            conflict.getPlayer().getPlayerNumber(),
+                            Integer.toHexString(conflict.getCoordinates()));
+                }
 
                 PlayerTracker tracker = (PlayerTracker) trackers
                         .get(new Integer(conflict.getPlayer().getPlayerNumber()));
 
                 if (tracker != null)
                 {
-                    D.ebugPrintln("$$$ removing "
-                            + Integer.toHexString(conflict.getCoordinates()));
+                    if (D.ebugOn)
+                    {
+                        D.ebugPrintln(DEBUG_CATEGORY, D.DEBUG, "$$$ removing %s",
+                                Integer.toHexString(conflict.getCoordinates()));
+                    }
                     tracker.getPossibleSettlements().remove(
                             new Integer(conflict.getCoordinates()));
                     removeFromNecessaryRoads(conflict);
@@ -1187,12 +1214,13 @@ public class PlayerTracker
                     {
                         PossibleSettlement otherConflict = (PossibleSettlement) otherConflictEnum
                                 .nextElement();
-                        D.ebugPrintln("$$$ removing conflict "
-                                + Integer
-                                        .toHexString(conflict.getCoordinates())
-                                + " from "
-                                + Integer.toHexString(otherConflict
-                                        .getCoordinates()));
+                        if (D.ebugOn)
+                        {
+                            D.ebugPrintln(DEBUG_CATEGORY, D.DEBUG,
+                                    "$$$ removing conflict %s from %s",
+                                    Integer.toHexString(conflict.getCoordinates()),
+                                    Integer.toHexString(otherConflict.getCoordinates()));
+                        }
                         otherConflict.removeConflict(conflict);
                     }
                 }
@@ -1204,7 +1232,10 @@ public class PlayerTracker
              * if the new settlement wasn't a possible settlement, we still need
              * to cancel out other players possible settlements
              */
-            D.ebugPrintln("$$$ wasn't possible settlement");
+            if (D.ebugOn)
+            {
+                D.ebugPrintln(DEBUG_CATEGORY, D.DEBUG, "$$$ wasn't possible settlement");
+            }
 
             Vector trash = new Vector();
             Vector adjNodes = board.getAdjacentNodesToNode(settlement
@@ -1216,19 +1247,28 @@ public class PlayerTracker
                 PlayerTracker tracker = (PlayerTracker) trackersIter.next();
                 PossibleSettlement posSet = (PossibleSettlement) tracker
                         .getPossibleSettlements().get(settlementCoords);
-                D.ebugPrintln("$$$ tracker for player "
-                        + tracker.getPlayer().getPlayerNumber());
+                if (D.ebugOn)
+                {
+                    D.ebugPrintln(DEBUG_CATEGORY, D.DEBUG, "$$$ tracker for player %s",
+                            tracker.getPlayer().getPlayerNumber());
+                }
 
                 /**
                  * check the node that the settlement is on
                  */
-                D.ebugPrintln("$$$ checking node "
-                        + Integer.toHexString(settlement.getCoordinates()));
+                if (D.ebugOn)
+                {
+                    D.ebugPrintln(DEBUG_CATEGORY, D.DEBUG, "$$$ checking node %s",
+                            Integer.toHexString(settlement.getCoordinates()));
+                }
 
                 if (posSet != null)
                 {
-                    D.ebugPrintln("$$$ trashing "
-                            + Integer.toHexString(posSet.getCoordinates()));
+                    if (D.ebugOn)
+                    {
+                        D.ebugPrintln(DEBUG_CATEGORY, D.DEBUG, "$$$ trashing %s",
+                                Integer.toHexString(posSet.getCoordinates()));
+                    }
                     trash.addElement(posSet);
 
                     /**
@@ -1259,15 +1299,21 @@ public class PlayerTracker
                 while (adjNodeEnum.hasMoreElements())
                 {
                     Integer adjNode = (Integer) adjNodeEnum.nextElement();
-                    D.ebugPrintln("$$$ checking node "
-                            + Integer.toHexString(adjNode.intValue()));
+                    if (D.ebugOn)
+                    {
+                        D.ebugPrintln(DEBUG_CATEGORY, D.DEBUG, "$$$ checking node %s",
+                                Integer.toHexString(adjNode.intValue()));
+                    }
                     posSet = (PossibleSettlement) tracker
                             .getPossibleSettlements().get(adjNode);
 
                     if (posSet != null)
                     {
-                        D.ebugPrintln("$$$ trashing "
-                                + Integer.toHexString(posSet.getCoordinates()));
+                        if (D.ebugOn)
+                        {
+                            D.ebugPrintln(DEBUG_CATEGORY, D.DEBUG, "$$$ trashing %s",
+                                    Integer.toHexString(posSet.getCoordinates()));
+                        }
                         trash.addElement(posSet);
 
                         /**
@@ -1280,12 +1326,13 @@ public class PlayerTracker
                         {
                             PossibleSettlement conflict = (PossibleSettlement) conflictEnum
                                     .nextElement();
-                            D.ebugPrintln("$$$ removing conflict "
-                                    + Integer.toHexString(posSet
-                                            .getCoordinates())
-                                    + " from "
-                                    + Integer.toHexString(conflict
-                                            .getCoordinates()));
+                            if (D.ebugOn)
+                            {
+                                D.ebugPrintln(DEBUG_CATEGORY, D.DEBUG,
+                                        "$$$ removing conflict %s from %s",
+                                        Integer.toHexString(posSet.getCoordinates()),
+                                        Integer.toHexString(conflict.getCoordinates()));
+                            }
                             conflict.removeConflict(posSet);
                         }
                     }
@@ -1294,8 +1341,11 @@ public class PlayerTracker
                 /**
                  * take out the trash
                  */
-                D.ebugPrintln("$$$ removing trash for "
-                        + tracker.getPlayer().getPlayerNumber());
+                if (D.ebugOn)
+                {
+                    D.ebugPrintln(DEBUG_CATEGORY, D.DEBUG, "$$$ removing trash for %s",
+                            tracker.getPlayer().getPlayerNumber());
+                }
 
                 Enumeration trashEnum = trash.elements();
 
@@ -1345,7 +1395,10 @@ public class PlayerTracker
          */
 
         // D.ebugPrintln();
-        D.ebugPrintln("$$$ addTheirNewSettlement : " + settlement);
+        if (D.ebugOn)
+        {
+            D.ebugPrintln(DEBUG_CATEGORY, D.DEBUG, "$$$ addTheirNewSettlement : %s", settlement);
+        }
 
         Vector prTrash = new Vector();
         Vector nrTrash = new Vector();
@@ -1420,12 +1473,13 @@ public class PlayerTracker
 
                             if (nr.getCoordinates() == edge2.intValue())
                             {
-                                D.ebugPrintln("$$$ removing dependency "
-                                        + Integer.toHexString(nr
-                                                .getCoordinates())
-                                        + " from "
-                                        + Integer.toHexString(pr
-                                                .getCoordinates()));
+                                if (D.ebugOn)
+                                {
+                                    D.ebugPrintln(DEBUG_CATEGORY, D.DEBUG,
+                                            "$$$ removing dependency %s from %s",
+                                            Integer.toHexString(nr.getCoordinates()),
+                                            Integer.toHexString(pr.getCoordinates()));
+                                }
                                 nrTrash.addElement(nr);
 
                                 break;
@@ -1450,8 +1504,12 @@ public class PlayerTracker
 
                         if (pr.getNecessaryRoads().isEmpty())
                         {
-                            D.ebugPrintln("$$$ no more dependencies, removing "
-                                    + Integer.toHexString(pr.getCoordinates()));
+                            if (D.ebugOn)
+                            {
+                                D.ebugPrintln(DEBUG_CATEGORY, D.DEBUG,
+                                        "$$$ no more dependencies, removing %s",
+                                        Integer.toHexString(pr.getCoordinates()));
+                            }
                             prTrash.addElement(pr);
                         }
                     }
@@ -2118,8 +2176,11 @@ public class PlayerTracker
      */
     public void recalcLongestRoadETA()
     {
-        D.ebugPrintln("===  recalcLongestRoadETA for player "
-                + player.getPlayerNumber());
+        if (D.ebugOn)
+        {
+            D.ebugPrintln(DEBUG_CATEGORY, D.DEBUG, "===  recalcLongestRoadETA for player %s",
+                    player.getPlayerNumber());
+        }
 
         int roadETA;
         BuildingSpeedEstimate bse = new BuildingSpeedEstimate(player
@@ -2183,7 +2244,10 @@ public class PlayerTracker
             }
         }
 
-        D.ebugPrintln("--- roadsToGo = " + roadsToGo);
+        if (D.ebugOn)
+        {
+            D.ebugPrintln(DEBUG_CATEGORY, D.DEBUG, "--- roadsToGo = %s", roadsToGo);
+        }
         longestRoadETA = roadsToGo * roadETA;
     }
 
@@ -2206,9 +2270,11 @@ public class PlayerTracker
     private int recalcLongestRoadETAAux(int startNode, int pathLength,
             int lrLength, int searchDepth)
     {
-        D.ebugPrintln("=== recalcLongestRoadETAAux("
-                + Integer.toHexString(startNode) + "," + pathLength + ","
-                + lrLength + "," + searchDepth + ")");
+        if (D.ebugOn)
+        {
+            D.ebugPrintln(DEBUG_CATEGORY, D.DEBUG, "=== recalcLongestRoadETAAux(%s,%s,%s,%s)",
+                    Integer.toHexString(startNode), pathLength, lrLength, searchDepth);
+        }
 
         //
         // we're doing a depth first search of all possible road paths
@@ -2221,7 +2287,10 @@ public class PlayerTracker
         while (!pending.empty())
         {
             NodeLenVis curNode = (NodeLenVis) pending.pop();
-            D.ebugPrintln("curNode = " + curNode);
+            if (D.ebugOn)
+            {
+                D.ebugPrintln(DEBUG_CATEGORY, D.DEBUG, "curNode = %s", curNode);
+            }
 
             int coord = curNode.node;
             int len = curNode.len;
@@ -2273,7 +2342,10 @@ public class PlayerTracker
                         D
                                 .ebugPrintln("connecting to another path: "
                                         + pathData);
-                        D.ebugPrintln("len = " + len);
+                        if (D.ebugOn)
+                        {
+                            D.ebugPrintln(DEBUG_CATEGORY, D.DEBUG, "len = %s", len);
+                        }
 
                         break;
                     }
@@ -2754,20 +2826,22 @@ public class PlayerTracker
             {
                 if (laPlayer != null)
                 {
-                    D.ebugPrintln("laPlayer # = " + laPlayer.getPlayerNumber());
+                    D.ebugPrintln(DEBUG_CATEGORY, D.DEBUG, "laPlayer # = %s",
+                            laPlayer.getPlayerNumber());
                 }
                 else
                 {
-                    D.ebugPrintln("laPlayer = null");
+                    D.ebugPrintln(DEBUG_CATEGORY, D.DEBUG, "laPlayer = null");
                 }
 
                 if (lrPlayer != null)
                 {
-                    D.ebugPrintln("lrPlayer # = " + lrPlayer.getPlayerNumber());
+                    D.ebugPrintln(DEBUG_CATEGORY, D.DEBUG, "lrPlayer # = %s",
+                            lrPlayer.getPlayerNumber());
                 }
                 else
                 {
-                    D.ebugPrintln("lrPlayer = null");
+                    D.ebugPrintln(DEBUG_CATEGORY, D.DEBUG, "lrPlayer = null");
                 }
             }
 
@@ -2793,31 +2867,42 @@ public class PlayerTracker
 
             while (points < Game.VP_WINNER) // TO-DO: Hardcoded 10 to win
             {
-                D.ebugPrintln("WWW points = " + points);
-                D.ebugPrintln("WWW settlementPiecesLeft = "
-                        + settlementPiecesLeft);
-                D.ebugPrintln("WWW cityPiecesLeft = " + cityPiecesLeft);
+                if (D.ebugOn)
+                {
+                    D.ebugPrintln(DEBUG_CATEGORY, D.DEBUG, "WWW points = %s", points);
+                    D.ebugPrintln(DEBUG_CATEGORY, D.DEBUG, "WWW settlementPiecesLeft = %s",
+                            settlementPiecesLeft);
+                    D.ebugPrintln(DEBUG_CATEGORY, D.DEBUG, "WWW cityPiecesLeft = %s",
+                            cityPiecesLeft);
+                }
                 D
                         .ebugPrintln("WWW settlementSpotsLeft = "
                                 + posSetsCopy.size());
-                D.ebugPrintln("WWW citySpotsLeft = " + posCitiesCopy.size());
+                if (D.ebugOn)
+                {
+                    D.ebugPrintln(DEBUG_CATEGORY, D.DEBUG, "WWW citySpotsLeft = %s",
+                            posCitiesCopy.size());
+                }
 
                 if (D.ebugOn)
                 {
-                    D.ebugPrint("WWW tempPortFlags: ");
+                    D.ebugPrint(DEBUG_CATEGORY, D.DEBUG, "WWW tempPortFlags: ");
 
                     for (int portType = Board.MISC_PORT; portType <= Board.WOOD_PORT; portType++)
                     {
-                        D.ebugPrint(tempPortFlags[portType] + " ");
+                        D.ebugPrint(DEBUG_CATEGORY, D.DEBUG, "%s ", tempPortFlags[portType]);
                     }
 
-                    D.ebugPrintln();
+                    D.ebugPrintln(DEBUG_CATEGORY, D.DEBUG, "");
                 }
 
-                D.ebugPrintln("WWW settlementETA = " + settlementETA);
-                D.ebugPrintln("WWW cityETA = " + cityETA);
-                D.ebugPrintln("WWW roadETA = " + roadETA);
-                D.ebugPrintln("WWW cardETA = " + cardETA);
+                if (D.ebugOn)
+                {
+                    D.ebugPrintln(DEBUG_CATEGORY, D.DEBUG, "WWW settlementETA = %s", settlementETA);
+                    D.ebugPrintln(DEBUG_CATEGORY, D.DEBUG, "WWW cityETA = %s", cityETA);
+                    D.ebugPrintln(DEBUG_CATEGORY, D.DEBUG, "WWW roadETA = %s", roadETA);
+                    D.ebugPrintln(DEBUG_CATEGORY, D.DEBUG, "WWW cardETA = %s", cardETA);
+                }
 
                 if (points == (Game.VP_WINNER - 1))
                 {
@@ -2893,13 +2978,21 @@ public class PlayerTracker
                             }
 
                             fastestETA = (settlementETA + (totalNecRoads * roadETA));
-                            D.ebugPrintln("WWW # necesesary roads = "
-                                    + totalNecRoads);
+                            if (D.ebugOn)
+                            {
+                                D.ebugPrintln(DEBUG_CATEGORY, D.DEBUG,
+                                        "WWW # necesesary roads = %s", totalNecRoads);
+                            }
                             D
                                     .ebugPrintln("WWW this settlement eta = "
                                             + (settlementETA + (totalNecRoads * roadETA)));
-                            D.ebugPrintln("WWW settlement is " + chosenSet);
-                            D.ebugPrintln("WWW settlement eta = " + fastestETA);
+                            if (D.ebugOn)
+                            {
+                                D.ebugPrintln(DEBUG_CATEGORY, D.DEBUG, "WWW settlement is %s",
+                                        chosenSet);
+                                D.ebugPrintln(DEBUG_CATEGORY, D.DEBUG, "WWW settlement eta = %s",
+                                        fastestETA);
+                            }
                         }
                         else
                         {
@@ -2910,19 +3003,30 @@ public class PlayerTracker
                     if ((cityPiecesLeft > 0) && (citySpotsLeft > 0)
                             && (cityETA <= fastestETA))
                     {
-                        D.ebugPrintln("WWW city eta = " + cityETA);
+                        if (D.ebugOn)
+                        {
+                            D.ebugPrintln(DEBUG_CATEGORY, D.DEBUG, "WWW city eta = %s", cityETA);
+                        }
                         fastestETA = cityETA;
                     }
 
                     if (!haveLA && !needLA && (tempLargestArmyETA < fastestETA))
                     {
-                        D.ebugPrintln("WWW LA eta = " + tempLargestArmyETA);
+                        if (D.ebugOn)
+                        {
+                            D.ebugPrintln(DEBUG_CATEGORY, D.DEBUG, "WWW LA eta = %s",
+                                    tempLargestArmyETA);
+                        }
                         fastestETA = tempLargestArmyETA;
                     }
 
                     if (!haveLR && !needLR && (tempLongestRoadETA < fastestETA))
                     {
-                        D.ebugPrintln("WWW LR eta = " + tempLongestRoadETA);
+                        if (D.ebugOn)
+                        {
+                            D.ebugPrintln(DEBUG_CATEGORY, D.DEBUG, "WWW LR eta = %s",
+                                    tempLongestRoadETA);
+                        }
                         fastestETA = tempLongestRoadETA;
                     }
 
@@ -2968,7 +3072,11 @@ public class PlayerTracker
                         }
                     }
 
-                    D.ebugPrintln("WWW Adding " + fastestETA + " to win eta");
+                    if (D.ebugOn)
+                    {
+                        D.ebugPrintln(DEBUG_CATEGORY, D.DEBUG, "WWW Adding %s to win eta",
+                                fastestETA);
+                    }
                     winGameETA += fastestETA;
                     points += 2;
                 }
@@ -3046,7 +3154,11 @@ public class PlayerTracker
 
                         if (twoCities <= fastestETA)
                         {
-                            D.ebugPrintln("WWW twoCities = " + twoCities);
+                            if (D.ebugOn)
+                            {
+                                D.ebugPrintln(DEBUG_CATEGORY, D.DEBUG, "WWW twoCities = %s",
+                                        twoCities);
+                            }
                             fastestETA = twoCities;
                         }
                     }
@@ -3242,8 +3354,11 @@ public class PlayerTracker
                                     }
                                 }
 
-                                D.ebugPrintln("WWW # necesesary roads = "
-                                        + totalNecRoads);
+                                if (D.ebugOn)
+                                {
+                                    D.ebugPrintln(DEBUG_CATEGORY, D.DEBUG,
+                                            "WWW # necesesary roads = %s", totalNecRoads);
+                                }
                                 D
                                         .ebugPrintln("WWW this settlement eta = "
                                                 + (settlementETA + (totalNecRoads * roadETA)));
@@ -3307,8 +3422,11 @@ public class PlayerTracker
                         if (canBuild2Settlements
                                 && (twoSettlements <= fastestETA))
                         {
-                            D.ebugPrintln("WWW 2 * settlement = "
-                                    + twoSettlements);
+                            if (D.ebugOn)
+                            {
+                                D.ebugPrintln(DEBUG_CATEGORY, D.DEBUG, "WWW 2 * settlement = %s",
+                                        twoSettlements);
+                            }
                             fastestETA = twoSettlements;
                         }
                     }
@@ -3559,10 +3677,13 @@ public class PlayerTracker
                             }
                         }
 
-                        D.ebugPrintln("WWW # necesesary roads = "
-                                + totalNecRoads);
-                        D.ebugPrintln("WWW this settlement eta = "
-                                + (settlementETA + (totalNecRoads * roadETA)));
+                        if (D.ebugOn)
+                        {
+                            D.ebugPrintln(DEBUG_CATEGORY, D.DEBUG, "WWW # necesesary roads = %s",
+                                    totalNecRoads);
+                            D.ebugPrintln(DEBUG_CATEGORY, D.DEBUG, "WWW this settlement eta = %s",
+                                    (settlementETA + (totalNecRoads * roadETA)));
+                        }
 
                         // 
                         // get a more accurate estimate by taking the
@@ -3594,7 +3715,11 @@ public class PlayerTracker
 
                         if (oneOfEach <= fastestETA)
                         {
-                            D.ebugPrintln("WWW one of each = " + oneOfEach);
+                            if (D.ebugOn)
+                            {
+                                D.ebugPrintln(DEBUG_CATEGORY, D.DEBUG, "WWW one of each = %s",
+                                        oneOfEach);
+                            }
                             fastestETA = oneOfEach;
                         }
                     }
@@ -3622,7 +3747,11 @@ public class PlayerTracker
                             // /
                             // / we have largest army
                             // /
-                            D.ebugPrintln("WWW ERROR CALCULATING LA ETA");
+                            if (D.ebugOn)
+                            {
+                                D.ebugPrintln(DEBUG_CATEGORY, D.DEBUG,
+                                        "WWW ERROR CALCULATING LA ETA");
+                            }
                         }
                         else
                         {
@@ -3661,7 +3790,11 @@ public class PlayerTracker
                             tempLargestArmyETA = 500;
                         }
 
-                        D.ebugPrintln("WWW LA eta = " + tempLargestArmyETA);
+                        if (D.ebugOn)
+                        {
+                            D.ebugPrintln(DEBUG_CATEGORY, D.DEBUG, "WWW LA eta = %s",
+                                    tempLargestArmyETA);
+                        }
 
                         if (tempLargestArmyETA < fastestETA)
                         {
@@ -3678,7 +3811,11 @@ public class PlayerTracker
                     if (!haveLR && !needLR && (points > 5))
                     {
                         tempLongestRoadETA = roadETA * roadsToGo;
-                        D.ebugPrintln("WWW LR eta = " + tempLongestRoadETA);
+                        if (D.ebugOn)
+                        {
+                            D.ebugPrintln(DEBUG_CATEGORY, D.DEBUG, "WWW LR eta = %s",
+                                    tempLongestRoadETA);
+                        }
 
                         if (tempLongestRoadETA < fastestETA)
                         {
@@ -3689,11 +3826,19 @@ public class PlayerTracker
                     // /
                     // / implement the fastest scenario
                     // /
-                    D.ebugPrintln("WWW Adding " + fastestETA + " to win eta");
+                    if (D.ebugOn)
+                    {
+                        D.ebugPrintln(DEBUG_CATEGORY, D.DEBUG, "WWW Adding %s to win eta",
+                                fastestETA);
+                    }
                     points += 2;
                     winGameETA += fastestETA;
-                    D.ebugPrintln("WWW WGETA SO FAR FOR PLAYER "
-                            + player.getPlayerNumber() + " = " + winGameETA);
+                    if (D.ebugOn)
+                    {
+                        D.ebugPrintln(DEBUG_CATEGORY, D.DEBUG,
+                                "WWW WGETA SO FAR FOR PLAYER %s = %s", player.getPlayerNumber(),
+                                winGameETA);
+                    }
 
                     if ((settlementPiecesLeft > 1) && (posSetsCopy.size() > 1)
                             && (canBuild2Settlements)
@@ -3764,13 +3909,14 @@ public class PlayerTracker
                         roadETA = ourBuildingSpeed[BuildingSpeedEstimate.ROAD];
                         cityETA = ourBuildingSpeed[BuildingSpeedEstimate.CITY];
                         cardETA = ourBuildingSpeed[BuildingSpeedEstimate.CARD];
-                        D.ebugPrintln("WWW  * build two settlements");
-                        D.ebugPrintln("WWW    settlement 1: "
-                                + board.nodeCoordToString(chosenSet[0]
-                                        .getCoordinates()));
-                        D.ebugPrintln("WWW    settlement 2: "
-                                + board.nodeCoordToString(chosenSet[1]
-                                        .getCoordinates()));
+                        if (D.ebugOn)
+                        {
+                            D.ebugPrintln(DEBUG_CATEGORY, D.DEBUG, "WWW  * build two settlements");
+                            D.ebugPrintln(DEBUG_CATEGORY, D.DEBUG, "WWW    settlement 1: %s",
+                                    board.nodeCoordToString(chosenSet[0].getCoordinates()));
+                            D.ebugPrintln(DEBUG_CATEGORY, D.DEBUG, "WWW    settlement 2: %s",
+                                    board.nodeCoordToString(chosenSet[1].getCoordinates()));
+                        }
 
                         if (brain.getDRecorder().isOn())
                         {
@@ -3844,13 +3990,15 @@ public class PlayerTracker
                         roadETA = ourBuildingSpeed[BuildingSpeedEstimate.ROAD];
                         cityETA = ourBuildingSpeed[BuildingSpeedEstimate.CITY];
                         cardETA = ourBuildingSpeed[BuildingSpeedEstimate.CARD];
-                        D.ebugPrintln("WWW  * build a settlement and a city");
-                        D.ebugPrintln("WWW    settlement at "
-                                + board.nodeCoordToString(chosenSet[0]
-                                        .getCoordinates()));
-                        D.ebugPrintln("WWW    city at "
-                                + board.nodeCoordToString(chosenCity[0]
-                                        .getCoordinates()));
+                        if (D.ebugOn)
+                        {
+                            D.ebugPrintln(DEBUG_CATEGORY, D.DEBUG,
+                                    "WWW  * build a settlement and a city");
+                            D.ebugPrintln(DEBUG_CATEGORY, D.DEBUG, "WWW    settlement at %s",
+                                    board.nodeCoordToString(chosenSet[0].getCoordinates()));
+                            D.ebugPrintln(DEBUG_CATEGORY, D.DEBUG, "WWW    city at %s",
+                                    board.nodeCoordToString(chosenCity[0].getCoordinates()));
+                        }
 
                         if (brain.getDRecorder().isOn())
                         {
@@ -3911,8 +4059,11 @@ public class PlayerTracker
                                     .next();
                             tempPlayerNumbers.updateNumbers(posCity1
                                     .getCoordinates(), board);
-                            D.ebugPrintln("tempPlayerNumbers = "
-                                    + tempPlayerNumbers);
+                            if (D.ebugOn)
+                            {
+                                D.ebugPrintln(DEBUG_CATEGORY, D.DEBUG, "tempPlayerNumbers = %s",
+                                        tempPlayerNumbers);
+                            }
                             tempBSE.recalculateEstimates(tempPlayerNumbers);
 
                             int[] tempBuildingSpeed = tempBSE
@@ -3922,12 +4073,15 @@ public class PlayerTracker
                             // boolean ok = true;
                             for (int buildingType = BuildingSpeedEstimate.MIN; buildingType < BuildingSpeedEstimate.MAXPLUSONE; buildingType++)
                             {
-                                D.ebugPrintln("ourBuildingSpeed["
-                                        + buildingType + "] = "
-                                        + ourBuildingSpeed[buildingType]);
-                                D.ebugPrintln("tempBuildingSpeed["
-                                        + buildingType + "] = "
-                                        + tempBuildingSpeed[buildingType]);
+                                if (D.ebugOn)
+                                {
+                                    D.ebugPrintln(DEBUG_CATEGORY, D.DEBUG,
+                                            "ourBuildingSpeed[%s] = %s", buildingType,
+                                            ourBuildingSpeed[buildingType]);
+                                    D.ebugPrintln(DEBUG_CATEGORY, D.DEBUG,
+                                            "tempBuildingSpeed[%s] = %s", buildingType,
+                                            tempBuildingSpeed[buildingType]);
+                                }
 
                                 if ((ourBuildingSpeed[buildingType] - tempBuildingSpeed[buildingType]) >= 0)
                                 {
@@ -3955,13 +4109,15 @@ public class PlayerTracker
                             // }
                             tempPlayerNumbers.undoUpdateNumbers(posCity1
                                     .getCoordinates(), board);
-                            D.ebugPrintln("tempPlayerNumbers = "
-                                    + tempPlayerNumbers);
-                            D.ebugPrintln("WWW City at "
-                                    + board.nodeCoordToString(posCity1
-                                            .getCoordinates())
-                                    + " has tempSpeedupTotal = "
-                                    + tempSpeedupTotal);
+                            if (D.ebugOn)
+                            {
+                                D.ebugPrintln(DEBUG_CATEGORY, D.DEBUG, "tempPlayerNumbers = %s",
+                                        tempPlayerNumbers);
+                                D.ebugPrintln(DEBUG_CATEGORY, D.DEBUG,
+                                        "WWW City at %s has tempSpeedupTotal = %s",
+                                        board.nodeCoordToString(posCity1.getCoordinates()),
+                                        tempSpeedupTotal);
+                            }
 
                             if (tempSpeedupTotal >= bestCitySpeedupTotal)
                             {
@@ -3993,13 +4149,14 @@ public class PlayerTracker
                         roadETA = ourBuildingSpeed[BuildingSpeedEstimate.ROAD];
                         cityETA = ourBuildingSpeed[BuildingSpeedEstimate.CITY];
                         cardETA = ourBuildingSpeed[BuildingSpeedEstimate.CARD];
-                        D.ebugPrintln("WWW  * build 2 cities");
-                        D.ebugPrintln("WWW    city 1: "
-                                + board.nodeCoordToString(chosenCity[0]
-                                        .getCoordinates()));
-                        D.ebugPrintln("WWW    city 2: "
-                                + board.nodeCoordToString(chosenCity[1]
-                                        .getCoordinates()));
+                        if (D.ebugOn)
+                        {
+                            D.ebugPrintln(DEBUG_CATEGORY, D.DEBUG, "WWW  * build 2 cities");
+                            D.ebugPrintln(DEBUG_CATEGORY, D.DEBUG, "WWW    city 1: %s",
+                                    board.nodeCoordToString(chosenCity[0].getCoordinates()));
+                            D.ebugPrintln(DEBUG_CATEGORY, D.DEBUG, "WWW    city 2: %s",
+                                    board.nodeCoordToString(chosenCity[1].getCoordinates()));
+                        }
 
                         if (brain.getDRecorder().isOn())
                         {
@@ -4021,7 +4178,10 @@ public class PlayerTracker
                             && (fastestETA == tempLongestRoadETA))
                     {
                         needLR = true;
-                        D.ebugPrintln("WWW  * take longest road");
+                        if (D.ebugOn)
+                        {
+                            D.ebugPrintln(DEBUG_CATEGORY, D.DEBUG, "WWW  * take longest road");
+                        }
 
                         if (brain.getDRecorder().isOn())
                         {
@@ -4033,7 +4193,10 @@ public class PlayerTracker
                             && (fastestETA == tempLargestArmyETA))
                     {
                         needLA = true;
-                        D.ebugPrintln("WWW  * take largest army");
+                        if (D.ebugOn)
+                        {
+                            D.ebugPrintln(DEBUG_CATEGORY, D.DEBUG, "WWW  * take largest army");
+                        }
 
                         if (brain.getDRecorder().isOn())
                         {
@@ -4044,8 +4207,11 @@ public class PlayerTracker
                 }
             }
 
-            D.ebugPrintln("WWW TOTAL WGETA FOR PLAYER "
-                    + player.getPlayerNumber() + " = " + winGameETA);
+            if (D.ebugOn)
+            {
+                D.ebugPrintln(DEBUG_CATEGORY, D.DEBUG, "WWW TOTAL WGETA FOR PLAYER %s = %s",
+                        player.getPlayerNumber(), winGameETA);
+            }
 
             if (brain.getDRecorder().isOn())
             {
@@ -4195,12 +4361,12 @@ public class PlayerTracker
             while (trackersIter.hasNext())
             {
                 PlayerTracker tracker = (PlayerTracker) trackersIter.next();
-                D.ebugPrintln("%%%%%%%%% TRACKER FOR PLAYER "
-                        + tracker.getPlayer().getPlayerNumber());
-                D.ebugPrintln("   LONGEST ROAD ETA = "
-                        + tracker.getLongestRoadETA());
-                D.ebugPrintln("   LARGEST ARMY ETA = "
-                        + tracker.getLargestArmyETA());
+                D.ebugPrintln(DEBUG_CATEGORY, D.DEBUG, "%%%%%%%%%%%%%%%%%% TRACKER FOR PLAYER %s",
+                        tracker.getPlayer().getPlayerNumber());
+                D.ebugPrintln(DEBUG_CATEGORY, D.DEBUG, "   LONGEST ROAD ETA = %s",
+                        tracker.getLongestRoadETA());
+                D.ebugPrintln(DEBUG_CATEGORY, D.DEBUG, "   LARGEST ARMY ETA = %s",
+                        tracker.getLargestArmyETA());
 
                 Iterator prIter = tracker.getPossibleRoads().values()
                         .iterator();
@@ -4208,22 +4374,21 @@ public class PlayerTracker
                 while (prIter.hasNext())
                 {
                     PossibleRoad pr = (PossibleRoad) prIter.next();
-                    D.ebugPrintln("%%% possible road at "
-                            + Integer.toHexString(pr.getCoordinates()));
-                    D.ebugPrint("   eta:" + pr.getETA());
-                    D.ebugPrint("   this road needs:");
+                    D.ebugPrintln(DEBUG_CATEGORY, D.DEBUG, "%%%%%% possible road at %s",
+                            Integer.toHexString(pr.getCoordinates()));
+                    D.ebugPrint(DEBUG_CATEGORY, D.DEBUG, "   eta:%s", pr.getETA());
+                    D.ebugPrint(DEBUG_CATEGORY, D.DEBUG, "   this road needs:");
 
                     Enumeration nrEnum = pr.getNecessaryRoads().elements();
 
                     while (nrEnum.hasMoreElements())
                     {
-                        D.ebugPrint(" "
-                                + Integer.toHexString(((PossiblePiece) nrEnum
-                                        .nextElement()).getCoordinates()));
+                        D.ebugPrint(DEBUG_CATEGORY, D.DEBUG, " %s",
+                                Integer.toHexString(((PossiblePiece) nrEnum.nextElement()).getCoordinates()));
                     }
 
-                    D.ebugPrintln();
-                    D.ebugPrint("   this road supports:");
+                    D.ebugPrintln(DEBUG_CATEGORY, D.DEBUG, "");
+                    D.ebugPrint(DEBUG_CATEGORY, D.DEBUG, "   this road supports:");
 
                     Enumeration newPosEnum = pr.getNewPossibilities()
                             .elements();
@@ -4238,8 +4403,8 @@ public class PlayerTracker
                                                         .getCoordinates()));
                     }
 
-                    D.ebugPrintln();
-                    D.ebugPrint("   threats:");
+                    D.ebugPrintln(DEBUG_CATEGORY, D.DEBUG, "");
+                    D.ebugPrint(DEBUG_CATEGORY, D.DEBUG, "   threats:");
 
                     Enumeration threatEnum = pr.getThreats().elements();
 
@@ -4247,14 +4412,14 @@ public class PlayerTracker
                     {
                         PossiblePiece threat = (PossiblePiece) threatEnum
                                 .nextElement();
-                        D.ebugPrint(" " + threat.getPlayer().getPlayerNumber()
-                                + ":" + threat.getType() + ":"
-                                + Integer.toHexString(threat.getCoordinates()));
+                        D.ebugPrint(DEBUG_CATEGORY, D.DEBUG, " %s:%s:%s",
+                                threat.getPlayer().getPlayerNumber(), threat.getType(),
+                                Integer.toHexString(threat.getCoordinates()));
                     }
 
-                    D.ebugPrintln();
-                    D.ebugPrintln("   LR value=" + pr.getLRValue()
-                            + " LR Potential=" + pr.getLRPotential());
+                    D.ebugPrintln(DEBUG_CATEGORY, D.DEBUG, "");
+                    D.ebugPrintln(DEBUG_CATEGORY, D.DEBUG, "   LR value=%s LR Potential=%s",
+                            pr.getLRValue(), pr.getLRPotential());
                 }
 
                 Iterator psIter = tracker.getPossibleSettlements().values()
@@ -4263,10 +4428,10 @@ public class PlayerTracker
                 while (psIter.hasNext())
                 {
                     PossibleSettlement ps = (PossibleSettlement) psIter.next();
-                    D.ebugPrintln("%%% possible settlement at "
-                            + Integer.toHexString(ps.getCoordinates()));
-                    D.ebugPrint("   eta:" + ps.getETA());
-                    D.ebugPrint("%%%   conflicts");
+                    D.ebugPrintln(DEBUG_CATEGORY, D.DEBUG, "%%%%%% possible settlement at %s",
+                            Integer.toHexString(ps.getCoordinates()));
+                    D.ebugPrint(DEBUG_CATEGORY, D.DEBUG, "   eta:%s", ps.getETA());
+                    D.ebugPrint(DEBUG_CATEGORY, D.DEBUG, "%%%   conflicts");
 
                     Enumeration conflictEnum = ps.getConflicts().elements();
 
@@ -4283,20 +4448,20 @@ public class PlayerTracker
                                                 .getCoordinates()));
                     }
 
-                    D.ebugPrintln();
-                    D.ebugPrint("%%%   necessary roads");
+                    D.ebugPrintln(DEBUG_CATEGORY, D.DEBUG, "");
+                    D.ebugPrint(DEBUG_CATEGORY, D.DEBUG, "%%%   necessary roads");
 
                     Enumeration nrEnum = ps.getNecessaryRoads().elements();
 
                     while (nrEnum.hasMoreElements())
                     {
                         PossibleRoad nr = (PossibleRoad) nrEnum.nextElement();
-                        D.ebugPrint(" "
-                                + Integer.toHexString(nr.getCoordinates()));
+                        D.ebugPrint(DEBUG_CATEGORY, D.DEBUG, " %s",
+                                Integer.toHexString(nr.getCoordinates()));
                     }
 
-                    D.ebugPrintln();
-                    D.ebugPrint("   threats:");
+                    D.ebugPrintln(DEBUG_CATEGORY, D.DEBUG, "");
+                    D.ebugPrint(DEBUG_CATEGORY, D.DEBUG, "   threats:");
 
                     Enumeration threatEnum = ps.getThreats().elements();
 
@@ -4304,12 +4469,12 @@ public class PlayerTracker
                     {
                         PossiblePiece threat = (PossiblePiece) threatEnum
                                 .nextElement();
-                        D.ebugPrint(" " + threat.getPlayer().getPlayerNumber()
-                                + ":" + threat.getType() + ":"
-                                + Integer.toHexString(threat.getCoordinates()));
+                        D.ebugPrint(DEBUG_CATEGORY, D.DEBUG, " %s:%s:%s",
+                                threat.getPlayer().getPlayerNumber(), threat.getType(),
+                                Integer.toHexString(threat.getCoordinates()));
                     }
 
-                    D.ebugPrintln();
+                    D.ebugPrintln(DEBUG_CATEGORY, D.DEBUG, "");
                 }
 
                 Iterator pcIter = tracker.getPossibleCities().values()
@@ -4318,9 +4483,9 @@ public class PlayerTracker
                 while (pcIter.hasNext())
                 {
                     PossibleCity pc = (PossibleCity) pcIter.next();
-                    D.ebugPrintln("%%% possible city at "
-                            + Integer.toHexString(pc.getCoordinates()));
-                    D.ebugPrintln("   eta:" + pc.getETA());
+                    D.ebugPrintln(DEBUG_CATEGORY, D.DEBUG, "%%%%%% possible city at %s",
+                            Integer.toHexString(pc.getCoordinates()));
+                    D.ebugPrintln(DEBUG_CATEGORY, D.DEBUG, "   eta:%s", pc.getETA());
                 }
             }
         }
@@ -32,6 +32,7 @@ import soc.game.City;
 import soc.game.DevCardConstants;
 import soc.game.DevCardSet;
 import soc.game.Game;
+import soc.game.GameOptionSet;
 import soc.game.Player;
 import soc.game.PlayerNumbers;
 import soc.game.PlayingPiece;
@@ -76,6 +77,12 @@ import soc.util.RobotParameters;
  */
 public class RobotBrain extends Thread
 {
+    /**
+     * Category of this class's debug output, see {@link D#ebugGetLevel(String)}.
+     * @since 1.1.09
+     */
+    private static final String DEBUG_CATEGORY = "robot.brain";
+
     /**
      * The robot parameters
      */
@@ -763,8 +770,8 @@ public class RobotBrain extends Thread
                     if (mes != null)
                     {
                         mesType = mes.getType();
-                        if (mesType != Message.GAMETEXTMSG)
-                            D.ebugPrintln("mes - " + mes);
+                        if (D.ebugOn && (mesType != Message.GAMETEXTMSG))
+                            D.ebugPrintln(DEBUG_CATEGORY, D.DEBUG, "mes - %s", mes);
 
                         // Debug aid: when looking at message contents: avoid
                         // pings:
@@ -1578,7 +1585,11 @@ public class RobotBrain extends Thread
                 if (alive
                         && ((game == null) || (game.getGameState() != Game.RESET_OLD)))
                 {
-                    D.ebugPrintln("*** Robot caught an exception - " + e);
+                    if (D.ebugOn)
+                    {
+                        D.ebugPrintln(DEBUG_CATEGORY, D.DEBUG, "*** Robot caught an exception - %s",
+                                e);
+                    }
                     System.out.println("*** Robot caught an exception - " + e);
                     e.printStackTrace();
                 }
@@ -2259,8 +2270,11 @@ public class RobotBrain extends Thread
             else
             {
                 // Should not occur
-                D.ebugPrintln("Unexpected CANCELBUILDREQUEST at state "
-                        + gstate);
+                if (D.ebugOn)
+                {
+                    D.ebugPrintln(DEBUG_CATEGORY, D.DEBUG,
+                            "Unexpected CANCELBUILDREQUEST at state %s", gstate);
+                }
             }
 
         } // switch (gameState)
@@ -2294,8 +2308,11 @@ public class RobotBrain extends Thread
         {
             if (giveSet.getAmount(rsrcType) > 0)
             {
-                D.ebugPrintln("%%% player " + offer.getFrom()
-                        + " wants to sell " + rsrcType);
+                if (D.ebugOn)
+                {
+                    D.ebugPrintln(DEBUG_CATEGORY, D.DEBUG, "%%%%%% player %s wants to sell %s",
+                            offer.getFrom(), rsrcType);
+                }
                 negotiator.markAsWantsAnotherOffer(offer.getFrom(), rsrcType);
             }
         }
@@ -2310,9 +2327,12 @@ public class RobotBrain extends Thread
         {
             if (getSet.getAmount(rsrcType) > 0)
             {
-                D.ebugPrintln("%%% player " + offer.getFrom()
-                        + " wants to buy " + rsrcType
-                        + " and therefore does not want to sell it");
+                if (D.ebugOn)
+                {
+                    D.ebugPrintln(DEBUG_CATEGORY, D.DEBUG,
+                            "%%%%%% player %s wants to buy %s and therefore does not want to sell it",
+                            offer.getFrom(), rsrcType);
+                }
                 negotiator.markAsNotSelling(offer.getFrom(), rsrcType);
             }
         }
@@ -2322,8 +2342,11 @@ public class RobotBrain extends Thread
             offerRejections[offer.getFrom()] = true;
 
             boolean everyoneRejected = true;
-            D.ebugPrintln("ourPlayerData.getCurrentOffer() = "
-                    + ourPlayerData.getCurrentOffer());
+            if (D.ebugOn)
+            {
+                D.ebugPrintln(DEBUG_CATEGORY, D.DEBUG, "ourPlayerData.getCurrentOffer() = %s",
+                        ourPlayerData.getCurrentOffer());
+            }
 
             if (ourPlayerData.getCurrentOffer() != null)
             {
@@ -2331,15 +2354,21 @@ public class RobotBrain extends Thread
 
                 for (int i = 0; i < game.maxPlayers; i++)
                 {
-                    D.ebugPrintln("offerRejections[" + i + "]="
-                            + offerRejections[i]);
+                    if (D.ebugOn)
+                    {
+                        D.ebugPrintln(DEBUG_CATEGORY, D.DEBUG, "offerRejections[%s]=%s",
+                                i, offerRejections[i]);
+                    }
 
                     if (offeredTo[i] && !offerRejections[i])
                         everyoneRejected = false;
                 }
             }
 
-            D.ebugPrintln("everyoneRejected=" + everyoneRejected);
+            if (D.ebugOn)
+            {
+                D.ebugPrintln(DEBUG_CATEGORY, D.DEBUG, "everyoneRejected=%s", everyoneRejected);
+            }
 
             if (everyoneRejected)
             {
@@ -2354,7 +2383,11 @@ public class RobotBrain extends Thread
         // /
         int ourResponseToOffer = considerOffer(offer);
 
-        D.ebugPrintln("%%% ourResponseToOffer = " + ourResponseToOffer);
+        if (D.ebugOn)
+        {
+            D.ebugPrintln(DEBUG_CATEGORY, D.DEBUG, "%%%%%% ourResponseToOffer = %s",
+                    ourResponseToOffer);
+        }
 
         if (ourResponseToOffer < 0)
             return;
@@ -2411,7 +2444,10 @@ public class RobotBrain extends Thread
         if ((ourPlayerData.getCurrentOffer() != null)
                 && (waitingForTradeResponse))
         {
-            D.ebugPrintln("%%%%%%%%% REJECT OFFER %%%%%%%%%%%%%");
+            if (D.ebugOn)
+            {
+                D.ebugPrintln(DEBUG_CATEGORY, D.DEBUG, "%%%%%%%%% REJECT OFFER %%%%%%%%%%%%%");
+            }
 
             // /
             // / record which player said no
@@ -2428,21 +2464,30 @@ public class RobotBrain extends Thread
             offerRejections[mes.getPlayerNumber()] = true;
 
             boolean everyoneRejected = true;
-            D.ebugPrintln("ourPlayerData.getCurrentOffer() = "
-                    + ourPlayerData.getCurrentOffer());
+            if (D.ebugOn)
+            {
+                D.ebugPrintln(DEBUG_CATEGORY, D.DEBUG, "ourPlayerData.getCurrentOffer() = %s",
+                        ourPlayerData.getCurrentOffer());
+            }
 
             boolean[] offeredTo = ourPlayerData.getCurrentOffer().getTo();
 
             for (int i = 0; i < game.maxPlayers; i++)
             {
-                D.ebugPrintln("offerRejections[" + i + "]="
-                        + offerRejections[i]);
+                if (D.ebugOn)
+                {
+                    D.ebugPrintln(DEBUG_CATEGORY, D.DEBUG, "offerRejections[%s]=%s",
+                            i, offerRejections[i]);
+                }
 
                 if (offeredTo[i] && !offerRejections[i])
                     everyoneRejected = false;
             }
 
-            D.ebugPrintln("everyoneRejected=" + everyoneRejected);
+            if (D.ebugOn)
+            {
+                D.ebugPrintln(DEBUG_CATEGORY, D.DEBUG, "everyoneRejected=%s", everyoneRejected);
+            }
 
             if (everyoneRejected)
             {
@@ -2456,7 +2501,10 @@ public class RobotBrain extends Thread
             // /
             // / we also want to watch rejections of other players' offers
             // /
-            D.ebugPrintln("%%%% ALT REJECT OFFER %%%%");
+            if (D.ebugOn)
+            {
+                D.ebugPrintln(DEBUG_CATEGORY, D.DEBUG, "%%%% ALT REJECT OFFER %%%%");
+            }
 
             for (int pn = 0; pn < game.maxPlayers; pn++)
             {
@@ -2641,7 +2689,10 @@ public class RobotBrain extends Thread
     private void buildRequestPlannedPiece(PossiblePiece targetPiece)
     {
         buildingPlan.pop();
-        D.ebugPrintln("$ POPPED " + targetPiece);
+        if (D.ebugOn)
+        {
+            D.ebugPrintln(DEBUG_CATEGORY, D.DEBUG, "$ POPPED %s", targetPiece);
+        }
         lastMove = targetPiece;
         currentDRecorder = (currentDRecorder + 1) % 2;
         negotiator.setTargetPiece(ourPlayerData.getPlayerNumber(), targetPiece);
@@ -2662,9 +2713,11 @@ public class RobotBrain extends Thread
                     .getCoordinates(), null);
             if (!whatWeWantToBuild.equals(whatWeFailedToBuild))
             {
-                D.ebugPrintln("!!! BUILD REQUEST FOR A ROAD AT "
-                        + Integer.toHexString(targetPiece.getCoordinates())
-                        + " !!!");
+                if (D.ebugOn)
+                {
+                    D.ebugPrintln(DEBUG_CATEGORY, D.DEBUG, "!!! BUILD REQUEST FOR A ROAD AT %s !!!",
+                            Integer.toHexString(targetPiece.getCoordinates()));
+                }
                 client.buildRequest(game, PlayingPiece.ROAD);
             }
             else
@@ -2684,9 +2737,12 @@ public class RobotBrain extends Thread
                     .getCoordinates(), null);
             if (!whatWeWantToBuild.equals(whatWeFailedToBuild))
             {
-                D.ebugPrintln("!!! BUILD REQUEST FOR A SETTLEMENT "
-                        + Integer.toHexString(targetPiece.getCoordinates())
-                        + " !!!");
+                if (D.ebugOn)
+                {
+                    D.ebugPrintln(DEBUG_CATEGORY, D.DEBUG,
+                            "!!! BUILD REQUEST FOR A SETTLEMENT %s !!!",
+                            Integer.toHexString(targetPiece.getCoordinates()));
+                }
                 client.buildRequest(game, PlayingPiece.SETTLEMENT);
             }
             else
@@ -2706,9 +2762,11 @@ public class RobotBrain extends Thread
                     .getCoordinates(), null);
             if (!whatWeWantToBuild.equals(whatWeFailedToBuild))
             {
-                D.ebugPrintln("!!! BUILD REQUEST FOR A CITY "
-                        + Integer.toHexString(targetPiece.getCoordinates())
-                        + " !!!");
+                if (D.ebugOn)
+                {
+                    D.ebugPrintln(DEBUG_CATEGORY, D.DEBUG, "!!! BUILD REQUEST FOR A CITY %s !!!",
+                            Integer.toHexString(targetPiece.getCoordinates()));
+                }
                 client.buildRequest(game, PlayingPiece.CITY);
             }
             else
@@ -3565,7 +3623,10 @@ public class RobotBrain extends Thread
      */
     protected void planInitialSettlements()
     {
-        D.ebugPrintln("--- planInitialSettlements");
+        if (D.ebugOn)
+        {
+            D.ebugPrintln(DEBUG_CATEGORY, D.DEBUG, "--- planInitialSettlements");
+        }
 
         int[] rolls;
         Enumeration hexes;
@@ -3596,10 +3657,13 @@ public class RobotBrain extends Thread
                 //
                 // this is just for testing purposes
                 //
-                D.ebugPrintln("FIRST NODE -----------");
-                D.ebugPrintln("firstNode = "
-                        + board.nodeCoordToString(firstNode));
-                D.ebugPrint("numbers:[");
+                if (D.ebugOn)
+                {
+                    D.ebugPrintln(DEBUG_CATEGORY, D.DEBUG, "FIRST NODE -----------");
+                    D.ebugPrintln(DEBUG_CATEGORY, D.DEBUG, "firstNode = %s",
+                            board.nodeCoordToString(firstNode));
+                    D.ebugPrint(DEBUG_CATEGORY, D.DEBUG, "numbers:[");
+                }
                 playerNumbers.clear();
                 probTotal = 0;
                 hexes = Board.getAdjacentHexesToNode(firstNode).elements();
@@ -3612,11 +3676,17 @@ public class RobotBrain extends Thread
                     playerNumbers.addNumberForResource(number, resource, hex
                             .intValue());
                     probTotal += prob[number];
-                    D.ebugPrint(number + " ");
+                    if (D.ebugOn)
+                    {
+                        D.ebugPrint(DEBUG_CATEGORY, D.DEBUG, "%s ", number);
+                    }
                 }
 
-                D.ebugPrintln("]");
-                D.ebugPrint("ports: ");
+                if (D.ebugOn)
+                {
+                    D.ebugPrintln(DEBUG_CATEGORY, D.DEBUG, "]");
+                    D.ebugPrint(DEBUG_CATEGORY, D.DEBUG, "ports: ");
+                }
 
                 for (int portType = Board.MISC_PORT; portType <= Board.WOOD_PORT; portType++)
                 {
@@ -3630,11 +3700,17 @@ public class RobotBrain extends Thread
                         ports[portType] = false;
                     }
 
-                    D.ebugPrint(ports[portType] + "  ");
+                    if (D.ebugOn)
+                    {
+                        D.ebugPrint(DEBUG_CATEGORY, D.DEBUG, "%s  ", ports[portType]);
+                    }
                 }
 
-                D.ebugPrintln();
-                D.ebugPrintln("probTotal = " + probTotal);
+                if (D.ebugOn)
+                {
+                    D.ebugPrintln(DEBUG_CATEGORY, D.DEBUG, "");
+                    D.ebugPrintln(DEBUG_CATEGORY, D.DEBUG, "probTotal = %s", probTotal);
+                }
                 estimate.recalculateEstimates(playerNumbers);
                 speed = 0;
                 allTheWay = false;
@@ -3655,12 +3731,18 @@ public class RobotBrain extends Thread
                 }
 
                 rolls = estimate.getEstimatesFromNothingFast(ports, 300);
-                D.ebugPrint(" road: " + rolls[BuildingSpeedEstimate.ROAD]);
-                D.ebugPrint(" stlmt: "
-                        + rolls[BuildingSpeedEstimate.SETTLEMENT]);
-                D.ebugPrint(" city: " + rolls[BuildingSpeedEstimate.CITY]);
-                D.ebugPrintln(" card: " + rolls[BuildingSpeedEstimate.CARD]);
-                D.ebugPrintln("speed = " + speed);
+                if (D.ebugOn)
+                {
+                    D.ebugPrint(DEBUG_CATEGORY, D.DEBUG, " road: %s",
+                            rolls[BuildingSpeedEstimate.ROAD]);
+                    D.ebugPrint(DEBUG_CATEGORY, D.DEBUG, " stlmt: %s",
+                            rolls[BuildingSpeedEstimate.SETTLEMENT]);
+                    D.ebugPrint(DEBUG_CATEGORY, D.DEBUG, " city: %s",
+                            rolls[BuildingSpeedEstimate.CITY]);
+                    D.ebugPrintln(DEBUG_CATEGORY, D.DEBUG, " card: %s",
+                            rolls[BuildingSpeedEstimate.CARD]);
+                    D.ebugPrintln(DEBUG_CATEGORY, D.DEBUG, "speed = %s", speed);
+                }
 
                 //
                 // end test
@@ -3671,17 +3753,23 @@ public class RobotBrain extends Thread
                             && (!board.getAdjacentNodesToNode(secondNode)
                                     .contains(firstNodeInt)))
                     {
-                        D.ebugPrintln("firstNode = "
-                                + board.nodeCoordToString(firstNode));
-                        D.ebugPrintln("secondNode = "
-                                + board.nodeCoordToString(secondNode));
+                        if (D.ebugOn)
+                        {
+                            D.ebugPrintln(DEBUG_CATEGORY, D.DEBUG, "firstNode = %s",
+                                    board.nodeCoordToString(firstNode));
+                            D.ebugPrintln(DEBUG_CATEGORY, D.DEBUG, "secondNode = %s",
+                                    board.nodeCoordToString(secondNode));
+                        }
 
                         Integer secondNodeInt = new Integer(secondNode);
 
                         /**
                          * get the numbers for these settlements
                          */
-                        D.ebugPrint("numbers:[");
+                        if (D.ebugOn)
+                        {
+                            D.ebugPrint(DEBUG_CATEGORY, D.DEBUG, "numbers:[");
+                        }
                         playerNumbers.clear();
                         probTotal = 0;
                         hexes = Board.getAdjacentHexesToNode(firstNode)
@@ -3697,10 +3785,16 @@ public class RobotBrain extends Thread
                             playerNumbers.addNumberForResource(number,
                                     resource, hex.intValue());
                             probTotal += prob[number];
-                            D.ebugPrint(number + " ");
+                            if (D.ebugOn)
+                            {
+                                D.ebugPrint(DEBUG_CATEGORY, D.DEBUG, "%s ", number);
+                            }
                         }
 
-                        D.ebugPrint("] [");
+                        if (D.ebugOn)
+                        {
+                            D.ebugPrint(DEBUG_CATEGORY, D.DEBUG, "] [");
+                        }
                         hexes = Board.getAdjacentHexesToNode(secondNode)
                                 .elements();
 
@@ -3714,15 +3808,24 @@ public class RobotBrain extends Thread
                             playerNumbers.addNumberForResource(number,
                                     resource, hex.intValue());
                             probTotal += prob[number];
-                            D.ebugPrint(number + " ");
+                            if (D.ebugOn)
+                            {
+                                D.ebugPrint(DEBUG_CATEGORY, D.DEBUG, "%s ", number);
+                            }
                         }
 
-                        D.ebugPrintln("]");
+                        if (D.ebugOn)
+                        {
+                            D.ebugPrintln(DEBUG_CATEGORY, D.DEBUG, "]");
+                        }
 
                         /**
                          * see if the settlements are on any ports
                          */
-                        D.ebugPrint("ports: ");
+                        if (D.ebugOn)
+                        {
+                            D.ebugPrint(DEBUG_CATEGORY, D.DEBUG, "ports: ");
+                        }
 
                         for (int portType = Board.MISC_PORT; portType <= Board.WOOD_PORT; portType++)
                         {
@@ -3738,11 +3841,17 @@ public class RobotBrain extends Thread
                                 ports[portType] = false;
                             }
 
-                            D.ebugPrint(ports[portType] + "  ");
+                            if (D.ebugOn)
+                            {
+                                D.ebugPrint(DEBUG_CATEGORY, D.DEBUG, "%s  ", ports[portType]);
+                            }
                         }
 
-                        D.ebugPrintln();
-                        D.ebugPrintln("probTotal = " + probTotal);
+                        if (D.ebugOn)
+                        {
+                            D.ebugPrintln(DEBUG_CATEGORY, D.DEBUG, "");
+                            D.ebugPrintln(DEBUG_CATEGORY, D.DEBUG, "probTotal = %s", probTotal);
+                        }
 
                         /**
                          * estimate the building speed for this pair
@@ -3786,16 +3895,19 @@ public class RobotBrain extends Thread
 
                         rolls = estimate.getEstimatesFromNothingFast(ports,
                                 bestSpeed);
-                        D.ebugPrint(" road: "
-                                + rolls[BuildingSpeedEstimate.ROAD]);
-                        D.ebugPrint(" stlmt: "
-                                + rolls[BuildingSpeedEstimate.SETTLEMENT]);
-                        D.ebugPrint(" city: "
-                                + rolls[BuildingSpeedEstimate.CITY]);
-                        D.ebugPrintln(" card: "
-                                + rolls[BuildingSpeedEstimate.CARD]);
-                        D.ebugPrintln("allTheWay = " + allTheWay);
-                        D.ebugPrintln("speed = " + speed);
+                        if (D.ebugOn)
+                        {
+                            D.ebugPrint(DEBUG_CATEGORY, D.DEBUG, " road: %s",
+                                    rolls[BuildingSpeedEstimate.ROAD]);
+                            D.ebugPrint(DEBUG_CATEGORY, D.DEBUG, " stlmt: %s",
+                                    rolls[BuildingSpeedEstimate.SETTLEMENT]);
+                            D.ebugPrint(DEBUG_CATEGORY, D.DEBUG, " city: %s",
+                                    rolls[BuildingSpeedEstimate.CITY]);
+                            D.ebugPrintln(DEBUG_CATEGORY, D.DEBUG, " card: %s",
+                                    rolls[BuildingSpeedEstimate.CARD]);
+                            D.ebugPrintln(DEBUG_CATEGORY, D.DEBUG, "allTheWay = %s", allTheWay);
+                            D.ebugPrintln(DEBUG_CATEGORY, D.DEBUG, "speed = %s", speed);
+                        }
 
                         /**
                          * keep the settlements with the best speed
@@ -3806,27 +3918,42 @@ public class RobotBrain extends Thread
                             secondSettlement = secondNode;
                             bestSpeed = speed;
                             bestProbTotal = probTotal;
-                            D.ebugPrintln("bestSpeed = " + bestSpeed);
-                            D.ebugPrintln("bestProbTotal = " + bestProbTotal);
+                            if (D.ebugOn)
+                            {
+                                D.ebugPrintln(DEBUG_CATEGORY, D.DEBUG, "bestSpeed = %s", bestSpeed);
+                                D.ebugPrintln(DEBUG_CATEGORY, D.DEBUG, "bestProbTotal = %s",
+                                        bestProbTotal);
+                            }
                         }
                         else if ((speed == bestSpeed) && allTheWay)
                         {
                             if (probTotal > bestProbTotal)
                             {
-                                D.ebugPrintln("Equal speed, better prob");
+                                if (D.ebugOn)
+                                {
+                                    D.ebugPrintln(DEBUG_CATEGORY, D.DEBUG,
+                                            "Equal speed, better prob");
+                                }
                                 firstSettlement = firstNode;
                                 secondSettlement = secondNode;
                                 bestSpeed = speed;
                                 bestProbTotal = probTotal;
-                                D.ebugPrintln("firstSettlement = "
-                                        + Integer.toHexString(firstSettlement));
+                                if (D.ebugOn)
+                                {
+                                    D.ebugPrintln(DEBUG_CATEGORY, D.DEBUG, "firstSettlement = %s",
+                                            Integer.toHexString(firstSettlement));
+                                }
                                 D
                                         .ebugPrintln("secondSettlement = "
                                                 + Integer
                                                         .toHexString(secondSettlement));
-                                D.ebugPrintln("bestSpeed = " + bestSpeed);
-                                D.ebugPrintln("bestProbTotal = "
-                                        + bestProbTotal);
+                                if (D.ebugOn)
+                                {
+                                    D.ebugPrintln(DEBUG_CATEGORY, D.DEBUG, "bestSpeed = %s",
+                                            bestSpeed);
+                                    D.ebugPrintln(DEBUG_CATEGORY, D.DEBUG, "bestProbTotal = %s",
+                                            bestProbTotal);
+                                }
                             }
                         }
                     }
@@ -3984,9 +4111,12 @@ public class RobotBrain extends Thread
             secondSettlement = tmp;
         }
 
-        D.ebugPrintln(board.nodeCoordToString(firstSettlement) + ":"
-                + firstSpeed + ", " + board.nodeCoordToString(secondSettlement)
-                + ":" + secondSpeed);
+        if (D.ebugOn)
+        {
+            D.ebugPrintln(DEBUG_CATEGORY, D.DEBUG, "%s:%s, %s:%s",
+                    board.nodeCoordToString(firstSettlement), firstSpeed,
+                    board.nodeCoordToString(secondSettlement), secondSpeed);
+        }
     }
 
     /**
@@ -3994,7 +4124,10 @@ public class RobotBrain extends Thread
      */
     protected void planSecondSettlement()
     {
-        D.ebugPrintln("--- planSecondSettlement");
+        if (D.ebugOn)
+        {
+            D.ebugPrintln(DEBUG_CATEGORY, D.DEBUG, "--- planSecondSettlement");
+        }
 
         int bestSpeed = 4 * BuildingSpeedEstimate.DEFAULT_ROLL_LIMIT;
         Board board = game.getBoard();
@@ -4023,7 +4156,10 @@ public class RobotBrain extends Thread
                 /**
                  * get the numbers for these settlements
                  */
-                D.ebugPrint("numbers: ");
+                if (D.ebugOn)
+                {
+                    D.ebugPrint(DEBUG_CATEGORY, D.DEBUG, "numbers: ");
+                }
                 playerNumbers.clear();
                 probTotal = 0;
 
@@ -4037,7 +4173,10 @@ public class RobotBrain extends Thread
                     int resource = board.getHexTypeFromCoord(hex);
                     playerNumbers.addNumberForResource(number, resource, hex);
                     probTotal += prob[number];
-                    D.ebugPrint(number + " ");
+                    if (D.ebugOn)
+                    {
+                        D.ebugPrint(DEBUG_CATEGORY, D.DEBUG, "%s ", number);
+                    }
                 }
 
                 hexes = Board.getAdjacentHexesToNode(secondNode).elements();
@@ -4049,13 +4188,19 @@ public class RobotBrain extends Thread
                     int resource = board.getHexTypeFromCoord(hex);
                     playerNumbers.addNumberForResource(number, resource, hex);
                     probTotal += prob[number];
-                    D.ebugPrint(number + " ");
+                    if (D.ebugOn)
+                    {
+                        D.ebugPrint(DEBUG_CATEGORY, D.DEBUG, "%s ", number);
+                    }
                 }
 
                 /**
                  * see if the settlements are on any ports
                  */
-                D.ebugPrint("ports: ");
+                if (D.ebugOn)
+                {
+                    D.ebugPrint(DEBUG_CATEGORY, D.DEBUG, "ports: ");
+                }
 
                 for (int portType = Board.MISC_PORT; portType <= Board.WOOD_PORT; portType++)
                 {
@@ -4071,11 +4216,17 @@ public class RobotBrain extends Thread
                         ports[portType] = false;
                     }
 
-                    D.ebugPrint(ports[portType] + "  ");
+                    if (D.ebugOn)
+                    {
+                        D.ebugPrint(DEBUG_CATEGORY, D.DEBUG, "%s  ", ports[portType]);
+                    }
                 }
 
-                D.ebugPrintln();
-                D.ebugPrintln("probTotal = " + probTotal);
+                if (D.ebugOn)
+                {
+                    D.ebugPrintln(DEBUG_CATEGORY, D.DEBUG, "");
+                    D.ebugPrintln(DEBUG_CATEGORY, D.DEBUG, "probTotal = %s", probTotal);
+                }
 
                 /**
                  * estimate the building speed for this pair
@@ -4113,8 +4264,11 @@ public class RobotBrain extends Thread
                     speed = bestSpeed;
                 }
 
-                D.ebugPrintln(Integer.toHexString(firstNode) + ", "
-                        + Integer.toHexString(secondNode) + ":" + speed);
+                if (D.ebugOn)
+                {
+                    D.ebugPrintln(DEBUG_CATEGORY, D.DEBUG, "%s, %s:%s",
+                            Integer.toHexString(firstNode), Integer.toHexString(secondNode), speed);
+                }
 
                 /**
                  * keep the settlements with the best speed
@@ -4125,20 +4279,31 @@ public class RobotBrain extends Thread
                     secondSettlement = secondNode;
                     bestSpeed = speed;
                     bestProbTotal = probTotal;
-                    D.ebugPrintln("firstSettlement = "
-                            + Integer.toHexString(firstSettlement));
-                    D.ebugPrintln("secondSettlement = "
-                            + Integer.toHexString(secondSettlement));
+                    if (D.ebugOn)
+                    {
+                        D.ebugPrintln(DEBUG_CATEGORY, D.DEBUG, "firstSettlement = %s",
+                                Integer.toHexString(firstSettlement));
+                        D.ebugPrintln(DEBUG_CATEGORY, D.DEBUG, "secondSettlement = %s",
+                                Integer.toHexString(secondSettlement));
+                    }
 
                     int[] rolls = estimate.getEstimatesFromNothingFast(ports);
-                    D.ebugPrint("road: " + rolls[BuildingSpeedEstimate.ROAD]);
-                    D.ebugPrint(" stlmt: "
-                            + rolls[BuildingSpeedEstimate.SETTLEMENT]);
-                    D.ebugPrint(" city: " + rolls[BuildingSpeedEstimate.CITY]);
+                    if (D.ebugOn)
+                    {
+                        D.ebugPrint(DEBUG_CATEGORY, D.DEBUG, "road: %s",
+                                rolls[BuildingSpeedEstimate.ROAD]);
+                        D.ebugPrint(DEBUG_CATEGORY, D.DEBUG, " stlmt: %s",
+                                rolls[BuildingSpeedEstimate.SETTLEMENT]);
+                        D.ebugPrint(DEBUG_CATEGORY, D.DEBUG, " city: %s",
+                                rolls[BuildingSpeedEstimate.CITY]);
+                    }
                     D
                             .ebugPrintln(" card: "
                                     + rolls[BuildingSpeedEstimate.CARD]);
-                    D.ebugPrintln("bestSpeed = " + bestSpeed);
+                    if (D.ebugOn)
+                    {
+                        D.ebugPrintln(DEBUG_CATEGORY, D.DEBUG, "bestSpeed = %s", bestSpeed);
+                    }
                 }
                 else if (speed == bestSpeed)
                 {
@@ -4148,22 +4313,28 @@ public class RobotBrain extends Thread
                         secondSettlement = secondNode;
                         bestSpeed = speed;
                         bestProbTotal = probTotal;
-                        D.ebugPrintln("firstSettlement = "
-                                + Integer.toHexString(firstSettlement));
-                        D.ebugPrintln("secondSettlement = "
-                                + Integer.toHexString(secondSettlement));
+                        if (D.ebugOn)
+                        {
+                            D.ebugPrintln(DEBUG_CATEGORY, D.DEBUG, "firstSettlement = %s",
+                                    Integer.toHexString(firstSettlement));
+                            D.ebugPrintln(DEBUG_CATEGORY, D.DEBUG, "secondSettlement = %s",
+                                    Integer.toHexString(secondSettlement));
+                        }
 
                         int[] rolls = estimate
                                 .getEstimatesFromNothingFast(ports);
-                        D.ebugPrint("road: "
-                                + rolls[BuildingSpeedEstimate.ROAD]);
-                        D.ebugPrint(" stlmt: "
-                                + rolls[BuildingSpeedEstimate.SETTLEMENT]);
-                        D.ebugPrint(" city: "
-                                + rolls[BuildingSpeedEstimate.CITY]);
-                        D.ebugPrintln(" card: "
-                                + rolls[BuildingSpeedEstimate.CARD]);
-                        D.ebugPrintln("bestSpeed = " + bestSpeed);
+                        if (D.ebugOn)
+                        {
+                            D.ebugPrint(DEBUG_CATEGORY, D.DEBUG, "road: %s",
+                                    rolls[BuildingSpeedEstimate.ROAD]);
+                            D.ebugPrint(DEBUG_CATEGORY, D.DEBUG, " stlmt: %s",
+                                    rolls[BuildingSpeedEstimate.SETTLEMENT]);
+                            D.ebugPrint(DEBUG_CATEGORY, D.DEBUG, " city: %s",
+                                    rolls[BuildingSpeedEstimate.CITY]);
+                            D.ebugPrintln(DEBUG_CATEGORY, D.DEBUG, " card: %s",
+                                    rolls[BuildingSpeedEstimate.CARD]);
+                            D.ebugPrintln(DEBUG_CATEGORY, D.DEBUG, "bestSpeed = %s", bestSpeed);
+                        }
                     }
                 }
             }
@@ -4233,7 +4404,10 @@ public class RobotBrain extends Thread
          */
         Hashtable twoAway = new Hashtable();
 
-        D.ebugPrintln("--- placeInitRoad");
+        if (D.ebugOn)
+        {
+            D.ebugPrintln(DEBUG_CATEGORY, D.DEBUG, "--- placeInitRoad");
+        }
 
         /**
          * look at all of the nodes that are 2 away from the last settlement,
@@ -4292,7 +4466,10 @@ public class RobotBrain extends Thread
 
         scoreNodesForSettlements(twoAway, 3, 5, 10);
 
-        D.ebugPrintln("Init Road for " + client.getNickname());
+        if (D.ebugOn)
+        {
+            D.ebugPrintln(DEBUG_CATEGORY, D.DEBUG, "Init Road for %s", client.getNickname());
+        }
 
         /**
          * create a dummy player to calculate possible places to build taking
@@ -4307,8 +4484,12 @@ public class RobotBrain extends Thread
              * else will build first.
              */
             int numberOfBuilds = numberOfEnemyBuilds();
-            D.ebugPrintln("Other players will build " + numberOfBuilds
-                    + " settlements before I get to build again.");
+            if (D.ebugOn)
+            {
+                D.ebugPrintln(DEBUG_CATEGORY, D.DEBUG,
+                        "Other players will build %s settlements before I get to build again.",
+                        numberOfBuilds);
+            }
 
             if (numberOfBuilds > 0)
             {
@@ -4322,8 +4503,11 @@ public class RobotBrain extends Thread
                 {
                     if (ourPlayerData.isPotentialSettlement(i))
                     {
-                        D.ebugPrintln("-- potential settlement at "
-                                + Integer.toHexString(i));
+                        if (D.ebugOn)
+                        {
+                            D.ebugPrintln(DEBUG_CATEGORY, D.DEBUG, "-- potential settlement at %s",
+                                    Integer.toHexString(i));
+                        }
                         allNodes.put(new Integer(i), new Integer(0));
                     }
                 }
@@ -4372,8 +4556,11 @@ public class RobotBrain extends Thread
                 {
                     if (ourPlayerData.isPotentialSettlement(j))
                     {
-                        D.ebugPrintln("- potential settlement at "
-                                + Integer.toHexString(j));
+                        if (D.ebugOn)
+                        {
+                            D.ebugPrintln(DEBUG_CATEGORY, D.DEBUG, "- potential settlement at %s",
+                                    Integer.toHexString(j));
+                        }
                         psList.addElement(new Integer(j));
                     }
                 }
@@ -4391,9 +4578,11 @@ public class RobotBrain extends Thread
                         Integer nodeCoord = (Integer) nodesEnum.nextElement();
                         final int score = ((Integer) allNodes.get(nodeCoord))
                                 .intValue();
-                        D.ebugPrintln("NODE = "
-                                + Integer.toHexString(nodeCoord.intValue())
-                                + " SCORE = " + score);
+                        if (D.ebugOn)
+                        {
+                            D.ebugPrintln(DEBUG_CATEGORY, D.DEBUG, "NODE = %s SCORE = %s",
+                                    Integer.toHexString(nodeCoord.intValue()), score);
+                        }
 
                         if (bestNodePair.getScore() < score)
                         {
@@ -4428,9 +4617,11 @@ public class RobotBrain extends Thread
             Integer coord = (Integer) keynum.nextElement();
             final int score = ((Integer) twoAway.get(coord)).intValue();
 
-            D.ebugPrintln("Considering "
-                    + Integer.toHexString(coord.intValue())
-                    + " with a score of " + score);
+            if (D.ebugOn)
+            {
+                D.ebugPrintln(DEBUG_CATEGORY, D.DEBUG, "Considering %s with a score of %s",
+                        Integer.toHexString(coord.intValue()), score);
+            }
 
             if (dummy.isPotentialSettlement(coord.intValue()))
             {
@@ -4442,7 +4633,10 @@ public class RobotBrain extends Thread
             }
             else
             {
-                D.ebugPrintln("Someone is bound to ruin that spot.");
+                if (D.ebugOn)
+                {
+                    D.ebugPrintln(DEBUG_CATEGORY, D.DEBUG, "Someone is bound to ruin that spot.");
+                }
             }
         }
 
@@ -4775,7 +4969,10 @@ public class RobotBrain extends Thread
      */
     protected void moveRobber()
     {
-        D.ebugPrintln("%%% MOVEROBBER");
+        if (D.ebugOn)
+        {
+            D.ebugPrintln(DEBUG_CATEGORY, D.DEBUG, "%%% MOVEROBBER");
+        }
 
         final int[] hexes = game.getBoard().getHexLandCoords();
 
@@ -4792,19 +4989,30 @@ public class RobotBrain extends Thread
         while (trackersIter.hasNext())
         {
             PlayerTracker tracker = (PlayerTracker) trackersIter.next();
-            D.ebugPrintln("%%%%%%%%% TRACKER FOR PLAYER "
-                    + tracker.getPlayer().getPlayerNumber());
+            if (D.ebugOn)
+            {
+                D.ebugPrintln(DEBUG_CATEGORY, D.DEBUG, "%%%%%%%%%%%%%%%%%% TRACKER FOR PLAYER %s",
+                        tracker.getPlayer().getPlayerNumber());
+            }
 
             try
             {
                 tracker.recalcWinGameETA();
                 winGameETAs[tracker.getPlayer().getPlayerNumber()] = tracker
                         .getWinGameETA();
-                D.ebugPrintln("winGameETA = " + tracker.getWinGameETA());
+                if (D.ebugOn)
+                {
+                    D.ebugPrintln(DEBUG_CATEGORY, D.DEBUG, "winGameETA = %s",
+                            tracker.getWinGameETA());
+                }
             }
             catch (NullPointerException e)
             {
-                D.ebugPrintln("Null Pointer Exception calculating winGameETA");
+                if (D.ebugOn)
+                {
+                    D.ebugPrintln(DEBUG_CATEGORY, D.DEBUG,
+                            "Null Pointer Exception calculating winGameETA");
+                }
                 winGameETAs[tracker.getPlayer().getPlayerNumber()] = 500;
             }
         }
@@ -4819,15 +5027,22 @@ public class RobotBrain extends Thread
                         && (pnum != ourPlayerData.getPlayerNumber()))
                 {
                     // The first pick
-                    D.ebugPrintln("Picking a robber victim: pnum=" + pnum);
+                    if (D.ebugOn)
+                    {
+                        D.ebugPrintln(DEBUG_CATEGORY, D.DEBUG, "Picking a robber victim: pnum=%s",
+                                pnum);
+                    }
                     victimNum = pnum;
                 }
                 else if ((pnum != ourPlayerData.getPlayerNumber())
                         && (winGameETAs[pnum] < winGameETAs[victimNum]))
                 {
                     // A better pick
-                    D.ebugPrintln("Picking a better robber victim: pnum="
-                            + pnum);
+                    if (D.ebugOn)
+                    {
+                        D.ebugPrintln(DEBUG_CATEGORY, D.DEBUG,
+                                "Picking a better robber victim: pnum=%s", pnum);
+                    }
                     victimNum = pnum;
                 }
             }
@@ -4841,7 +5056,7 @@ public class RobotBrain extends Thread
         BuildingSpeedEstimate estimate = new BuildingSpeedEstimate();
         int bestHex = robberHex;
         int worstSpeed = 0;
-        final boolean skipDeserts = game.isGameOptionSet("RD"); // can't move
+        final boolean skipDeserts = game.getGameOptionSet().isSet(GameOptionSet.RD); // can't move
         // robber to
         // desert
         Board gboard = (skipDeserts ? game.getBoard() : null);
@@ -4868,19 +5083,30 @@ public class RobotBrain extends Thread
                     totalSpeed += speeds[j];
                 }
 
-                D.ebugPrintln("total Speed = " + totalSpeed);
+                if (D.ebugOn)
+                {
+                    D.ebugPrintln(DEBUG_CATEGORY, D.DEBUG, "total Speed = %s", totalSpeed);
+                }
 
                 if (totalSpeed > worstSpeed)
                 {
                     bestHex = hexes[i];
                     worstSpeed = totalSpeed;
-                    D.ebugPrintln("bestHex = " + Integer.toHexString(bestHex));
-                    D.ebugPrintln("worstSpeed = " + worstSpeed);
+                    if (D.ebugOn)
+                    {
+                        D.ebugPrintln(DEBUG_CATEGORY, D.DEBUG, "bestHex = %s",
+                                Integer.toHexString(bestHex));
+                        D.ebugPrintln(DEBUG_CATEGORY, D.DEBUG, "worstSpeed = %s", worstSpeed);
+                    }
                 }
             }
         }
 
-        D.ebugPrintln("%%% bestHex = " + Integer.toHexString(bestHex));
+        if (D.ebugOn)
+        {
+            D.ebugPrintln(DEBUG_CATEGORY, D.DEBUG, "%%%%%% bestHex = %s",
+                    Integer.toHexString(bestHex));
+        }
 
         /**
          * pick a spot at random if we can't decide. Don't pick deserts if the
@@ -4907,7 +5133,10 @@ public class RobotBrain extends Thread
             }
         }
 
-        D.ebugPrintln("!!! MOVING ROBBER !!!");
+        if (D.ebugOn)
+        {
+            D.ebugPrintln(DEBUG_CATEGORY, D.DEBUG, "!!! MOVING ROBBER !!!");
+        }
         client.moveRobber(game, ourPlayerData, bestHex);
         pause(2000);
     }
@@ -5828,7 +6057,7 @@ public class RobotBrain extends Thread
                 resourceMessage += (rsrcs.getAmount(ResourceConstants.WOOD) + " ");
                 resourceMessage += (rsrcs.getAmount(ResourceConstants.UNKNOWN) + " ");
                 client.sendText(game, resourceMessage);
-                D.ebugPrintln(resourceMessage);
+                D.ebugPrintln(DEBUG_CATEGORY, D.DEBUG, resourceMessage);
             }
         }
     }
@@ -0,0 +1,667 @@
+/**
+ * Open Settlers - an open implementation of the game Settlers of Catan
+ * This file copyright (C) 2010 The Open Settlers team
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>. **/
+package soc.server;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.util.Hashtable;
+import java.util.Vector;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import soc.disableDebug.D;
+import soc.message.JoinGame;
+import soc.message.Message;
+import soc.message.NewGameWithOptionsRequest;
+import soc.server.genericServer.StringConnection;
+
+
+/**
+ * Append-only journal of everything that happens in each game on the server:
+ * the commands received from clients, and the messages the server sends
+ * back to the game's members.
+ *<P>
+ * Each game gets its own file in the journal directory, opened by
+ * {@link #openGame(String, String, long)} and closed by {@link #closeGame(String)}.
+ * Callers never touch the disk: records are queued and this thread appends
+ * them in batches, flushing every file it wrote to once per batch
+ * ("group commit"). A batch is written when the commit interval expires or
+ * when {@link #MAX_BATCH} records are waiting, whichever comes first.
+ * Each game's records are queued under that game's own lock, so games
+ * on different threads don't wait for each other.
+ *<P>
+ * Each line of a journal file is one record, with tab-separated fields:
+ *<pre>
+ *  seq  millis  kind  who  text</pre>
+ * <tt>seq</tt> counts up from 0 within the game; <tt>millis</tt> is the
+ * server clock; <tt>kind</tt> is one of {@link #HEADER}, {@link #SEED},
+ * {@link #INBOUND}, {@link #OUTBOUND}, {@link #EVENT} or {@link #CLOSE}. <tt>who</tt> is the
+ * sending player's name for inbound commands (with any password left out),
+ * the recipient's name for
+ * messages sent to a single player, {@link #TO_GAME} for messages sent to
+ * the whole game, {@link #TO_GAME_EXCEPT} followed by the excluded players'
+ * names for messages sent to all but some of its members, or the game name
+ * in the header. <tt>text</tt> is the
+ * command as sent on the wire, with backslashes, CR and LF escaped; for the
+ * header it's the game's options
+ * in {@link soc.game.GameOptionSet#getPackedString()} form, and for a seed
+ * record it's the game's {@link soc.game.Game#getRandomSeed() random seed},
+ * written after the header and again whenever the board is reset.
+ *<P>
+ * Use {@link GameJournalReplay} to read a journal back into a game.
+ *
+ * @see SOCServer#PROP_OPENSETTLERS_JOURNAL_DIR
+ */
+public class GameJournal extends Thread
+{
+    /** Suffix of journal file names. */
+    public static final String FILE_SUFFIX = ".journal";
+
+    /** Record kinds */
+    public static final char HEADER = 'H', SEED = 'S', INBOUND = 'I',
+            OUTBOUND = 'O', EVENT = 'E', CLOSE = 'C';
+
+    /** <tt>who</tt> field for messages sent to all members of the game */
+    public static final String TO_GAME = "*";
+
+    /**
+     * <tt>who</tt> prefix for messages sent to all members of the game but
+     * some; the excluded nicknames follow, separated by ','.
+     * @see #toGameExcept(Vector)
+     * @see #isExcluded(String, String)
+     */
+    public static final String TO_GAME_EXCEPT = "*!";
+
+    /** Default group-commit interval, in milliseconds */
+    public static final int DEFAULT_COMMIT_MILLIS = 200;
+
+    /** Write out a batch early once this many records are waiting */
+    public static final int MAX_BATCH = 2048;
+
+    /** Where the journal files go */
+    private final File dir;
+
+    /** Group-commit interval, in milliseconds */
+    private final int commitMillis;
+
+    /** If true, also force each batch to the disk device, not just the OS */
+    private final boolean sync;
+
+    /**
+     * Records of each game being journaled, by game name.
+     * A game not in this table isn't journaled.
+     */
+    private final Hashtable<String, GameRecords> games = new Hashtable<String, GameRecords>();
+
+    /**
+     * Games the writer hasn't written the last record of, including
+     * games closed since its last batch. Guarded by <tt>this</tt>.
+     */
+    private final Vector<GameRecords> writing = new Vector<GameRecords>();
+
+    /** Number of records waiting in all games, to start a batch early */
+    private final AtomicInteger waiting = new AtomicInteger();
+
+    /** Guarded by <tt>this</tt>. */
+    private boolean alive;
+
+    /** Number of records and batches written so far, for {@link #toString()} */
+    private long recordCount, batchCount;
+
+    /**
+     * Create a game journal, and start its writer thread.
+     *
+     * @param dir  directory for the journal files; will be created if needed
+     * @param commitMillis  group-commit interval, or 0 for
+     *            {@link #DEFAULT_COMMIT_MILLIS}
+     * @param sync  if true, force each batch to the storage device
+     *            before writing the next one
+     * @throws IOException if <tt>dir</tt> can't be created or written
+     */
+    public GameJournal(File dir, int commitMillis, boolean sync)
+        throws IOException
+    {
+        if (! (dir.isDirectory() || dir.mkdirs()) || ! dir.canWrite())
+            throw new IOException("Can't write journal directory " + dir);
+
+        this.dir = dir;
+        this.commitMillis = (commitMillis > 0) ? commitMillis : DEFAULT_COMMIT_MILLIS;
+        this.sync = sync;
+        alive = true;
+        setName("gameJournal");  // Thread name for debug
+        try { setDaemon(true); } catch (Exception e) {}
+        start();
+    }
+
+    /**
+     * Start journaling a game. Call when the game is created, before any
+     * messages are sent to it.
+     *
+     * @param gaName  game name
+     * @param opts  the game's options in packed form, or null
+     * @param seed  the game's random seed
+     */
+    public void openGame(String gaName, String opts, long seed)
+    {
+        GameRecords gr = new GameRecords(gaName);
+        synchronized (this)
+        {
+            if (! alive)
+                return;
+            writing.addElement(gr);
+            games.put(gaName, gr);
+        }
+        append(gr, HEADER, gaName, (opts != null) ? opts : "-");
+        append(gr, SEED, TO_GAME, Long.toString(seed));
+    }
+
+    /**
+     * Record a game's new random seed, after its board is reset.
+     *
+     * @param gaName  game name
+     * @param seed  the new game's random seed
+     */
+    public void recordSeed(String gaName, long seed)
+    {
+        append(gaName, SEED, TO_GAME, Long.toString(seed));
+    }
+
+    /**
+     * Stop journaling a game. Its file is closed after the pending records
+     * are written.
+     *
+     * @param gaName  game name
+     */
+    public void closeGame(String gaName)
+    {
+        GameRecords gr = games.remove(gaName);
+        if (gr != null)
+            append(gr, CLOSE, TO_GAME, "");
+    }
+
+    /**
+     * Record a command received from a client, if it's about a journaled game.
+     * Passwords are left out of {@link JoinGame} and
+     * {@link NewGameWithOptionsRequest} commands, so they never reach the disk.
+     *
+     * @param mes  the command, as parsed
+     * @param player  the client's nickname, or null if not yet known
+     * @param cmd  the command, as received
+     * @since 1.1.09
+     */
+    public void recordInbound(Message mes, String player, String cmd)
+    {
+        final String gaName = mes.getGame();
+        if ((gaName == null) || ! games.containsKey(gaName))
+            return;
+
+        if ((mes instanceof JoinGame) || (mes instanceof NewGameWithOptionsRequest))
+            cmd = withoutPassword(cmd);
+        append(gaName, INBOUND, (player != null) ? player : "-", cmd);
+    }
+
+    /**
+     * Replace the password of a {@link JoinGame} or
+     * {@link NewGameWithOptionsRequest} command, the field after the
+     * nickname, with the empty password ("\t" on the wire).
+     * Neither field can contain {@link Message#sep2}.
+     *
+     * @param cmd  the command, as received
+     * @return the command without its password
+     * @since 1.1.09
+     */
+    static String withoutPassword(String cmd)
+    {
+        final int nick = cmd.indexOf(Message.sep);
+        final int pw = (nick != -1) ? cmd.indexOf(Message.sep2, nick + 1) : -1;
+        final int end = (pw != -1) ? cmd.indexOf(Message.sep2, pw + 1) : -1;
+        if (end == -1)
+            return cmd;
+
+        return cmd.substring(0, pw + 1) + '\t' + cmd.substring(end);
+    }
+
+    /**
+     * Record a message sent by the server.
+     *
+     * @param gaName  game name
+     * @param to  recipient's nickname, or {@link #TO_GAME}
+     * @param cmd  the message, as sent
+     */
+    public void recordOutbound(String gaName, String to, String cmd)
+    {
+        append(gaName, OUTBOUND, (to != null) ? to : "-", cmd);
+    }
+
+    /**
+     * Record a note about the game which isn't itself a message.
+     *
+     * @param gaName  game name
+     * @param event  the note
+     */
+    public void recordEvent(String gaName, String event)
+    {
+        append(gaName, EVENT, TO_GAME, event);
+    }
+
+    /**
+     * Build the <tt>who</tt> field of a message sent to all members of the
+     * game except some connections.  Nicknames can't contain ','.
+     *
+     * @param ex  the excluded {@link StringConnection}s
+     * @return {@link #TO_GAME_EXCEPT} followed by the nicknames of <tt>ex</tt>
+     *     which are known, or {@link #TO_GAME} if none are
+     */
+    public static String toGameExcept(Vector<?> ex)
+    {
+        StringBuffer sb = new StringBuffer(TO_GAME_EXCEPT);
+        for (int i = 0, n = ex.size(); i < n; ++i)
+        {
+            Object name = ((StringConnection) ex.elementAt(i)).getData();
+            if (name == null)
+                continue;
+            if (sb.length() > TO_GAME_EXCEPT.length())
+                sb.append(',');
+            sb.append(name);
+        }
+        return (sb.length() > TO_GAME_EXCEPT.length()) ? sb.toString() : TO_GAME;
+    }
+
+    /**
+     * Build the <tt>who</tt> field of a message sent to all members of the
+     * game except one connection.
+     *
+     * @param ex  the excluded connection, or null
+     * @return {@link #TO_GAME_EXCEPT} followed by the nickname of <tt>ex</tt>,
+     *     or {@link #TO_GAME} if <tt>ex</tt> or its nickname is null
+     */
+    public static String toGameExcept(StringConnection ex)
+    {
+        Object name = (ex != null) ? ex.getData() : null;
+        return (name != null) ? (TO_GAME_EXCEPT + name) : TO_GAME;
+    }
+
+    /**
+     * Is this player excluded by a {@link #TO_GAME_EXCEPT} <tt>who</tt> field?
+     *
+     * @param who  a <tt>who</tt> field starting with {@link #TO_GAME_EXCEPT}
+     * @param pn  player's nickname, or null
+     * @return true if <tt>pn</tt> is one of the names in <tt>who</tt>
+     */
+    public static boolean isExcluded(String who, String pn)
+    {
+        if (pn == null)
+            return false;
+        int i = TO_GAME_EXCEPT.length();
+        while (i <= who.length())
+        {
+            int end = who.indexOf(',', i);
+            if (end == -1)
+                end = who.length();
+            if (who.regionMatches(i, pn, 0, end - i) && (pn.length() == end - i))
+                return true;
+            i = end + 1;
+        }
+        return false;
+    }
+
+    /**
+     * Queue a record if its game is being journaled.
+     */
+    private void append(String gaName, char kind, String who, String text)
+    {
+        if (gaName == null)
+            return;
+        GameRecords gr = games.get(gaName);
+        if (gr != null)
+            append(gr, kind, who, text);
+    }
+
+    /**
+     * Queue a record of a game, under the game's lock.
+     * Nothing is queued after the game's {@link #CLOSE} record.
+     */
+    private void append(GameRecords gr, char kind, String who, String text)
+    {
+        synchronized (gr)
+        {
+            if (gr.closed)
+                return;
+
+            StringBuffer sb = new StringBuffer(text.length() + who.length() + 24);
+            sb.append(gr.seq++).append('\t')
+              .append(System.currentTimeMillis()).append('\t')
+              .append(kind).append('\t')
+              .append(who).append('\t');
+            escape(text, sb);
+
+            gr.pending.addElement(sb.toString());
+            if (kind == CLOSE)
+                gr.closed = true;
+        }
+
+        if (waiting.incrementAndGet() == MAX_BATCH)
+        {
+            synchronized (this)
+            {
+                notify();
+            }
+        }
+    }
+
+    /**
+     * Escape backslash, CR and LF so a record fits on one line.
+     *
+     * @see #unescape(String)
+     */
+    static void escape(String text, StringBuffer sb)
+    {
+        for (int i = 0, n = text.length(); i < n; ++i)
+        {
+            char c = text.charAt(i);
+            switch (c)
+            {
+            case '\\':  sb.append("\\\\");  break;
+            case '\n':  sb.append("\\n");  break;
+            case '\r':  sb.append("\\r");  break;
+            default:    sb.append(c);
+            }
+        }
+    }
+
+    /**
+     * Reverse of {@link #escape(String, StringBuffer)}.
+     */
+    static String unescape(String text)
+    {
+        if (text.indexOf('\\') == -1)
+            return text;
+
+        StringBuffer sb = new StringBuffer(text.length());
+        for (int i = 0, n = text.length(); i < n; ++i)
+        {
+            char c = text.charAt(i);
+            if ((c == '\\') && (i + 1 < n))
+            {
+                c = text.charAt(++i);
+                if (c == 'n')
+                    c = '\n';
+                else if (c == 'r')
+                    c = '\r';
+            }
+            sb.append(c);
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Name of the journal file for a game: its name with anything
+     * unusual replaced by '_', followed by the creation time and,
+     * if not 0, a sequence number.
+     */
+    static String fileName(String gaName, long millis, int seq)
+    {
+        StringBuffer sb = new StringBuffer(gaName.length() + 24);
+        for (int i = 0, n = gaName.length(); i < n; ++i)
+        {
+            char c = gaName.charAt(i);
+            sb.append(Character.isLetterOrDigit(c) || (c == '-') ? c : '_');
+        }
+        sb.append('_').append(millis);
+        if (seq != 0)
+            sb.append('-').append(seq);
+        sb.append(FILE_SUFFIX);
+        return sb.toString();
+    }
+
+    /**
+     * Create a new journal file for a game.  A game closed and created again
+     * within the same millisecond gets a file of its own, with a sequence
+     * number in its name, instead of appending to the first one.
+     */
+    private JournalFile createFile(String gaName)
+        throws IOException
+    {
+        final long millis = System.currentTimeMillis();
+        for (int n = 0; ; ++n)
+        {
+            File f = new File(dir, fileName(gaName, millis, n));
+            if (f.createNewFile())
+                return new JournalFile(f);
+        }
+    }
+
+    /**
+     * Write out batches of records until {@link #stopJournal()} is called.
+     */
+    public void run()
+    {
+        while (true)
+        {
+            Vector<GameRecords> batch;
+            boolean stopping;
+            synchronized (this)
+            {
+                if (alive && (waiting.get() < MAX_BATCH))
+                {
+                    try
+                    {
+                        wait(commitMillis);
+                    }
+                    catch (InterruptedException e) {}
+                }
+                batch = new Vector<GameRecords>(writing);
+                stopping = ! alive;
+            }
+
+            writeBatch(batch);
+
+            if (stopping)
+                break;
+        }
+
+        synchronized (this)
+        {
+            for (int i = 0, n = writing.size(); i < n; ++i)
+            {
+                JournalFile jf = writing.elementAt(i).file;
+                if (jf != null)
+                    closeQuietly(jf);
+            }
+            writing.removeAllElements();
+        }
+    }
+
+    /**
+     * Append the records waiting in these games, then flush each file
+     * written to. Called only from this thread.
+     */
+    private void writeBatch(Vector<GameRecords> batch)
+    {
+        Vector<JournalFile> dirty = new Vector<JournalFile>();
+        int count = 0;
+        for (int i = 0, n = batch.size(); i < n; ++i)
+        {
+            GameRecords gr = batch.elementAt(i);
+            Vector<String> recs;
+            boolean closed;
+            synchronized (gr)
+            {
+                recs = gr.pending;
+                if (! recs.isEmpty())
+                    gr.pending = new Vector<String>();
+                closed = gr.closed;
+            }
+
+            // CLOSE is the game's last record: nothing more will be queued
+            if (closed)
+            {
+                synchronized (this)
+                {
+                    writing.removeElement(gr);
+                }
+            }
+            if (recs.isEmpty())
+                continue;
+            count += recs.size();
+
+            JournalFile jf = gr.file;
+            if (jf == null)
+            {
+                try
+                {
+                    jf = createFile(gr.gaName);
+                }
+                catch (IOException e)
+                {
+                    D.ebugPrintln("GameJournal: can't open file for " + gr.gaName + ": " + e);
+                    continue;
+                }
+                gr.file = jf;
+            }
+
+            try
+            {
+                for (int r = 0, nr = recs.size(); r < nr; ++r)
+                {
+                    jf.out.write(recs.elementAt(r));
+                    jf.out.write('\n');
+                }
+            }
+            catch (IOException e)
+            {
+                D.ebugPrintln("GameJournal: can't write " + jf.file + ": " + e);
+            }
+            dirty.addElement(jf);
+
+            // flushed and closed below, with the rest of the batch
+            if (closed)
+                jf.closeAfterFlush = true;
+        }
+
+        for (int i = 0, n = dirty.size(); i < n; ++i)
+        {
+            JournalFile jf = dirty.elementAt(i);
+            try
+            {
+                jf.out.flush();
+                if (sync)
+                    jf.fos.getFD().sync();
+            }
+            catch (IOException e)
+            {
+                D.ebugPrintln("GameJournal: can't flush " + jf.file + ": " + e);
+            }
+            if (jf.closeAfterFlush)
+                closeQuietly(jf);
+        }
+
+        if (count > 0)
+        {
+            waiting.addAndGet(-count);
+            recordCount += count;
+            ++batchCount;
+        }
+    }
+
+    private static void closeQuietly(JournalFile jf)
+    {
+        try
+        {
+            jf.out.close();
+        }
+        catch (IOException e) {}
+    }
+
+    /**
+     * Write out any pending records, close all files, and end the thread.
+     * Waits for the writer to finish.
+     */
+    public void stopJournal()
+    {
+        synchronized (this)
+        {
+            alive = false;
+            games.clear();
+            notify();
+        }
+        try
+        {
+            join();
+        }
+        catch (InterruptedException e) {}
+    }
+
+    /**
+     * @return a short description including the number of records and
+     *         batches written so far
+     */
+    public String toString()
+    {
+        return "GameJournal[" + dir + ", records=" + recordCount
+            + ", batches=" + batchCount + "]";
+    }
+
+    /**
+     * One game's queued records. Callers queue records while holding the
+     * lock on this object; the writer thread takes them under the same lock.
+     */
+    private static class GameRecords
+    {
+        final String gaName;
+
+        /** Next sequence number. Guarded by this object. */
+        int seq;
+
+        /** Records waiting to be written. Guarded by this object. */
+        Vector<String> pending = new Vector<String>();
+
+        /** The game's {@link GameJournal#CLOSE} record is queued. Guarded by this object. */
+        boolean closed;
+
+        /** The game's file, once created. Used only by the writer thread. */
+        JournalFile file;
+
+        GameRecords(String gaName)
+        {
+            this.gaName = gaName;
+        }
+    }
+
+    /**
+     * An open journal file. Used only by the writer thread.
+     */
+    private static class JournalFile
+    {
+        final File file;
+        final FileOutputStream fos;
+        final BufferedWriter out;
+
+        /** Game's {@link GameJournal#CLOSE} record has been written */
+        boolean closeAfterFlush;
+
+        JournalFile(File f)
+            throws IOException
+        {
+            file = f;
+            fos = new FileOutputStream(f, true);
+            out = new BufferedWriter(new OutputStreamWriter(fos, "UTF-8"), 16 * 1024);
+        }
+    }
+}
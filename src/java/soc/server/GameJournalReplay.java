@@ -0,0 +1,291 @@
+/**
+ * Open Settlers - an open implementation of the game Settlers of Catan
+ * This file copyright (C) 2010 The Open Settlers team
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>. **/
+package soc.server;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+
+import soc.client.DisplaylessPlayerClient;
+import soc.game.Game;
+import soc.game.GameOptionSet;
+import soc.message.Message;
+
+
+/**
+ * Rebuild a {@link Game} from a {@link GameJournal} file, as fast as the
+ * records can be parsed and applied.
+ *<P>
+ * The game's messages are applied the same way a client applies them:
+ * each outbound record is parsed with {@link Message#toMsg(String)} and
+ * handed to a {@link DisplaylessPlayerClient} which isn't connected to any
+ * server. Messages sent to the whole game are always applied, and those sent
+ * to all but some members are applied unless the followed player is one of
+ * them; messages sent
+ * to one player are applied only if that player is being followed (see
+ * {@link #setFollowPlayer(String)}), which gives that player's view of the
+ * game. Inbound commands are counted but not applied, since they're what
+ * the server acted on, not what it decided. The game is given the journal's
+ * random seed, so a server-side game started from it with the same inbound
+ * commands plays out the same way.
+ *<P>
+ * Can be run from the command line:
+ *<pre>
+ *  java soc.server.GameJournalReplay [-p playername] [-n repeats] file.journal ...</pre>
+ * which replays each file and prints the final game state and the replay rate.
+ */
+public class GameJournalReplay
+{
+    private final ReplayClient client = new ReplayClient();
+
+    /** Name of the player whose private messages are applied, or null */
+    private String followPlayer;
+
+    /** The game being rebuilt; null until the journal's header is read */
+    private Game game;
+
+    /** Record counts from the last {@link #replay(File)} */
+    private int inboundCount, outboundCount, appliedCount;
+
+    /**
+     * Apply messages sent to this player, as well as those sent to the
+     * whole game. Default is null, for only the public view of the game.
+     *
+     * @param pn  player's nickname, or null
+     */
+    public void setFollowPlayer(String pn)
+    {
+        followPlayer = pn;
+    }
+
+    /**
+     * @return the game rebuilt by the last {@link #replay(File)}, or null
+     */
+    public Game getGame()
+    {
+        return game;
+    }
+
+    /** @return the number of inbound commands read by the last replay */
+    public int getInboundCount()
+    {
+        return inboundCount;
+    }
+
+    /** @return the number of outbound messages read by the last replay */
+    public int getOutboundCount()
+    {
+        return outboundCount;
+    }
+
+    /** @return the number of messages applied to the game by the last replay */
+    public int getAppliedCount()
+    {
+        return appliedCount;
+    }
+
+    /**
+     * Replay a journal file into a new game.
+     *
+     * @param f  the journal file
+     * @return the game, as of the file's last record
+     * @throws IOException if <tt>f</tt> can't be read, or has no header record
+     */
+    public Game replay(File f)
+        throws IOException
+    {
+        BufferedReader in = new BufferedReader(new InputStreamReader(
+            new FileInputStream(f), "UTF-8"), 64 * 1024);
+        try
+        {
+            return replay(in);
+        }
+        finally
+        {
+            in.close();
+        }
+    }
+
+    /**
+     * Replay journal records into a new game.
+     *
+     * @param in  the journal's records, one per line
+     * @return the game, as of the last record
+     * @throws IOException if the records can't be read, or there's no header
+     */
+    public Game replay(BufferedReader in)
+        throws IOException
+    {
+        game = null;
+        client.clear();
+        inboundCount = 0;
+        outboundCount = 0;
+        appliedCount = 0;
+
+        String line;
+        while ((line = in.readLine()) != null)
+        {
+            // seq, millis, kind, who, text
+            int t1 = line.indexOf('\t');
+            int t2 = line.indexOf('\t', t1 + 1);
+            int t3 = line.indexOf('\t', t2 + 1);
+            int t4 = line.indexOf('\t', t3 + 1);
+            if ((t1 < 0) || (t2 < 0) || (t3 != t2 + 2) || (t4 < 0))
+                continue;  // torn write at end of file, probably
+
+            final char kind = line.charAt(t2 + 1);
+            switch (kind)
+            {
+            case GameJournal.HEADER:
+                {
+                    String opts = line.substring(t4 + 1);
+                    String gaName = line.substring(t3 + 1, t4);
+                    game = client.startGame(gaName,
+                        opts.equals("-") ? null : GameOptionSet.parse(opts));
+                }
+                break;
+
+            case GameJournal.SEED:
+                if ((game != null) && (game.getGameState() < Game.START1A))
+                {
+                    try
+                    {
+                        game.setRandomSeed(Long.parseLong(line.substring(t4 + 1)));
+                    }
+                    catch (NumberFormatException e) {}
+                }
+                break;
+
+            case GameJournal.INBOUND:
+                ++inboundCount;
+                break;
+
+            case GameJournal.OUTBOUND:
+                {
+                    ++outboundCount;
+                    String who = line.substring(t3 + 1, t4);
+                    if (who.equals(GameJournal.TO_GAME) || who.equals(followPlayer)
+                        || (who.startsWith(GameJournal.TO_GAME_EXCEPT)
+                            && ! GameJournal.isExcluded(who, followPlayer)))
+                    {
+                        Message mes = Message.toMsg(GameJournal.unescape(line.substring(t4 + 1)));
+                        if (mes != null)
+                        {
+                            client.treat(mes);
+                            ++appliedCount;
+                        }
+                    }
+                }
+                break;
+
+            default:
+                // EVENT and CLOSE don't change the game
+            }
+        }
+
+        if (game == null)
+            throw new IOException("No journal header found");
+        return game;
+    }
+
+    /**
+     * Replay journal files from the command line.
+     * Usage: <tt>[-p playername] [-n repeats] file.journal ...</tt>
+     */
+    public static void main(String[] args)
+    {
+        GameJournalReplay gjr = new GameJournalReplay();
+        int repeats = 1;
+        int i = 0;
+        for (; i < args.length - 1; i += 2)
+        {
+            if (args[i].equals("-p"))
+                gjr.setFollowPlayer(args[i + 1]);
+            else if (args[i].equals("-n"))
+                repeats = Integer.parseInt(args[i + 1]);
+            else
+                break;
+        }
+        if (i >= args.length)
+        {
+            System.err.println("usage: java soc.server.GameJournalReplay [-p playername] [-n repeats] file.journal ...");
+            System.exit(1);
+        }
+
+        for (; i < args.length; ++i)
+        {
+            File f = new File(args[i]);
+            try
+            {
+                long start = System.currentTimeMillis();
+                Game ga = null;
+                for (int r = 0; r < repeats; ++r)
+                    ga = gjr.replay(f);
+                long millis = Math.max(1, System.currentTimeMillis() - start);
+
+                long records = (long) repeats * (gjr.getInboundCount() + gjr.getOutboundCount());
+                System.out.println(f.getName() + ": game " + ga.getName()
+                    + ", state " + ga.getGameState()
+                    + ", round " + ga.getRoundCount()
+                    + ", " + gjr.getInboundCount() + " inbound, "
+                    + gjr.getOutboundCount() + " outbound, "
+                    + gjr.getAppliedCount() + " applied");
+                System.out.println("  " + repeats + " replays in " + millis + " ms: "
+                    + (records * 1000L / millis) + " records/sec");
+            }
+            catch (IOException e)
+            {
+                System.err.println(f.getName() + ": " + e);
+            }
+        }
+    }
+
+    /**
+     * Client which isn't connected to a server, and applies the messages
+     * it's given to its one game.
+     */
+    private static class ReplayClient extends DisplaylessPlayerClient
+    {
+        ReplayClient()
+        {
+            super();
+        }
+
+        void clear()
+        {
+            games.clear();
+        }
+
+        @SuppressWarnings("unchecked")
+        Game startGame(String gaName, GameOptionSet opts)
+        {
+            Game ga = new Game(gaName, false, (opts != null) ? opts.getOptions() : null);
+            games.put(gaName, ga);
+            return ga;
+        }
+
+        /**
+         * Replies to the server are dropped.
+         */
+        public synchronized boolean put(String s)
+        {
+            return true;
+        }
+    }
+}
@@ -55,6 +55,20 @@ public class GameListAtServer extends GameList
     /** map of game names to Vector of game members ({@link StringConnection}s) */
     protected Hashtable gameMembers;
 
+    /**
+     * Initial game list messages already built, keyed by Integer client version;
+     * see {@link #getGameListCmd(int)}. Cleared whenever a game is created or deleted.
+     * @since 1.1.09
+     */
+    protected Hashtable<Integer, String> gameListCmds;
+
+    /**
+     * Incremented whenever a game is created or deleted.
+     * @see #getGameListRevision()
+     * @since 1.1.09
+     */
+    protected int gameListRevision;
+
     /**
      * constructor
      */
@@ -62,6 +76,7 @@ public class GameListAtServer extends GameList
     {
         super();
         gameMembers = new Hashtable();
+        gameListCmds = new Hashtable<Integer, String>();
     }
 
     /**
@@ -268,8 +283,9 @@ public class GameListAtServer extends GameList
         // set the expiration to 90 min. from now
         game.setExpiration(game.getStartTime().getTime() + (60 * 1000 * GAME_EXPIRE_MINUTES));
 
-        gameInfo.put(gaName, new GameInfo(true, game.getGameOptions()));  // also creates MutexFlag
+        gameInfo.put(gaName, new GameInfo(true, game.getGameOptionSet()));  // also creates MutexFlag
         gameData.put(gaName, game);
+        gameListChanged();
 
         return game;
     }
@@ -350,6 +366,59 @@ public class GameListAtServer extends GameList
             members.removeAllElements();
         }        
         super.deleteGame(gaName);
+        gameListChanged();
+    }
+
+    /**
+     * The set of games has changed: Forget the game list messages built so far.
+     * Clients already connected are told about the change by NEWGAME or DELETEGAME.
+     * @since 1.1.09
+     */
+    protected synchronized void gameListChanged()
+    {
+        ++gameListRevision;
+        gameListCmds.clear();
+    }
+
+    /**
+     * Get the revision of the set of games, which changes whenever a game is
+     * created or deleted.  Read this while holding the game list monitor,
+     * before building a message from {@link #getGamesData()}.
+     * @return the current revision
+     * @see #putGameListCmd(int, int, String)
+     * @since 1.1.09
+     */
+    public synchronized int getGameListRevision()
+    {
+        return gameListRevision;
+    }
+
+    /**
+     * Get the initial game list message for clients of this version,
+     * if one was built since the last change to the set of games.
+     * @param cliVers  Client version
+     * @return the GAMES or GAMESWITHOPTIONS message, or null if none is known
+     * @since 1.1.09
+     */
+    public synchronized String getGameListCmd(final int cliVers)
+    {
+        return gameListCmds.get(new Integer(cliVers));
+    }
+
+    /**
+     * Remember the initial game list message built for clients of this version,
+     * so the next client with that version is sent it without walking all games.
+     * If a game was created or deleted since <tt>revision</tt>, the message
+     * is out of date and isn't kept.
+     * @param cliVers  Client version
+     * @param revision  {@link #getGameListRevision()} read before the message was built
+     * @param cmd  The GAMES or GAMESWITHOPTIONS message
+     * @since 1.1.09
+     */
+    public synchronized void putGameListCmd(final int cliVers, final int revision, final String cmd)
+    {
+        if (revision == gameListRevision)
+            gameListCmds.put(new Integer(cliVers), cmd);
     }
 
     /**
@@ -18,7 +18,8 @@
  * along with this program.  If not, see <http://www.gnu.org/licenses/>. **/
 package soc.server;
 
-import java.io.FileWriter;
+import java.io.File;
+import java.io.IOException;
 import java.sql.SQLException;
 import java.util.Date;
 import java.util.Enumeration;
@@ -38,7 +39,9 @@ import soc.game.DevCardSet;
 import soc.game.ForceEndTurnResult;
 import soc.game.Game;
 import soc.game.GameOption;
+import soc.game.GameOptionSet;
 import soc.game.GameOptionVersionException;
+import soc.game.GameRandom;
 import soc.game.MoveRobberResult;
 import soc.game.Player;
 import soc.game.PlayingPiece;
@@ -250,6 +253,25 @@ public class SOCServer extends Server
      */
     public static final String PROP_OPENSETTLERS_STARTROBOTS = "osettlers.startrobots";
 
+    /**
+     * Property <tt>osettlers.journal.dir</tt> to keep a {@link GameJournal}
+     * of each game in this directory. (The default is no journal.)
+     */
+    public static final String PROP_OPENSETTLERS_JOURNAL_DIR = "osettlers.journal.dir";
+
+    /**
+     * Property <tt>osettlers.journal.commit</tt>: how often the journal is
+     * written out, in milliseconds. Default is
+     * {@link GameJournal#DEFAULT_COMMIT_MILLIS}.
+     */
+    public static final String PROP_OPENSETTLERS_JOURNAL_COMMIT = "osettlers.journal.commit";
+
+    /**
+     * Property <tt>osettlers.journal.sync</tt>: if "Y", force each journal
+     * write to disk before continuing. Default is "N", flush to the OS only.
+     */
+    public static final String PROP_OPENSETTLERS_JOURNAL_SYNC = "osettlers.journal.sync";
+
     /**
      * List of all available JSettlers {@link Properties properties}, such as
      * {@link #PROP_OPENSETTLERS_PORT} and
@@ -263,7 +285,9 @@ public class SOCServer extends Server
                 SOCDBHelper.PROP_OPENSETTLERS_DB_PASS,
                 SOCDBHelper.PROP_OPENSETTLERS_DB_URL,
                 SOCDBHelper.PROP_OPENSETTLERS_DB_DRIVER,
-                SOCDBHelper.PROP_OPENSETTLERS_DB_ENABLED };
+                SOCDBHelper.PROP_OPENSETTLERS_DB_ENABLED,
+                PROP_OPENSETTLERS_JOURNAL_DIR, PROP_OPENSETTLERS_JOURNAL_COMMIT,
+                PROP_OPENSETTLERS_JOURNAL_SYNC };
 
     /**
      * Name used when sending messages from the server.
@@ -345,11 +369,6 @@ public class SOCServer extends Server
      */
     public static String PRACTICE_STRINGPORT = "SOCPRACTICE";
 
-    /**
-     * So we can get random numbers.
-     */
-    private Random rand = new Random();
-
     /**
      * Maximum number of connections allowed. Remember that robots count against
      * this limit.
@@ -491,9 +510,10 @@ public class SOCServer extends Server
     private Map robotDismissals = new HashMap();
 
     /**
-     * table of game data files
+     * journal of each game's messages, or null if
+     * {@link #PROP_OPENSETTLERS_JOURNAL_DIR} isn't set
      */
-    private Map gameDataFiles = new HashMap();
+    private GameJournal journal;
 
     /**
      * the current game event record
@@ -695,6 +715,7 @@ public class SOCServer extends Server
         gameTimeoutChecker = new GameTimeoutChecker(this);
         gameTimeoutChecker.setDaemon(true);
         gameTimeoutChecker.start();
+        initGameJournal();
         this.databaseUserName = databaseUserName;
         this.databasePassword = databasePassword;
 
@@ -719,6 +740,42 @@ public class SOCServer extends Server
         }
     }
 
+    /**
+     * Start the {@link GameJournal} if {@link #PROP_OPENSETTLERS_JOURNAL_DIR}
+     * is set. A journal which can't be started is reported, but doesn't
+     * stop the server.
+     */
+    private void initGameJournal()
+    {
+        String jdir = props.getProperty(PROP_OPENSETTLERS_JOURNAL_DIR);
+        if ((jdir == null) || (jdir.length() == 0))
+            return;
+
+        int commitMillis = 0;
+        try
+        {
+            commitMillis = Integer.parseInt(props.getProperty(
+                    PROP_OPENSETTLERS_JOURNAL_COMMIT, "0"));
+        }
+        catch (NumberFormatException e)
+        {
+            System.err.println("Bad " + PROP_OPENSETTLERS_JOURNAL_COMMIT
+                    + ", using default");
+        }
+        boolean sync = props.getProperty(PROP_OPENSETTLERS_JOURNAL_SYNC, "N")
+                .equalsIgnoreCase("Y");
+
+        try
+        {
+            journal = new GameJournal(new File(jdir), commitMillis, sync);
+            System.err.println("Game journal: " + jdir);
+        }
+        catch (IOException e)
+        {
+            System.err.println("Game journal disabled: " + e.getMessage());
+        }
+    }
+
     /** Get the version number string. */
     public static String getVersion()
     {
@@ -995,6 +1052,10 @@ public class SOCServer extends Server
                 // Create new game, expiring in
                 // GameListAtServer.GAME_EXPIRE_MINUTES .
                 gameList.createGame(gaName, gaOpts);
+                if (journal != null)
+                    journal.openGame(gaName, gameList.getGameOptionSet(gaName)
+                            .getPackedString(), gameList.getGameData(gaName)
+                            .getRandomSeed());
                 if ((strSocketName != null)
                         && (strSocketName.equals(PRACTICE_STRINGPORT)))
                 {
@@ -1308,7 +1369,7 @@ public class SOCServer extends Server
                     boolean nameMatch = false;
                     StringConnection robotConn = null;
 
-                    final int[] robotIndexes = robotShuffleForJoin(); // Shuffle
+                    final int[] robotIndexes = robotShuffleForJoin(ga); // Shuffle
                                                                       // to
                                                                       // distribute
                                                                       // load
@@ -1552,12 +1613,16 @@ public class SOCServer extends Server
     /**
      * shuffle the indexes to distribute load among {@link #robots}
      * 
+     * @param ga
+     *            the game the robots will join; its
+     *            {@link GameRandom#SERVER} random stream is used
      * @return a shuffled array of robot indexes, from 0 to ({#link
      *         {@link #robots} .size() - 1
      * @since 1.1.06
      */
-    private int[] robotShuffleForJoin()
+    private int[] robotShuffleForJoin(Game ga)
     {
+        final Random rand = ga.getRandom().stream(GameRandom.SERVER);
         int[] robotIndexes = new int[robots.size()];
 
         for (int i = 0; i < robots.size(); i++)
@@ -1570,7 +1635,7 @@ public class SOCServer extends Server
             for (int i = 0; i < robotIndexes.length; i++)
             {
                 // Swap a random robot, below the ith robot, with the ith robot
-                int idx = Math.abs(rand.nextInt() % (robotIndexes.length - i));
+                int idx = rand.nextInt(robotIndexes.length - i);
                 int tmp = robotIndexes[idx];
                 robotIndexes[idx] = robotIndexes[i];
                 robotIndexes[i] = tmp;
@@ -1725,6 +1790,9 @@ public class SOCServer extends Server
                 }
             }
 
+            if (journal != null)
+                journal.closeGame(gm);
+
             gameList.deleteGame(gm);
         }
     }
@@ -2000,7 +2068,10 @@ public class SOCServer extends Server
         {
             // currentGameEventRecord.addMessageOut(new SOCMessageRecord(mes,
             // "SERVER", c.getData()));
-            c.put(mes.toCmd());
+            final String cmd = mes.toCmd();
+            if (journal != null)
+                journal.recordOutbound(mes.getGame(), (String) c.getData(), cmd);
+            c.put(cmd);
         }
     }
 
@@ -2022,7 +2093,10 @@ public class SOCServer extends Server
     {
         if (c == null)
             return;
-        c.put(GameTextMsg.toCmd(ga, SERVERNAME, txt));
+        final String cmd = GameTextMsg.toCmd(ga, SERVERNAME, txt);
+        if (journal != null)
+            journal.recordOutbound(ga, (String) c.getData(), cmd);
+        c.put(cmd);
     }
 
     /**
@@ -2050,6 +2124,9 @@ public class SOCServer extends Server
             if (v != null)
             {
                 // D.ebugPrintln("M2G - "+mes);
+                final String cmd = mes.toCmd();
+                if (journal != null)
+                    journal.recordOutbound(ga, GameJournal.TO_GAME, cmd);
                 Enumeration menum = v.elements();
 
                 while (menum.hasMoreElements())
@@ -2060,7 +2137,7 @@ public class SOCServer extends Server
                     {
                         // currentGameEventRecord.addMessageOut(new
                         // SOCMessageRecord(mes, "SERVER", c.getData()));
-                        c.put(mes.toCmd());
+                        c.put(cmd);
                     }
                 }
             }
@@ -2105,6 +2182,8 @@ public class SOCServer extends Server
             {
                 final String gameTextMsg = GameTextMsg.toCmd(ga, SERVERNAME,
                         txt);
+                if (journal != null)
+                    journal.recordOutbound(ga, GameJournal.TO_GAME, gameTextMsg);
                 Enumeration menum = v.elements();
 
                 while (menum.hasMoreElements())
@@ -2142,6 +2221,9 @@ public class SOCServer extends Server
         if (v != null)
         {
             // D.ebugPrintln("M2G - "+mes);
+            final String cmd = mes.toCmd();
+            if (journal != null)
+                journal.recordOutbound(ga, GameJournal.TO_GAME, cmd);
             Enumeration menum = v.elements();
 
             while (menum.hasMoreElements())
@@ -2152,7 +2234,7 @@ public class SOCServer extends Server
                 {
                     // currentGameEventRecord.addMessageOut(new
                     // SOCMessageRecord(mes, "SERVER", c.getData()));
-                    c.put(mes.toCmd());
+                    c.put(cmd);
                 }
             }
         }
@@ -2184,6 +2266,9 @@ public class SOCServer extends Server
             if (v != null)
             {
                 // D.ebugPrintln("M2GE - "+mes);
+                final String cmd = mes.toCmd();
+                if (journal != null)
+                    journal.recordOutbound(gn, GameJournal.toGameExcept(ex), cmd);
                 Enumeration menum = v.elements();
 
                 while (menum.hasMoreElements())
@@ -2195,7 +2280,7 @@ public class SOCServer extends Server
                     {
                         // currentGameEventRecord.addMessageOut(new
                         // SOCMessageRecord(mes, "SERVER", con.getData()));
-                        con.put(mes.toCmd());
+                        con.put(cmd);
                     }
                 }
             }
@@ -2235,6 +2320,9 @@ public class SOCServer extends Server
             if (v != null)
             {
                 // D.ebugPrintln("M2GE - "+mes);
+                final String cmd = mes.toCmd();
+                if (journal != null)
+                    journal.recordOutbound(gn, GameJournal.toGameExcept(ex), cmd);
                 Enumeration menum = v.elements();
 
                 while (menum.hasMoreElements())
@@ -2245,7 +2333,7 @@ public class SOCServer extends Server
                     {
                         // currentGameEventRecord.addMessageOut(new
                         // SOCMessageRecord(mes, "SERVER", con.getData()));
-                        con.put(mes.toCmd());
+                        con.put(cmd);
                     }
                 }
             }
@@ -2552,6 +2640,12 @@ public class SOCServer extends Server
      * {@link Games#VERSION_FOR_UNJOINABLE}). Older clients won't be sent the
      * game names they can't join.
      *<P>
+     * The entire list is built once per client version and kept until a game
+     * is created or deleted, see {@link GameListAtServer#getGameListCmd(int)}.
+     * In between, a connecting client is sent the kept message, and clients
+     * already connected are sent only the changed games, as NEWGAME or
+     * DELETEGAME.
+     *<P>
      * <b>Locks:</b> Calls {@link GameListAtServer#takeMonitor()} /
      * releaseMonitor
      * 
@@ -2613,6 +2707,18 @@ public class SOCServer extends Server
          * they see it in the list, trying to join that game will create a new
          * empty game with that name.
          */
+        if (!alreadySent)
+        {
+            final String cmd = gameList.getGameListCmd(cliVers);
+            if (cmd != null)
+            {
+                gameList.releaseMonitor();
+                c.put(cmd);
+
+                return; // <---- Early return: Sent the list built already ----
+            }
+        }
+        final int gaListRevision = gameList.getGameListRevision();
         Enumeration gaEnum = gameList.getGamesData();
         gameList.releaseMonitor();
 
@@ -2663,11 +2769,15 @@ public class SOCServer extends Server
 
             if (!alreadySent)
             {
-                // send the full list as 1 message
+                // send the full list as 1 message,
+                // and keep it for the next client of this version
+                final String cmd;
                 if (cliVers >= NewGameWithOptions.VERSION_FOR_NEWGAMEWITHOPTIONS)
-                    c.put(GamesWithOptions.toCmd(gl));
+                    cmd = GamesWithOptions.toCmd(gl);
                 else
-                    c.put(Games.toCmd(gl));
+                    cmd = Games.toCmd(gl);
+                gameList.putGameListCmd(cliVers, gaListRevision, cmd);
+                c.put(cmd);
             }
             else
             {
@@ -2952,6 +3062,9 @@ public class SOCServer extends Server
             // D.ebugPrintln(c.getData()+" - "+mes);
             if (mes != null)
             {
+                if (journal != null)
+                    journal.recordInbound(mes, (String) c.getData(), s);
+
                 switch (mes.getType())
                 {
 
@@ -3595,6 +3708,12 @@ public class SOCServer extends Server
         {
         }
 
+        if (journal != null)
+        {
+            journal.stopJournal();
+            journal = null;
+        }
+
         super.stopServer();
     }
 
@@ -5433,7 +5552,7 @@ public class SOCServer extends Server
         if (robotSeats == null)
         {
             // shuffle the indexes to distribute load
-            robotIndexes = robotShuffleForJoin();
+            robotIndexes = robotShuffleForJoin(ga);
         }
         else
         {
@@ -6129,7 +6248,7 @@ public class SOCServer extends Server
             if (ga != null)
             {
                 final String gaName = ga.getName();
-                if (ga.isGameOptionSet("NT"))
+                if (ga.getGameOptionSet().isSet(GameOptionSet.NT))
                 {
                     messageToPlayer(c, gaName,
                             "Trading is not allowed in this game.");
@@ -9029,6 +9148,8 @@ public class SOCServer extends Server
             return; // <---- Early return: reset failed ----
         }
         Game reGame = reBoard.newGame;
+        if (journal != null)
+            journal.recordSeed(gaName, reGame.getRandomSeed());
 
         // Announce who asked for this reset
         {
@@ -9303,8 +9424,11 @@ public class SOCServer extends Server
     }
 
     /**
-     * record events that happen during the game
+     * record events that happen during the game, as
+     * {@link GameJournal#EVENT} records if the {@link GameJournal} is on.
      * 
+     * @param mes
+     *            the message which caused the event, or null; unused
      * @param gameName
      *            the name of the game
      * @param event
@@ -9312,22 +9436,8 @@ public class SOCServer extends Server
      */
     protected void recordGameEvent(Message mes, String gameName, String event)
     {
-        FileWriter fw = (FileWriter) gameDataFiles.get(gameName);
-        if (fw != null)
-        {
-            try
-            {
-                fw
-                        .write((mes == null ? "" : mes.toCmd()) + ": " + event
-                                + "\n");
-                // D.ebugPrintln("WROTE |"+event+"|");
-            }
-            catch (Exception e)
-            {
-                D.ebugPrintln(e.toString());
-                D.ebugPrintln("Unable to write to disk.");
-            }
-        }
+        if (journal != null)
+            journal.recordEvent(gameName, event);
     }
 
     /**
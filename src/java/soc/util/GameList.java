@@ -20,6 +20,7 @@ package soc.util;
 import soc.disableDebug.D;
 import soc.game.Game;
 import soc.game.GameOption;
+import soc.game.GameOptionSet;
 import soc.message.Games;
 
 import java.util.Enumeration;
@@ -278,6 +279,24 @@ public class GameList
             return info.parseOptsStr();
     }
 
+    /**
+     * Get a game's options as a {@link GameOptionSet}, parsing them if needed.
+     * Options are parsed only once per game, no matter how often this is called.
+     * Should not be called at client before any updates to "known options" are received from server.
+     * @param   gaName  game name
+     * @return the game options, or {@link GameOptionSet#EMPTY} if none, or null if no such game
+     * @see #parseGameOptions(String)
+     * @since 1.1.09
+     */
+    public GameOptionSet getGameOptionSet(String gaName)
+    {
+        GameInfo info = (GameInfo) gameInfo.get(gaName);
+        if (info == null)
+            return null;
+        else
+            return info.getOptionSet();
+    }
+
     /**
      * does this game exist in our list?
      * @param   gaName  the name of the game
@@ -493,6 +512,12 @@ public class GameList
         public String optsStr;  // or null
         public boolean canJoin;
 
+        /**
+         * Parsed options, or null if not yet parsed; see {@link #getOptionSet()}.
+         * @since 1.1.09
+         */
+        private GameOptionSet optSet;
+
         /**
          * Constructor: gameOpts is null or contains game option objects
          * @param canJoinGame can we join this game?
@@ -505,6 +530,19 @@ public class GameList
             canJoin = canJoinGame;
         }
 
+        /**
+         * Constructor: game options already parsed, such as a new game's
+         * {@link Game#getGameOptionSet()} at the server.
+         * @param canJoinGame can we join this game?
+         * @param gameOptSet the game's options; not null, may be {@link GameOptionSet#EMPTY}
+         * @since 1.1.09
+         */
+        public GameInfo (boolean canJoinGame, GameOptionSet gameOptSet)
+        {
+            this(canJoinGame, gameOptSet.getOptions());
+            optSet = gameOptSet;
+        }
+
         /**
          * Constructor: gameOptsStr is null or unparsed game options
          * @param canJoinGame can we join this game?
@@ -530,9 +568,28 @@ public class GameList
                 return null;
             else
             {
-                opts = GameOption.parseOptionsToHash(optsStr);
-                return opts;
+                return getOptionSet().getOptions();
+            }
+        }
+
+        /**
+         * Get the parsed options, parsing optsStr only on the first call.
+         * @return the options; {@link GameOptionSet#EMPTY} if none
+         * @since 1.1.09
+         */
+        public synchronized GameOptionSet getOptionSet()
+        {
+            if (optSet == null)
+            {
+                if (opts != null)
+                {
+                    optSet = new GameOptionSet(opts);
+                } else {
+                    optSet = GameOptionSet.parse(optsStr);
+                    opts = optSet.getOptions();
+                }
             }
+            return optSet;
         }
 
         public void finalize()
@@ -542,6 +599,7 @@ public class GameList
                 opts.clear();
                 opts = null;
             }
+            optSet = null;
         }
     }
 }
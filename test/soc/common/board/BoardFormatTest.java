@@ -0,0 +1,280 @@
+package soc.common.board;
+
+import java.util.Arrays;
+import java.util.Iterator;
+
+import soc.common.board.hexes.DesertHex;
+import soc.common.board.hexes.DiscoveryHex;
+import soc.common.board.hexes.Hex;
+import soc.common.board.hexes.NoneHex;
+import soc.common.board.hexes.RandomHex;
+import soc.common.board.hexes.ResourceHex;
+import soc.common.board.hexes.SeaHex;
+import soc.common.board.hexes.VolcanoHex;
+import soc.common.board.ports.FivetoTwoJunglePort;
+import soc.common.board.ports.FourToOnePort;
+import soc.common.board.ports.Port;
+import soc.common.board.ports.PortList;
+import soc.common.board.ports.RandomPort;
+import soc.common.board.ports.ThreeToOnePort;
+import soc.common.board.ports.TwoToOneResourcePort;
+import soc.common.board.resources.Clay;
+import soc.common.board.resources.Diamond;
+import soc.common.board.resources.Gold;
+import soc.common.board.resources.Ore;
+import soc.common.board.resources.Sheep;
+import soc.common.board.resources.Timber;
+import soc.common.board.resources.Wheat;
+import soc.common.board.territories.Territory;
+import soc.common.board.territories.TerritoryImpl;
+import soc.common.board.territories.TerritoryList;
+
+import com.google.gwt.junit.client.GWTTestCase;
+
+public class BoardFormatTest extends GWTTestCase
+{
+    private static final int WIDTH = 5;
+    private static final int HEIGHT = 4;
+
+    @Override
+    public String getModuleName()
+    {
+        return "soc.common.OSCommon";
+    }
+
+    /*
+     * Returns a board with every kind of hex and port, a mainland with ports
+     * and a bonus island without
+     */
+    private static Board createBoard()
+    {
+        TerritoryImpl mainland = new TerritoryImpl().setMainland(true);
+        mainland.setName("Main land");
+        mainland.getHexes().add(new ResourceHex(new Sheep()));
+        mainland.getHexes().add(new SeaHex().setPort(new ThreeToOnePort()));
+        mainland.getChits().add(new Chit(8));
+        mainland.getChits().add(new Chit(3));
+        PortList ports = new PortList();
+        ports.add(new TwoToOneResourcePort(new Clay()));
+        ports.add(new RandomPort());
+        mainland.setPorts(ports);
+
+        TerritoryImpl island = new TerritoryImpl();
+        island.setID(1);
+        island.setName("Island\twith \\ odd_name");
+        island.setIsland(true);
+        island.setBonus(true);
+
+        TerritoryList territories = new TerritoryList();
+        territories.add(mainland);
+        territories.add(island);
+
+        Hex[] hexes = {
+                new NoneHex(),
+                new SeaHex().setPort(new ThreeToOnePort()
+                        .setRotationPosition(RotationPosition.DEG0)),
+                new SeaHex().setPort(new FourToOnePort()
+                        .setRotationPosition(RotationPosition.DEG60)),
+                new SeaHex().setPort(new TwoToOneResourcePort(new Ore())
+                        .setRotationPosition(RotationPosition.DEG120)),
+                new SeaHex().setPort(new RandomPort()
+                        .setRotationPosition(RotationPosition.DEG180)),
+                new SeaHex().setPort(new FivetoTwoJunglePort()
+                        .setRotationPosition(RotationPosition.DEG240)),
+                new SeaHex().setPort(new ThreeToOnePort()
+                        .setRotationPosition(RotationPosition.DEG300)),
+                new SeaHex(),
+                new DesertHex().setTerritory(mainland),
+                new RandomHex().setTerritory(mainland),
+                new DiscoveryHex().setTerritory(island),
+                new ResourceHex(new Timber()).setChit(new Chit(2)),
+                new ResourceHex(new Wheat()).setChit(new Chit(12)),
+                new ResourceHex(new Ore()).setChit(new Chit(6)),
+                new ResourceHex(new Clay()).setChit(new Chit(8)),
+                new ResourceHex(new Sheep()).setChit(new Chit(9)),
+                new ResourceHex(new Diamond()).setChit(new Chit(10)),
+                new ResourceHex(new Gold()).setChit(new Chit(11))
+                        .setTerritory(island),
+                new ResourceHex(new Wheat()),
+                new VolcanoHex().setChit(new Chit(4)).setTerritory(island) };
+
+        HexGrid grid = new HexGrid(WIDTH, HEIGHT);
+        for (int i = 0; i < hexes.length; i++)
+            grid.add(hexes[i].setLocation(new HexLocation(i % WIDTH, i
+                    / WIDTH)));
+
+        return new Board(grid, territories).setBoardSettings(new BoardSettings()
+                .setId("board-1").setName("All kinds").setDesigner("")
+                .setMinPlayers(2).setMaxPlayers(6)
+                .setMaximumCardsInHandWhenSeven(9).setVpToWin(13));
+    }
+
+    public void testBinaryRoundTrip()
+    {
+        byte[] bytes = BoardFormat.toBytes(createBoard());
+        Board board = BoardFormat.fromBytes(bytes);
+
+        assertBoard(board);
+        assertTrue(Arrays.equals(bytes, BoardFormat.toBytes(board)));
+    }
+
+    public void testTextRoundTrip()
+    {
+        String text = BoardFormat.toText(createBoard());
+        Board board = BoardFormat.fromText(text);
+
+        assertBoard(board);
+        assertEquals(text, BoardFormat.toText(board));
+        assertTrue(Arrays.equals(BoardFormat.toBytes(createBoard()),
+                BoardFormat.toBytes(board)));
+    }
+
+    public void testReadSettings()
+    {
+        BoardSettings settings = BoardFormat.readSettings(BoardFormat
+                .toBytes(createBoard()));
+
+        assertEquals("board-1", settings.getId());
+        assertEquals("All kinds", settings.getName());
+        assertEquals("", settings.getDesigner());
+        assertEquals(2, settings.getMinPlayers());
+        assertEquals(6, settings.getMaxPlayers());
+        assertEquals(9, settings.getMaximumCardsInHandWhenSeven());
+        assertEquals(13, settings.getVpToWin());
+    }
+
+    public void testVersioning()
+    {
+        String text = BoardFormat.toText(createBoard());
+        String prefix = "OSB " + BoardFormat.VERSION;
+        assertTrue(text.startsWith(prefix));
+
+        // Older versions are read
+        if (BoardFormat.VERSION > 1)
+            assertBoard(BoardFormat.fromText("OSB 1"
+                    + text.substring(prefix.length())));
+
+        try
+        {
+            BoardFormat.fromText("OSB " + (BoardFormat.VERSION + 1)
+                    + text.substring(prefix.length()));
+            fail("A newer version should not be read");
+        }
+        catch (IllegalArgumentException e)
+        {
+        }
+
+        byte[] bytes = BoardFormat.toBytes(createBoard());
+        bytes[1] = 'X';
+        try
+        {
+            BoardFormat.readSettings(bytes);
+            fail("A board without magic should not be read");
+        }
+        catch (IllegalArgumentException e)
+        {
+        }
+    }
+
+    private static void assertBoard(Board board)
+    {
+        HexGrid hexes = board.getHexes();
+        assertEquals(WIDTH, hexes.getWidth());
+        assertEquals(HEIGHT, hexes.getHeight());
+        for (int h = 0; h < HEIGHT; h++)
+            for (int w = 0; w < WIDTH; w++)
+                assertEquals(new HexLocation(w, h), hexes.get(w, h)
+                        .getLocation());
+
+        assertTrue(hexes.get(0, 0) instanceof NoneHex);
+        assertPort(hexes.get(1, 0), ThreeToOnePort.class, RotationPosition.DEG0);
+        assertPort(hexes.get(2, 0), FourToOnePort.class, RotationPosition.DEG60);
+        assertPort(hexes.get(3, 0), TwoToOneResourcePort.class,
+                RotationPosition.DEG120);
+        assertTrue(((SeaHex) hexes.get(3, 0)).getPort().getResource() instanceof Ore);
+        assertPort(hexes.get(4, 0), RandomPort.class, RotationPosition.DEG180);
+        assertPort(hexes.get(0, 1), FivetoTwoJunglePort.class,
+                RotationPosition.DEG240);
+        assertPort(hexes.get(1, 1), ThreeToOnePort.class,
+                RotationPosition.DEG300);
+        assertNull(((SeaHex) hexes.get(2, 1)).getPort());
+        assertTrue(hexes.get(3, 1) instanceof DesertHex);
+        assertTrue(hexes.get(4, 1) instanceof RandomHex);
+        assertTrue(hexes.get(0, 2) instanceof DiscoveryHex);
+
+        assertResource(hexes.get(1, 2), Timber.class, 2);
+        assertResource(hexes.get(2, 2), Wheat.class, 12);
+        assertResource(hexes.get(3, 2), Ore.class, 6);
+        assertResource(hexes.get(4, 2), Clay.class, 8);
+        assertResource(hexes.get(0, 3), Sheep.class, 9);
+        assertResource(hexes.get(1, 3), Diamond.class, 10);
+        assertResource(hexes.get(2, 3), Gold.class, 11);
+        assertResource(hexes.get(3, 3), Wheat.class, 0);
+        assertTrue(hexes.get(4, 3) instanceof VolcanoHex);
+        assertEquals(4, ((VolcanoHex) hexes.get(4, 3)).getChit().getNumber());
+
+        // Territories
+        TerritoryList territories = board.getTerritories();
+        assertEquals(2, territories.size());
+        Territory mainland = territories.findByID(0);
+        Territory island = territories.findByID(1);
+        assertEquals("Main land", mainland.getName());
+        assertTrue(mainland.isMainland());
+        assertFalse(mainland.isIsland());
+        assertFalse(mainland.isBonus());
+        assertEquals("Island\twith \\ odd_name", island.getName());
+        assertFalse(island.isMainland());
+        assertTrue(island.isIsland());
+        assertTrue(island.isBonus());
+
+        assertSame(mainland, hexes.get(3, 1).getTerritory());
+        assertSame(mainland, hexes.get(4, 1).getTerritory());
+        assertSame(island, hexes.get(0, 2).getTerritory());
+        assertSame(island, hexes.get(2, 3).getTerritory());
+        assertSame(island, hexes.get(4, 3).getTerritory());
+        assertNull(hexes.get(1, 2).getTerritory());
+
+        assertEquals(2, mainland.getHexes().size());
+        Iterator<Hex> mainlandHexes = mainland.getHexes().iterator();
+        assertResource(mainlandHexes.next(), Sheep.class, 0);
+        assertTrue(((SeaHex) mainlandHexes.next()).getPort() instanceof ThreeToOnePort);
+        assertEquals(2, mainland.getChits().size());
+        assertEquals(8, mainland.getChits().get(0).getNumber());
+        assertEquals(3, mainland.getChits().get(1).getNumber());
+
+        // The 4:1 port a port list starts with is not stored, but is there
+        PortList ports = mainland.getPorts();
+        assertEquals(3, ports.size());
+        Iterator<Port> i = ports.iterator();
+        assertTrue(i.next() instanceof FourToOnePort);
+        Port port = i.next();
+        assertTrue(port instanceof TwoToOneResourcePort);
+        assertTrue(port.getResource() instanceof Clay);
+        assertTrue(i.next() instanceof RandomPort);
+
+        assertEquals(0, island.getHexes().size());
+        assertEquals(0, island.getChits().size());
+        assertNull(island.getPorts());
+    }
+
+    private static void assertPort(Hex hex, Class<?> type,
+            RotationPosition rotation)
+    {
+        assertTrue(hex instanceof SeaHex);
+        Port port = ((SeaHex) hex).getPort();
+        assertEquals(type, port.getClass());
+        assertEquals(rotation, port.getRotationPosition());
+        assertEquals(hex.getLocation(), port.getHexLocation());
+    }
+
+    private static void assertResource(Hex hex, Class<?> type, int chit)
+    {
+        assertEquals(ResourceHex.class, hex.getClass());
+        ResourceHex resourceHex = (ResourceHex) hex;
+        assertEquals(type, resourceHex.getResource().getClass());
+        if (chit == 0)
+            assertNull(resourceHex.getChit());
+        else
+            assertEquals(chit, resourceHex.getChit().getNumber());
+    }
+}
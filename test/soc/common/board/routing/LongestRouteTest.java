@@ -0,0 +1,256 @@
+package soc.common.board.routing;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import soc.common.board.Board;
+import soc.common.board.HexLocation;
+import soc.common.board.HexPoint;
+import soc.common.board.HexSide;
+import soc.common.board.RotationPosition;
+import soc.common.board.pieces.Road;
+import soc.common.board.pieces.Ship;
+import soc.common.board.pieces.Town;
+import soc.common.game.GamePlayer;
+import soc.common.game.GamePlayerImpl;
+import soc.common.server.data.Player;
+
+import com.google.gwt.junit.client.GWTTestCase;
+
+public class LongestRouteTest extends GWTTestCase
+{
+    // Rotations of the sides of a hex, in the order they follow each other
+    private static final RotationPosition[] AROUND = {
+            RotationPosition.DEG180, RotationPosition.DEG120,
+            RotationPosition.DEG60, RotationPosition.DEG0,
+            RotationPosition.DEG300, RotationPosition.DEG240 };
+
+    private BoardGraph graph;
+    private GamePlayer red;
+    private GamePlayer blue;
+
+    // Sides around a hex in the middle of the board. The first side is shared
+    // with a neighbouring hex.
+    private List<HexSide> ring;
+
+    // Sides around the neighbouring hex, without the shared side
+    private List<HexSide> otherRing;
+
+    // The 10 sides around both hexes, in order: the ring without the shared
+    // side, then the other ring
+    private List<HexSide> outline;
+
+    @Override
+    public String getModuleName()
+    {
+        return "soc.common.OSCommon";
+    }
+
+    @Override
+    protected void gwtSetUp()
+    {
+        // A board of sea, so roads and ships can go anywhere
+        graph = new Board(12, 12).getGraph();
+        red = createPlayer(1);
+        blue = createPlayer(2);
+
+        HexLocation hex = new HexLocation(5, 5);
+        ring = around(hex);
+        HexSide shared = ring.get(0);
+        List<HexSide> neighbourRing = around(shared.getOtherLocation(hex));
+
+        // Walk around the neighbour starting at the point where the ring ends
+        int start = neighbourRing.indexOf(shared);
+        int step = 1;
+        if (commonPoint(neighbourRing.get((start + 1) % 6), ring.get(5)) == null)
+            step = 5;
+        otherRing = new ArrayList<HexSide>();
+        for (int i = 1; i < 6; i++)
+            otherRing.add(neighbourRing.get((start + i * step) % 6));
+
+        outline = new ArrayList<HexSide>(ring.subList(1, 6));
+        outline.addAll(otherRing);
+    }
+
+    public void testLine()
+    {
+        addRoads(red, outline.subList(0, 7));
+
+        Route route = graph.getLongestRoute(red);
+        assertEquals(7, route.getLength());
+        assertNotSame(route.getStartVertex(), route.getEndVertex());
+        assertSame(red, graph.getLongestRoute(Arrays.asList(blue, red))
+                .getPlayer());
+
+        // An own town doesn't break the route
+        addTown(red, commonPoint(outline.get(2), outline.get(3)));
+        assertEquals(7, graph.getLongestRoute(red).getLength());
+    }
+
+    public void testShortRoute()
+    {
+        addRoads(red, outline.subList(0, 4));
+
+        assertEquals(4, graph.getLongestRoute(red).getLength());
+        assertNull(graph.getLongestRoute(Arrays.asList(red)));
+        assertNull(graph.getLongestRoute(blue));
+    }
+
+    public void testFork()
+    {
+        // Three branches meet where the shared side meets the ring: the
+        // shared side and the ring side next to it, two ring sides, and three
+        // sides of the other ring. Only the two longest branches count.
+        addRoads(red, Arrays.asList(ring.get(0), ring.get(5), ring.get(1),
+                ring.get(2)));
+        addRoads(red, otherRing.subList(2, 5));
+
+        assertEquals(5, graph.getLongestRoute(red).getLength());
+    }
+
+    public void testLoop()
+    {
+        addRoads(red, ring);
+
+        assertEquals(6, graph.getLongestRoute(red).getLength());
+    }
+
+    public void testLoopWithTail()
+    {
+        addRoads(red, ring);
+        addRoads(red, otherRing.subList(0, 2));
+
+        // Down the tail, then all around the loop
+        assertEquals(8, graph.getLongestRoute(red).getLength());
+    }
+
+    public void testTwoLoops()
+    {
+        addRoads(red, ring);
+        addRoads(red, otherRing);
+
+        // Every side once: from one end of the shared side around one hex,
+        // over the shared side and around the other hex
+        assertEquals(11, graph.getLongestRoute(red).getLength());
+    }
+
+    public void testOpponentTownBreaksRoute()
+    {
+        addRoads(red, outline.subList(0, 7));
+        addTown(blue, commonPoint(outline.get(2), outline.get(3)));
+
+        assertEquals(4, graph.getLongestRoute(red).getLength());
+    }
+
+    public void testOpponentTownOnLoop()
+    {
+        addRoads(red, ring);
+        addTown(blue, commonPoint(ring.get(2), ring.get(3)));
+
+        // The loop becomes a line ending at both sides of the town
+        Route route = graph.getLongestRoute(red);
+        assertEquals(6, route.getLength());
+        assertNotSame(route.getStartVertex(), route.getEndVertex());
+    }
+
+    public void testShipRoadSwitch()
+    {
+        addRoads(red, outline.subList(0, 4));
+        addShips(red, outline.subList(4, 8));
+
+        // Ships and roads only link at a town of their own
+        assertEquals(4, graph.getLongestRoute(red).getLength());
+
+        addTown(red, commonPoint(outline.get(3), outline.get(4)));
+        assertEquals(8, graph.getLongestRoute(red).getLength());
+    }
+
+    public void testShipRoadSwitchAtOpponentTown()
+    {
+        addRoads(red, outline.subList(0, 4));
+        addShips(red, outline.subList(4, 8));
+        addTown(blue, commonPoint(outline.get(3), outline.get(4)));
+
+        assertEquals(4, graph.getLongestRoute(red).getLength());
+    }
+
+    public void testTie()
+    {
+        addRoads(red, outline.subList(0, 5));
+        addRoads(blue, otherRing);
+
+        // The player listed first keeps the longest road
+        assertSame(red, graph.getLongestRoute(Arrays.asList(red, blue))
+                .getPlayer());
+        assertSame(blue, graph.getLongestRoute(Arrays.asList(blue, red))
+                .getPlayer());
+    }
+
+    private static GamePlayer createPlayer(int id)
+    {
+        GamePlayerImpl player = new GamePlayerImpl();
+        player.setUser(new Player().setId(id).setName("Player " + id));
+        return player;
+    }
+
+    /*
+     * Returns the sides of given hex, following each other
+     */
+    private static List<HexSide> around(HexLocation hex)
+    {
+        List<HexSide> result = new ArrayList<HexSide>();
+        for (RotationPosition rotation : AROUND)
+            result.add(hex.getSideLocation(rotation));
+
+        return result;
+    }
+
+    /*
+     * Returns the point given sides meet at, or null
+     */
+    private static HexPoint commonPoint(HexSide side1, HexSide side2)
+    {
+        if (side1.getHexPoint1().equals(side2.getHexPoint1())
+                || side1.getHexPoint1().equals(side2.getHexPoint2()))
+            return side1.getHexPoint1();
+        if (side1.getHexPoint2().equals(side2.getHexPoint1())
+                || side1.getHexPoint2().equals(side2.getHexPoint2()))
+            return side1.getHexPoint2();
+
+        return null;
+    }
+
+    private void addRoads(GamePlayer player, List<HexSide> sides)
+    {
+        for (HexSide side : sides)
+        {
+            Road road = new Road();
+            road.setPlayer(player);
+            road.setSide(side);
+            graph.addRoad(road);
+            player.getBuildPieces().add(road);
+        }
+    }
+
+    private void addShips(GamePlayer player, List<HexSide> sides)
+    {
+        for (HexSide side : sides)
+        {
+            Ship ship = new Ship();
+            ship.setPlayer(player);
+            ship.setSide(side);
+            graph.addShip(ship);
+            player.getBuildPieces().add(ship);
+        }
+    }
+
+    private void addTown(GamePlayer player, HexPoint point)
+    {
+        Town town = new Town();
+        town.setPlayer(player);
+        town.setPoint(point);
+        graph.addTown(town);
+        player.getBuildPieces().add(town);
+    }
+}